@@ -17,16 +17,18 @@ import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import android.util.Log;
 
-import java.io.BufferedReader;
+import org.json.JSONException;
+
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
 
 import cz.martykan.forecastie.activities.MainActivity;
 import cz.martykan.forecastie.notifications.WeatherNotificationService;
+import cz.martykan.forecastie.utils.PerfTrace;
+import cz.martykan.forecastie.weatherapi.OpenMeteoApi;
 import cz.martykan.forecastie.weatherapi.WeatherStorage;
 import cz.martykan.forecastie.widgets.AbstractWidgetProvider;
+import okhttp3.Request;
+import okhttp3.Response;
 
 public class AlarmReceiver extends BroadcastReceiver {
 
@@ -73,7 +75,6 @@ public class AlarmReceiver extends BroadcastReceiver {
                 new GetLocationAndWeatherTask().execute();
             } else {
                 new GetWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
-                new GetLongTermWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
             }
             // Clear failed flag - tasks will set it in onPostExecute if they fail
             SharedPreferences.Editor editor =
@@ -107,6 +108,7 @@ public class AlarmReceiver extends BroadcastReceiver {
 
         @Override
         protected Void doInBackground(String... params) {
+            long start = PerfTrace.begin("fetch.background");
             try {
                 SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
                 WeatherStorage weatherStorage = new WeatherStorage(context);
@@ -119,29 +121,30 @@ public class AlarmReceiver extends BroadcastReceiver {
                     lon = Double.toString(weatherStorage.getLongitude(Constants.DEFAULT_LON));
                 }
 
-                URL url = new URL("https://api.open-meteo.com/v1/forecast?latitude=" + lat + "&longitude=" + lon + "&current_weather=true&hourly=temperature_2m,relativehumidity_2m,apparent_temperature,weathercode,pressure_msl,windspeed_10m,winddirection_10m,rain,snowfall,precipitation_probability&daily=sunrise,sunset,uv_index_max&timezone=auto&timeformat=unixtime");
-                HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
-                BufferedReader connectionBufferedReader = null;
+                String url = OpenMeteoApi.getForecastUrl(lat, lon,
+                        sp.getBoolean("extendedForecast", false)
+                                ? Constants.EXTENDED_FORECAST_DAYS : Constants.FORECAST_DAYS);
+                Request request = new Request.Builder()
+                        .url(url)
+                        .build();
+                Response response = OpenMeteoApi.getClient().newCall(request).execute();
                 try {
-                    connectionBufferedReader = new BufferedReader(new InputStreamReader(urlConnection.getInputStream()));
-                    if (urlConnection.getResponseCode() == 200) {
-                        StringBuilder result = new StringBuilder();
-                        String line;
-                        while ((line = connectionBufferedReader.readLine()) != null) {
-                            result.append(line).append("\n");
-                        }
-                        SharedPreferences.Editor editor = sp.edit();
-                        editor.putString("lastToday", result.toString());
-                        editor.apply();
+                    if (response.isSuccessful()) {
+                        // Response is written to storage while it is being parsed
+                        weatherStorage.storeForecast(response.body().source());
                         MainActivity.saveLastUpdateTime(sp);
                     } else {
                         // Connection problem
                     }
                 } finally {
-                    if (connectionBufferedReader != null) connectionBufferedReader.close();
+                    response.close();
                 }
             } catch (IOException e) {
                 // No connection
+            } catch (JSONException e) {
+                Log.e("Alarm", "Could not parse forecast", e);
+            } finally {
+                PerfTrace.end("fetch.background", start);
             }
             return null;
         }
@@ -160,57 +163,6 @@ public class AlarmReceiver extends BroadcastReceiver {
         }
     }
 
-    class GetLongTermWeatherTask extends AsyncTask<String, String, Void> {
-
-        protected void onPreExecute() {
-
-        }
-
-        @Override
-        protected Void doInBackground(String... params) {
-            try {
-                SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
-                WeatherStorage weatherStorage = new WeatherStorage(context);
-                String lat, lon;
-                if (params.length == 2) {
-                    lat = params[0];
-                    lon = params[1];
-                } else {
-                    lat = Double.toString(weatherStorage.getLatitude(Constants.DEFAULT_LAT));
-                    lon = Double.toString(weatherStorage.getLongitude(Constants.DEFAULT_LON));
-                }
-
-                URL url = new URL("https://api.open-meteo.com/v1/forecast?latitude=" + lat + "&longitude=" + lon + "&current_weather=true&hourly=temperature_2m,relativehumidity_2m,apparent_temperature,weathercode,pressure_msl,windspeed_10m,winddirection_10m,rain,snowfall,precipitation_probability&daily=sunrise,sunset,uv_index_max&timezone=auto&timeformat=unixtime");
-                HttpURLConnection urlConnection = (HttpURLConnection) url.openConnection();
-                BufferedReader connectionBufferedReader = null;
-                try {
-                    connectionBufferedReader = new BufferedReader(new InputStreamReader(urlConnection.getInputStream()));
-                    if (urlConnection.getResponseCode() == 200) {
-                        StringBuilder result = new StringBuilder();
-                        String line;
-                        while ((line = connectionBufferedReader.readLine()) != null) {
-                            result.append(line).append("\n");
-                        }
-                        SharedPreferences.Editor editor = PreferenceManager.getDefaultSharedPreferences(context).edit();
-                        editor.putString("lastLongterm", result.toString());
-                        editor.apply();
-                    } else {
-                        // Connection problem
-                    }
-                } finally {
-                    if (connectionBufferedReader != null) connectionBufferedReader.close();
-                }
-            } catch (IOException e) {
-                // No connection
-            }
-            return null;
-        }
-
-        protected void onPostExecute(Void v) {
-            // Nothing extra needed for long-term task
-        }
-    }
-
     public class GetLocationAndWeatherTask extends AsyncTask <String, String, Void> {
         private static final String TAG = "LocationAndWTask";
 
@@ -261,11 +213,9 @@ public class AlarmReceiver extends BroadcastReceiver {
             if (location != null) {
                 Log.d(TAG, String.format("Determined location: latitude %f - longitude %f", location.getLatitude(), location.getLongitude()));
                 new GetWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, String.valueOf(location.getLatitude()), String.valueOf(location.getLongitude()));
-                new GetLongTermWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR, String.valueOf(location.getLatitude()), String.valueOf(location.getLongitude()));
             } else {
                 Log.e(TAG, "Couldn't determine location. Using last known location.");
                 new GetWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
-                new GetLongTermWeatherTask().executeOnExecutor(AsyncTask.THREAD_POOL_EXECUTOR);
             }
             try {
                 locationManager.removeUpdates(locationListener);
@@ -6,4 +6,6 @@ public class Constants {
     public static final double DEFAULT_LON = 0.1275;
     public static final String DEFAULT_CITY_ID = "2643743";
     public static final int DEFAULT_ZOOM_LEVEL = 7;
+    public static final int FORECAST_DAYS = 7;
+    public static final int EXTENDED_FORECAST_DAYS = 16;
 }
@@ -4,6 +4,7 @@ import android.content.SharedPreferences;
 import android.graphics.Color;
 import android.graphics.DashPathEffect;
 import android.graphics.Paint;
+import android.os.AsyncTask;
 import android.os.Bundle;
 import android.preference.PreferenceManager;
 import android.util.Log;
@@ -13,6 +14,7 @@ import android.widget.Switch;
 import android.widget.TextView;
 
 import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
 import androidx.appcompat.widget.Toolbar;
 
 import com.db.chart.Tools;
@@ -24,26 +26,32 @@ import com.db.chart.view.ChartView;
 import com.db.chart.view.LineChartView;
 import com.google.android.material.snackbar.Snackbar;
 
-import org.json.JSONException;
-
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.List;
-import java.util.TimeZone;
 
 import cz.martykan.forecastie.R;
-import cz.martykan.forecastie.models.Weather;
-import cz.martykan.forecastie.tasks.ParseResult;
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.GraphModel;
+import cz.martykan.forecastie.utils.PerfTrace;
 import cz.martykan.forecastie.utils.UI;
-import cz.martykan.forecastie.utils.UnitConvertor;
-import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.UnitSystem;
+import cz.martykan.forecastie.weatherapi.ForecastSnapshot;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
 
 public class GraphActivity extends BaseActivity {
+    /** Forecast written by {@link ForecastSnapshot#toByteArray(Forecast)}, read from storage if missing. */
+    public static final String EXTRA_FORECAST = "forecast";
+
+    /** Minimum width of one point of a graph, more points are downsampled. */
+    private static final int MIN_POINT_WIDTH_DP = 6;
 
     private SharedPreferences sp;
+    private UnitSystem unitSystem;
 
-    private ArrayList<Weather> weatherList = new ArrayList<>();
+    private GraphModel graphModel;
+    private boolean allDays = false;
+    private boolean destroyed = false;
 
     private Paint gridPaint = new Paint() {{
         setStyle(Paint.Style.STROKE);
@@ -52,18 +60,12 @@ public class GraphActivity extends BaseActivity {
         setStrokeWidth(1);
     }};
 
-    private SimpleDateFormat dateFormat = new SimpleDateFormat("E") {{
-        setTimeZone(TimeZone.getDefault());
-    }};
-
     private String labelColor = "#000000";
     private String lineColor = "#333333";
     private String backgroundBarColor = "#000000";
 
     private boolean darkTheme = false;
 
-    private int numWeatherData = 0;
-
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         sp = PreferenceManager.getDefaultSharedPreferences(this);
@@ -87,35 +89,34 @@ public class GraphActivity extends BaseActivity {
                 theme == R.style.AppTheme_NoActionBar_Classic_Dark ||
                 theme == R.style.AppTheme_NoActionBar_Classic_Black;
 
+        allDays = sp.getString("graphsMoreDays", "off").equals("on");
         Switch graphSwitch = findViewById(R.id.graph_switch);
-        graphSwitch.setChecked(sp.getString("graphsMoreDays", "off").equals("on"));
+        graphSwitch.setChecked(allDays);
         graphSwitch.setOnCheckedChangeListener(new CompoundButton.OnCheckedChangeListener() {
             public void onCheckedChanged(CompoundButton buttonView, boolean isChecked) {
-                if (isChecked) {
-                    // show graphs for whole five-day forecast
-                    numWeatherData = weatherList.size();
-                    sp.edit().putString("graphsMoreDays", "on").apply();
-                } else {
-                    // show graphs for only two days
-                    numWeatherData = 2 * weatherList.size() / 5;
-                    sp.edit().putString("graphsMoreDays", "off").apply();
-                }
+                // show graphs for whole forecast or for only two days
+                allDays = isChecked;
+                sp.edit().putString("graphsMoreDays", isChecked ? "on" : "off").apply();
 
-                updateGraphs();
+                if (graphModel != null) {
+                    updateGraphs();
+                }
             }
         });
 
+        UnitLabels unitLabels = UnitLabels.get(this);
+        unitSystem = unitLabels.getUnitSystem();
         TextView temperatureTextView = findViewById(R.id.graph_temperature_textview);
-        temperatureTextView.setText(String.format("%s (%s)", getString(R.string.temperature), sp.getString("unit", "°C")));
+        temperatureTextView.setText(String.format("%s (%s)", getString(R.string.temperature), unitLabels.getTemperatureUnit()));
 
         TextView rainTextView = findViewById(R.id.graph_rain_textview);
-        rainTextView.setText(String.format("%s (%s)", getString(R.string.rain), sp.getString("lengthUnit", "mm")));
+        rainTextView.setText(String.format("%s (%s)", getString(R.string.rain), unitLabels.getLengthUnit()));
 
         TextView windSpeedTextView = findViewById(R.id.graph_windspeed_textview);
-        windSpeedTextView.setText(String.format("%s (%s)", getString(R.string.wind_speed), sp.getString("speedUnit", "m/s")));
+        windSpeedTextView.setText(String.format("%s (%s)", getString(R.string.wind_speed), unitLabels.getSpeedLabel()));
 
         TextView pressureTextView = findViewById(R.id.graph_pressure_textview);
-        pressureTextView.setText(String.format("%s (%s)", getString(R.string.pressure), sp.getString("pressureUnit", "hPa/mBar")));
+        pressureTextView.setText(String.format("%s (%s)", getString(R.string.pressure), unitLabels.getPressureLabel()));
 
         TextView humidityTextView = findViewById(R.id.graph_humidity_textview);
         humidityTextView.setText(String.format("%s (%s)", getString(R.string.humidity), "%"));
@@ -135,67 +136,43 @@ public class GraphActivity extends BaseActivity {
 
         gridPaint.setColor(Color.parseColor(lineColor));
 
-        String lastLongterm = sp.getString("lastLongterm", "");
-
-        if (parseLongTermJson(lastLongterm) == ParseResult.OK) {
-            if (sp.getString("graphsMoreDays", "off").equals("off")) {
-                numWeatherData = 2 * weatherList.size() / 5;
-            } else {
-                numWeatherData = weatherList.size();
-            }
+        int maxPoints = (int) (getResources().getDisplayMetrics().widthPixels
+                / Tools.fromDpToPx(MIN_POINT_WIDTH_DP));
+        new LoadGraphModelTask(maxPoints, getIntent().getByteArrayExtra(EXTRA_FORECAST)).execute();
+    }
 
-            updateGraphs();
-        } else {
-            Snackbar.make(findViewById(android.R.id.content), R.string.msg_err_parsing_json, Snackbar.LENGTH_LONG).show();
-        }
+    @Override
+    protected void onDestroy() {
+        destroyed = true;
+        super.onDestroy();
     }
 
     private void updateGraphs() {
-        temperatureGraph();
-        rainGraph();
-        windSpeedGraph();
-        pressureGraph();
-        humidityGraph();
+        GraphModel.Horizon horizon = graphModel.getHorizon(allDays);
+        temperatureGraph(horizon);
+        rainGraph(horizon);
+        windSpeedGraph(horizon);
+        pressureGraph(horizon);
+        humidityGraph(horizon);
     }
 
-    private void temperatureGraph() {
-        final LineChartView lineChartView = findViewById(R.id.graph_temperature);
-
-        float minTemp = 1000;
-        float maxTemp = -1000;
-
-        LineSet dataset = new LineSet();
-        LineSet feelsLikeDataset = new LineSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            float temperature = UnitConvertor.convertTemperature((float) weatherList.get(i).getTemperature(), sp);
-            float feelsLike = weatherList.get(i).isFeelsLikeTemperatureAvailable() ? UnitConvertor.convertTemperature(weatherList.get(i).getFeelsLikeTemperature().floatValue(), sp) : Float.MIN_VALUE;
-
-            minTemp = (float) Math.min(Math.floor(temperature), minTemp);
-            maxTemp = (float) Math.max(Math.ceil(temperature), maxTemp);
-            if (feelsLike != Float.MIN_VALUE) {
-                minTemp = (float) Math.min(Math.floor(feelsLike), minTemp);
-                maxTemp = (float) Math.max(Math.ceil(feelsLike), maxTemp);
-            }
+    private void temperatureGraph(@NonNull GraphModel.Horizon horizon) {
+        LineChartView lineChartView = findViewById(R.id.graph_temperature);
+        GraphModel.Series temperatures = horizon.getSeries(GraphModel.TEMPERATURE);
+        GraphModel.Series feelsLikeTemperatures = horizon.getSeries(GraphModel.FEELS_LIKE);
+        GraphModel.Axis axis = horizon.getTemperatureAxis();
 
-            dataset.addPoint(getDateLabel(weatherList.get(i), i), temperature);
-            if (feelsLike != Float.MIN_VALUE) {
-                feelsLikeDataset.addPoint(getDateLabel(weatherList.get(i), i), feelsLike);
-            }
-        }
+        LineSet dataset = getLineSet(temperatures);
         dataset.setSmooth(false);
         dataset.setColor(Color.parseColor("#FF5722"));
         dataset.setThickness(4);
 
+        LineSet feelsLikeDataset = getLineSet(feelsLikeTemperatures);
         feelsLikeDataset.setSmooth(false);
         feelsLikeDataset.setColor(Color.parseColor("#FFAB91")); // Lighter orange
         feelsLikeDataset.setThickness(2);
         feelsLikeDataset.setDashed(new float[]{10, 10});
 
-        int middle = Math.round(minTemp + (maxTemp - minTemp) / 2);
-        int stepSize = Math.max(1, (int) Math.ceil(Math.abs(maxTemp - minTemp) / 4));
-        int min = middle - 2 * stepSize;
-        int max = middle + 2 * stepSize;
-
         ArrayList<ChartSet> data = new ArrayList<>();
         data.add(dataset);
         if (feelsLikeDataset.size() > 0) {
@@ -203,276 +180,164 @@ public class GraphActivity extends BaseActivity {
         }
         lineChartView.reset();
         lineChartView.addData(data);
-        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, 4, 1, gridPaint);
-        lineChartView.setAxisBorderValues(min, max);
-        lineChartView.setStep(stepSize);
+        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, axis.rows, 1, gridPaint);
+        lineChartView.setAxisBorderValues(axis.min, axis.max);
+        lineChartView.setStep(axis.step);
         lineChartView.setLabelsColor(Color.parseColor(labelColor));
         lineChartView.setXAxis(false);
         lineChartView.setYAxis(false);
         lineChartView.setBorderSpacing(Tools.fromDpToPx(10));
         lineChartView.show();
 
-        BarChartView backgroundChartView = getBackgroundBarChart(R.id.graph_temperature_background, min, max, false);
+        BarChartView backgroundChartView = getBackgroundBarChart(R.id.graph_temperature_background, temperatures, axis.min, axis.max, false);
         backgroundChartView.show();
     }
 
-    private void rainGraph() {
+    private void rainGraph(@NonNull GraphModel.Horizon horizon) {
         BarChartView barChartView = findViewById(R.id.graph_rain);
-
-        float maxRain = 1;
+        GraphModel.Series rains = horizon.getSeries(GraphModel.RAIN);
+        GraphModel.Axis axis = horizon.getRainAxis();
 
         BarSet dataset = new BarSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            float rain = UnitConvertor.convertRain((float) weatherList.get(i).getRain(), sp);
-
-            maxRain = Math.max(rain, maxRain);
-
-            dataset.addBar(getDateLabel(weatherList.get(i), i), rain);
+        for (int i = 0; i < rains.size(); i++) {
+            dataset.addBar(rains.getLabel(i), rains.getValue(i));
         }
         dataset.setColor(Color.parseColor("#2196F3"));
 
-        int stepSize = 1;
-        if (maxRain > 6) {
-            maxRain = (float) Math.ceil(maxRain / 6) * 6;
-            stepSize = (int) Math.ceil(maxRain / 6);
-        } else {
-            maxRain = (float) Math.ceil(maxRain);
-        }
-        int max = (int) maxRain;
-
         ArrayList<ChartSet> data = new ArrayList<>();
         data.add(dataset);
         barChartView.reset();
         barChartView.addData(data);
-        barChartView.setGrid(ChartView.GridType.HORIZONTAL, max / stepSize, 1, gridPaint);
-        barChartView.setAxisBorderValues(0, (int) Math.ceil(maxRain));
-        barChartView.setStep(stepSize);
+        barChartView.setGrid(ChartView.GridType.HORIZONTAL, axis.rows, 1, gridPaint);
+        barChartView.setAxisBorderValues(axis.min, axis.max);
+        barChartView.setStep(axis.step);
         barChartView.setLabelsColor(Color.parseColor(labelColor));
         barChartView.setXAxis(false);
         barChartView.setYAxis(false);
         barChartView.setBorderSpacing(Tools.fromDpToPx(10));
         barChartView.show();
 
-        BarChartView backgroundChartView = getBackgroundBarChart(R.id.graph_rain_background, 0, max, true);
+        BarChartView backgroundChartView = getBackgroundBarChart(R.id.graph_rain_background, rains, axis.min, axis.max, true);
         backgroundChartView.show();
     }
 
-    private void windSpeedGraph() {
+    private void windSpeedGraph(@NonNull GraphModel.Horizon horizon) {
         LineChartView lineChartView = findViewById(R.id.graph_windspeed);
+        GraphModel.Series windSpeeds = horizon.getSeries(GraphModel.WIND_SPEED);
+        GraphModel.Axis axis = horizon.getWindSpeedAxis();
         String graphLineColor = "#efd214";
 
-        float maxWindSpeed = 1;
-
         if (darkTheme) {
             graphLineColor = "#FFF600";
         }
 
-        LineSet dataset = new LineSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            float windSpeed = (float) UnitConvertor.convertWind(weatherList.get(i).getWind(), sp);
-
-            maxWindSpeed = Math.max(windSpeed, maxWindSpeed);
-
-            dataset.addPoint(getDateLabel(weatherList.get(i), i), windSpeed);
-        }
+        LineSet dataset = getLineSet(windSpeeds);
         dataset.setSmooth(false);
         dataset.setColor(Color.parseColor(graphLineColor));
         dataset.setThickness(4);
 
-        int stepSize = 1;
-        if (maxWindSpeed > 6) {
-            maxWindSpeed = (float) Math.ceil(maxWindSpeed / 6) * 6;
-            stepSize = (int) Math.ceil(maxWindSpeed / 6);
-        } else {
-            maxWindSpeed = (float) Math.ceil(maxWindSpeed);
-        }
-        int max = (int) maxWindSpeed;
-
         ArrayList<ChartSet> data = new ArrayList<>();
         data.add(dataset);
         lineChartView.reset();
         lineChartView.addData(data);
-        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, max / stepSize, 1, gridPaint);
-        lineChartView.setAxisBorderValues(0, (int) maxWindSpeed);
-        lineChartView.setStep(stepSize);
+        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, axis.rows, 1, gridPaint);
+        lineChartView.setAxisBorderValues(axis.min, axis.max);
+        lineChartView.setStep(axis.step);
         lineChartView.setLabelsColor(Color.parseColor(labelColor));
         lineChartView.setXAxis(false);
         lineChartView.setYAxis(false);
         lineChartView.setBorderSpacing(Tools.fromDpToPx(10));
         lineChartView.show();
 
-        BarChartView barChartView = getBackgroundBarChart(R.id.graph_windspeed_background, 0, max, false);
+        BarChartView barChartView = getBackgroundBarChart(R.id.graph_windspeed_background, windSpeeds, axis.min, axis.max, false);
         barChartView.show();
     }
 
-    private void pressureGraph() {
+    private void pressureGraph(@NonNull GraphModel.Horizon horizon) {
         LineChartView lineChartView = findViewById(R.id.graph_pressure);
+        GraphModel.Series pressures = horizon.getSeries(GraphModel.PRESSURE);
+        GraphModel.Axis axis = horizon.getPressureAxis();
 
-        float minPressure = 100000;
-        float maxPressure = 0;
-
-        LineSet dataset = new LineSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            float pressure = UnitConvertor.convertPressure(weatherList.get(i).getPressure(), sp);
-
-            minPressure = (float) Math.min(Math.floor(pressure), minPressure);
-            maxPressure = (float) Math.max(Math.ceil(pressure), maxPressure);
-
-            dataset.addPoint(getDateLabel(weatherList.get(i), i), pressure);
-        }
+        LineSet dataset = getLineSet(pressures);
         dataset.setSmooth(false);
         dataset.setColor(Color.parseColor("#4CAF50"));
         dataset.setThickness(4);
 
-        int middle = Math.round(minPressure + (maxPressure - minPressure) / 2);
-        int stepSize = Math.max(1, (int) Math.ceil(Math.abs(maxPressure - minPressure) / 4));
-        int min = middle - 2 * stepSize;
-        int max = middle + 2 * stepSize;
-        int rows = 4;
-        if (Math.ceil(maxPressure) - Math.floor(minPressure) <= 3) {
-            min = (int) Math.floor(minPressure);
-            max = Math.max(min + 1, (int) Math.ceil(maxPressure));
-            rows = max - min;
-        }
-
         ArrayList<ChartSet> data = new ArrayList<>();
         data.add(dataset);
         lineChartView.reset();
         lineChartView.addData(data);
-        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, rows, 1, gridPaint);
-        lineChartView.setAxisBorderValues(min, max);
-        lineChartView.setStep(stepSize);
+        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, axis.rows, 1, gridPaint);
+        lineChartView.setAxisBorderValues(axis.min, axis.max);
+        lineChartView.setStep(axis.step);
         lineChartView.setLabelsColor(Color.parseColor(labelColor));
         lineChartView.setXAxis(false);
         lineChartView.setYAxis(false);
         lineChartView.setBorderSpacing(Tools.fromDpToPx(10));
         lineChartView.show();
 
-        BarChartView barChartView = getBackgroundBarChart(R.id.graph_pressure_background, min, max, false);
+        BarChartView barChartView = getBackgroundBarChart(R.id.graph_pressure_background, pressures, axis.min, axis.max, false);
         barChartView.show();
     }
 
-    private void humidityGraph() {
+    private void humidityGraph(@NonNull GraphModel.Horizon horizon) {
         LineChartView lineChartView = findViewById(R.id.graph_humidity);
+        GraphModel.Series humidities = horizon.getSeries(GraphModel.HUMIDITY);
+        GraphModel.Axis axis = horizon.getHumidityAxis();
 
-        float minHumidity = 100000;
-        float maxHumidity = 0;
-
-        LineSet dataset = new LineSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            float humidity = weatherList.get(i).getHumidity();
-
-            minHumidity = Math.min(humidity, minHumidity);
-            maxHumidity = Math.max(humidity, maxHumidity);
-
-            dataset.addPoint(getDateLabel(weatherList.get(i), i), humidity);
-        }
+        LineSet dataset = getLineSet(humidities);
         dataset.setSmooth(false);
         dataset.setColor(Color.parseColor("#2196F3"));
         dataset.setThickness(4);
 
-        int min = (int) minHumidity / 10 * 10;
-        int max = (int) Math.ceil(maxHumidity / 10) * 10;
-        if (min == max) {
-            max = Math.min(max + 10, 100);
-            min = Math.max(min - 10, 0);
-        }
-        int stepSize = (max - min == 100) ? 20 : 10;
-
         ArrayList<ChartSet> data = new ArrayList<>();
         data.add(dataset);
         lineChartView.reset();
         lineChartView.addData(data);
-        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, (max - min) / stepSize, 1, gridPaint);
-        lineChartView.setAxisBorderValues(min, max);
-        lineChartView.setStep(stepSize);
+        lineChartView.setGrid(ChartView.GridType.HORIZONTAL, axis.rows, 1, gridPaint);
+        lineChartView.setAxisBorderValues(axis.min, axis.max);
+        lineChartView.setStep(axis.step);
         lineChartView.setLabelsColor(Color.parseColor(labelColor));
         lineChartView.setXAxis(false);
         lineChartView.setYAxis(false);
         lineChartView.setBorderSpacing(Tools.fromDpToPx(10));
         lineChartView.show();
 
-        BarChartView barChartView = getBackgroundBarChart(R.id.graph_humidity_background, min, max, false);
+        BarChartView barChartView = getBackgroundBarChart(R.id.graph_humidity_background, humidities, axis.min, axis.max, false);
         barChartView.show();
     }
 
-    public ParseResult parseLongTermJson(String result) {
-        try {
-            List<Weather> parsedWeatherList = OpenMeteoJsonParser.convertJsonToWeatherList(result);
-            weatherList.clear();
-            weatherList.addAll(parsedWeatherList);
-        } catch (JSONException e) {
-            Log.e("JSONException Data", result);
-            e.printStackTrace();
-            return ParseResult.JSON_EXCEPTION;
-        }
-
-        return ParseResult.OK;
-    }
-
-    /**
-     * Returns a label for the dates, only one per day preferably at noon.
-     * @param weather weather entity
-     * @param i number of weather in long term forecast
-     * @return label (either short form of day in week or empty string)
-     */
-    private String getDateLabel(Weather weather, int i) {
-        String output = dateFormat.format(weather.getDate());
-
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(weather.getDate());
-        int weatherHour = cal.get(Calendar.HOUR_OF_DAY);
-
-        // label for first day if it starts after 13:00
-        if (i == 0 && weatherHour > 13) {
-            return output;
-        }
-        // label for the last day if it ends before 11:00
-        else if (i == numWeatherData - 1 && weatherHour < 11) {
-            return output;
-        }
-        // label in the middle of the day at 12:00 for all other days
-        else if (weatherHour == 12) {
-            return output;
-        }
-        // normal case: no date label
-        else {
-            return "";
+    @NonNull
+    private LineSet getLineSet(@NonNull GraphModel.Series series) {
+        LineSet dataset = new LineSet();
+        for (int i = 0; i < series.size(); i++) {
+            dataset.addPoint(series.getLabel(i), series.getValue(i));
         }
+        return dataset;
     }
 
     /**
      * Returns a background chart with alternating vertical bars for each day.
      * @param id BarChartView resource id
+     * @param series foreground chart series
      * @param min foreground chart min label
      * @param max foreground chart max label
      * @param includeLast true for foreground bar charts, false for foreground line charts
      * @return background bar chart
      */
-    private BarChartView getBackgroundBarChart(@IdRes int id, int min, int max, boolean includeLast) {
-        boolean visible = false;
-        int lastHour = 25;
-
+    private BarChartView getBackgroundBarChart(@IdRes int id, @NonNull GraphModel.Series series,
+                                               int min, int max, boolean includeLast) {
         // get label with biggest visual length
         if (getLengthAsString(min) > getLengthAsString(max)) {
             max = min;
         }
 
         BarSet barDataset = new BarSet();
-        for (int i = 0; i < numWeatherData; i++) {
-            if (i != numWeatherData - 1 || includeLast) {
+        int count = series.size();
+        for (int i = 0; i < count; i++) {
+            if (i != count - 1 || includeLast) {
                 for (int j = 0; j < 3; j++) {
-                    Calendar cal = Calendar.getInstance();
-                    cal.setTime(weatherList.get(i).getDate());
-                    int hour = cal.get(Calendar.HOUR_OF_DAY);
-
-                    // 23:00 to 0:00 new day
-                    if (hour < lastHour) {
-                        visible = !visible;
-                    }
-
-                    barDataset.addBar("", visible ? max : 0);
-                    lastHour = hour;
+                    barDataset.addBar("", series.isShaded(i) ? max : 0);
                 }
             }
         }
@@ -508,4 +373,57 @@ public class GraphActivity extends BaseActivity {
         return sum;
     }
 
+    class LoadGraphModelTask extends AsyncTask<Void, Void, GraphModel> {
+        private final WeatherStorage weatherStorage = new WeatherStorage(GraphActivity.this);
+        private final int maxPoints;
+        private final byte[] snapshot;
+
+        LoadGraphModelTask(int maxPoints, byte[] snapshot) {
+            this.maxPoints = maxPoints;
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected GraphModel doInBackground(Void... params) {
+            long start = PerfTrace.begin("graphModel");
+            try {
+                Forecast forecast = readSnapshot();
+                if (forecast == null) {
+                    forecast = weatherStorage.getLastForecast();
+                }
+                if (forecast == null) {
+                    return null;
+                }
+                return GraphModel.create(forecast, unitSystem, maxPoints);
+            } finally {
+                PerfTrace.end("graphModel", start);
+            }
+        }
+
+        private Forecast readSnapshot() {
+            if (snapshot == null) {
+                return null;
+            }
+            try {
+                return ForecastSnapshot.fromByteArray(snapshot);
+            } catch (IOException e) {
+                Log.w("GraphActivity", "Could not read handed over forecast", e);
+                return null;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(GraphModel model) {
+            if (destroyed) {
+                return;
+            }
+            if (model == null) {
+                Snackbar.make(findViewById(android.R.id.content), R.string.msg_err_parsing_json, Snackbar.LENGTH_LONG).show();
+                return;
+            }
+
+            graphModel = model;
+            updateGraphs();
+        }
+    }
 }
@@ -7,7 +7,6 @@ import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
-import android.graphics.Typeface;
 import android.location.Address;
 import android.location.Geocoder;
 import android.location.Location;
@@ -17,8 +16,10 @@ import android.net.ConnectivityManager;
 import android.net.Network;
 import android.net.NetworkCapabilities;
 import android.net.NetworkInfo;
+import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.SystemClock;
 import android.preference.PreferenceManager;
 import android.provider.Settings;
 import android.text.InputType;
@@ -26,6 +27,7 @@ import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.EditText;
 import android.widget.LinearLayout;
 import android.widget.TextView;
@@ -55,31 +57,37 @@ import java.text.DecimalFormat;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.GregorianCalendar;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
-import java.util.Map;
 
 import cz.martykan.forecastie.AlarmReceiver;
-import cz.martykan.forecastie.Constants;
 import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.adapters.DailySummaryAdapter;
 import cz.martykan.forecastie.adapters.ViewPagerAdapter;
 import cz.martykan.forecastie.adapters.WeatherRecyclerAdapter;
 import cz.martykan.forecastie.fragments.AboutDialogFragment;
 import cz.martykan.forecastie.fragments.AmbiguousLocationDialogFragment;
 import cz.martykan.forecastie.fragments.RecyclerViewFragment;
+import cz.martykan.forecastie.models.Forecast;
 import cz.martykan.forecastie.models.LongTermWeatherList;
+import cz.martykan.forecastie.models.RenderSnapshot;
 import cz.martykan.forecastie.models.Weather;
 import cz.martykan.forecastie.tasks.GenericRequestTask;
 import cz.martykan.forecastie.tasks.ParseResult;
 import cz.martykan.forecastie.tasks.TaskOutput;
 import cz.martykan.forecastie.utils.Formatting;
+import cz.martykan.forecastie.utils.PerfTrace;
 import cz.martykan.forecastie.utils.TimeUtils;
 import cz.martykan.forecastie.utils.UI;
 import cz.martykan.forecastie.utils.UnitConvertor;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.UnitSystem;
+import cz.martykan.forecastie.utils.WmoCodes;
+import cz.martykan.forecastie.weatherapi.ForecastSnapshot;
 import cz.martykan.forecastie.weatherapi.WeatherStorage;
 import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
 import cz.martykan.forecastie.widgets.AbstractWidgetProvider;
+import okio.BufferedSource;
 
 public class MainActivity extends BaseActivity implements LocationListener {
     protected static final int MY_PERMISSIONS_ACCESS_FINE_LOCATION = 1;
@@ -88,12 +96,8 @@ public class MainActivity extends BaseActivity implements LocationListener {
     // Time in milliseconds; only reload weather if last update is longer ago than this value
     private static final int NO_UPDATE_REQUIRED_THRESHOLD = 300000;
 
-    private static Map<String, Integer> speedUnits = new HashMap<>(3);
-    private static Map<String, Integer> pressUnits = new HashMap<>(3);
-    private static boolean mappingsInitialised = false;
-
     @NonNull
-    private Weather todayWeather = new Weather();
+    private Weather todayWeather = new Weather.Builder().build();
 
     private TextView todayTemperature;
     private TextView todayFeelsLike;
@@ -118,6 +122,7 @@ public class MainActivity extends BaseActivity implements LocationListener {
 
     private int theme;
     private boolean widgetTransparent;
+    private boolean extendedForecast;
     private boolean destroyed = false;
     private boolean firstRun;
 
@@ -129,8 +134,12 @@ public class MainActivity extends BaseActivity implements LocationListener {
 
     private WeatherStorage weatherStorage;
 
+    /** Whether activity was already created in this process, i.e. next start isn't cold. */
+    private static boolean created = false;
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        final long createStart = SystemClock.elapsedRealtimeNanos();
         // Initialize the associated SharedPreferences file with default values
         PreferenceManager.setDefaultValues(this, R.xml.prefs, false);
 
@@ -138,6 +147,7 @@ public class MainActivity extends BaseActivity implements LocationListener {
         firstRun = prefs.getBoolean("firstRun", true);
 
         widgetTransparent = prefs.getBoolean("transparentWidget", false);
+        extendedForecast = prefs.getBoolean("extendedForecast", false);
         setTheme(theme = UI.getTheme(prefs.getString("theme", "fresh")));
         formatting = new Formatting(this);
 
@@ -172,8 +182,7 @@ public class MainActivity extends BaseActivity implements LocationListener {
         lastUpdate = findViewById(R.id.lastUpdate);
         todayIcon = findViewById(R.id.todayIcon);
         linearLayoutTapForGraphs = findViewById(R.id.linearLayout_tap_for_graphs);
-        Typeface weatherFont = Typeface.createFromAsset(this.getAssets(), "fonts/weather.ttf");
-        todayIcon.setTypeface(weatherFont);
+        todayIcon.setTypeface(Formatting.getWeatherFont(this));
 
         // Initialize viewPager
         viewPager = findViewById(R.id.viewPager);
@@ -181,13 +190,12 @@ public class MainActivity extends BaseActivity implements LocationListener {
 
         destroyed = false;
 
-        initMappings();
-
         weatherStorage = new WeatherStorage(this);
 
-        // Preload data from cache
-        preloadWeather();
+        // Show what was displayed last time, full forecast is loaded in onStart
+        showRenderSnapshot();
         updateLastUpdateTime();
+        traceStartup(createStart);
 
         // Set autoupdater
         AlarmReceiver.setRecurringAlarm(this);
@@ -234,6 +242,10 @@ public class MainActivity extends BaseActivity implements LocationListener {
         return weatherRecyclerAdapter;
     }
 
+    public DailySummaryAdapter getDailySummaryAdapter() {
+        return new DailySummaryAdapter(longTermWeatherList.getLaterDays());
+    }
+
     @Override
     public void onStart() {
         super.onStart();
@@ -252,10 +264,8 @@ public class MainActivity extends BaseActivity implements LocationListener {
             finish();
             overridePendingTransition(0, 0);
             startActivity(getIntent());
-        } else if (shouldUpdate() && isNetworkAvailable()) {
-            getTodayWeather();
-            getLongTermWeather();
-            getTodayUVIndex();
+        } else if ((extendedForecastChanged() || shouldUpdate()) && isNetworkAvailable()) {
+            getWeather();
         }
         if (firstRun) {
             prefs.edit().putBoolean("firstRun",false).commit();
@@ -277,40 +287,59 @@ public class MainActivity extends BaseActivity implements LocationListener {
     }
 
     private void preloadWeather() {
-        Weather lastToday = this.weatherStorage.getLastToday();
-        if (lastToday != null) {
-            this.todayWeather = lastToday;
+        new PreloadWeatherTask().execute();
+    }
 
-            updateTodayWeatherUI();
-            updateLastUpdateTime();
+    private void showRenderSnapshot() {
+        RenderSnapshot snapshot = RenderSnapshot.read(prefs);
+        if (snapshot == null) {
+            return;
         }
 
-        Double lastUviToday = weatherStorage.getLastUviToday();
-        if (lastUviToday != null) {
-            todayWeather.setUvIndex(lastUviToday);
-            updateUVIndexUI();
+        ActionBar actionBar = getSupportActionBar();
+        if (actionBar != null) {
+            actionBar.setTitle(snapshot.getTitle());
         }
-
-        List<Weather> lastLongTerm = this.weatherStorage.getLastLongTerm();
-        if (lastLongTerm != null && !lastLongTerm.isEmpty()) {
-            longTermWeatherList.clear();
-            longTermWeatherList.addAll(lastLongTerm);
-            updateLongTermWeatherUI();
+        todayTemperature.setText(snapshot.getTemperature());
+        if (snapshot.getFeelsLike() != null) {
+            todayFeelsLike.setText(snapshot.getFeelsLike());
+            todayFeelsLike.setVisibility(View.VISIBLE);
+        } else {
+            todayFeelsLike.setVisibility(View.GONE);
         }
+        todayDescription.setText(snapshot.getDescription());
+        todayWind.setText(snapshot.getWind());
+        todayPressure.setText(snapshot.getPressure());
+        todayHumidity.setText(snapshot.getHumidity());
+        todaySunrise.setText(snapshot.getSunrise());
+        todaySunset.setText(snapshot.getSunset());
+        todayUvIndex.setText(snapshot.getUvIndex());
+        todayIcon.setText(formatting.getWeatherIcon(snapshot.getWeatherCode(), snapshot.isDayTime()));
     }
 
-    private void getTodayUVIndex() {
-        double latitude = weatherStorage.getLatitude(Constants.DEFAULT_LAT);
-        double longitude = weatherStorage.getLongitude(Constants.DEFAULT_LON);
-        new TodayUVITask(this, this, progressDialog).execute("coords", Double.toString(latitude), Double.toString(longitude));
-    }
-
-    private void getTodayWeather() {
-        new TodayWeatherTask(this, this, progressDialog).execute();
-    }
-
-    private void getLongTermWeather() {
-        new LongTermWeatherTask(this, this, progressDialog).execute();
+    /** Remember displayed texts so they can be shown on next start immediately. */
+    private void saveRenderSnapshot() {
+        ActionBar actionBar = getSupportActionBar();
+        CharSequence title = actionBar != null ? actionBar.getTitle() : null;
+        new RenderSnapshot(
+                title != null ? title.toString() : "",
+                todayTemperature.getText().toString(),
+                todayFeelsLike.getVisibility() == View.VISIBLE ? todayFeelsLike.getText().toString() : null,
+                todayDescription.getText().toString(),
+                todayWind.getText().toString(),
+                todayPressure.getText().toString(),
+                todayHumidity.getText().toString(),
+                todaySunrise.getText().toString(),
+                todaySunset.getText().toString(),
+                todayUvIndex.getText().toString(),
+                todayWeather.getWeatherCode(),
+                TimeUtils.isDayTime(todayWeather, Calendar.getInstance())
+        ).save(prefs);
+    }
+
+    /** Fetch forecast once, today, UV index and long term weather are all taken from it. */
+    private void getWeather() {
+        new WeatherTask(this, this, progressDialog).execute();
     }
 
     private void searchCities() {
@@ -348,33 +377,20 @@ public class MainActivity extends BaseActivity implements LocationListener {
         new AboutDialogFragment().show(getSupportFragmentManager(), null);
     }
 
-    private ParseResult parseTodayJson(String result) {
+    private ParseResult parseWeatherResponse(BufferedSource source) throws IOException {
         try {
-            double weatherUvIndex = todayWeather.getUvIndex();
-            todayWeather = OpenMeteoJsonParser.convertJsonToWeather(result);
-            todayWeather.setUvIndex(weatherUvIndex);
-            todayWeather.setCity(weatherStorage.getCity());
-            todayWeather.setCountry(weatherStorage.getCountry());
-
-            weatherStorage.setLastToday(result);
-            weatherStorage.setLatitude(todayWeather.getLat());
-            weatherStorage.setLongitude(todayWeather.getLon());
-        } catch (JSONException e) {
-            Log.e("JSONException Data", result);
-            e.printStackTrace();
-            return ParseResult.JSON_EXCEPTION;
-        }
+            Forecast forecast = weatherStorage.storeForecast(source);
+            todayWeather = new Weather.Builder(weatherStorage.getLastToday(forecast))
+                    .setUvIndex(OpenMeteoJsonParser.convertForecastToUVIndex(forecast))
+                    .build();
 
-        return ParseResult.OK;
-    }
+            weatherStorage.edit()
+                    .setLatitude(todayWeather.getLat())
+                    .setLongitude(todayWeather.getLon())
+                    .apply();
 
-    private ParseResult parseTodayUVIJson(String result) {
-        try {
-            double uvi = OpenMeteoJsonParser.convertJsonToUVIndex(result);
-            todayWeather.setUvIndex(uvi);
-            weatherStorage.setLastUviToday(result);
+            longTermWeatherList.setForecast(forecast, weatherStorage.getCity(), weatherStorage.getCountry());
         } catch (JSONException e) {
-            Log.e("JSONException Data", result);
             e.printStackTrace();
             return ParseResult.JSON_EXCEPTION;
         }
@@ -403,16 +419,18 @@ public class MainActivity extends BaseActivity implements LocationListener {
         }
 
         SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(MainActivity.this);
+        UnitLabels unitLabels = UnitLabels.get(this);
+        UnitSystem unitSystem = unitLabels.getUnitSystem();
 
         // Temperature
-        float temperature = UnitConvertor.convertTemperature((float) todayWeather.getTemperature(), sp);
+        float temperature = unitSystem.getTemperature().convert((float) todayWeather.getTemperature());
         if (sp.getBoolean("temperatureInteger", false)) {
             temperature = Math.round(temperature);
         }
 
         Float feelsLikeTemperature = null;
         if (todayWeather.isFeelsLikeTemperatureAvailable()) {
-            feelsLikeTemperature = UnitConvertor.convertTemperature(todayWeather.getFeelsLikeTemperature().floatValue(), sp);
+            feelsLikeTemperature = unitSystem.getTemperature().convert((float) todayWeather.getFeelsLikeTemperature());
             if (sp.getBoolean("temperatureInteger", false)) {
                 feelsLikeTemperature = (float) Math.round(feelsLikeTemperature);
             }
@@ -422,89 +440,79 @@ public class MainActivity extends BaseActivity implements LocationListener {
         String rainString = UnitConvertor.getRainString(todayWeather.getRain(), todayWeather.getChanceOfPrecipitation(), sp);
 
         // Wind
-        double wind = UnitConvertor.convertWind(todayWeather.getWind(), sp);
+        double wind = unitSystem.getWind().convert((float) todayWeather.getWind());
 
         // Pressure
-        double pressure = UnitConvertor.convertPressure(todayWeather.getPressure(), sp);
+        double pressure = unitSystem.getPressure().convert(todayWeather.getPressure());
 
-        todayTemperature.setText(new DecimalFormat("0.#").format(temperature) + " " + sp.getString("unit", "°C"));
+        todayTemperature.setText(new DecimalFormat("0.#").format(temperature) + " " + unitLabels.getTemperatureUnit());
 
         if (feelsLikeTemperature != null) {
             todayFeelsLike.setText(getString(R.string.feels_like) + ": "
                     + new DecimalFormat("0.#").format(feelsLikeTemperature)
-                    + " " + sp.getString("unit", "°C"));
+                    + " " + unitLabels.getTemperatureUnit());
             todayFeelsLike.setVisibility(View.VISIBLE);
         } else {
             todayFeelsLike.setVisibility(View.GONE);
         }
 
-        String description = todayWeather.getDescription();
-        if (description == null || description.isEmpty()) description = "Unknown";
-        todayDescription.setText(description.substring(0, 1).toUpperCase() +
-                description.substring(1) + rainString);
+        todayDescription.setText(WmoCodes.getDescription(todayWeather.getWeatherCode(), this) + rainString);
 
-        if (sp.getString("speedUnit", "m/s").equals("bft")) {
+        if (unitLabels.isBeaufort()) {
             todayWind.setText(getString(R.string.wind) + ": " +
                     UnitConvertor.getBeaufortName((int) wind, this) +
                     (todayWeather.isWindDirectionAvailable() ? " " + getWindDirectionString(sp, this, todayWeather) : ""));
         } else {
             todayWind.setText(getString(R.string.wind) + ": " + new DecimalFormat("0.0").format(wind) + " " +
-                    localize(sp, "speedUnit", "m/s") +
+                    unitLabels.getSpeedLabel() +
                     (todayWeather.isWindDirectionAvailable() ? " " + getWindDirectionString(sp, this, todayWeather) : ""));
         }
         todayPressure.setText(getString(R.string.pressure) + ": " + new DecimalFormat("0.0").format(pressure) + " " +
-                localize(sp, "pressureUnit", "hPa"));
+                unitLabels.getPressureLabel());
         todayHumidity.setText(getString(R.string.humidity) + ": " + todayWeather.getHumidity() + " %");
 
-        if (todayWeather.getSunrise() != null) {
-            todaySunrise.setText(getString(R.string.sunrise) + ": " + timeFormat.format(todayWeather.getSunrise()));
+        if (todayWeather.getSunrise() >= 0) {
+            todaySunrise.setText(getString(R.string.sunrise) + ": " + timeFormat.format(new Date(todayWeather.getSunrise())));
         } else {
             todaySunrise.setText(getString(R.string.sunrise) + ": -");
         }
 
-        if (todayWeather.getSunset() != null) {
-            todaySunset.setText(getString(R.string.sunset) + ": " + timeFormat.format(todayWeather.getSunset()));
+        if (todayWeather.getSunset() >= 0) {
+            todaySunset.setText(getString(R.string.sunset) + ": " + timeFormat.format(new Date(todayWeather.getSunset())));
         } else {
             todaySunset.setText(getString(R.string.sunset) + ": -");
         }
 
-        todayIcon.setText(this.formatting.getWeatherIcon(todayWeather.getWeatherId(), TimeUtils.isDayTime(todayWeather, Calendar.getInstance())));
+        todayIcon.setText(this.formatting.getWeatherIcon(todayWeather.getWeatherCode(), TimeUtils.isDayTime(todayWeather, Calendar.getInstance())));
 
         linearLayoutTapForGraphs.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View view) {
-                Intent intent = new Intent(MainActivity.this, GraphActivity.class);
-                startActivity(intent);
+                openGraphs();
             }
         });
     }
 
+    /** Open graphs with the shown forecast, so they don't have to read it again. */
+    private void openGraphs() {
+        Intent intent = new Intent(MainActivity.this, GraphActivity.class);
+        Forecast forecast = longTermWeatherList.getForecast();
+        if (forecast != null) {
+            try {
+                intent.putExtra(GraphActivity.EXTRA_FORECAST, ForecastSnapshot.toByteArray(forecast));
+            } catch (IOException e) {
+                Log.w("MainActivity", "Could not hand over forecast to graphs", e);
+            }
+        }
+        startActivity(intent);
+    }
+
     private void updateUVIndexUI() {
         // UV Index
         double uvIndex = todayWeather.getUvIndex();
         todayUvIndex.setText(getString(R.string.uvindex) + ": " + uvIndex + " (" + UnitConvertor.convertUvIndexToRiskLevel(uvIndex, this) + ")");
     }
 
-    public ParseResult parseLongTermJson(String result) {
-        try {
-            List<Weather> weatherList = OpenMeteoJsonParser.convertJsonToWeatherList(result);
-            for (Weather w : weatherList) {
-                w.setCity(weatherStorage.getCity());
-                w.setCountry(weatherStorage.getCountry());
-            }
-            weatherStorage.setLastLongTerm(result);
-
-            longTermWeatherList.clear();
-            longTermWeatherList.addAll(weatherList);
-        } catch (JSONException e) {
-            Log.e("JSONException Data", result);
-            e.printStackTrace();
-            return ParseResult.JSON_EXCEPTION;
-        }
-
-        return ParseResult.OK;
-    }
-
     private void updateLongTermWeatherUI() {
         if (destroyed) {
             return;
@@ -562,6 +570,14 @@ public class MainActivity extends BaseActivity implements LocationListener {
         return activeNetworkInfo != null && activeNetworkInfo.isConnected();
     }
 
+    /** @return whether 16-day forecast was switched since the last check */
+    private boolean extendedForecastChanged() {
+        boolean selected = prefs.getBoolean("extendedForecast", false);
+        boolean changed = selected != extendedForecast;
+        extendedForecast = selected;
+        return changed;
+    }
+
     private boolean shouldUpdate() {
         long lastUpdate = PreferenceManager.getDefaultSharedPreferences(this).getLong("lastUpdate", -1);
         boolean cityChanged = PreferenceManager.getDefaultSharedPreferences(this).getBoolean("cityChanged", false);
@@ -584,8 +600,7 @@ public class MainActivity extends BaseActivity implements LocationListener {
             return true;
         }
         if (id == R.id.action_graphs) {
-            Intent intent = new Intent(MainActivity.this, GraphActivity.class);
-            startActivity(intent);
+            openGraphs();
         }
         if (id == R.id.action_search) {
             searchCities();
@@ -608,50 +623,12 @@ public class MainActivity extends BaseActivity implements LocationListener {
 
     public void refreshWeather() {
         if (isNetworkAvailable()) {
-            getTodayWeather();
-            getLongTermWeather();
-            getTodayUVIndex();
+            getWeather();
         } else {
             Snackbar.make(appView, getString(R.string.msg_connection_not_available), Snackbar.LENGTH_LONG).show();
         }
     }
 
-    public static void initMappings() {
-        if (mappingsInitialised)
-            return;
-        mappingsInitialised = true;
-        speedUnits.put("m/s", R.string.speed_unit_mps);
-        speedUnits.put("kph", R.string.speed_unit_kph);
-        speedUnits.put("mph", R.string.speed_unit_mph);
-        speedUnits.put("kn", R.string.speed_unit_kn);
-
-        pressUnits.put("hPa", R.string.pressure_unit_hpa);
-        pressUnits.put("kPa", R.string.pressure_unit_kpa);
-        pressUnits.put("mm Hg", R.string.pressure_unit_mmhg);
-        pressUnits.put("in Hg", R.string.pressure_unit_inhg);
-    }
-
-    private String localize(SharedPreferences sp, String preferenceKey, String defaultValueKey) {
-        return localize(sp, this, preferenceKey, defaultValueKey);
-    }
-
-    public static String localize(SharedPreferences sp, Context context, String preferenceKey, String defaultValueKey) {
-        String preferenceValue = sp.getString(preferenceKey, defaultValueKey);
-        String result = preferenceValue;
-        if ("speedUnit".equals(preferenceKey)) {
-            if (speedUnits.containsKey(preferenceValue)) {
-                //noinspection ConstantConditions
-                result = context.getString(speedUnits.get(preferenceValue));
-            }
-        } else if ("pressureUnit".equals(preferenceKey)) {
-            if (pressUnits.containsKey(preferenceValue)) {
-                //noinspection ConstantConditions
-                result = context.getString(pressUnits.get(preferenceValue));
-            }
-        }
-        return result;
-    }
-
     public static String getWindDirectionString(SharedPreferences sp, Context context, Weather weather) {
         try {
             if (weather.getWind() != 0) {
@@ -749,8 +726,9 @@ public class MainActivity extends BaseActivity implements LocationListener {
         Log.i("LOCATION (" + location.getProvider().toUpperCase() + ")", location.getLatitude() + ", " + location.getLongitude());
         double latitude = location.getLatitude();
         double longitude = location.getLongitude();
-        weatherStorage.setLatitude(latitude);
-        weatherStorage.setLongitude(longitude);
+        WeatherStorage.Editor locationEditor = weatherStorage.edit()
+                .setLatitude(latitude)
+                .setLongitude(longitude);
 
         // Try to get city name using Geocoder
         try {
@@ -759,12 +737,13 @@ public class MainActivity extends BaseActivity implements LocationListener {
             if (addresses != null && !addresses.isEmpty()) {
                 String cityName = addresses.get(0).getLocality();
                 String countryName = addresses.get(0).getCountryName();
-                if (cityName != null) weatherStorage.setCity(cityName);
-                if (countryName != null) weatherStorage.setCountry(countryName);
+                if (cityName != null) locationEditor.setCity(cityName);
+                if (countryName != null) locationEditor.setCountry(countryName);
             }
         } catch (IOException e) {
             Log.e("Geocoder", "Error getting city name", e);
         }
+        locationEditor.apply();
 
         refreshWeather();
     }
@@ -785,8 +764,8 @@ public class MainActivity extends BaseActivity implements LocationListener {
     }
 
 
-    class TodayWeatherTask extends GenericRequestTask {
-        public TodayWeatherTask(Context context, MainActivity activity, ProgressDialog progressDialog) {
+    class WeatherTask extends GenericRequestTask {
+        public WeatherTask(Context context, MainActivity activity, ProgressDialog progressDialog) {
             super(context, activity, progressDialog);
         }
 
@@ -803,39 +782,21 @@ public class MainActivity extends BaseActivity implements LocationListener {
         }
 
         @Override
-        protected ParseResult parseResponse(String response) {
-            return parseTodayJson(response);
+        protected ParseResult parseResponse(BufferedSource source) throws IOException {
+            return parseWeatherResponse(source);
         }
 
         @Override
         protected String getAPIName() {
-            return "weather";
+            return "forecast";
         }
 
         @Override
         protected void updateMainUI() {
             updateTodayWeatherUI();
+            updateUVIndexUI();
             updateLastUpdateTime();
-        }
-    }
-
-    class LongTermWeatherTask extends GenericRequestTask {
-        public LongTermWeatherTask(Context context, MainActivity activity, ProgressDialog progressDialog) {
-            super(context, activity, progressDialog);
-        }
-
-        @Override
-        protected ParseResult parseResponse(String response) {
-            return parseLongTermJson(response);
-        }
-
-        @Override
-        protected String getAPIName() {
-            return "forecast";
-        }
-
-        @Override
-        protected void updateMainUI() {
+            saveRenderSnapshot();
             updateLongTermWeatherUI();
         }
     }
@@ -850,9 +811,10 @@ public class MainActivity extends BaseActivity implements LocationListener {
         protected void onPreExecute() { /*Nothing*/ }
 
         @Override
-        protected ParseResult parseResponse(String response) {
+        protected ParseResult parseResponse(BufferedSource source) throws IOException {
             try {
-                JSONObject reader = new JSONObject(response);
+                // geocoding results are short, there is no need to stream them
+                JSONObject reader = new JSONObject(source.readUtf8());
                 final JSONArray results = reader.optJSONArray("results");
 
                 if (results == null || results.length() == 0) {
@@ -864,16 +826,17 @@ public class MainActivity extends BaseActivity implements LocationListener {
                     launchLocationPickerDialog(results);
                 } else {
                     JSONObject city = results.getJSONObject(0);
-                    weatherStorage.setLatitude(city.getDouble("latitude"));
-                    weatherStorage.setLongitude(city.getDouble("longitude"));
-                    weatherStorage.setCity(city.getString("name"));
+                    WeatherStorage.Editor locationEditor = weatherStorage.edit()
+                            .setLatitude(city.getDouble("latitude"))
+                            .setLongitude(city.getDouble("longitude"))
+                            .setCity(city.getString("name"));
                     if (city.has("country")) {
-                        weatherStorage.setCountry(city.getString("country"));
+                        locationEditor.setCountry(city.getString("country"));
                     }
+                    locationEditor.apply();
                 }
 
             } catch (JSONException e) {
-                Log.e("JSONException Data", response);
                 e.printStackTrace();
                 return ParseResult.JSON_EXCEPTION;
             }
@@ -907,36 +870,70 @@ public class MainActivity extends BaseActivity implements LocationListener {
                 .addToBackStack(null).commit();
     }
 
-    class TodayUVITask extends GenericRequestTask {
-        public TodayUVITask(Context context, MainActivity activity, ProgressDialog progressDialog) {
-            super(context, activity, progressDialog);
-        }
+    /** Load stored forecast in background, texts from {@link RenderSnapshot} are shown meanwhile. */
+    class PreloadWeatherTask extends AsyncTask<Void, Void, Forecast> {
+        private Weather today;
+        private String city;
+        private String country;
 
         @Override
-        protected void onPreExecute() {
-            super.onPreExecute();
-        }
-
-        @Override
-        protected ParseResult parseResponse(String response) {
-            return parseTodayUVIJson(response);
+        protected Forecast doInBackground(Void... params) {
+            long start = PerfTrace.begin("preloadWeather");
+            try {
+                Forecast forecast = weatherStorage.getLastForecast();
+                if (forecast != null) {
+                    today = new Weather.Builder(weatherStorage.getLastToday(forecast))
+                            .setUvIndex(OpenMeteoJsonParser.convertForecastToUVIndex(forecast))
+                            .build();
+                    city = weatherStorage.getCity();
+                    country = weatherStorage.getCountry();
+                }
+                return forecast;
+            } finally {
+                PerfTrace.end("preloadWeather", start);
+            }
         }
 
         @Override
-        protected String getAPIName() {
-            return "uvi";
-        }
+        protected void onPostExecute(Forecast forecast) {
+            if (forecast == null || destroyed) {
+                return;
+            }
 
-        @Override
-        protected void updateMainUI() {
+            todayWeather = today;
+            updateTodayWeatherUI();
             updateUVIndexUI();
+            updateLastUpdateTime();
+            saveRenderSnapshot();
+
+            if (forecast.getHourlyCount() > 0) {
+                longTermWeatherList.setForecast(forecast, city, country);
+                updateLongTermWeatherUI();
+            }
         }
     }
 
+    /**
+     * Record time from {@code createStart} to the first frame as "startup.cold" for the first
+     * activity in the process or "startup.warm" otherwise.
+     */
+    private void traceStartup(final long createStart) {
+        final String section = created ? "startup.warm" : "startup.cold";
+        created = true;
+        appView.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                appView.getViewTreeObserver().removeOnPreDrawListener(this);
+                PerfTrace.record(section, SystemClock.elapsedRealtimeNanos() - createStart);
+                return true;
+            }
+        });
+    }
+
     public static long saveLastUpdateTime(SharedPreferences sp) {
         Calendar now = Calendar.getInstance();
         long lastUpdate = now.getTimeInMillis();
-        sp.edit().putLong("lastUpdate", lastUpdate).commit();
+        sp.edit().putLong("lastUpdate", lastUpdate).apply();
         return lastUpdate;
     }
 
@@ -2,6 +2,8 @@ package cz.martykan.forecastie.activities;
 
 import android.Manifest;
 import android.content.Context;
+import android.content.DialogInterface;
+import android.content.Intent;
 import android.content.SharedPreferences;
 import android.content.pm.PackageManager;
 import android.content.res.Resources;
@@ -21,16 +23,20 @@ import android.view.View;
 import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
+import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.widget.Toolbar;
 import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 
 import cz.martykan.forecastie.AlarmReceiver;
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.notifications.WeatherNotificationService;
+import cz.martykan.forecastie.utils.PerfTrace;
 import cz.martykan.forecastie.utils.UI;
 
 public class SettingsActivity extends PreferenceActivity
@@ -67,6 +73,14 @@ public class SettingsActivity extends PreferenceActivity
         });
 
         addPreferencesFromResource(R.xml.prefs);
+
+        findPreference("performanceReport").setOnPreferenceClickListener(new Preference.OnPreferenceClickListener() {
+            @Override
+            public boolean onPreferenceClick(Preference preference) {
+                showPerformanceReport();
+                return true;
+            }
+        });
     }
 
     @Override
@@ -241,6 +255,40 @@ public class SettingsActivity extends PreferenceActivity
         WeatherNotificationService.start(this);
     }
 
+    /** Show percentiles recorded by {@link PerfTrace} with option to share them as json. */
+    private void showPerformanceReport() {
+        List<PerfTrace.Stats> statsList = PerfTrace.getStats();
+        StringBuilder report = new StringBuilder();
+        for (PerfTrace.Stats stats : statsList) {
+            if (report.length() > 0) {
+                report.append('\n');
+            }
+            report.append(String.format(Locale.ENGLISH,
+                    "%s (%d)\np50 %.1f ms, p95 %.1f ms, max %.1f ms",
+                    stats.getName(), stats.getCount(), stats.getP50Millis(),
+                    stats.getP95Millis(), stats.getMaxMillis()));
+        }
+
+        AlertDialog.Builder builder = new AlertDialog.Builder(this)
+                .setTitle(R.string.setting_performance_report)
+                .setPositiveButton(R.string.dialog_ok, null);
+        if (statsList.isEmpty()) {
+            builder.setMessage(R.string.performance_report_empty);
+        } else {
+            builder.setMessage(report.toString())
+                    .setNeutralButton(R.string.performance_report_export, new DialogInterface.OnClickListener() {
+                        @Override
+                        public void onClick(DialogInterface dialog, int which) {
+                            Intent intent = new Intent(Intent.ACTION_SEND)
+                                    .setType("text/plain")
+                                    .putExtra(Intent.EXTRA_TEXT, PerfTrace.toJson());
+                            startActivity(Intent.createChooser(intent, getString(R.string.setting_performance_report)));
+                        }
+                    });
+        }
+        builder.show();
+    }
+
     private void hideNotification() {
         WeatherNotificationService.stop(this);
     }
@@ -0,0 +1,124 @@
+package cz.martykan.forecastie.adapters;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.models.DailySummary;
+import cz.martykan.forecastie.utils.Formatting;
+import cz.martykan.forecastie.utils.UnitConvertor;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.UnitSystem;
+import cz.martykan.forecastie.utils.WmoCodes;
+
+/**
+ * Horizontal strip of {@link DailySummary days}. Every cell is bound from one summary, so the
+ * strip costs the same for 7 and 16 days and never touches hourly data.
+ */
+public class DailySummaryAdapter extends RecyclerView.Adapter<DailySummaryAdapter.DayViewHolder> {
+    private final List<DailySummary> days;
+    private final SimpleDateFormat dayFormat = new SimpleDateFormat("EEE d", Locale.getDefault());
+    private final DecimalFormat temperatureFormat = new DecimalFormat("0");
+    private final DecimalFormat valueFormat = new DecimalFormat("0.#");
+    private Typeface weatherFont;
+    private Formatting formatting;
+
+    public DailySummaryAdapter(@NonNull List<DailySummary> days) {
+        this.days = days;
+    }
+
+    @NonNull
+    @Override
+    public DayViewHolder onCreateViewHolder(@NonNull ViewGroup viewGroup, int i) {
+        View view = LayoutInflater.from(viewGroup.getContext())
+                .inflate(R.layout.list_daily_summary, viewGroup, false);
+        if (weatherFont == null) {
+            weatherFont = Formatting.getWeatherFont(view.getContext());
+            formatting = new Formatting(view.getContext());
+        }
+        DayViewHolder holder = new DayViewHolder(view);
+        holder.icon.setTypeface(weatherFont);
+        return holder;
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull DayViewHolder holder, int i) {
+        Context context = holder.itemView.getContext();
+        DailySummary day = days.get(i);
+        UnitLabels unitLabels = UnitLabels.get(context);
+        UnitSystem unitSystem = unitLabels.getUnitSystem();
+
+        holder.date.setText(dayFormat.format(new Date(day.getDate())));
+        holder.icon.setText(formatting.getWeatherIcon(day.getWeatherCode(), true));
+        holder.icon.setContentDescription(WmoCodes.getDescription(day.getWeatherCode(), context));
+        holder.temperature.setText(formatTemperature(unitSystem, day.getTemperatureMax())
+                + " / " + formatTemperature(unitSystem, day.getTemperatureMin()));
+
+        float precipitation = day.getPrecipitationSum();
+        if (Float.isNaN(precipitation) || precipitation <= 0) {
+            holder.precipitation.setVisibility(View.INVISIBLE);
+        } else {
+            holder.precipitation.setVisibility(View.VISIBLE);
+            holder.precipitation.setText(valueFormat.format(unitSystem.getRain().convert(precipitation))
+                    + " " + unitLabels.getLengthUnit());
+        }
+
+        float wind = day.getWindSpeedMax();
+        if (Float.isNaN(wind)) {
+            holder.wind.setText("");
+        } else if (unitLabels.isBeaufort()) {
+            holder.wind.setText(UnitConvertor.getBeaufortName((int) unitSystem.getWind().convert(wind), context));
+        } else {
+            holder.wind.setText(valueFormat.format(unitSystem.getWind().convert(wind)) + " "
+                    + unitLabels.getSpeedLabel());
+        }
+    }
+
+    @Override
+    public int getItemCount() {
+        return days.size();
+    }
+
+    /**
+     * @param temperature temperature in °C as returned by Open-Meteo
+     * @return temperature in selected units
+     */
+    @NonNull
+    private String formatTemperature(@NonNull UnitSystem unitSystem, float temperature) {
+        if (Float.isNaN(temperature)) {
+            return "-";
+        }
+        // converters take temperature in Kelvin
+        return temperatureFormat.format(unitSystem.getTemperature().convert(temperature + 273.15f)) + "°";
+    }
+
+    static class DayViewHolder extends RecyclerView.ViewHolder {
+        final TextView date;
+        final TextView icon;
+        final TextView temperature;
+        final TextView precipitation;
+        final TextView wind;
+
+        DayViewHolder(@NonNull View view) {
+            super(view);
+            date = view.findViewById(R.id.dayDate);
+            icon = view.findViewById(R.id.dayIcon);
+            temperature = view.findViewById(R.id.dayTemperature);
+            precipitation = view.findViewById(R.id.dayPrecipitation);
+            wind = view.findViewById(R.id.dayWind);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.graphics.Color;
-import android.graphics.Typeface;
 import android.preference.PreferenceManager;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -24,6 +23,8 @@ import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.Weather;
 import cz.martykan.forecastie.utils.Formatting;
 import cz.martykan.forecastie.utils.TimeUtils;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.WmoCodes;
 
 public class LocationsRecyclerAdapter extends RecyclerView.Adapter<LocationsRecyclerAdapter.LocationsViewHolder> {
     private LayoutInflater inflater;
@@ -35,6 +36,8 @@ public class LocationsRecyclerAdapter extends RecyclerView.Adapter<LocationsRecy
     private boolean decimalZeroes;
     private String temperatureUnit;
     private Formatting formatting;
+    private final DecimalFormat decimalFormat = new DecimalFormat("0.0");
+    private final DecimalFormat shortDecimalFormat = new DecimalFormat("#.#");
 
     public LocationsRecyclerAdapter(Context context, ArrayList<Weather> weatherArrayList, boolean darkTheme, boolean blackTheme) {
         this.context = context;
@@ -46,7 +49,7 @@ public class LocationsRecyclerAdapter extends RecyclerView.Adapter<LocationsRecy
 
         SharedPreferences sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
         this.decimalZeroes = sharedPreferences.getBoolean("displayDecimalZeroes", false);
-        this.temperatureUnit = sharedPreferences.getString("unit", "°C");
+        this.temperatureUnit = UnitLabels.get(context).getTemperatureUnit();
 
         this.formatting = new Formatting(context);
     }
@@ -60,18 +63,19 @@ public class LocationsRecyclerAdapter extends RecyclerView.Adapter<LocationsRecy
     @SuppressLint("SetJavaScriptEnabled")
     @Override
     public void onBindViewHolder(LocationsViewHolder holder, int position) {
-        Typeface weatherFont = Typeface.createFromAsset(context.getAssets(), "fonts/weather.ttf");
         Weather weather = weatherArrayList.get(position);
 
         holder.cityTextView.setText(String.format("%s, %s", weather.getCity(), weather.getCountry()));
         holder.descriptionTextView.setText(weather.getDescription());
-        holder.iconTextView.setText(this.formatting.getWeatherIcon(weather.getWeatherId(), TimeUtils.isDayTime(weather, Calendar.getInstance())));
-        holder.iconTextView.setTypeface(weatherFont);
+        holder.iconTextView.setText(WmoCodes.isKnown(weather.getWeatherCode())
+                ? this.formatting.getWeatherIcon(weather.getWeatherCode(), TimeUtils.isDayTime(weather, Calendar.getInstance()))
+                : "");
+        holder.iconTextView.setTypeface(Formatting.getWeatherFont(context));
 
         if (this.decimalZeroes) {
-            holder.temperatureTextView.setText(new DecimalFormat("0.0").format(weather.getTemperature()) + " " + this.temperatureUnit);
+            holder.temperatureTextView.setText(decimalFormat.format(weather.getTemperature()) + " " + this.temperatureUnit);
         } else {
-            holder.temperatureTextView.setText(new DecimalFormat("#.#").format(weather.getTemperature()) + " " + this.temperatureUnit);
+            holder.temperatureTextView.setText(shortDecimalFormat.format(weather.getTemperature()) + " " + this.temperatureUnit);
         }
 
         if (darkTheme || blackTheme) {
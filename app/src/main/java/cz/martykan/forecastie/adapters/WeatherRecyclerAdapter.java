@@ -26,10 +26,23 @@ import cz.martykan.forecastie.models.WeatherViewHolder;
 import cz.martykan.forecastie.utils.Formatting;
 import cz.martykan.forecastie.utils.TimeUtils;
 import cz.martykan.forecastie.utils.UnitConvertor;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.UnitSystem;
+import cz.martykan.forecastie.utils.WmoCodes;
 
 public class WeatherRecyclerAdapter extends RecyclerView.Adapter<WeatherViewHolder> {
     private List<Weather> itemList;
 
+    // formatters and font are created once per adapter, not for every bound row
+    private final DecimalFormat decimalFormat = new DecimalFormat("0.0");
+    private final DecimalFormat shortDecimalFormat = new DecimalFormat("#.#");
+    private final Calendar calendar = Calendar.getInstance();
+    private SimpleDateFormat dateFormat;
+    private String dateFormatPattern;
+    private String defaultDateFormat;
+    private Formatting formatting;
+    private Typeface weatherFont;
+
     public WeatherRecyclerAdapter(List<Weather> itemList) {
         this.itemList = itemList;
     }
@@ -49,12 +62,19 @@ public class WeatherRecyclerAdapter extends RecyclerView.Adapter<WeatherViewHold
 
         Context context = customViewHolder.itemView.getContext();
         SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        if (formatting == null) {
+            formatting = new Formatting(context);
+            weatherFont = Formatting.getWeatherFont(context);
+            defaultDateFormat = context.getResources().getStringArray(R.array.dateFormatsValues)[0];
+        }
 
         Weather weatherItem = itemList.get(i);
+        UnitLabels unitLabels = UnitLabels.get(context);
+        UnitSystem unitSystem = unitLabels.getUnitSystem();
 
         // Temperature
-        float temperature = UnitConvertor.convertTemperature((float) weatherItem.getTemperature(), sp);
-        float feelsLikeTemperature = weatherItem.isFeelsLikeTemperatureAvailable() ? UnitConvertor.convertTemperature(weatherItem.getFeelsLikeTemperature().floatValue(), sp) : Float.MIN_VALUE;
+        float temperature = unitSystem.getTemperature().convert((float) weatherItem.getTemperature());
+        float feelsLikeTemperature = weatherItem.isFeelsLikeTemperatureAvailable() ? unitSystem.getTemperature().convert((float) weatherItem.getFeelsLikeTemperature()) : Float.MIN_VALUE;
         if (sp.getBoolean("temperatureInteger", false)) {
             temperature = Math.round(temperature);
             feelsLikeTemperature = Math.round(feelsLikeTemperature);
@@ -64,22 +84,18 @@ public class WeatherRecyclerAdapter extends RecyclerView.Adapter<WeatherViewHold
         String rainString = UnitConvertor.getRainString(weatherItem.getRain(), weatherItem.getChanceOfPrecipitation(), sp);
 
         // Wind
-        double wind = UnitConvertor.convertWind(weatherItem.getWind(), sp);
+        double wind = unitSystem.getWind().convert((float) weatherItem.getWind());
 
         // Pressure
-        double pressure = UnitConvertor.convertPressure(weatherItem.getPressure(), sp);
+        double pressure = unitSystem.getPressure().convert(weatherItem.getPressure());
 
-        TimeZone tz = TimeZone.getDefault();
-        String defaultDateFormat = context.getResources().getStringArray(R.array.dateFormatsValues)[0];
         String dateFormat = sp.getString("dateFormat", defaultDateFormat);
         if ("custom".equals(dateFormat)) {
             dateFormat = sp.getString("dateFormatCustom", defaultDateFormat);
         }
         String dateString;
         try {
-            SimpleDateFormat resultFormat = new SimpleDateFormat(dateFormat);
-            resultFormat.setTimeZone(tz);
-            dateString = resultFormat.format(weatherItem.getDate());
+            dateString = getDateFormat(dateFormat).format(new Date(weatherItem.getDate()));
         } catch (IllegalArgumentException e) {
             dateString = context.getResources().getString(R.string.error_dateFormat);
         }
@@ -105,33 +121,29 @@ public class WeatherRecyclerAdapter extends RecyclerView.Adapter<WeatherViewHold
         }
 
         customViewHolder.itemDate.setText(dateString);
-        if (sp.getBoolean("displayDecimalZeroes", false)) {
-            customViewHolder.itemTemperature.setText(new DecimalFormat("0.0").format(temperature) + " " + sp.getString("unit", "°C"));
-            customViewHolder.itemFeelsLike.setText(context.getString(R.string.feels_like) + ": " + new DecimalFormat("0.0").format(feelsLikeTemperature) + " " + sp.getString("unit", "°C"));
-        } else {
-            customViewHolder.itemTemperature.setText(new DecimalFormat("#.#").format(temperature) + " " + sp.getString("unit", "°C"));
-            customViewHolder.itemFeelsLike.setText(context.getString(R.string.feels_like) + ": " + new DecimalFormat("#.#").format(feelsLikeTemperature) + " " + sp.getString("unit", "°C"));
-        }
+        DecimalFormat temperatureFormat = sp.getBoolean("displayDecimalZeroes", false)
+                ? decimalFormat
+                : shortDecimalFormat;
+        customViewHolder.itemTemperature.setText(temperatureFormat.format(temperature) + " " + unitLabels.getTemperatureUnit());
+        customViewHolder.itemFeelsLike.setText(context.getString(R.string.feels_like) + ": " + temperatureFormat.format(feelsLikeTemperature) + " " + unitLabels.getTemperatureUnit());
         if (!weatherItem.isFeelsLikeTemperatureAvailable()) {
             customViewHolder.itemFeelsLike.setVisibility(View.GONE);
         } else {
             customViewHolder.itemFeelsLike.setVisibility(View.VISIBLE);
         }
-        customViewHolder.itemDescription.setText(weatherItem.getDescription().substring(0, 1).toUpperCase() +
-                weatherItem.getDescription().substring(1) + rainString);
-        Typeface weatherFont = Typeface.createFromAsset(context.getAssets(), "fonts/weather.ttf");
+        customViewHolder.itemDescription.setText(WmoCodes.getDescription(weatherItem.getWeatherCode(), context) + rainString);
         customViewHolder.itemIcon.setTypeface(weatherFont);
-        customViewHolder.itemIcon.setText(this.getWeatherIcon(weatherItem, context));
-        if (sp.getString("speedUnit", "m/s").equals("bft")) {
+        customViewHolder.itemIcon.setText(this.getWeatherIcon(weatherItem));
+        if (unitLabels.isBeaufort()) {
             customViewHolder.itemyWind.setText(context.getString(R.string.wind) + ": " +
                     UnitConvertor.getBeaufortName((int) wind, context) + " " + MainActivity.getWindDirectionString(sp, context, weatherItem));
         } else {
-            customViewHolder.itemyWind.setText(context.getString(R.string.wind) + ": " + new DecimalFormat("0.0").format(wind) + " " +
-                    MainActivity.localize(sp, context, "speedUnit", "m/s")
+            customViewHolder.itemyWind.setText(context.getString(R.string.wind) + ": " + decimalFormat.format(wind) + " " +
+                    unitLabels.getSpeedLabel()
                     + " " + MainActivity.getWindDirectionString(sp, context, weatherItem));
         }
-        customViewHolder.itemPressure.setText(context.getString(R.string.pressure) + ": " + new DecimalFormat("0.0").format(pressure) + " " +
-                MainActivity.localize(sp, context, "pressureUnit", "hPa"));
+        customViewHolder.itemPressure.setText(context.getString(R.string.pressure) + ": " + decimalFormat.format(pressure) + " " +
+                unitLabels.getPressureLabel());
         customViewHolder.itemHumidity.setText(context.getString(R.string.humidity) + ": " + weatherItem.getHumidity() + " %");
     }
 
@@ -140,9 +152,25 @@ public class WeatherRecyclerAdapter extends RecyclerView.Adapter<WeatherViewHold
         return (null != itemList ? itemList.size() : 0);
     }
 
-    private String getWeatherIcon(Weather weather, Context context) {
-        Formatting formatting = new Formatting(context);
+    private String getWeatherIcon(Weather weather) {
+        calendar.setTimeInMillis(System.currentTimeMillis());
+        return formatting.getWeatherIcon(weather.getWeatherCode(), TimeUtils.isDayTime(weather, calendar));
+    }
 
-        return formatting.getWeatherIcon(weather.getWeatherId(), TimeUtils.isDayTime(weather, Calendar.getInstance()));
+    /**
+     * @param pattern pattern of {@link SimpleDateFormat}
+     * @return format of dates in the default time zone, it is created again only if
+     * {@code pattern} changed
+     * @throws IllegalArgumentException if {@code pattern} is invalid
+     */
+    @NonNull
+    private SimpleDateFormat getDateFormat(@NonNull String pattern) throws IllegalArgumentException {
+        if (!pattern.equals(dateFormatPattern)) {
+            SimpleDateFormat format = new SimpleDateFormat(pattern);
+            format.setTimeZone(TimeZone.getDefault());
+            dateFormat = format;
+            dateFormatPattern = pattern;
+        }
+        return dateFormat;
     }
 }
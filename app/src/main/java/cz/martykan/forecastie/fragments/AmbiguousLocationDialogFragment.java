@@ -99,13 +99,14 @@ public class AmbiguousLocationDialogFragment extends DialogFragment implements L
                 final double lat = cityObject.getDouble("latitude");
                 final double lon = cityObject.getDouble("longitude");
 
-                Weather weather = new Weather();
-                weather.setCity(city);
-                weather.setCityId(cityId);
-                weather.setCountry(country);
-                weather.setLat(lat);
-                weather.setLon(lon);
-                weather.setDescription(cityObject.optString("admin1", "")); // Use admin area as description
+                Weather weather = new Weather.Builder()
+                        .setCity(city)
+                        .setCityId(cityId)
+                        .setCountry(country)
+                        .setLat(lat)
+                        .setLon(lon)
+                        .setDescription(cityObject.optString("admin1", "")) // Use admin area as description
+                        .build();
 
                 weatherArrayList.add(weather);
             }
@@ -139,11 +140,13 @@ public class AmbiguousLocationDialogFragment extends DialogFragment implements L
         intent.setFlags(Intent.FLAG_ACTIVITY_SINGLE_TOP | Intent.FLAG_ACTIVITY_CLEAR_TOP);
         final Bundle bundle = new Bundle();
 
-        weatherStorage.setCityId(weather.getCityId());
-        weatherStorage.setLatitude(weather.getLat());
-        weatherStorage.setLongitude(weather.getLon());
-        weatherStorage.setCity(weather.getCity());
-        weatherStorage.setCountry(weather.getCountry());
+        weatherStorage.edit()
+                .setCityId(weather.getCityId())
+                .setLatitude(weather.getLat())
+                .setLongitude(weather.getLon())
+                .setCity(weather.getCity())
+                .setCountry(weather.getCountry())
+                .apply();
 
         bundle.putBoolean(MainActivity.SHOULD_REFRESH_FLAG, true);
         intent.putExtras(bundle);
@@ -12,6 +12,7 @@ import android.view.View;
 import android.view.ViewGroup;
 
 import cz.martykan.forecastie.activities.MainActivity;
+import cz.martykan.forecastie.adapters.DailySummaryAdapter;
 import cz.martykan.forecastie.R;
 
 public class RecyclerViewFragment extends Fragment {
@@ -40,6 +41,19 @@ public class RecyclerViewFragment extends Fragment {
         if (activity instanceof MainActivity && bundle != null && bundle.containsKey("day")) {
             MainActivity mainActivity = (MainActivity) getActivity();
             recyclerView.setAdapter(mainActivity.getAdapter(bundle.getInt("day")));
+            if (bundle.getInt("day") == 2) {
+                showDailySummaries(view, mainActivity.getDailySummaryAdapter());
+            }
         }
     }
+
+    private void showDailySummaries(View view, DailySummaryAdapter adapter) {
+        if (adapter.getItemCount() == 0)
+            return;
+
+        RecyclerView strip = view.findViewById(R.id.dailySummaryStrip);
+        strip.setLayoutManager(new LinearLayoutManager(view.getContext(), LinearLayoutManager.HORIZONTAL, false));
+        strip.setAdapter(adapter);
+        strip.setVisibility(View.VISIBLE);
+    }
 }
@@ -0,0 +1,90 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One day of the forecast as aggregated by Open-Meteo (°C, mm, wind speed in units of the API).
+ * <br/>
+ * Built from daily columns of {@link Forecast} only, so showing a day never scans its hours.
+ */
+public class DailySummary {
+    private final long date;
+    private final int weatherCode;
+    private final float temperatureMax;
+    private final float temperatureMin;
+    private final float precipitationSum;
+    private final float windSpeedMax;
+
+    public DailySummary(long date, int weatherCode, float temperatureMax,
+                        float temperatureMin, float precipitationSum, float windSpeedMax) {
+        this.date = date;
+        this.weatherCode = weatherCode;
+        this.temperatureMax = temperatureMax;
+        this.temperatureMin = temperatureMin;
+        this.precipitationSum = precipitationSum;
+        this.windSpeedMax = windSpeedMax;
+    }
+
+    /**
+     * Create summaries of days of {@code forecast} starting at {@code from} or later.
+     * @param forecast forecast with daily aggregates
+     * @param from start of the first day in milliseconds
+     * @return summaries in order of days or empty list if the forecast has no daily aggregates
+     */
+    @NonNull
+    public static List<DailySummary> create(@NonNull Forecast forecast, long from) {
+        int count = forecast.getDailyCount();
+        if (count == 0 || forecast.getDailyTime().length == 0) {
+            return Collections.emptyList();
+        }
+
+        List<DailySummary> summaries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long date = forecast.getDailyTime(i);
+            if (date < 0 || date * 1000 < from) {
+                continue;
+            }
+            summaries.add(new DailySummary(date * 1000,
+                    forecast.getDailyWeatherCode(i),
+                    forecast.getDailyTemperatureMax(i),
+                    forecast.getDailyTemperatureMin(i),
+                    forecast.getDailyPrecipitationSum(i),
+                    forecast.getDailyWindSpeedMax(i)));
+        }
+        return summaries;
+    }
+
+    /** @return start of the day in milliseconds */
+    public long getDate() {
+        return date;
+    }
+
+    /** @return WMO code of the most significant weather of the day */
+    public int getWeatherCode() {
+        return weatherCode;
+    }
+
+    /** @return maximal temperature in °C or {@link Float#NaN} if unknown */
+    public float getTemperatureMax() {
+        return temperatureMax;
+    }
+
+    /** @return minimal temperature in °C or {@link Float#NaN} if unknown */
+    public float getTemperatureMin() {
+        return temperatureMin;
+    }
+
+    /** @return sum of precipitation in mm or {@link Float#NaN} if unknown */
+    public float getPrecipitationSum() {
+        return precipitationSum;
+    }
+
+    /** @return maximal wind speed or {@link Float#NaN} if unknown */
+    public float getWindSpeedMax() {
+        return windSpeedMax;
+    }
+}
@@ -0,0 +1,457 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Forecast as returned by Open-Meteo, kept column by column in the units of the API (°C, hPa,
+ * %, Unix seconds).
+ * <br/>
+ * Columns are filled by the streaming parser and may be shorter than {@link #getHourlyCount()}
+ * if the API omitted some values; use the {@code get*(int)} accessors, which return
+ * {@link Float#NaN} (or {@code -1} for weather codes) for missing values.
+ */
+public class Forecast {
+    private static final long[] NO_TIMES = new long[0];
+    private static final float[] NO_VALUES = new float[0];
+    private static final int[] NO_CODES = new int[0];
+
+    private double latitude;
+    private double longitude;
+
+    private long currentTime = -1L;
+    private float currentTemperature = Float.NaN;
+    private int currentWeatherCode = -1;
+    private float currentWindSpeed = Float.NaN;
+    private float currentWindDirection = Float.NaN;
+
+    private long[] hourlyTime = NO_TIMES;
+    private float[] hourlyTemperature = NO_VALUES;
+    private float[] hourlyApparentTemperature = NO_VALUES;
+    private float[] hourlyHumidity = NO_VALUES;
+    private int[] hourlyWeatherCode = NO_CODES;
+    private float[] hourlyPressure = NO_VALUES;
+    private float[] hourlyWindSpeed = NO_VALUES;
+    private float[] hourlyWindDirection = NO_VALUES;
+    private float[] hourlyRain = NO_VALUES;
+    private float[] hourlyPrecipitationProbability = NO_VALUES;
+
+    private long[] minutely15Time = NO_TIMES;
+    private float[] minutely15Precipitation = NO_VALUES;
+    private float[] minutely15Temperature = NO_VALUES;
+
+    private long[] dailyTime = NO_TIMES;
+    private float[] dailyTemperatureMax = NO_VALUES;
+    private float[] dailyTemperatureMin = NO_VALUES;
+    private float[] dailyPrecipitationSum = NO_VALUES;
+    private float[] dailyWindSpeedMax = NO_VALUES;
+    private int[] dailyWeatherCode = NO_CODES;
+    private long[] dailySunrise = NO_TIMES;
+    private long[] dailySunset = NO_TIMES;
+    private float[] dailyUvIndexMax = NO_VALUES;
+
+    private SolarTable solarTable;
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    /** @return time of current conditions in Unix seconds or {@code -1} if unknown. */
+    public long getCurrentTime() {
+        return currentTime;
+    }
+
+    public void setCurrentTime(long currentTime) {
+        this.currentTime = currentTime;
+    }
+
+    public float getCurrentTemperature() {
+        return currentTemperature;
+    }
+
+    public void setCurrentTemperature(float currentTemperature) {
+        this.currentTemperature = currentTemperature;
+    }
+
+    public int getCurrentWeatherCode() {
+        return currentWeatherCode;
+    }
+
+    public void setCurrentWeatherCode(int currentWeatherCode) {
+        this.currentWeatherCode = currentWeatherCode;
+    }
+
+    public float getCurrentWindSpeed() {
+        return currentWindSpeed;
+    }
+
+    public void setCurrentWindSpeed(float currentWindSpeed) {
+        this.currentWindSpeed = currentWindSpeed;
+    }
+
+    public float getCurrentWindDirection() {
+        return currentWindDirection;
+    }
+
+    public void setCurrentWindDirection(float currentWindDirection) {
+        this.currentWindDirection = currentWindDirection;
+    }
+
+    public boolean hasCurrent() {
+        return currentTime >= 0;
+    }
+
+    public int getHourlyCount() {
+        return hourlyTime.length;
+    }
+
+    /** @return time of hour at {@code index} in Unix seconds. */
+    public long getHourlyTime(int index) {
+        return hourlyTime[index];
+    }
+
+    public float getHourlyTemperature(int index) {
+        return valueAt(hourlyTemperature, index);
+    }
+
+    public float getHourlyApparentTemperature(int index) {
+        return valueAt(hourlyApparentTemperature, index);
+    }
+
+    public float getHourlyHumidity(int index) {
+        return valueAt(hourlyHumidity, index);
+    }
+
+    public int getHourlyWeatherCode(int index) {
+        return index < hourlyWeatherCode.length ? hourlyWeatherCode[index] : -1;
+    }
+
+    public float getHourlyPressure(int index) {
+        return valueAt(hourlyPressure, index);
+    }
+
+    public float getHourlyWindSpeed(int index) {
+        return valueAt(hourlyWindSpeed, index);
+    }
+
+    public float getHourlyWindDirection(int index) {
+        return valueAt(hourlyWindDirection, index);
+    }
+
+    public float getHourlyRain(int index) {
+        return valueAt(hourlyRain, index);
+    }
+
+    /** @return chance of precipitation in percents. */
+    public float getHourlyPrecipitationProbability(int index) {
+        return valueAt(hourlyPrecipitationProbability, index);
+    }
+
+    /**
+     * Find hour which contains current conditions.
+     * @return index of the hour or {@code 0} if there is no such hour
+     */
+    public int getCurrentHourIndex() {
+        if (currentTime > 0) {
+            for (int i = 0; i < hourlyTime.length; i++) {
+                if (hourlyTime[i] == currentTime) {
+                    return i;
+                }
+            }
+        }
+        return 0;
+    }
+
+    public int getMinutely15Count() {
+        return minutely15Time.length;
+    }
+
+    /** @return end of 15 minute step at {@code index} in Unix seconds. */
+    public long getMinutely15Time(int index) {
+        return minutely15Time[index];
+    }
+
+    /** @return precipitation of 15 minutes before {@link #getMinutely15Time(int)} in mm. */
+    public float getMinutely15Precipitation(int index) {
+        return valueAt(minutely15Precipitation, index);
+    }
+
+    public float getMinutely15Temperature(int index) {
+        return valueAt(minutely15Temperature, index);
+    }
+
+    public int getDailyCount() {
+        int count = Math.max(dailyTime.length, dailySunrise.length);
+        count = Math.max(count, Math.max(dailySunset.length, dailyUvIndexMax.length));
+        count = Math.max(count, Math.max(dailyTemperatureMax.length, dailyTemperatureMin.length));
+        count = Math.max(count, Math.max(dailyPrecipitationSum.length, dailyWindSpeedMax.length));
+        return Math.max(count, dailyWeatherCode.length);
+    }
+
+    /** @return start of day at {@code index} in Unix seconds or {@code -1} if unknown. */
+    public long getDailyTime(int index) {
+        return index < dailyTime.length ? dailyTime[index] : -1L;
+    }
+
+    public float getDailyTemperatureMax(int index) {
+        return valueAt(dailyTemperatureMax, index);
+    }
+
+    public float getDailyTemperatureMin(int index) {
+        return valueAt(dailyTemperatureMin, index);
+    }
+
+    /** @return sum of precipitation of day at {@code index} in mm. */
+    public float getDailyPrecipitationSum(int index) {
+        return valueAt(dailyPrecipitationSum, index);
+    }
+
+    public float getDailyWindSpeedMax(int index) {
+        return valueAt(dailyWindSpeedMax, index);
+    }
+
+    /** @return most significant weather code of day at {@code index}. */
+    public int getDailyWeatherCode(int index) {
+        return index < dailyWeatherCode.length ? dailyWeatherCode[index] : -1;
+    }
+
+    /** @return sunrise of day at {@code index} in Unix seconds or {@code -1} if unknown. */
+    public long getDailySunrise(int index) {
+        return index < dailySunrise.length ? dailySunrise[index] : -1L;
+    }
+
+    /** @return sunset of day at {@code index} in Unix seconds or {@code -1} if unknown. */
+    public long getDailySunset(int index) {
+        return index < dailySunset.length ? dailySunset[index] : -1L;
+    }
+
+    public float getDailyUvIndexMax(int index) {
+        return valueAt(dailyUvIndexMax, index);
+    }
+
+    /** @return sunrise and sunset of all days, created once and shared by all hours */
+    @NonNull
+    public SolarTable getSolarTable() {
+        SolarTable table = solarTable;
+        if (table == null) {
+            table = new SolarTable(dailySunrise, dailySunset);
+            solarTable = table;
+        }
+        return table;
+    }
+
+    @NonNull
+    public long[] getHourlyTime() {
+        return hourlyTime;
+    }
+
+    public void setHourlyTime(@NonNull long[] hourlyTime) {
+        this.hourlyTime = hourlyTime;
+    }
+
+    @NonNull
+    public float[] getHourlyTemperature() {
+        return hourlyTemperature;
+    }
+
+    public void setHourlyTemperature(@NonNull float[] hourlyTemperature) {
+        this.hourlyTemperature = hourlyTemperature;
+    }
+
+    @NonNull
+    public float[] getHourlyApparentTemperature() {
+        return hourlyApparentTemperature;
+    }
+
+    public void setHourlyApparentTemperature(@NonNull float[] hourlyApparentTemperature) {
+        this.hourlyApparentTemperature = hourlyApparentTemperature;
+    }
+
+    @NonNull
+    public float[] getHourlyHumidity() {
+        return hourlyHumidity;
+    }
+
+    public void setHourlyHumidity(@NonNull float[] hourlyHumidity) {
+        this.hourlyHumidity = hourlyHumidity;
+    }
+
+    @NonNull
+    public int[] getHourlyWeatherCode() {
+        return hourlyWeatherCode;
+    }
+
+    public void setHourlyWeatherCode(@NonNull int[] hourlyWeatherCode) {
+        this.hourlyWeatherCode = hourlyWeatherCode;
+    }
+
+    @NonNull
+    public float[] getHourlyPressure() {
+        return hourlyPressure;
+    }
+
+    public void setHourlyPressure(@NonNull float[] hourlyPressure) {
+        this.hourlyPressure = hourlyPressure;
+    }
+
+    @NonNull
+    public float[] getHourlyWindSpeed() {
+        return hourlyWindSpeed;
+    }
+
+    public void setHourlyWindSpeed(@NonNull float[] hourlyWindSpeed) {
+        this.hourlyWindSpeed = hourlyWindSpeed;
+    }
+
+    @NonNull
+    public float[] getHourlyWindDirection() {
+        return hourlyWindDirection;
+    }
+
+    public void setHourlyWindDirection(@NonNull float[] hourlyWindDirection) {
+        this.hourlyWindDirection = hourlyWindDirection;
+    }
+
+    @NonNull
+    public float[] getHourlyRain() {
+        return hourlyRain;
+    }
+
+    public void setHourlyRain(@NonNull float[] hourlyRain) {
+        this.hourlyRain = hourlyRain;
+    }
+
+    @NonNull
+    public float[] getHourlyPrecipitationProbability() {
+        return hourlyPrecipitationProbability;
+    }
+
+    public void setHourlyPrecipitationProbability(@NonNull float[] hourlyPrecipitationProbability) {
+        this.hourlyPrecipitationProbability = hourlyPrecipitationProbability;
+    }
+
+    @NonNull
+    public long[] getMinutely15Time() {
+        return minutely15Time;
+    }
+
+    public void setMinutely15Time(@NonNull long[] minutely15Time) {
+        this.minutely15Time = minutely15Time;
+    }
+
+    @NonNull
+    public float[] getMinutely15Precipitation() {
+        return minutely15Precipitation;
+    }
+
+    public void setMinutely15Precipitation(@NonNull float[] minutely15Precipitation) {
+        this.minutely15Precipitation = minutely15Precipitation;
+    }
+
+    @NonNull
+    public float[] getMinutely15Temperature() {
+        return minutely15Temperature;
+    }
+
+    public void setMinutely15Temperature(@NonNull float[] minutely15Temperature) {
+        this.minutely15Temperature = minutely15Temperature;
+    }
+
+    @NonNull
+    public long[] getDailyTime() {
+        return dailyTime;
+    }
+
+    public void setDailyTime(@NonNull long[] dailyTime) {
+        this.dailyTime = dailyTime;
+    }
+
+    @NonNull
+    public float[] getDailyTemperatureMax() {
+        return dailyTemperatureMax;
+    }
+
+    public void setDailyTemperatureMax(@NonNull float[] dailyTemperatureMax) {
+        this.dailyTemperatureMax = dailyTemperatureMax;
+    }
+
+    @NonNull
+    public float[] getDailyTemperatureMin() {
+        return dailyTemperatureMin;
+    }
+
+    public void setDailyTemperatureMin(@NonNull float[] dailyTemperatureMin) {
+        this.dailyTemperatureMin = dailyTemperatureMin;
+    }
+
+    @NonNull
+    public float[] getDailyPrecipitationSum() {
+        return dailyPrecipitationSum;
+    }
+
+    public void setDailyPrecipitationSum(@NonNull float[] dailyPrecipitationSum) {
+        this.dailyPrecipitationSum = dailyPrecipitationSum;
+    }
+
+    @NonNull
+    public float[] getDailyWindSpeedMax() {
+        return dailyWindSpeedMax;
+    }
+
+    public void setDailyWindSpeedMax(@NonNull float[] dailyWindSpeedMax) {
+        this.dailyWindSpeedMax = dailyWindSpeedMax;
+    }
+
+    @NonNull
+    public int[] getDailyWeatherCode() {
+        return dailyWeatherCode;
+    }
+
+    public void setDailyWeatherCode(@NonNull int[] dailyWeatherCode) {
+        this.dailyWeatherCode = dailyWeatherCode;
+    }
+
+    @NonNull
+    public long[] getDailySunrise() {
+        return dailySunrise;
+    }
+
+    public void setDailySunrise(@NonNull long[] dailySunrise) {
+        this.dailySunrise = dailySunrise;
+        this.solarTable = null;
+    }
+
+    @NonNull
+    public long[] getDailySunset() {
+        return dailySunset;
+    }
+
+    public void setDailySunset(@NonNull long[] dailySunset) {
+        this.dailySunset = dailySunset;
+        this.solarTable = null;
+    }
+
+    @NonNull
+    public float[] getDailyUvIndexMax() {
+        return dailyUvIndexMax;
+    }
+
+    public void setDailyUvIndexMax(@NonNull float[] dailyUvIndexMax) {
+        this.dailyUvIndexMax = dailyUvIndexMax;
+    }
+
+    private static float valueAt(@NonNull float[] column, int index) {
+        return index < column.length ? column[index] : Float.NaN;
+    }
+}
@@ -0,0 +1,51 @@
+package cz.martykan.forecastie.models;
+
+/**
+ * Location and time of update shared by all weathers of one forecast.
+ * <br/>
+ * Every {@link Weather} built by one {@link Weather.Builder} refers to the same header until
+ * a value of the header is changed, so hours of a forecast don't repeat these values.
+ */
+public class ForecastHeader {
+    private final String city;
+    private final int cityId;
+    private final String country;
+    private final double lat;
+    private final double lon;
+    private final long lastUpdated;
+
+    ForecastHeader(String city, int cityId, String country, double lat, double lon,
+                   long lastUpdated) {
+        this.city = city;
+        this.cityId = cityId;
+        this.country = country;
+        this.lat = lat;
+        this.lon = lon;
+        this.lastUpdated = lastUpdated;
+    }
+
+    public String getCity() {
+        return city != null ? city : "";
+    }
+
+    public int getCityId() {
+        return cityId;
+    }
+
+    public String getCountry() {
+        return country != null ? country : "";
+    }
+
+    public double getLat() {
+        return lat;
+    }
+
+    public double getLon() {
+        return lon;
+    }
+
+    /** @return time of the last update in milliseconds */
+    public long getLastUpdated() {
+        return lastUpdated;
+    }
+}
@@ -0,0 +1,357 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.TimeZone;
+
+import cz.martykan.forecastie.utils.Lttb;
+import cz.martykan.forecastie.utils.UnitSystem;
+
+/**
+ * Everything graphs need to be drawn, built in background from hourly forecast columns.
+ * <br/>
+ * Values are converted into selected units in one pass per column. For both horizons (two days
+ * and the whole forecast) axis bounds are computed from all points and series are downsampled
+ * with {@link Lttb} to at most as many points as fit on the screen, together with their date
+ * labels. Switching between horizons doesn't compute anything.
+ * <br/>
+ * Charts draw points by position, so all series of a horizon are sampled at the same hours,
+ * selected from temperature. Labels and shading of days then agree across all charts.
+ * <br/>
+ * Missing values stay {@code NaN} in every column, so they are left out of series and axes.
+ */
+public class GraphModel {
+    public static final int TEMPERATURE = 0;
+    public static final int FEELS_LIKE = 1;
+    public static final int RAIN = 2;
+    public static final int WIND_SPEED = 3;
+    public static final int PRESSURE = 4;
+    public static final int HUMIDITY = 5;
+    private static final int SERIES_COUNT = 6;
+
+    private static final long HOUR_MILLIS = 60 * 60 * 1000;
+    private static final long DAY_MILLIS = 24 * HOUR_MILLIS;
+    private static final long SHORT_HORIZON_SECONDS = 2 * 24 * 60 * 60;
+
+    private final Horizon twoDays;
+    private final Horizon allDays;
+
+    private GraphModel(@NonNull Horizon twoDays, @NonNull Horizon allDays) {
+        this.twoDays = twoDays;
+        this.allDays = allDays;
+    }
+
+    /**
+     * Build graph model.
+     * @param forecast stored forecast
+     * @param unitSystem converters into selected units
+     * @param maxPoints maximum number of points of one series
+     */
+    @NonNull
+    public static GraphModel create(@NonNull Forecast forecast, @NonNull UnitSystem unitSystem,
+                                    int maxPoints) {
+        int count = forecast.getHourlyCount();
+        long[] times = new long[count];
+        float[][] columns = new float[SERIES_COUNT][count];
+        for (int i = 0; i < count; i++) {
+            times[i] = forecast.getHourlyTime(i) * 1000;
+            columns[TEMPERATURE][i] = forecast.getHourlyTemperature(i) + 273.15f;
+            columns[FEELS_LIKE][i] = forecast.getHourlyApparentTemperature(i) + 273.15f;
+            columns[RAIN][i] = forecast.getHourlyRain(i);
+            columns[WIND_SPEED][i] = forecast.getHourlyWindSpeed(i);
+            columns[PRESSURE][i] = forecast.getHourlyPressure(i);
+            columns[HUMIDITY][i] = forecast.getHourlyHumidity(i);
+        }
+        unitSystem.getTemperature().convert(columns[TEMPERATURE], columns[TEMPERATURE]);
+        unitSystem.getTemperature().convert(columns[FEELS_LIKE], columns[FEELS_LIKE]);
+        unitSystem.getRain().convert(columns[RAIN], columns[RAIN]);
+        unitSystem.getWind().convert(columns[WIND_SPEED], columns[WIND_SPEED]);
+        unitSystem.getPressure().convert(columns[PRESSURE], columns[PRESSURE]);
+
+        int twoDaysCount = 0;
+        while (twoDaysCount < count
+                && forecast.getHourlyTime(twoDaysCount) < forecast.getHourlyTime(0) + SHORT_HORIZON_SECONDS) {
+            twoDaysCount++;
+        }
+
+        SimpleDateFormat dateFormat = new SimpleDateFormat("E");
+        TimeZone timeZone = TimeZone.getDefault();
+        dateFormat.setTimeZone(timeZone);
+        return new GraphModel(
+                new Horizon(times, columns, twoDaysCount, maxPoints, dateFormat, timeZone),
+                new Horizon(times, columns, count, maxPoints, dateFormat, timeZone));
+    }
+
+    /**
+     * @param allDays {@code true} for the whole forecast, {@code false} for two days
+     * @return graphs for the horizon
+     */
+    @NonNull
+    public Horizon getHorizon(boolean allDays) {
+        return allDays ? this.allDays : twoDays;
+    }
+
+    /**
+     * Series and axes of all graphs for one horizon.
+     */
+    public static class Horizon {
+        private final Series[] series = new Series[SERIES_COUNT];
+        private final Axis temperatureAxis;
+        private final Axis rainAxis;
+        private final Axis windSpeedAxis;
+        private final Axis pressureAxis;
+        private final Axis humidityAxis;
+
+        private Horizon(@NonNull long[] times, @NonNull float[][] columns, int count, int maxPoints,
+                        @NonNull SimpleDateFormat dateFormat, @NonNull TimeZone timeZone) {
+            int[] indexes = Lttb.downsample(columns[TEMPERATURE], count, maxPoints);
+            for (int type = 0; type < SERIES_COUNT; type++) {
+                series[type] = new Series(times, columns[type], indexes, dateFormat, timeZone);
+            }
+            // feels like shares chart with temperature, it is drawn only if every point matches
+            if (!haveSamePoints(columns[TEMPERATURE], columns[FEELS_LIKE], indexes)) {
+                series[FEELS_LIKE] = new Series(times, columns[FEELS_LIKE], new int[0],
+                        dateFormat, timeZone);
+            }
+
+            float minTemperature = 1000;
+            float maxTemperature = -1000;
+            float maxRain = 1;
+            float maxWindSpeed = 1;
+            float minPressure = 100000;
+            float maxPressure = 0;
+            float minHumidity = 100000;
+            float maxHumidity = 0;
+            // Math.min and Math.max return NaN if any value is NaN, missing values are skipped
+            for (int i = 0; i < count; i++) {
+                float temperature = columns[TEMPERATURE][i];
+                if (!Float.isNaN(temperature)) {
+                    minTemperature = (float) Math.min(Math.floor(temperature), minTemperature);
+                    maxTemperature = (float) Math.max(Math.ceil(temperature), maxTemperature);
+                }
+                float feelsLike = columns[FEELS_LIKE][i];
+                if (!Float.isNaN(feelsLike)) {
+                    minTemperature = (float) Math.min(Math.floor(feelsLike), minTemperature);
+                    maxTemperature = (float) Math.max(Math.ceil(feelsLike), maxTemperature);
+                }
+                if (!Float.isNaN(columns[RAIN][i])) {
+                    maxRain = Math.max(columns[RAIN][i], maxRain);
+                }
+                if (!Float.isNaN(columns[WIND_SPEED][i])) {
+                    maxWindSpeed = Math.max(columns[WIND_SPEED][i], maxWindSpeed);
+                }
+                float pressure = columns[PRESSURE][i];
+                if (!Float.isNaN(pressure)) {
+                    minPressure = (float) Math.min(Math.floor(pressure), minPressure);
+                    maxPressure = (float) Math.max(Math.ceil(pressure), maxPressure);
+                }
+                float humidity = columns[HUMIDITY][i];
+                if (!Float.isNaN(humidity)) {
+                    minHumidity = Math.min(humidity, minHumidity);
+                    maxHumidity = Math.max(humidity, maxHumidity);
+                }
+            }
+
+            temperatureAxis = centeredAxis(minTemperature, maxTemperature);
+            rainAxis = zeroBasedAxis(maxRain);
+            windSpeedAxis = zeroBasedAxis(maxWindSpeed);
+            Axis pressure = centeredAxis(minPressure, maxPressure);
+            if (minPressure <= maxPressure && Math.ceil(maxPressure) - Math.floor(minPressure) <= 3) {
+                int min = (int) Math.floor(minPressure);
+                int max = Math.max(min + 1, (int) Math.ceil(maxPressure));
+                pressure = new Axis(min, max, pressure.step, max - min);
+            }
+            pressureAxis = pressure;
+            humidityAxis = percentAxis(minHumidity, maxHumidity);
+        }
+
+        /** @return whether values of {@code a} and {@code b} at {@code indexes} are missing alike */
+        private static boolean haveSamePoints(@NonNull float[] a, @NonNull float[] b,
+                                              @NonNull int[] indexes) {
+            for (int index : indexes) {
+                if (Float.isNaN(a[index]) != Float.isNaN(b[index])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Axis with four rows around the middle of values, around zero if there are no values
+         * ({@code minValue > maxValue}).
+         */
+        @NonNull
+        private static Axis centeredAxis(float minValue, float maxValue) {
+            if (minValue > maxValue) {
+                minValue = 0;
+                maxValue = 0;
+            }
+            int middle = Math.round(minValue + (maxValue - minValue) / 2);
+            int step = Math.max(1, (int) Math.ceil(Math.abs(maxValue - minValue) / 4));
+            return new Axis(middle - 2 * step, middle + 2 * step, step, 4);
+        }
+
+        /** Axis from zero with at most six rows. */
+        @NonNull
+        private static Axis zeroBasedAxis(float maxValue) {
+            int step = 1;
+            if (maxValue > 6) {
+                maxValue = (float) Math.ceil(maxValue / 6) * 6;
+                step = (int) Math.ceil(maxValue / 6);
+            } else {
+                maxValue = (float) Math.ceil(maxValue);
+            }
+            int max = (int) maxValue;
+            return new Axis(0, max, step, max / step);
+        }
+
+        /** Axis of percents rounded to tens, the whole range if there are no values. */
+        @NonNull
+        private static Axis percentAxis(float minValue, float maxValue) {
+            if (minValue > maxValue) {
+                minValue = 0;
+                maxValue = 100;
+            }
+            int min = (int) minValue / 10 * 10;
+            int max = (int) Math.ceil(maxValue / 10) * 10;
+            if (min == max) {
+                max = Math.min(max + 10, 100);
+                min = Math.max(min - 10, 0);
+            }
+            int step = (max - min == 100) ? 20 : 10;
+            return new Axis(min, max, step, (max - min) / step);
+        }
+
+        /**
+         * @param type one of {@link #TEMPERATURE}, {@link #FEELS_LIKE}, {@link #RAIN},
+         *             {@link #WIND_SPEED}, {@link #PRESSURE} or {@link #HUMIDITY}
+         */
+        @NonNull
+        public Series getSeries(int type) {
+            return series[type];
+        }
+
+        /** @return axis of temperature and feels like temperature */
+        @NonNull
+        public Axis getTemperatureAxis() {
+            return temperatureAxis;
+        }
+
+        @NonNull
+        public Axis getRainAxis() {
+            return rainAxis;
+        }
+
+        @NonNull
+        public Axis getWindSpeedAxis() {
+            return windSpeedAxis;
+        }
+
+        @NonNull
+        public Axis getPressureAxis() {
+            return pressureAxis;
+        }
+
+        @NonNull
+        public Axis getHumidityAxis() {
+            return humidityAxis;
+        }
+    }
+
+    /**
+     * Downsampled points of one series with their date labels. Missing values are left out.
+     */
+    public static class Series {
+        private final long[] times;
+        private final float[] values;
+        private final String[] labels;
+        private final boolean[] shaded;
+
+        private Series(@NonNull long[] times, @NonNull float[] column, @NonNull int[] indexes,
+                       @NonNull SimpleDateFormat dateFormat, @NonNull TimeZone timeZone) {
+            int size = 0;
+            for (int index : indexes) {
+                if (!Float.isNaN(column[index])) {
+                    size++;
+                }
+            }
+            this.times = new long[size];
+            values = new float[size];
+            labels = new String[size];
+            shaded = new boolean[size];
+
+            long firstDay = 0;
+            long labeledDay = Long.MIN_VALUE;
+            int point = 0;
+            for (int index : indexes) {
+                if (Float.isNaN(column[index])) {
+                    continue;
+                }
+                long time = times[index];
+                long localTime = time + timeZone.getOffset(time);
+                long day = localTime / DAY_MILLIS;
+                long hour = localTime % DAY_MILLIS / HOUR_MILLIS;
+                if (point == 0) {
+                    firstDay = day;
+                }
+
+                // one label per day, preferably at noon
+                boolean last = point == size - 1;
+                if (day != labeledDay && (hour >= 12 || (last && hour < 11))) {
+                    labels[point] = dateFormat.format(new Date(time));
+                    labeledDay = day;
+                } else {
+                    labels[point] = "";
+                }
+                // days alternate in background starting with shaded one
+                shaded[point] = (day - firstDay) % 2 == 0;
+                this.times[point] = time;
+                values[point] = column[index];
+                point++;
+            }
+        }
+
+        public int size() {
+            return values.length;
+        }
+
+        /** @return time of the point in milliseconds */
+        public long getTime(int point) {
+            return times[point];
+        }
+
+        public float getValue(int point) {
+            return values[point];
+        }
+
+        /** @return short name of the day or empty string, only one point per day has a label */
+        @NonNull
+        public String getLabel(int point) {
+            return labels[point];
+        }
+
+        /** @return whether the point is in a day with shaded background */
+        public boolean isShaded(int point) {
+            return shaded[point];
+        }
+    }
+
+    /**
+     * Bounds, step and number of grid rows of vertical axis.
+     */
+    public static class Axis {
+        public final int min;
+        public final int max;
+        public final int step;
+        public final int rows;
+
+        Axis(int min, int max, int step, int rows) {
+            this.min = min;
+            this.max = max;
+            this.step = step;
+            this.rows = rows;
+        }
+    }
+}
@@ -11,14 +11,15 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
-import cz.martykan.forecastie.utils.Formatting;
 import cz.martykan.forecastie.utils.UnitConvertor;
+import cz.martykan.forecastie.utils.WmoCodes;
+import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
 
 /**
  * Weather information.
  * <br/>
- * To create pass json into {@link #fromJson(String, long)}. For default value use
+ * To create pass json into {@link #fromJson(String, long)} or parsed weather into
+ * {@link #fromWeather(Weather, long)}. For default value use
  * {@link ImmutableWeather#EMPTY}.
  */
 public class ImmutableWeather implements Parcelable {
@@ -58,6 +59,7 @@ public class ImmutableWeather implements Parcelable {
     private String country = "";
     private String description = "";
     private int weatherIcon = -1;
+    private int weatherCode = WmoCodes.UNKNOWN;
     private long lastUpdate = -1L;
 
     private ImmutableWeather() {}
@@ -162,9 +164,8 @@ public class ImmutableWeather implements Parcelable {
                     JSONObject current = reader.optJSONObject("current_weather");
                     if (current != null) {
                         int code = current.optInt("weathercode", -1);
-                        if (code != -1) {
-                            result.description = OpenMeteoJsonParser.mapWmoToDescription(code);
-                            result.weatherIcon = OpenMeteoJsonParser.mapWmoToOwm(code);
+                        if (code >= 0) {
+                            result.weatherCode = code;
                         }
                     }
                 }
@@ -209,6 +210,45 @@ public class ImmutableWeather implements Parcelable {
         }
     }
 
+    /**
+     * Initialize object with weather information from {@code weather}.
+     *
+     * @param weather weather information parsed from Open-Meteo response.
+     * @param lastUpdate time of retrieving response in milliseconds.
+     * @return weather information
+     * @throws NullPointerException if {@code weather} is null.
+     */
+    @NonNull
+    public static ImmutableWeather fromWeather(@NonNull Weather weather, long lastUpdate)
+            throws NullPointerException {
+        //noinspection ConstantConditions
+        if (weather == null)
+            throw new NullPointerException("weather should not be null");
+
+        final ImmutableWeather result = new ImmutableWeather();
+        result.lastUpdate = lastUpdate;
+        result.temperature = (float) weather.getTemperature();
+        if (weather.isFeelsLikeTemperatureAvailable())
+            result.feelsLikeTemperature = (float) weather.getFeelsLikeTemperature();
+        result.pressure = weather.getPressure();
+        result.humidity = weather.getHumidity();
+        result.windSpeed = weather.getWind();
+        if (weather.isWindDirectionAvailable())
+            result.windDirection = weather.getWindDirection();
+        result.rain = weather.getRain();
+        result.chanceOfPrecipitation = weather.getChanceOfPrecipitation();
+        if (weather.getSunrise() >= 0)
+            result.sunrise = weather.getSunrise();
+        if (weather.getSunset() >= 0)
+            result.sunset = weather.getSunset();
+        result.city = weather.getCity();
+        result.country = weather.getCountry();
+        if (weather.getDescription() != null)
+            result.description = weather.getDescription();
+        result.weatherCode = weather.getWeatherCode();
+        return result;
+    }
+
     /**
      * Returns temperature in kelvins.
      * <br/>
@@ -489,16 +529,36 @@ public class ImmutableWeather implements Parcelable {
     }
 
     /**
-     * Returns weather id for formatting weather icon.
+     * Returns OWM weather id for formatting weather icon.
      * <br/>
      * Default value for invalid data: -1.
      * @return weather id
-     * @see Formatting#getWeatherIcon(int, boolean)
+     * @see WeatherFormatter#getWeatherIconAsText(int, boolean, android.content.Context)
      */
     public int getWeatherIcon() {
         return weatherIcon;
     }
 
+    /**
+     * Returns WMO weather code of Open-Meteo weather.
+     * <br/>
+     * Default value for invalid data and OWM weather: {@link WmoCodes#UNKNOWN}.
+     * @return WMO weather code
+     * @see WmoCodes
+     */
+    public int getWeatherCode() {
+        return weatherCode;
+    }
+
+    /**
+     * Check whether there is an icon to show, either OWM weather id with description or WMO code.
+     * @return {@code true} if weather icon is known
+     */
+    public boolean hasWeatherIcon() {
+        return weatherCode != EMPTY.weatherCode
+                || (weatherIcon != EMPTY.weatherIcon && !description.equals(EMPTY.description));
+    }
+
     /**
      * Returns time when this data has been created as timestamp in milliseconds.
      * <br/>
@@ -593,6 +653,7 @@ public class ImmutableWeather implements Parcelable {
         if (sunrise != that.sunrise) return false;
         if (sunset != that.sunset) return false;
         if (weatherIcon != that.weatherIcon) return false;
+        if (weatherCode != that.weatherCode) return false;
         if (lastUpdate != that.lastUpdate) return false;
         if (windDirection != that.windDirection) return false;
         if (!city.equals(that.city)) return false;
@@ -622,6 +683,7 @@ public class ImmutableWeather implements Parcelable {
         result = 31 * result + country.hashCode();
         result = 31 * result + description.hashCode();
         result = 31 * result + weatherIcon;
+        result = 31 * result + weatherCode;
         result = 31 * result + (int) (lastUpdate ^ (lastUpdate >>> 32));
         return result;
     }
@@ -642,32 +704,68 @@ public class ImmutableWeather implements Parcelable {
                 ", country='" + country + '\'' +
                 ", description='" + description + '\'' +
                 ", weatherIcon=" + weatherIcon +
+                ", weatherCode=" + weatherCode +
                 ", lastUpdate=" + lastUpdate +
                 '}';
     }
 
     // Parcelable implementation
+    // Only fields which differ from EMPTY are written, a bit in the leading mask marks each of them.
+
+    private static final int HAS_TEMPERATURE = 1;
+    private static final int HAS_FEELS_LIKE_TEMPERATURE = 1 << 1;
+    private static final int HAS_PRESSURE = 1 << 2;
+    private static final int HAS_HUMIDITY = 1 << 3;
+    private static final int HAS_WIND_SPEED = 1 << 4;
+    private static final int HAS_RAIN = 1 << 5;
+    private static final int HAS_CHANCE_OF_PRECIPITATION = 1 << 6;
+    private static final int HAS_WIND_DIRECTION = 1 << 7;
+    private static final int HAS_SUNRISE = 1 << 8;
+    private static final int HAS_SUNSET = 1 << 9;
+    private static final int HAS_CITY = 1 << 10;
+    private static final int HAS_COUNTRY = 1 << 11;
+    private static final int HAS_DESCRIPTION = 1 << 12;
+    private static final int HAS_WEATHER_ICON = 1 << 13;
+    private static final int HAS_WEATHER_CODE = 1 << 14;
+    private static final int HAS_LAST_UPDATE = 1 << 15;
 
     protected ImmutableWeather(Parcel in) {
-        temperature = in.readFloat();
-        feelsLikeTemperature = in.readFloat();
-        pressure = in.readDouble();
-        humidity = in.readInt();
-        windSpeed = in.readDouble();
-        rain = in.readDouble();
-        chanceOfPrecipitation = in.readDouble();
-        int direction = in.readInt();
-        if (direction < 0 || direction >= Weather.WindDirection.values().length)
-            windDirection = null;
-        else
-            windDirection = Weather.WindDirection.values()[direction];
-        sunrise = in.readLong();
-        sunset = in.readLong();
-        city = in.readString();
-        country = in.readString();
-        description = in.readString();
-        weatherIcon = in.readInt();
-        lastUpdate = in.readLong();
+        int mask = in.readInt();
+        if ((mask & HAS_TEMPERATURE) != 0)
+            temperature = in.readFloat();
+        if ((mask & HAS_FEELS_LIKE_TEMPERATURE) != 0)
+            feelsLikeTemperature = in.readFloat();
+        if ((mask & HAS_PRESSURE) != 0)
+            pressure = in.readDouble();
+        if ((mask & HAS_HUMIDITY) != 0)
+            humidity = in.readInt();
+        if ((mask & HAS_WIND_SPEED) != 0)
+            windSpeed = in.readDouble();
+        if ((mask & HAS_RAIN) != 0)
+            rain = in.readDouble();
+        if ((mask & HAS_CHANCE_OF_PRECIPITATION) != 0)
+            chanceOfPrecipitation = in.readDouble();
+        if ((mask & HAS_WIND_DIRECTION) != 0) {
+            int direction = in.readInt();
+            if (direction >= 0 && direction < Weather.WindDirection.values().length)
+                windDirection = Weather.WindDirection.values()[direction];
+        }
+        if ((mask & HAS_SUNRISE) != 0)
+            sunrise = in.readLong();
+        if ((mask & HAS_SUNSET) != 0)
+            sunset = in.readLong();
+        if ((mask & HAS_CITY) != 0)
+            city = in.readString();
+        if ((mask & HAS_COUNTRY) != 0)
+            country = in.readString();
+        if ((mask & HAS_DESCRIPTION) != 0)
+            description = in.readString();
+        if ((mask & HAS_WEATHER_ICON) != 0)
+            weatherIcon = in.readInt();
+        if ((mask & HAS_WEATHER_CODE) != 0)
+            weatherCode = in.readInt();
+        if ((mask & HAS_LAST_UPDATE) != 0)
+            lastUpdate = in.readLong();
     }
 
     public static final Creator<ImmutableWeather> CREATOR = new Creator<ImmutableWeather>() {
@@ -689,23 +787,73 @@ public class ImmutableWeather implements Parcelable {
 
     @Override
     public void writeToParcel(Parcel dest, int flags) {
-        dest.writeFloat(temperature);
-        dest.writeFloat(feelsLikeTemperature);
-        dest.writeDouble(pressure);
-        dest.writeInt(humidity);
-        dest.writeDouble(windSpeed);
-        dest.writeDouble(rain);
-        dest.writeDouble(chanceOfPrecipitation);
-        if (windDirection == null)
-            dest.writeInt(Integer.MIN_VALUE);
-        else
+        final ImmutableWeather empty = EMPTY;
+        int mask = 0;
+        if (Float.compare(temperature, empty.temperature) != 0)
+            mask |= HAS_TEMPERATURE;
+        if (Float.compare(feelsLikeTemperature, empty.feelsLikeTemperature) != 0)
+            mask |= HAS_FEELS_LIKE_TEMPERATURE;
+        if (Double.compare(pressure, empty.pressure) != 0)
+            mask |= HAS_PRESSURE;
+        if (humidity != empty.humidity)
+            mask |= HAS_HUMIDITY;
+        if (Double.compare(windSpeed, empty.windSpeed) != 0)
+            mask |= HAS_WIND_SPEED;
+        if (Double.compare(rain, empty.rain) != 0)
+            mask |= HAS_RAIN;
+        if (Double.compare(chanceOfPrecipitation, empty.chanceOfPrecipitation) != 0)
+            mask |= HAS_CHANCE_OF_PRECIPITATION;
+        if (windDirection != null)
+            mask |= HAS_WIND_DIRECTION;
+        if (sunrise != empty.sunrise)
+            mask |= HAS_SUNRISE;
+        if (sunset != empty.sunset)
+            mask |= HAS_SUNSET;
+        if (city != null && !city.isEmpty())
+            mask |= HAS_CITY;
+        if (country != null && !country.isEmpty())
+            mask |= HAS_COUNTRY;
+        if (description != null && !description.isEmpty())
+            mask |= HAS_DESCRIPTION;
+        if (weatherIcon != empty.weatherIcon)
+            mask |= HAS_WEATHER_ICON;
+        if (weatherCode != empty.weatherCode)
+            mask |= HAS_WEATHER_CODE;
+        if (lastUpdate != empty.lastUpdate)
+            mask |= HAS_LAST_UPDATE;
+
+        dest.writeInt(mask);
+        if ((mask & HAS_TEMPERATURE) != 0)
+            dest.writeFloat(temperature);
+        if ((mask & HAS_FEELS_LIKE_TEMPERATURE) != 0)
+            dest.writeFloat(feelsLikeTemperature);
+        if ((mask & HAS_PRESSURE) != 0)
+            dest.writeDouble(pressure);
+        if ((mask & HAS_HUMIDITY) != 0)
+            dest.writeInt(humidity);
+        if ((mask & HAS_WIND_SPEED) != 0)
+            dest.writeDouble(windSpeed);
+        if ((mask & HAS_RAIN) != 0)
+            dest.writeDouble(rain);
+        if ((mask & HAS_CHANCE_OF_PRECIPITATION) != 0)
+            dest.writeDouble(chanceOfPrecipitation);
+        if ((mask & HAS_WIND_DIRECTION) != 0)
             dest.writeInt(windDirection.ordinal());
-        dest.writeLong(sunrise);
-        dest.writeLong(sunset);
-        dest.writeString(city);
-        dest.writeString(country);
-        dest.writeString(description);
-        dest.writeInt(weatherIcon);
-        dest.writeLong(lastUpdate);
-    }
-}
\ No newline at end of file
+        if ((mask & HAS_SUNRISE) != 0)
+            dest.writeLong(sunrise);
+        if ((mask & HAS_SUNSET) != 0)
+            dest.writeLong(sunset);
+        if ((mask & HAS_CITY) != 0)
+            dest.writeString(city);
+        if ((mask & HAS_COUNTRY) != 0)
+            dest.writeString(country);
+        if ((mask & HAS_DESCRIPTION) != 0)
+            dest.writeString(description);
+        if ((mask & HAS_WEATHER_ICON) != 0)
+            dest.writeInt(weatherIcon);
+        if ((mask & HAS_WEATHER_CODE) != 0)
+            dest.writeInt(weatherCode);
+        if ((mask & HAS_LAST_UPDATE) != 0)
+            dest.writeLong(lastUpdate);
+    }
+}
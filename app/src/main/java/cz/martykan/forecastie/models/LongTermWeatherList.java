@@ -1,65 +1,113 @@
 package cz.martykan.forecastie.models;
 
-import java.util.ArrayList;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Hours of the stored forecast split into Today, Tomorrow and Later.
+ * <br/>
+ * Days are found by binary search in forecast times and every part is a
+ * {@link PagedWeatherList}, so no {@link Weather} is created until its row is shown.
+ */
 public class LongTermWeatherList {
-    private final List<Weather> longTermWeatherList = new ArrayList<>();
+    private Forecast forecast;
+    private String city;
+    private String country;
+    private long lastUpdated;
+    private List<DailySummary> days = Collections.emptyList();
 
     public List<Weather> getToday() {
-        List<Weather> todayList = new ArrayList<>();
-        Calendar tomorrowCalendar = getTomorrowCalendar();
         Calendar now = Calendar.getInstance();
         now.set(Calendar.MINUTE, 0);
         now.set(Calendar.SECOND, 0);
         now.set(Calendar.MILLISECOND, 0);
 
-        for (Weather weather : this.longTermWeatherList) {
-            Calendar weatherCalendar = getWeatherCalendar(weather);
-            if (weatherCalendar.compareTo(now) >= 0 && weatherCalendar.compareTo(tomorrowCalendar) < 0) {
-                todayList.add(weather);
-            }
-        }
-
-        return todayList;
+        return getHours(now.getTimeInMillis(), getTomorrowCalendar().getTimeInMillis());
     }
 
     public List<Weather> getTomorrow() {
-        List<Weather> tomorrowList = new ArrayList<>();
-        Calendar tomorrowCalendar = getTomorrowCalendar();
-        Calendar laterCalendar = getLaterCalendar();
-
-        for (Weather weather : this.longTermWeatherList) {
-            Calendar weatherCalendar = getWeatherCalendar(weather);
-            if (weatherCalendar.compareTo(tomorrowCalendar) >= 0 && weatherCalendar.compareTo(laterCalendar) < 0) {
-                tomorrowList.add(weather);
-            }
-        }
-
-        return tomorrowList;
+        return getHours(getTomorrowCalendar().getTimeInMillis(), getLaterCalendar().getTimeInMillis());
     }
 
     public List<Weather> getLater() {
-        List<Weather> laterList = new ArrayList<>();
-        Calendar laterCalendar = getLaterCalendar();
+        return getHours(getLaterCalendar().getTimeInMillis(), Long.MAX_VALUE);
+    }
 
-        for (Weather weather : this.longTermWeatherList) {
-            Calendar weatherCalendar = getWeatherCalendar(weather);
-            if (weatherCalendar.compareTo(laterCalendar) >= 0) {
-                laterList.add(weather);
-            }
+    /**
+     * @return summaries of days of Later, precomputed when the forecast was set
+     */
+    @NonNull
+    public List<DailySummary> getLaterDays() {
+        List<DailySummary> days = this.days;
+        long later = getLaterCalendar().getTimeInMillis();
+        int first = 0;
+        while (first < days.size() && days.get(first).getDate() < later) {
+            first++;
         }
+        return days.subList(first, days.size());
+    }
+
+    /**
+     * Replace hours with hours of {@code forecast}.
+     * @param city city set into every weather
+     * @param country country set into every weather
+     */
+    public void setForecast(@NonNull Forecast forecast, String city, String country) {
+        this.forecast = forecast;
+        this.city = city;
+        this.country = country;
+        this.lastUpdated = Calendar.getInstance().getTimeInMillis();
+        this.days = DailySummary.create(forecast, getTodayCalendar().getTimeInMillis());
+    }
 
-        return laterList;
+    /** @return forecast of the lists or {@code null} if there is none */
+    @Nullable
+    public Forecast getForecast() {
+        return forecast;
     }
 
-    public void addAll(List<Weather> longTermWeather) {
-        this.longTermWeatherList.addAll(longTermWeather);
+    public boolean isEmpty() {
+        return forecast == null || forecast.getHourlyCount() == 0;
     }
 
     public void clear() {
-        this.longTermWeatherList.clear();
+        this.forecast = null;
+        this.days = Collections.emptyList();
+    }
+
+    /**
+     * @param from start of the first hour in milliseconds
+     * @param to end of the last hour in milliseconds
+     * @return hours in [{@code from}, {@code to})
+     */
+    @NonNull
+    private List<Weather> getHours(long from, long to) {
+        Forecast forecast = this.forecast;
+        if (forecast == null) {
+            return Collections.emptyList();
+        }
+
+        return new PagedWeatherList(forecast, findHour(forecast, from), findHour(forecast, to),
+                city, country, lastUpdated);
+    }
+
+    /** @return index of the first hour starting at {@code time} or later */
+    private static int findHour(@NonNull Forecast forecast, long time) {
+        int low = 0;
+        int high = forecast.getHourlyCount();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (forecast.getHourlyTime(middle) * 1000 < time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
     }
 
     private Calendar getTodayCalendar() {
@@ -85,11 +133,4 @@ public class LongTermWeatherList {
 
         return laterCalendar;
     }
-
-    private Calendar getWeatherCalendar(Weather weather) {
-        Calendar weatherCalendar = Calendar.getInstance();
-        weatherCalendar.setTimeInMillis(weather.getDate().getTime());
-
-        return weatherCalendar;
-    }
 }
@@ -0,0 +1,185 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Precipitation and temperature of the next hours in 15 minute steps, kept in a ring buffer.
+ * <br/>
+ * Capacity is fixed: steps which are over are dropped by moving the head and steps of a newer
+ * forecast are written over the stored ones, so nothing is reallocated while time goes on. The
+ * first step with rain is remembered; on update it is searched again only from the first step
+ * whose values changed.
+ * <br/>
+ * Time of a step is its end in Unix seconds, Open-Meteo sums precipitation of the preceding
+ * 15 minutes. The buffer is thread-safe.
+ */
+public class Nowcast {
+    public static final int STEP_SECONDS = 15 * 60;
+    /** Steps of the next four hours. */
+    public static final int DEFAULT_CAPACITY = 16;
+    /** Precipitation of one step in mm which is considered rain. */
+    public static final float RAIN_THRESHOLD = 0.1f;
+
+    private final float[] precipitation;
+    private final float[] temperature;
+    private int head;
+    private int size;
+    /** End of the step at head or {@code -1} if the buffer is empty. */
+    private long startTime = -1L;
+    /** Step with rain relative to head or {@code -1} if there is no rain. */
+    private int rainIndex = -1;
+
+    public Nowcast() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public Nowcast(int capacity) {
+        precipitation = new float[capacity];
+        temperature = new float[capacity];
+    }
+
+    /**
+     * Store 15 minute steps of {@code forecast} which aren't over at {@code now}.
+     * @param forecast forecast with {@link Forecast#getMinutely15Count() 15 minute steps}
+     * @param now current time in Unix seconds
+     * @return index of the first changed step or {@code -1} if nothing changed
+     */
+    public synchronized int update(@NonNull Forecast forecast, long now) {
+        advanceTo(now);
+
+        int count = forecast.getMinutely15Count();
+        int first = 0;
+        while (first < count && forecast.getMinutely15Time(first) <= now) {
+            first++;
+        }
+        if (first == count) {
+            // forecast has no steps ahead, stored ones are not valid anymore
+            boolean changed = size > 0;
+            head = 0;
+            size = 0;
+            startTime = -1L;
+            rainIndex = -1;
+            return changed ? 0 : -1;
+        }
+        if (size == 0 || forecast.getMinutely15Time(first) < startTime) {
+            // older steps are missing, start over from the forecast
+            head = 0;
+            size = 0;
+            startTime = forecast.getMinutely15Time(first);
+            rainIndex = -1;
+        }
+
+        int firstChanged = Integer.MAX_VALUE;
+        for (int i = first; i < count; i++) {
+            long offset = forecast.getMinutely15Time(i) - startTime;
+            if (offset % STEP_SECONDS != 0) {
+                continue;
+            }
+            int index = (int) (offset / STEP_SECONDS);
+            if (index >= precipitation.length) {
+                break;
+            }
+            while (size < index) {
+                // gap in the forecast
+                set(size, Float.NaN, Float.NaN);
+                firstChanged = Math.min(firstChanged, size);
+                size++;
+            }
+            float stepPrecipitation = forecast.getMinutely15Precipitation(i);
+            float stepTemperature = forecast.getMinutely15Temperature(i);
+            if (index == size) {
+                size++;
+            } else if (Float.compare(getPrecipitation(index), stepPrecipitation) == 0
+                    && Float.compare(getTemperature(index), stepTemperature) == 0) {
+                continue;
+            }
+            set(index, stepPrecipitation, stepTemperature);
+            firstChanged = Math.min(firstChanged, index);
+        }
+
+        if (firstChanged == Integer.MAX_VALUE) {
+            return -1;
+        }
+        if (rainIndex < 0 || rainIndex >= firstChanged) {
+            // steps before the first changed one are dry
+            rainIndex = findRain(firstChanged);
+        }
+        return firstChanged;
+    }
+
+    /**
+     * Drop steps which are over at {@code now}.
+     * @param now current time in Unix seconds
+     */
+    public synchronized void advanceTo(long now) {
+        boolean rainDropped = false;
+        while (size > 0 && startTime <= now) {
+            head = (head + 1) % precipitation.length;
+            size--;
+            startTime += STEP_SECONDS;
+            if (rainIndex >= 0) {
+                rainIndex--;
+                rainDropped |= rainIndex < 0;
+            }
+        }
+        if (size == 0) {
+            startTime = -1L;
+            rainIndex = -1;
+        } else if (rainDropped) {
+            rainIndex = findRain(0);
+        }
+    }
+
+    /**
+     * @param now current time in Unix seconds
+     * @return start of the first step with rain in Unix seconds, it is not later than {@code now}
+     * if it is raining already, or {@code -1} if no rain is expected in the stored steps
+     */
+    public synchronized long getRainStart(long now) {
+        advanceTo(now);
+        return rainIndex >= 0 ? getTime(rainIndex) - STEP_SECONDS : -1L;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    /** @return end of step at {@code index} in Unix seconds */
+    public synchronized long getTime(int index) {
+        checkIndex(index);
+        return startTime + (long) index * STEP_SECONDS;
+    }
+
+    /** @return precipitation of step at {@code index} in mm or {@link Float#NaN} if unknown */
+    public synchronized float getPrecipitation(int index) {
+        checkIndex(index);
+        return precipitation[(head + index) % precipitation.length];
+    }
+
+    /** @return temperature at the end of step at {@code index} in °C or {@link Float#NaN} */
+    public synchronized float getTemperature(int index) {
+        checkIndex(index);
+        return temperature[(head + index) % temperature.length];
+    }
+
+    private void set(int index, float stepPrecipitation, float stepTemperature) {
+        int position = (head + index) % precipitation.length;
+        precipitation[position] = stepPrecipitation;
+        temperature[position] = stepTemperature;
+    }
+
+    /** @return first step from {@code from} with rain or {@code -1} */
+    private int findRain(int from) {
+        for (int i = from; i < size; i++) {
+            if (precipitation[(head + i) % precipitation.length] >= RAIN_THRESHOLD) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+    }
+}
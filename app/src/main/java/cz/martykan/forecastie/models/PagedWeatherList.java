@@ -0,0 +1,92 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
+
+/**
+ * Read-only list of hours of {@link Forecast} which creates {@link Weather} objects lazily.
+ * <br/>
+ * Hours are converted a page (one day) at a time when a row of the page is first needed and only
+ * a few recently used pages are kept, so a list scrolled through all 16 days never holds more
+ * than {@link #MAX_PAGES} days of objects.
+ */
+public class PagedWeatherList extends AbstractList<Weather> {
+    static final int PAGE_SIZE = 24;
+    static final int MAX_PAGES = 3;
+
+    private final Forecast forecast;
+    private final int from;
+    private final int size;
+    private final String city;
+    private final String country;
+    private final long lastUpdated;
+    private final Map<Integer, Weather[]> pages =
+            new LinkedHashMap<Integer, Weather[]>(MAX_PAGES + 1, 1, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Integer, Weather[]> eldest) {
+                    return size() > MAX_PAGES;
+                }
+            };
+
+    /**
+     * @param forecast stored forecast
+     * @param from index of the first hour of the list
+     * @param to index after the last hour of the list
+     * @param city city set into every weather
+     * @param country country set into every weather
+     * @param lastUpdated time of the last update in milliseconds
+     */
+    public PagedWeatherList(@NonNull Forecast forecast, int from, int to, String city,
+                            String country, long lastUpdated) {
+        this.forecast = forecast;
+        this.from = from;
+        this.size = Math.max(0, to - from);
+        this.city = city;
+        this.country = country;
+        this.lastUpdated = lastUpdated;
+    }
+
+    @Override
+    public Weather get(int index) {
+        if (index < 0 || index >= size)
+            throw new IndexOutOfBoundsException("Index: " + index + ", size: " + size);
+
+        int page = index / PAGE_SIZE;
+        Weather[] weathers = pages.get(page);
+        if (weathers == null) {
+            weathers = createPage(page);
+            pages.put(page, weathers);
+        }
+        return weathers[index % PAGE_SIZE];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** @return number of pages with created objects */
+    int getCreatedPageCount() {
+        return pages.size();
+    }
+
+    @NonNull
+    private Weather[] createPage(int page) {
+        int start = page * PAGE_SIZE;
+        Weather[] weathers = new Weather[Math.min(PAGE_SIZE, size - start)];
+        Weather.Builder builder = new Weather.Builder()
+                .setCity(city)
+                .setCountry(country)
+                .setLastUpdated(lastUpdated);
+        for (int i = 0; i < weathers.length; i++) {
+            weathers[i] = OpenMeteoJsonParser.convertForecastHourToWeather(forecast,
+                    from + start + i, builder);
+        }
+        return weathers;
+    }
+}
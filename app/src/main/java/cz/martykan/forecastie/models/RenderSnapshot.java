@@ -0,0 +1,168 @@
+package cz.martykan.forecastie.models;
+
+import android.content.SharedPreferences;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Texts of today's weather exactly as they were displayed last time.
+ * <br/>
+ * Saved after every refresh so the main screen can show them on start before the forecast is
+ * loaded. Strings are already formatted in the units selected at the time of saving.
+ */
+public class RenderSnapshot {
+    private static final String KEY_PREFIX = "renderSnapshot.";
+    private static final String KEY_TITLE = KEY_PREFIX + "title";
+    private static final String KEY_TEMPERATURE = KEY_PREFIX + "temperature";
+    private static final String KEY_FEELS_LIKE = KEY_PREFIX + "feelsLike";
+    private static final String KEY_DESCRIPTION = KEY_PREFIX + "description";
+    private static final String KEY_WIND = KEY_PREFIX + "wind";
+    private static final String KEY_PRESSURE = KEY_PREFIX + "pressure";
+    private static final String KEY_HUMIDITY = KEY_PREFIX + "humidity";
+    private static final String KEY_SUNRISE = KEY_PREFIX + "sunrise";
+    private static final String KEY_SUNSET = KEY_PREFIX + "sunset";
+    private static final String KEY_UV_INDEX = KEY_PREFIX + "uvIndex";
+    private static final String KEY_WEATHER_CODE = KEY_PREFIX + "weatherCode";
+    private static final String KEY_DAY_TIME = KEY_PREFIX + "dayTime";
+
+    private final String title;
+    private final String temperature;
+    private final String feelsLike;
+    private final String description;
+    private final String wind;
+    private final String pressure;
+    private final String humidity;
+    private final String sunrise;
+    private final String sunset;
+    private final String uvIndex;
+    private final int weatherCode;
+    private final boolean dayTime;
+
+    /**
+     * @param feelsLike "feels like" temperature or {@code null} if it wasn't shown
+     * @param weatherCode WMO weather code to pick the icon
+     * @param dayTime whether the day variant of the icon was shown
+     */
+    public RenderSnapshot(@NonNull String title, @NonNull String temperature,
+                          @Nullable String feelsLike, @NonNull String description,
+                          @NonNull String wind, @NonNull String pressure,
+                          @NonNull String humidity, @NonNull String sunrise,
+                          @NonNull String sunset, @NonNull String uvIndex,
+                          int weatherCode, boolean dayTime) {
+        this.title = title;
+        this.temperature = temperature;
+        this.feelsLike = feelsLike;
+        this.description = description;
+        this.wind = wind;
+        this.pressure = pressure;
+        this.humidity = humidity;
+        this.sunrise = sunrise;
+        this.sunset = sunset;
+        this.uvIndex = uvIndex;
+        this.weatherCode = weatherCode;
+        this.dayTime = dayTime;
+    }
+
+    /**
+     * Read snapshot saved by {@link #save(SharedPreferences)}.
+     * @return snapshot or {@code null} if there is none
+     */
+    @Nullable
+    public static RenderSnapshot read(@NonNull SharedPreferences prefs) {
+        String temperature = prefs.getString(KEY_TEMPERATURE, null);
+        if (temperature == null) {
+            return null;
+        }
+        return new RenderSnapshot(
+                prefs.getString(KEY_TITLE, ""),
+                temperature,
+                prefs.getString(KEY_FEELS_LIKE, null),
+                prefs.getString(KEY_DESCRIPTION, ""),
+                prefs.getString(KEY_WIND, ""),
+                prefs.getString(KEY_PRESSURE, ""),
+                prefs.getString(KEY_HUMIDITY, ""),
+                prefs.getString(KEY_SUNRISE, ""),
+                prefs.getString(KEY_SUNSET, ""),
+                prefs.getString(KEY_UV_INDEX, ""),
+                prefs.getInt(KEY_WEATHER_CODE, -1),
+                prefs.getBoolean(KEY_DAY_TIME, true)
+        );
+    }
+
+    /** Save snapshot in background. */
+    public void save(@NonNull SharedPreferences prefs) {
+        prefs.edit()
+                .putString(KEY_TITLE, title)
+                .putString(KEY_TEMPERATURE, temperature)
+                .putString(KEY_FEELS_LIKE, feelsLike)
+                .putString(KEY_DESCRIPTION, description)
+                .putString(KEY_WIND, wind)
+                .putString(KEY_PRESSURE, pressure)
+                .putString(KEY_HUMIDITY, humidity)
+                .putString(KEY_SUNRISE, sunrise)
+                .putString(KEY_SUNSET, sunset)
+                .putString(KEY_UV_INDEX, uvIndex)
+                .putInt(KEY_WEATHER_CODE, weatherCode)
+                .putBoolean(KEY_DAY_TIME, dayTime)
+                .apply();
+    }
+
+    @NonNull
+    public String getTitle() {
+        return title;
+    }
+
+    @NonNull
+    public String getTemperature() {
+        return temperature;
+    }
+
+    @Nullable
+    public String getFeelsLike() {
+        return feelsLike;
+    }
+
+    @NonNull
+    public String getDescription() {
+        return description;
+    }
+
+    @NonNull
+    public String getWind() {
+        return wind;
+    }
+
+    @NonNull
+    public String getPressure() {
+        return pressure;
+    }
+
+    @NonNull
+    public String getHumidity() {
+        return humidity;
+    }
+
+    @NonNull
+    public String getSunrise() {
+        return sunrise;
+    }
+
+    @NonNull
+    public String getSunset() {
+        return sunset;
+    }
+
+    @NonNull
+    public String getUvIndex() {
+        return uvIndex;
+    }
+
+    public int getWeatherCode() {
+        return weatherCode;
+    }
+
+    public boolean isDayTime() {
+        return dayTime;
+    }
+}
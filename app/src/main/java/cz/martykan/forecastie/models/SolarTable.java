@@ -0,0 +1,81 @@
+package cz.martykan.forecastie.models;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * Sunrise and sunset of every day of {@link Forecast}, shared by all hours of the forecast.
+ * <br/>
+ * A time is assigned to the day with the nearest solar noon, which is found in O(1) from the
+ * first day only; the day boundary then falls around solar midnight, where every hour is night
+ * anyway, so DST changes and time zones don't matter.
+ * <br/>
+ * Times before the first or after the last day, e.g. midnight of the first day when solar noon is
+ * after 12:00, belong to the nearest day; its sunrise and sunset are moved by whole days.
+ */
+public class SolarTable {
+    private static final long DAY = 24 * 60 * 60;
+
+    private final long[] sunrise;
+    private final long[] sunset;
+    private final int count;
+    private final long firstNoon;
+
+    /**
+     * @param sunrise sunrise of every day in Unix seconds, {@code -1} if unknown
+     * @param sunset sunset of every day in Unix seconds, {@code -1} if unknown
+     */
+    public SolarTable(@NonNull long[] sunrise, @NonNull long[] sunset) {
+        this.sunrise = sunrise;
+        this.sunset = sunset;
+        this.count = Math.min(sunrise.length, sunset.length);
+        this.firstNoon = count > 0 && sunrise[0] >= 0 && sunset[0] >= 0
+                ? (sunrise[0] + sunset[0]) / 2
+                : -1L;
+    }
+
+    /**
+     * @param time time in Unix seconds
+     * @return index of day which contains {@code time}, the first or the last day if it is out of
+     * the table, or {@code -1} if the table is empty
+     */
+    public int getDay(long time) {
+        if (firstNoon < 0) {
+            return -1;
+        }
+        long day = getDayOffset(time);
+        return (int) Math.max(0, Math.min(count - 1, day));
+    }
+
+    /**
+     * @param time time in Unix seconds
+     * @return whether the sun is up at {@code time} or {@code null} if sunrise or sunset of the
+     * day is unknown
+     */
+    @Nullable
+    public Boolean isDayTime(long time) {
+        int day = getDay(time);
+        if (day < 0 || sunrise[day] < 0 || sunset[day] < 0) {
+            return null;
+        }
+        // move time out of the table into the nearest day
+        long dayTime = time - (getDayOffset(time) - day) * DAY;
+        return dayTime >= sunrise[day] && dayTime < sunset[day];
+    }
+
+    /** @return days from the first day to {@code time}, negative before the first day */
+    private long getDayOffset(long time) {
+        long shifted = time - firstNoon + DAY / 2;
+        return shifted >= 0 ? shifted / DAY : -((-shifted + DAY - 1) / DAY);
+    }
+
+    /** @return sunrise of {@code day} in Unix seconds or {@code -1} if unknown */
+    public long getSunrise(int day) {
+        return day >= 0 && day < count ? sunrise[day] : -1L;
+    }
+
+    /** @return sunset of {@code day} in Unix seconds or {@code -1} if unknown */
+    public long getSunset(int day) {
+        return day >= 0 && day < count ? sunset[day] : -1L;
+    }
+}
@@ -2,37 +2,71 @@ package cz.martykan.forecastie.models;
 
 import android.content.Context;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.os.ConfigurationCompat;
+
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Locale;
 
 import cz.martykan.forecastie.R;
-
+import cz.martykan.forecastie.utils.WmoCodes;
+
+/**
+ * Immutable weather of one moment, created by {@link Builder}.
+ * <br/>
+ * Only primitive fields are used: unknown values are {@link Double#NaN} or {@code -1} and times
+ * are in milliseconds, so a forecast hour is a single object. Location is kept in
+ * {@link ForecastHeader} shared by all hours of a forecast.
+ */
 public class Weather {
-
-    private String city;
-    private int cityId;
-    private String country;
-    private Date date;
-    private double temperature;
-    private Double feelsLikeTemperature;
-    private String description;
-    private double wind;
-    private Double windDirectionDegree;
-    private int pressure;
-    private int humidity;
-    private double rain;
-    private int weatherId;
-    private long lastUpdated;
-    private Date sunrise;
-    private Date sunset;
-    private double lat;
-    private double lon;
-    private double uvIndex;
-    private double chanceOfPrecipitation;
-
+    private static final byte DAY_TIME_UNKNOWN = -1;
+    private static final byte NIGHT = 0;
+    private static final byte DAY = 1;
+
+    private final ForecastHeader header;
+    private final long date;
+    private final double temperature;
+    private final double feelsLikeTemperature;
+    private final String description;
+    private final double wind;
+    private final double windDirectionDegree;
+    private final int pressure;
+    private final int humidity;
+    private final double rain;
+    private final int weatherCode;
+    private final long sunrise;
+    private final long sunset;
+    private final byte dayTime;
+    private final double uvIndex;
+    private final double chanceOfPrecipitation;
+
+    private Weather(@NonNull Builder builder, @NonNull ForecastHeader header) {
+        this.header = header;
+        date = builder.date;
+        temperature = builder.temperature;
+        feelsLikeTemperature = builder.feelsLikeTemperature;
+        description = builder.description;
+        wind = builder.wind;
+        windDirectionDegree = builder.windDirectionDegree;
+        pressure = builder.pressure;
+        humidity = builder.humidity;
+        rain = builder.rain;
+        weatherCode = builder.weatherCode;
+        sunrise = builder.sunrise;
+        sunset = builder.sunset;
+        dayTime = builder.dayTime;
+        uvIndex = builder.uvIndex;
+        chanceOfPrecipitation = builder.chanceOfPrecipitation;
+    }
+
+    /**
+     * Wind direction by 16-wind compass rose.
+     * <br/>
+     * Directions of whole degrees are looked up in tables precomputed for 4, 8 and 16 directions
+     * and labels are read from resources once per locale, so formatting wind is constant-time.
+     */
     public enum WindDirection {
         // don't change order
         NORTH, NORTH_NORTH_EAST, NORTH_EAST, EAST_NORTH_EAST,
@@ -40,28 +74,84 @@ public class Weather {
         SOUTH, SOUTH_SOUTH_WEST, SOUTH_WEST, WEST_SOUTH_WEST,
         WEST, WEST_NORTH_WEST, NORTH_WEST, NORTH_NORTH_WEST;
 
+        private static final WindDirection[] DIRECTIONS = values();
+        private static final WindDirection[] BY_DEGREE_4 = createDegreeTable(4);
+        private static final WindDirection[] BY_DEGREE_8 = createDegreeTable(8);
+        private static final WindDirection[] BY_DEGREE_16 = createDegreeTable(DIRECTIONS.length);
+
+        private static Locale labelsLocale;
+        private static String[] labels;
+        private static String[] arrows;
+
         public static WindDirection byDegree(double degree) {
-            return byDegree(degree, WindDirection.values().length);
+            return byDegree(degree, DIRECTIONS.length);
         }
 
         public static WindDirection byDegree(double degree, int numberOfDirections) {
-            WindDirection[] directions = WindDirection.values();
-            int availableNumberOfDirections = directions.length;
-
-            int direction = windDirectionDegreeToIndex(degree, numberOfDirections)
-                    * availableNumberOfDirections / numberOfDirections;
-
-            return directions[direction];
+            WindDirection[] table = getDegreeTable(numberOfDirections);
+            int wholeDegree = (int) degree;
+            if (table != null && wholeDegree == degree) {
+                wholeDegree %= 360;
+                if (wholeDegree < 0) wholeDegree += 360;
+                return table[wholeDegree];
+            }
+            return computeByDegree(degree, numberOfDirections);
         }
 
         public String getLocalizedString(Context context) {
             // usage of enum.ordinal() is not recommended, but whatever
-            return context.getResources().getStringArray(R.array.windDirections)[ordinal()];
+            return getLabels(context, false)[ordinal()];
         }
 
         public String getArrow(Context context) {
             // usage of enum.ordinal() is not recommended, but whatever
-            return context.getResources().getStringArray(R.array.windDirectionArrows)[ordinal() / 2];
+            return getLabels(context, true)[ordinal() / 2];
+        }
+
+        private static WindDirection computeByDegree(double degree, int numberOfDirections) {
+            int direction = windDirectionDegreeToIndex(degree, numberOfDirections)
+                    * DIRECTIONS.length / numberOfDirections;
+
+            return DIRECTIONS[direction];
+        }
+
+        /** @return directions of degrees 0 - 359 or {@code null} for unusual number of directions */
+        @Nullable
+        private static WindDirection[] getDegreeTable(int numberOfDirections) {
+            switch (numberOfDirections) {
+                case 4:
+                    return BY_DEGREE_4;
+                case 8:
+                    return BY_DEGREE_8;
+                case 16:
+                    return BY_DEGREE_16;
+                default:
+                    return null;
+            }
+        }
+
+        @NonNull
+        private static WindDirection[] createDegreeTable(int numberOfDirections) {
+            WindDirection[] table = new WindDirection[360];
+            for (int degree = 0; degree < table.length; degree++) {
+                table[degree] = computeByDegree(degree, numberOfDirections);
+            }
+            return table;
+        }
+
+        /**
+         * Returns direction labels or arrows of the context locale. They are read from resources
+         * on the first call and after locale changes.
+         */
+        @NonNull
+        private static synchronized String[] getLabels(@NonNull Context context, boolean arrow) {
+            Locale locale = ConfigurationCompat.getLocales(context.getResources().getConfiguration()).get(0);
+            if (labels == null || (locale == null ? labelsLocale != null : !locale.equals(labelsLocale))) {
+                labelsLocale = locale;
+                labels = context.getResources().getStringArray(R.array.windDirections);
+                arrows = context.getResources().getStringArray(R.array.windDirectionArrows);
+            }
+            return arrow ? arrows : labels;
         }
     }
 
@@ -78,74 +168,50 @@ public class Weather {
         return direction % numberOfDirections;
     }
 
-    public String getCity() {
-        return city != null ? city : "";
+    /** @return location and time of update shared with other weathers of the forecast */
+    @NonNull
+    public ForecastHeader getHeader() {
+        return header;
     }
 
-    public void setCity(String city) {
-        this.city = city;
+    public String getCity() {
+        return header.getCity();
     }
 
     public int getCityId() {
-        return cityId;
-    }
-
-    public void setCityId(int cityId) {
-        this.cityId = cityId;
+        return header.getCityId();
     }
 
     public String getCountry() {
-        return country != null ? country : "";
-    }
-
-    public void setCountry(String country) {
-        this.country = country;
+        return header.getCountry();
     }
 
     public double getTemperature() {
         return temperature;
     }
 
-    public void setTemperature(double temperature) {
-        this.temperature = temperature;
-    }
-
-    public Double getFeelsLikeTemperature() {
+    /** @return feels like temperature in kelvins or {@link Double#NaN} if unknown */
+    public double getFeelsLikeTemperature() {
         return feelsLikeTemperature;
     }
 
-    public void setFeelsLikeTemperature(Double feelsLikeTemperature) {
-        this.feelsLikeTemperature = feelsLikeTemperature;
-    }
-
     public boolean isFeelsLikeTemperatureAvailable() {
-        return feelsLikeTemperature != null;
+        return !Double.isNaN(feelsLikeTemperature);
     }
 
     public String getDescription() {
         return description != null ? description : "Unknown";
     }
 
-    public void setDescription(String description) {
-        this.description = description;
-    }
-
     public double getWind() {
         return wind;
     }
 
-    public void setWind(double wind) {
-        this.wind = wind;
-    }
-
-    public Double getWindDirectionDegree() {
+    /** @return wind direction in degrees or {@link Double#NaN} if unknown */
+    public double getWindDirectionDegree() {
         return windDirectionDegree;
     }
 
-    public void setWindDirectionDegree(Double windDirectionDegree) {
-        this.windDirectionDegree = windDirectionDegree;
-    }
-
     public WindDirection getWindDirection() {
         return WindDirection.byDegree(windDirectionDegree);
     }
@@ -155,105 +221,52 @@ public class Weather {
     }
 
     public boolean isWindDirectionAvailable() {
-        return windDirectionDegree != null;
+        return !Double.isNaN(windDirectionDegree);
     }
 
     public int getPressure() {
         return pressure;
     }
 
-    public void setPressure(int pressure) {
-        this.pressure = pressure;
-    }
-
     public int getHumidity() {
         return humidity;
     }
 
-    public void setHumidity(int humidity) {
-        this.humidity = humidity;
-    }
-
-    public Date getSunrise(){
-        return this.sunrise;
+    /** @return sunrise in milliseconds or {@code -1} if unknown */
+    public long getSunrise() {
+        return sunrise;
     }
 
-    public void setSunrise(String dateString) {
-        try {
-            setSunrise(new Date(Long.parseLong(dateString) * 1000));
-        }
-        catch (Exception e) {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH);
-            try {
-                setSunrise(inputFormat.parse(dateString));
-            }
-            catch (ParseException e2) {
-                setSunrise(new Date()); // make the error somewhat obvious
-                e2.printStackTrace();
-            }
-        }
+    /** @return sunset in milliseconds or {@code -1} if unknown */
+    public long getSunset() {
+        return sunset;
     }
 
-    public void setSunrise(Date date) {
-        this.sunrise = date;
-    }
-
-    public Date getSunset(){
-        return this.sunset;
-    }
-
-    public void setSunset(String dateString) {
-        try {
-            setSunset(new Date(Long.parseLong(dateString) * 1000));
-        }
-        catch (Exception e) {
-            SimpleDateFormat inputFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss", Locale.ENGLISH);
-            try {
-                setSunset(inputFormat.parse(dateString));
-            }
-            catch (ParseException e2) {
-                setSunset(new Date()); // make the error somewhat obvious
-                e2.printStackTrace();
-            }
-        }
-    }
-
-    public void setSunset(Date date) {
-        this.sunset = date;
-    }
-
-    public void setLat(double lat) {
-        this.lat = lat;
+    /**
+     * @return whether the sun is up at the time of this weather or {@code null} if it wasn't
+     * computed and has to be derived from sunrise and sunset
+     */
+    public Boolean getDayTime() {
+        return dayTime == DAY_TIME_UNKNOWN ? null : dayTime == DAY;
     }
 
     public double getLat() {
-        return this.lat;
-    }
-
-    public void setLon(double lon) {
-        this.lon = lon;
+        return header.getLat();
     }
 
     public double getLon() {
-        return this.lon;
+        return header.getLon();
     }
 
     public double getUvIndex() {
         return this.uvIndex;
     }
 
-    public void setUvIndex(double uvIndex) {
-        this.uvIndex = uvIndex;
-    }
-
-    public Date getDate(){
+    /** @return time of the weather in milliseconds */
+    public long getDate() {
         return this.date;
     }
 
-    public void setDate(Date date) {
-        this.date = date;
-    }
-
     public long getNumDaysFrom(Date initialDate) {
         Calendar initial = Calendar.getInstance();
         initial.setTime(initialDate);
@@ -263,7 +276,7 @@ public class Weather {
         initial.set(Calendar.HOUR_OF_DAY, 0);
 
         Calendar me = Calendar.getInstance();
-        me.setTime(this.date);
+        me.setTimeInMillis(this.date);
         me.set(Calendar.MILLISECOND, 0);
         me.set(Calendar.SECOND, 0);
         me.set(Calendar.MINUTE, 0);
@@ -272,35 +285,218 @@ public class Weather {
         return Math.round((me.getTimeInMillis() - initial.getTimeInMillis()) / 86400000.0);
     }
 
-    public int getWeatherId() {
-        return weatherId;
-    }
-
-    public void setWeatherId(int weatherId) {
-        this.weatherId = weatherId;
+    /** @return WMO weather code or {@link WmoCodes#UNKNOWN} */
+    public int getWeatherCode() {
+        return weatherCode;
     }
 
     public double getRain() {
         return rain;
     }
 
-    public void setRain(double rain) {
-        this.rain = rain;
-    }
-
-    public void setLastUpdated(long lastUpdated) {
-        this.lastUpdated = lastUpdated;
-    }
-
     public long getLastUpdated() {
-        return lastUpdated;
+        return header.getLastUpdated();
     }
 
     public double getChanceOfPrecipitation() {
         return chanceOfPrecipitation;
     }
 
-    public void setChanceOfPrecipitation(double chanceOfPrecipitation) {
-        this.chanceOfPrecipitation = chanceOfPrecipitation;
+    /**
+     * Builder of {@link Weather}.
+     * <br/>
+     * Values stay set after {@link #build()}, so one builder can create every hour of a forecast
+     * by changing only values of the hour. All weathers built in a row without a change of
+     * location or time of update share one {@link ForecastHeader}.
+     */
+    public static class Builder {
+        private String city;
+        private int cityId;
+        private String country;
+        private long date;
+        private double temperature;
+        private double feelsLikeTemperature = Double.NaN;
+        private String description;
+        private double wind;
+        private double windDirectionDegree = Double.NaN;
+        private int pressure;
+        private int humidity;
+        private double rain;
+        private int weatherCode = WmoCodes.UNKNOWN;
+        private long lastUpdated;
+        private long sunrise = -1L;
+        private long sunset = -1L;
+        private byte dayTime = DAY_TIME_UNKNOWN;
+        private double lat;
+        private double lon;
+        private double uvIndex;
+        private double chanceOfPrecipitation;
+        private ForecastHeader header;
+
+        public Builder() {
+        }
+
+        /** Create builder with values of {@code weather}. */
+        public Builder(@NonNull Weather weather) {
+            header = weather.header;
+            city = header.getCity();
+            cityId = header.getCityId();
+            country = header.getCountry();
+            lat = header.getLat();
+            lon = header.getLon();
+            lastUpdated = header.getLastUpdated();
+            date = weather.date;
+            temperature = weather.temperature;
+            feelsLikeTemperature = weather.feelsLikeTemperature;
+            description = weather.description;
+            wind = weather.wind;
+            windDirectionDegree = weather.windDirectionDegree;
+            pressure = weather.pressure;
+            humidity = weather.humidity;
+            rain = weather.rain;
+            weatherCode = weather.weatherCode;
+            sunrise = weather.sunrise;
+            sunset = weather.sunset;
+            dayTime = weather.dayTime;
+            uvIndex = weather.uvIndex;
+            chanceOfPrecipitation = weather.chanceOfPrecipitation;
+        }
+
+        @NonNull
+        public Weather build() {
+            if (header == null) {
+                header = new ForecastHeader(city, cityId, country, lat, lon, lastUpdated);
+            }
+            return new Weather(this, header);
+        }
+
+        public Builder setCity(String city) {
+            if (city == null ? this.city != null : !city.equals(this.city)) {
+                this.city = city;
+                header = null;
+            }
+            return this;
+        }
+
+        public Builder setCityId(int cityId) {
+            if (cityId != this.cityId) {
+                this.cityId = cityId;
+                header = null;
+            }
+            return this;
+        }
+
+        public Builder setCountry(String country) {
+            if (country == null ? this.country != null : !country.equals(this.country)) {
+                this.country = country;
+                header = null;
+            }
+            return this;
+        }
+
+        /** @param date time of the weather in milliseconds */
+        public Builder setDate(long date) {
+            this.date = date;
+            return this;
+        }
+
+        public Builder setTemperature(double temperature) {
+            this.temperature = temperature;
+            return this;
+        }
+
+        /** @param feelsLikeTemperature temperature in kelvins or {@link Double#NaN} if unknown */
+        public Builder setFeelsLikeTemperature(double feelsLikeTemperature) {
+            this.feelsLikeTemperature = feelsLikeTemperature;
+            return this;
+        }
+
+        public Builder setDescription(String description) {
+            this.description = description;
+            return this;
+        }
+
+        public Builder setWind(double wind) {
+            this.wind = wind;
+            return this;
+        }
+
+        /** @param windDirectionDegree direction in degrees or {@link Double#NaN} if unknown */
+        public Builder setWindDirectionDegree(double windDirectionDegree) {
+            this.windDirectionDegree = windDirectionDegree;
+            return this;
+        }
+
+        public Builder setPressure(int pressure) {
+            this.pressure = pressure;
+            return this;
+        }
+
+        public Builder setHumidity(int humidity) {
+            this.humidity = humidity;
+            return this;
+        }
+
+        public Builder setRain(double rain) {
+            this.rain = rain;
+            return this;
+        }
+
+        public Builder setWeatherCode(int weatherCode) {
+            this.weatherCode = weatherCode;
+            return this;
+        }
+
+        public Builder setLastUpdated(long lastUpdated) {
+            if (lastUpdated != this.lastUpdated) {
+                this.lastUpdated = lastUpdated;
+                header = null;
+            }
+            return this;
+        }
+
+        /** @param sunrise sunrise in milliseconds or {@code -1} if unknown */
+        public Builder setSunrise(long sunrise) {
+            this.sunrise = sunrise;
+            return this;
+        }
+
+        /** @param sunset sunset in milliseconds or {@code -1} if unknown */
+        public Builder setSunset(long sunset) {
+            this.sunset = sunset;
+            return this;
+        }
+
+        /** @param dayTime whether the sun is up or {@code null} if unknown */
+        public Builder setDayTime(Boolean dayTime) {
+            this.dayTime = dayTime == null ? DAY_TIME_UNKNOWN : dayTime ? DAY : NIGHT;
+            return this;
+        }
+
+        public Builder setLat(double lat) {
+            if (Double.compare(lat, this.lat) != 0) {
+                this.lat = lat;
+                header = null;
+            }
+            return this;
+        }
+
+        public Builder setLon(double lon) {
+            if (Double.compare(lon, this.lon) != 0) {
+                this.lon = lon;
+                header = null;
+            }
+            return this;
+        }
+
+        public Builder setUvIndex(double uvIndex) {
+            this.uvIndex = uvIndex;
+            return this;
+        }
+
+        public Builder setChanceOfPrecipitation(double chanceOfPrecipitation) {
+            this.chanceOfPrecipitation = chanceOfPrecipitation;
+            return this;
+        }
     }
 }
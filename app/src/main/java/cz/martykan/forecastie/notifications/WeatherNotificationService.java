@@ -11,7 +11,6 @@ import android.content.Intent;
 import android.content.res.Configuration;
 import android.os.Build;
 import android.os.IBinder;
-import android.util.Log;
 import android.widget.RemoteViews;
 
 import androidx.annotation.NonNull;
@@ -28,13 +27,13 @@ import cz.martykan.forecastie.models.WeatherPresentation;
 import cz.martykan.forecastie.notifications.repository.WeatherRepository;
 import cz.martykan.forecastie.notifications.ui.NotificationContentUpdater;
 import cz.martykan.forecastie.notifications.ui.NotificationContentUpdaterFactory;
+import cz.martykan.forecastie.utils.PerfTrace;
 import cz.martykan.forecastie.utils.formatters.WeatherFormatterType;
 
 /**
  * Service for showing and updating notification.
  */
 public class WeatherNotificationService extends Service {
-    private static final String TAG = "WeatherNotificationServ";
     public static int WEATHER_NOTIFICATION_ID = 1;
     private static final String WEATHER_NOTIFICATION_CHANNEL_ID = "weather_notification_channel";
 
@@ -137,16 +136,20 @@ public class WeatherNotificationService extends Service {
      * Put data into notification.
      */
     private void updateNotification(@NonNull WeatherPresentation weatherPresentation) {
-        Log.e(TAG, "notification update: " + weatherPresentation.toString());
-        NotificationContentUpdater updater = getContentUpdater(weatherPresentation.getType());
-        if (updater.isLayoutCustom()) {
-            RemoteViews layout = updater.prepareRemoteView(this);
-            updater.updateNotification(weatherPresentation, notification, layout, this);
-        } else {
-            updater.updateNotification(weatherPresentation, notification, this);
-        }
+        long start = PerfTrace.begin("notification");
+        try {
+            NotificationContentUpdater updater = getContentUpdater(weatherPresentation.getType());
+            if (updater.isLayoutCustom()) {
+                RemoteViews layout = updater.prepareRemoteView(this);
+                updater.updateNotification(weatherPresentation, notification, layout, this);
+            } else {
+                updater.updateNotification(weatherPresentation, notification, this);
+            }
 
-        notificationManager.notify(WEATHER_NOTIFICATION_ID, notification.build());
+            notificationManager.notify(WEATHER_NOTIFICATION_ID, notification.build());
+        } finally {
+            PerfTrace.end("notification", start);
+        }
     }
 
     private synchronized NotificationContentUpdater getContentUpdater(
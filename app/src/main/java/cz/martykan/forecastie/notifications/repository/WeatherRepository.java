@@ -18,8 +18,11 @@ import java.util.concurrent.atomic.AtomicReference;
 
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.ImmutableWeather;
+import cz.martykan.forecastie.models.Weather;
 import cz.martykan.forecastie.models.WeatherPresentation;
+import cz.martykan.forecastie.utils.WmoCodes;
 import cz.martykan.forecastie.utils.formatters.WeatherFormatterType;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
 
 /**
  * Observe change in the Shared Preferences and update WeatherPresentation when weather info or
@@ -35,16 +38,20 @@ public class WeatherRepository {
     private String notificationTypeDefault;
     private String showTemperatureInStatusBarKey;
 
+    private final Context context;
     private final Executor executor;
     private SharedPreferences prefs;
+    private final WeatherStorage weatherStorage;
     private final Set<WeakReference<RepositoryListener>> listeners = new HashSet<>();
     private SharedPreferences.OnSharedPreferenceChangeListener onSharedPreferenceChangeListener;
     private final AtomicReference<WeatherPresentation> weatherPresentation = new AtomicReference<>();
 
     public WeatherRepository(@NonNull Context context, @NonNull Executor executor) {
+        this.context = context.getApplicationContext();
         this.executor = executor;
         prepareSettingsConstants(context);
         prefs = PreferenceManager.getDefaultSharedPreferences(context);
+        weatherStorage = new WeatherStorage(context);
     }
 
     @NonNull
@@ -109,9 +116,7 @@ public class WeatherRepository {
     @NonNull
     private WeatherPresentation readValuesFromStorage() {
         WeatherFormatterType type = readNotificationType(prefs);
-        String json = prefs.getString("lastToday", "{}");
-        long lastUpdate = prefs.getLong("lastUpdate", -1L);
-        ImmutableWeather weather = ImmutableWeather.fromJson(json, lastUpdate);
+        ImmutableWeather weather = readWeather(prefs);
 
         return new WeatherPresentation(
                 prefs.getBoolean("temperatureInteger", WeatherPresentation.DEFAULT_DO_ROUND_TEMPERATURE),
@@ -124,6 +129,27 @@ public class WeatherRepository {
         );
     }
 
+    /**
+     * Read last weather. Json left in preferences by older versions takes precedence as it is
+     * removed on the first refresh.
+     */
+    @NonNull
+    private ImmutableWeather readWeather(@NonNull SharedPreferences prefs) {
+        long lastUpdate = prefs.getLong("lastUpdate", -1L);
+        String json = prefs.getString("lastToday", null);
+        if (json != null) {
+            return ImmutableWeather.fromJson(json, lastUpdate);
+        }
+        Weather weather = weatherStorage.getLastToday();
+        if (weather == null) {
+            return ImmutableWeather.EMPTY;
+        }
+        weather = new Weather.Builder(weather)
+                .setDescription(WmoCodes.getDescription(weather.getWeatherCode(), context))
+                .build();
+        return ImmutableWeather.fromWeather(weather, lastUpdate);
+    }
+
     /** Retrieve notification type from preferences. */
     @NonNull
     private WeatherFormatterType readNotificationType(@NonNull SharedPreferences prefs) {
@@ -197,10 +223,8 @@ public class WeatherRepository {
                 switch (key) {
                     case "lastUpdate":
                     case "lastToday":
-                        String json = sharedPreferences.getString("lastToday", "");
-                        if (json != null && !json.isEmpty()) {
-                            long lastUpdate = sharedPreferences.getLong("lastUpdate", -1L);
-                            ImmutableWeather weather = ImmutableWeather.fromJson(json, lastUpdate);
+                        ImmutableWeather weather = readWeather(sharedPreferences);
+                        if (weather != ImmutableWeather.EMPTY) {
                             result = weatherPresentation.copy(weather);
                         }
                         break;
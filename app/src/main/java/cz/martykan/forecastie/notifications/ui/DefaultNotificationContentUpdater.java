@@ -7,7 +7,9 @@ import androidx.core.app.NotificationCompat;
 
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.WeatherPresentation;
+import cz.martykan.forecastie.utils.formatters.NowcastFormatter;
 import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
 
 /**
  * Update notification content for default notification view.
@@ -52,13 +54,17 @@ public class DefaultNotificationContentUpdater extends NotificationContentUpdate
             String temperature = formatter.getTemperature(weatherPresentation.getWeather(),
                     weatherPresentation.getTemperatureUnits(),
                     weatherPresentation.isRoundedTemperature());
+            String rainStart = NowcastFormatter.getRainStart(WeatherStorage.getNowcast(),
+                    System.currentTimeMillis(), context);
             notification
                     .setContentTitle(temperature)
                     .setContentText(formatter.getDescription(weatherPresentation.getWeather()))
+                    .setSubText(rainStart.isEmpty() ? null : rainStart)
                     .setLargeIcon(formatter.getWeatherIconAsBitmap(weatherPresentation.getWeather(), context));
         } else {
             notification.setContentTitle(context.getString(R.string.no_data))
                     .setContentText(null)
+                    .setSubText(null)
                     .setLargeIcon(null);
         }
     }
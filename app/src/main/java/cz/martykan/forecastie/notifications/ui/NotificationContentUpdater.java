@@ -26,6 +26,10 @@ import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
 public abstract class NotificationContentUpdater {
     public static final int DEFAULT_NOTIFICATION_ICON = R.drawable.cloud;
 
+    /** Status bar icons are cached, so the icon is created again only if the bitmap changed. */
+    private Bitmap lastStatusBarBitmap;
+    private IconCompat lastStatusBarIcon;
+
     /**
      * Returns {@code true} if notification has custom layout and {@code false} otherwise.
      * @return {@code true} if notification has custom layout and {@code false} otherwise
@@ -93,7 +97,11 @@ public abstract class NotificationContentUpdater {
                         weatherPresentation.getWeather(),
                         weatherPresentation.getTemperatureUnits(),
                         color);
-                icon = IconCompat.createWithBitmap(statusBarIcon);
+                if (statusBarIcon != lastStatusBarBitmap) {
+                    lastStatusBarBitmap = statusBarIcon;
+                    lastStatusBarIcon = IconCompat.createWithBitmap(statusBarIcon);
+                }
+                icon = lastStatusBarIcon;
             } else {
                 icon = IconCompat.createWithResource(context, DEFAULT_NOTIFICATION_ICON);
             }
@@ -10,8 +10,10 @@ import androidx.core.app.NotificationCompat;
 
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.WeatherPresentation;
+import cz.martykan.forecastie.utils.formatters.NowcastFormatter;
 import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
 import cz.martykan.forecastie.utils.formatters.WeatherSimpleNotificationFormatter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
 
 public class SimpleNotificationContentUpdater extends NotificationContentUpdater {
     private final WeatherFormatter formatter;
@@ -76,6 +78,12 @@ public class SimpleNotificationContentUpdater extends NotificationContentUpdater
 
             String humidity = formatter.getHumidity(weatherPresentation.getWeather(), context);
             notificationLayout.setTextViewText(R.id.humidity, humidity);
+
+            String rainStart = NowcastFormatter.getRainStart(WeatherStorage.getNowcast(),
+                    System.currentTimeMillis(), context);
+            notificationLayout.setTextViewText(R.id.nowcast, rainStart);
+            notificationLayout.setViewVisibility(R.id.nowcast,
+                    rainStart.isEmpty() ? View.GONE : View.VISIBLE);
         } else {
             if (formatter instanceof WeatherSimpleNotificationFormatter
                     && ((WeatherSimpleNotificationFormatter) formatter)
@@ -90,6 +98,7 @@ public class SimpleNotificationContentUpdater extends NotificationContentUpdater
             notificationLayout.setTextViewText(R.id.wind, "");
             notificationLayout.setTextViewText(R.id.pressure, context.getString(R.string.no_data));
             notificationLayout.setTextViewText(R.id.humidity, "");
+            notificationLayout.setViewVisibility(R.id.nowcast, View.GONE);
         }
     }
 
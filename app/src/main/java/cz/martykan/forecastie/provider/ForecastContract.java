@@ -0,0 +1,102 @@
+package cz.martykan.forecastie.provider;
+
+import android.net.Uri;
+import android.provider.BaseColumns;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Uris and columns of {@link ForecastProvider}.
+ * <br/>
+ * Values are in units of Open-Meteo: °C, hPa, mm, % and wind speed in km/h, times are in Unix
+ * seconds. Missing values are {@code null}. Rows of hourly and daily series are ordered by time and
+ * may be limited by {@link #withTimeRange(Uri, long, long)}, rows without time are left out.
+ * <br/>
+ * Reading requires {@link #PERMISSION_READ}, it is a runtime permission because the current row
+ * contains the stored location.
+ */
+public class ForecastContract {
+    public static final String AUTHORITY = "cz.martykan.forecastie.authority";
+    public static final String PERMISSION_READ = "cz.martykan.forecastie.permission.READ_FORECAST";
+    public static final Uri CONTENT_URI = Uri.parse("content://" + AUTHORITY);
+
+    /** First time of selected rows in Unix seconds, inclusive. */
+    public static final String PARAMETER_START = "start";
+    /** Last time of selected rows in Unix seconds, exclusive. */
+    public static final String PARAMETER_END = "end";
+
+    public static final String TIME = "time";
+    public static final String WEATHER_CODE = "weather_code";
+
+    /** Current conditions of the stored location, one row or none if there is no forecast. */
+    public static class Current implements BaseColumns {
+        public static final Uri CONTENT_URI = Uri.withAppendedPath(ForecastContract.CONTENT_URI, "current");
+        public static final String CONTENT_ITEM_TYPE =
+                "vnd.android.cursor.item/vnd.cz.martykan.forecastie.current";
+
+        public static final String TIME = ForecastContract.TIME;
+        public static final String TEMPERATURE = "temperature";
+        public static final String APPARENT_TEMPERATURE = "apparent_temperature";
+        public static final String HUMIDITY = "humidity";
+        public static final String PRESSURE = "pressure";
+        public static final String WIND_SPEED = "wind_speed";
+        public static final String WIND_DIRECTION = "wind_direction";
+        public static final String RAIN = "rain";
+        public static final String PRECIPITATION_PROBABILITY = "precipitation_probability";
+        public static final String WEATHER_CODE = ForecastContract.WEATHER_CODE;
+        public static final String LATITUDE = "latitude";
+        public static final String LONGITUDE = "longitude";
+        public static final String CITY = "city";
+        public static final String COUNTRY = "country";
+    }
+
+    /** Hours of the stored forecast. */
+    public static class Hourly implements BaseColumns {
+        public static final Uri CONTENT_URI = Uri.withAppendedPath(ForecastContract.CONTENT_URI, "hourly");
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.cz.martykan.forecastie.hourly";
+
+        public static final String TIME = ForecastContract.TIME;
+        public static final String TEMPERATURE = "temperature";
+        public static final String APPARENT_TEMPERATURE = "apparent_temperature";
+        public static final String HUMIDITY = "humidity";
+        public static final String PRESSURE = "pressure";
+        public static final String WIND_SPEED = "wind_speed";
+        public static final String WIND_DIRECTION = "wind_direction";
+        public static final String RAIN = "rain";
+        public static final String PRECIPITATION_PROBABILITY = "precipitation_probability";
+        public static final String WEATHER_CODE = ForecastContract.WEATHER_CODE;
+    }
+
+    /** Days of the stored forecast. */
+    public static class Daily implements BaseColumns {
+        public static final Uri CONTENT_URI = Uri.withAppendedPath(ForecastContract.CONTENT_URI, "daily");
+        public static final String CONTENT_TYPE =
+                "vnd.android.cursor.dir/vnd.cz.martykan.forecastie.daily";
+
+        public static final String TIME = ForecastContract.TIME;
+        public static final String TEMPERATURE_MAX = "temperature_max";
+        public static final String TEMPERATURE_MIN = "temperature_min";
+        public static final String PRECIPITATION_SUM = "precipitation_sum";
+        public static final String WIND_SPEED_MAX = "wind_speed_max";
+        public static final String WEATHER_CODE = ForecastContract.WEATHER_CODE;
+        public static final String SUNRISE = "sunrise";
+        public static final String SUNSET = "sunset";
+        public static final String UV_INDEX_MAX = "uv_index_max";
+    }
+
+    /**
+     * Limit rows of a series to times in [{@code start}, {@code end}).
+     * @param uri uri of hourly or daily series
+     * @param start first time in Unix seconds
+     * @param end time after the last time in Unix seconds
+     * @return uri with time range
+     */
+    @NonNull
+    public static Uri withTimeRange(@NonNull Uri uri, long start, long end) {
+        return uri.buildUpon()
+                .appendQueryParameter(PARAMETER_START, Long.toString(start))
+                .appendQueryParameter(PARAMETER_END, Long.toString(end))
+                .build();
+    }
+}
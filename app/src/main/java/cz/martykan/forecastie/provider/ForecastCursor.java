@@ -0,0 +1,154 @@
+package cz.martykan.forecastie.provider;
+
+import android.database.AbstractCursor;
+import android.database.Cursor;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Read-only cursor over columns of {@link cz.martykan.forecastie.models.Forecast}.
+ * <br/>
+ * Every column is the array of the forecast itself ({@code float[]}, {@code int[]},
+ * {@code long[]} or {@code String[]}) and rows are a range of its indexes, so no value is copied.
+ * Missing values ({@link Float#NaN}, {@code -1} or values after the end of a shorter array) are
+ * {@code null}.
+ */
+class ForecastCursor extends AbstractCursor {
+    /** Column with index of the row in the forecast, used for {@link android.provider.BaseColumns#_ID}. */
+    static final Object ROW_ID = new Object();
+
+    private final String[] columnNames;
+    private final Object[] columns;
+    private final int from;
+    private final int count;
+
+    /**
+     * @param columnNames names of the columns
+     * @param columns arrays of the columns or {@link #ROW_ID}
+     * @param from index of the first row in column arrays
+     * @param count number of rows
+     */
+    ForecastCursor(@NonNull String[] columnNames, @NonNull Object[] columns, int from, int count) {
+        this.columnNames = columnNames;
+        this.columns = columns;
+        this.from = from;
+        this.count = count;
+    }
+
+    @Override
+    public int getCount() {
+        return count;
+    }
+
+    @Override
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    @Override
+    public String getString(int column) {
+        Object values = columns[column];
+        if (values instanceof String[]) {
+            String[] strings = (String[]) values;
+            int index = getIndex();
+            return index < strings.length ? strings[index] : null;
+        }
+        if (isNull(column)) {
+            return null;
+        }
+        if (values instanceof float[]) {
+            return Float.toString(getFloat(column));
+        }
+        return Long.toString(getLong(column));
+    }
+
+    @Override
+    public short getShort(int column) {
+        return (short) getLong(column);
+    }
+
+    @Override
+    public int getInt(int column) {
+        return (int) getLong(column);
+    }
+
+    @Override
+    public long getLong(int column) {
+        Object values = columns[column];
+        int index = getIndex();
+        if (values == ROW_ID) {
+            return index;
+        } else if (values instanceof long[]) {
+            long[] longs = (long[]) values;
+            return index < longs.length ? longs[index] : -1L;
+        } else if (values instanceof int[]) {
+            int[] ints = (int[]) values;
+            return index < ints.length ? ints[index] : -1;
+        } else if (values instanceof String[]) {
+            String value = getString(column);
+            return value != null ? Long.parseLong(value) : 0;
+        }
+        return (long) getFloat(column);
+    }
+
+    @Override
+    public float getFloat(int column) {
+        Object values = columns[column];
+        if (values instanceof float[]) {
+            float[] floats = (float[]) values;
+            int index = getIndex();
+            float value = index < floats.length ? floats[index] : Float.NaN;
+            return Float.isNaN(value) ? 0 : value;
+        } else if (values instanceof String[]) {
+            String value = getString(column);
+            return value != null ? Float.parseFloat(value) : 0;
+        }
+        return getLong(column);
+    }
+
+    @Override
+    public double getDouble(int column) {
+        if (columns[column] instanceof long[]) {
+            return getLong(column);
+        }
+        return getFloat(column);
+    }
+
+    @Override
+    public boolean isNull(int column) {
+        Object values = columns[column];
+        int index = getIndex();
+        if (values == ROW_ID) {
+            return false;
+        } else if (values instanceof float[]) {
+            float[] floats = (float[]) values;
+            return index >= floats.length || Float.isNaN(floats[index]);
+        } else if (values instanceof long[]) {
+            long[] longs = (long[]) values;
+            return index >= longs.length || longs[index] < 0;
+        } else if (values instanceof int[]) {
+            int[] ints = (int[]) values;
+            return index >= ints.length || ints[index] < 0;
+        }
+        return getString(column) == null;
+    }
+
+    @Override
+    public int getType(int column) {
+        if (isNull(column)) {
+            return Cursor.FIELD_TYPE_NULL;
+        }
+        Object values = columns[column];
+        if (values instanceof float[]) {
+            return Cursor.FIELD_TYPE_FLOAT;
+        } else if (values instanceof String[]) {
+            return Cursor.FIELD_TYPE_STRING;
+        }
+        return Cursor.FIELD_TYPE_INTEGER;
+    }
+
+    /** @return index of the current row in column arrays */
+    private int getIndex() {
+        return from + getPosition();
+    }
+}
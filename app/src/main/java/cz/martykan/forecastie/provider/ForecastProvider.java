@@ -0,0 +1,365 @@
+package cz.martykan.forecastie.provider;
+
+import android.content.ContentProvider;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.UriMatcher;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.BaseColumns;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+
+/**
+ * Read-only provider of the stored forecast, see {@link ForecastContract}.
+ * <br/>
+ * Cursors read columns of the stored {@link Forecast} directly: only columns of the projection are
+ * looked up and a time range selects rows by binary search, so a query never copies rows.
+ * Selection arguments are not supported, use {@link ForecastContract#withTimeRange(Uri, long, long)}.
+ * <br/>
+ * Forecast is read once and kept until a new one is stored, a query has no side effects: it
+ * neither rebuilds the snapshot nor updates the nowcast.
+ */
+public class ForecastProvider extends ContentProvider {
+    private static final int CURRENT = 1;
+    private static final int HOURLY = 2;
+    private static final int DAILY = 3;
+
+    private static final String[] CURRENT_COLUMNS = {
+            BaseColumns._ID,
+            ForecastContract.Current.TIME,
+            ForecastContract.Current.TEMPERATURE,
+            ForecastContract.Current.APPARENT_TEMPERATURE,
+            ForecastContract.Current.HUMIDITY,
+            ForecastContract.Current.PRESSURE,
+            ForecastContract.Current.WIND_SPEED,
+            ForecastContract.Current.WIND_DIRECTION,
+            ForecastContract.Current.RAIN,
+            ForecastContract.Current.PRECIPITATION_PROBABILITY,
+            ForecastContract.Current.WEATHER_CODE,
+            ForecastContract.Current.LATITUDE,
+            ForecastContract.Current.LONGITUDE,
+            ForecastContract.Current.CITY,
+            ForecastContract.Current.COUNTRY,
+    };
+    private static final String[] HOURLY_COLUMNS = {
+            BaseColumns._ID,
+            ForecastContract.Hourly.TIME,
+            ForecastContract.Hourly.TEMPERATURE,
+            ForecastContract.Hourly.APPARENT_TEMPERATURE,
+            ForecastContract.Hourly.HUMIDITY,
+            ForecastContract.Hourly.PRESSURE,
+            ForecastContract.Hourly.WIND_SPEED,
+            ForecastContract.Hourly.WIND_DIRECTION,
+            ForecastContract.Hourly.RAIN,
+            ForecastContract.Hourly.PRECIPITATION_PROBABILITY,
+            ForecastContract.Hourly.WEATHER_CODE,
+    };
+    private static final String[] DAILY_COLUMNS = {
+            BaseColumns._ID,
+            ForecastContract.Daily.TIME,
+            ForecastContract.Daily.TEMPERATURE_MAX,
+            ForecastContract.Daily.TEMPERATURE_MIN,
+            ForecastContract.Daily.PRECIPITATION_SUM,
+            ForecastContract.Daily.WIND_SPEED_MAX,
+            ForecastContract.Daily.WEATHER_CODE,
+            ForecastContract.Daily.SUNRISE,
+            ForecastContract.Daily.SUNSET,
+            ForecastContract.Daily.UV_INDEX_MAX,
+    };
+
+    private static final UriMatcher uriMatcher = new UriMatcher(UriMatcher.NO_MATCH);
+
+    static {
+        uriMatcher.addURI(ForecastContract.AUTHORITY, "current", CURRENT);
+        uriMatcher.addURI(ForecastContract.AUTHORITY, "hourly", HOURLY);
+        uriMatcher.addURI(ForecastContract.AUTHORITY, "daily", DAILY);
+    }
+
+    private static final Object forecastLock = new Object();
+    /** Forecast read by the last query or {@code null} if it has to be read again. */
+    private static Forecast cachedForecast;
+    /** Incremented on every invalidation, a forecast read before it must not be cached. */
+    private static int forecastGeneration;
+
+    private WeatherStorage weatherStorage;
+
+    @Override
+    public boolean onCreate() {
+        return true;
+    }
+
+    @Nullable
+    @Override
+    public Cursor query(@NonNull Uri uri, @Nullable String[] projection, @Nullable String selection,
+                        @Nullable String[] selectionArgs, @Nullable String sortOrder) {
+        int match = uriMatcher.match(uri);
+        if (match == UriMatcher.NO_MATCH) {
+            throw new IllegalArgumentException("Unknown uri: " + uri);
+        }
+        if (selection != null) {
+            throw new IllegalArgumentException("Selection is not supported, use time range of uri");
+        }
+
+        WeatherStorage weatherStorage = getWeatherStorage();
+        Forecast forecast = getForecast(weatherStorage);
+
+        ForecastCursor cursor;
+        switch (match) {
+            case CURRENT: {
+                String[] columnNames = projection != null ? projection : CURRENT_COLUMNS;
+                Object[] columns = new Object[columnNames.length];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = getCurrentColumn(forecast, weatherStorage, columnNames[i]);
+                }
+                cursor = new ForecastCursor(columnNames, columns, 0, forecast.hasCurrent() ? 1 : 0);
+                break;
+            }
+            case HOURLY: {
+                String[] columnNames = projection != null ? projection : HOURLY_COLUMNS;
+                Object[] columns = new Object[columnNames.length];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = getHourlyColumn(forecast, columnNames[i]);
+                }
+                cursor = createSeriesCursor(uri, columnNames, columns, forecast.getHourlyTime(),
+                        forecast.getHourlyCount());
+                break;
+            }
+            default: {
+                String[] columnNames = projection != null ? projection : DAILY_COLUMNS;
+                Object[] columns = new Object[columnNames.length];
+                for (int i = 0; i < columns.length; i++) {
+                    columns[i] = getDailyColumn(forecast, columnNames[i]);
+                }
+                cursor = createSeriesCursor(uri, columnNames, columns, forecast.getDailyTime(),
+                        forecast.getDailyCount());
+                break;
+            }
+        }
+
+        Context context = getContext();
+        if (context != null) {
+            cursor.setNotificationUri(context.getContentResolver(), ForecastContract.CONTENT_URI);
+        }
+        return cursor;
+    }
+
+    @Nullable
+    @Override
+    public String getType(@NonNull Uri uri) {
+        switch (uriMatcher.match(uri)) {
+            case CURRENT:
+                return ForecastContract.Current.CONTENT_ITEM_TYPE;
+            case HOURLY:
+                return ForecastContract.Hourly.CONTENT_TYPE;
+            case DAILY:
+                return ForecastContract.Daily.CONTENT_TYPE;
+            default:
+                return null;
+        }
+    }
+
+    @Nullable
+    @Override
+    public Uri insert(@NonNull Uri uri, @Nullable ContentValues contentValues) {
+        throw new UnsupportedOperationException("Forecast is read-only");
+    }
+
+    @Override
+    public int delete(@NonNull Uri uri, @Nullable String s, @Nullable String[] strings) {
+        throw new UnsupportedOperationException("Forecast is read-only");
+    }
+
+    @Override
+    public int update(@NonNull Uri uri, @Nullable ContentValues contentValues, @Nullable String s, @Nullable String[] strings) {
+        throw new UnsupportedOperationException("Forecast is read-only");
+    }
+
+    /**
+     * Drop cached forecast, the next query reads the stored one. Call it whenever a new forecast
+     * is stored, before observers of {@link ForecastContract#CONTENT_URI} are notified.
+     */
+    public static void invalidateForecast() {
+        synchronized (forecastLock) {
+            cachedForecast = null;
+            forecastGeneration++;
+        }
+    }
+
+    @NonNull
+    private static Forecast getForecast(@NonNull WeatherStorage weatherStorage) {
+        int generation;
+        synchronized (forecastLock) {
+            if (cachedForecast != null) {
+                return cachedForecast;
+            }
+            generation = forecastGeneration;
+        }
+
+        // read outside of the lock, forecast may be stored meanwhile
+        Forecast forecast = weatherStorage.readLastForecast();
+        if (forecast == null) {
+            forecast = new Forecast();
+        }
+        synchronized (forecastLock) {
+            if (generation == forecastGeneration) {
+                cachedForecast = forecast;
+            }
+        }
+        return forecast;
+    }
+
+    @NonNull
+    private synchronized WeatherStorage getWeatherStorage() {
+        if (weatherStorage == null) {
+            //noinspection ConstantConditions
+            weatherStorage = new WeatherStorage(getContext());
+        }
+        return weatherStorage;
+    }
+
+    /**
+     * Create cursor of rows whose time is in the time range of {@code uri}. Rows without time
+     * can't be ordered, so they are left out whether a range is given or not.
+     * @param time times of rows in Unix seconds, ascending
+     * @param count number of rows of the series
+     */
+    @NonNull
+    private static ForecastCursor createSeriesCursor(@NonNull Uri uri, @NonNull String[] columnNames,
+                                                     @NonNull Object[] columns, @NonNull long[] time,
+                                                     int count) {
+        int rows = Math.min(count, time.length);
+        String start = uri.getQueryParameter(ForecastContract.PARAMETER_START);
+        String end = uri.getQueryParameter(ForecastContract.PARAMETER_END);
+        int from = start != null ? findRow(time, rows, parseTime(start)) : 0;
+        int to = end != null ? findRow(time, rows, parseTime(end)) : rows;
+        return new ForecastCursor(columnNames, columns, from, Math.max(0, to - from));
+    }
+
+    /** @return index of the first of {@code rows} rows at {@code value} or later */
+    private static int findRow(@NonNull long[] time, int rows, long value) {
+        int low = 0;
+        int high = rows;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (time[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static long parseTime(@NonNull String time) {
+        try {
+            return Long.parseLong(time);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Time should be in Unix seconds: " + time, e);
+        }
+    }
+
+    @NonNull
+    private static Object getCurrentColumn(@NonNull Forecast forecast,
+                                           @NonNull WeatherStorage weatherStorage,
+                                           @NonNull String column) {
+        // values missing in current weather are taken from the current hour
+        int hour = forecast.getHourlyCount() > 0 ? forecast.getCurrentHourIndex() : 0;
+        switch (column) {
+            case BaseColumns._ID:
+                return ForecastCursor.ROW_ID;
+            case ForecastContract.Current.TIME:
+                return new long[]{forecast.getCurrentTime()};
+            case ForecastContract.Current.TEMPERATURE:
+                return new float[]{forecast.getCurrentTemperature()};
+            case ForecastContract.Current.APPARENT_TEMPERATURE:
+                return new float[]{forecast.getHourlyApparentTemperature(hour)};
+            case ForecastContract.Current.HUMIDITY:
+                return new float[]{forecast.getHourlyHumidity(hour)};
+            case ForecastContract.Current.PRESSURE:
+                return new float[]{forecast.getHourlyPressure(hour)};
+            case ForecastContract.Current.WIND_SPEED:
+                return new float[]{forecast.getCurrentWindSpeed()};
+            case ForecastContract.Current.WIND_DIRECTION:
+                return new float[]{forecast.getCurrentWindDirection()};
+            case ForecastContract.Current.RAIN:
+                return new float[]{forecast.getHourlyRain(hour)};
+            case ForecastContract.Current.PRECIPITATION_PROBABILITY:
+                return new float[]{forecast.getHourlyPrecipitationProbability(hour)};
+            case ForecastContract.Current.WEATHER_CODE:
+                return new int[]{forecast.getCurrentWeatherCode()};
+            case ForecastContract.Current.LATITUDE:
+                return new float[]{(float) forecast.getLatitude()};
+            case ForecastContract.Current.LONGITUDE:
+                return new float[]{(float) forecast.getLongitude()};
+            case ForecastContract.Current.CITY:
+                return new String[]{weatherStorage.getCity()};
+            case ForecastContract.Current.COUNTRY:
+                return new String[]{weatherStorage.getCountry()};
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    @NonNull
+    private static Object getHourlyColumn(@NonNull Forecast forecast, @NonNull String column) {
+        switch (column) {
+            case BaseColumns._ID:
+                return ForecastCursor.ROW_ID;
+            case ForecastContract.Hourly.TIME:
+                return forecast.getHourlyTime();
+            case ForecastContract.Hourly.TEMPERATURE:
+                return forecast.getHourlyTemperature();
+            case ForecastContract.Hourly.APPARENT_TEMPERATURE:
+                return forecast.getHourlyApparentTemperature();
+            case ForecastContract.Hourly.HUMIDITY:
+                return forecast.getHourlyHumidity();
+            case ForecastContract.Hourly.PRESSURE:
+                return forecast.getHourlyPressure();
+            case ForecastContract.Hourly.WIND_SPEED:
+                return forecast.getHourlyWindSpeed();
+            case ForecastContract.Hourly.WIND_DIRECTION:
+                return forecast.getHourlyWindDirection();
+            case ForecastContract.Hourly.RAIN:
+                return forecast.getHourlyRain();
+            case ForecastContract.Hourly.PRECIPITATION_PROBABILITY:
+                return forecast.getHourlyPrecipitationProbability();
+            case ForecastContract.Hourly.WEATHER_CODE:
+                return forecast.getHourlyWeatherCode();
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+
+    @NonNull
+    private static Object getDailyColumn(@NonNull Forecast forecast, @NonNull String column) {
+        switch (column) {
+            case BaseColumns._ID:
+                return ForecastCursor.ROW_ID;
+            case ForecastContract.Daily.TIME:
+                return forecast.getDailyTime();
+            case ForecastContract.Daily.TEMPERATURE_MAX:
+                return forecast.getDailyTemperatureMax();
+            case ForecastContract.Daily.TEMPERATURE_MIN:
+                return forecast.getDailyTemperatureMin();
+            case ForecastContract.Daily.PRECIPITATION_SUM:
+                return forecast.getDailyPrecipitationSum();
+            case ForecastContract.Daily.WIND_SPEED_MAX:
+                return forecast.getDailyWindSpeedMax();
+            case ForecastContract.Daily.WEATHER_CODE:
+                return forecast.getDailyWeatherCode();
+            case ForecastContract.Daily.SUNRISE:
+                return forecast.getDailySunrise();
+            case ForecastContract.Daily.SUNSET:
+                return forecast.getDailySunset();
+            case ForecastContract.Daily.UV_INDEX_MAX:
+                return forecast.getDailyUvIndexMax();
+            default:
+                throw new IllegalArgumentException("Unknown column: " + column);
+        }
+    }
+}
@@ -4,7 +4,6 @@ import android.annotation.SuppressLint;
 import android.app.ProgressDialog;
 import android.content.Context;
 import android.content.SharedPreferences;
-import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Build;
 import android.preference.PreferenceManager;
@@ -20,12 +19,13 @@ import cz.martykan.forecastie.Constants;
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.activities.MainActivity;
 import cz.martykan.forecastie.utils.Language;
+import cz.martykan.forecastie.utils.PerfTrace;
+import cz.martykan.forecastie.weatherapi.OpenMeteoApi;
 import cz.martykan.forecastie.weatherapi.WeatherStorage;
-import okhttp3.Call;
-import okhttp3.Callback;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
+import okio.BufferedSource;
 
 public abstract class GenericRequestTask extends AsyncTask<String, String, TaskOutput> {
 
@@ -41,8 +41,8 @@ public abstract class GenericRequestTask extends AsyncTask<String, String, TaskO
         this.context = context;
         this.activity = activity;
         this.progressDialog = progressDialog;
-        this.weatherStorage = new WeatherStorage(activity);
-        this.okHttpClient = new OkHttpClient();
+        this.weatherStorage = new WeatherStorage(context);
+        this.okHttpClient = OpenMeteoApi.getClient();
     }
 
     @Override
@@ -69,13 +69,7 @@ public abstract class GenericRequestTask extends AsyncTask<String, String, TaskO
             }
         }
 
-        TaskOutput requestOutput = makeRequest(reqParams);
-
-        if (TaskResult.SUCCESS.equals(requestOutput .taskResult)) {
-            requestOutput.parseResult = parseResponse(requestOutput.response);
-        }
-
-        return requestOutput ;
+        return makeRequest(reqParams);
     }
 
     private TaskOutput makeRequest(String[] reqParams) {
@@ -88,27 +82,44 @@ public abstract class GenericRequestTask extends AsyncTask<String, String, TaskO
                     .url(url.toString())
                     .build();
             
-            Response responseObj = okHttpClient.newCall(request).execute();
-            if (responseObj.isSuccessful()) {
-                String responseBody = responseObj.body().string();
-                output.response = responseBody;
-                // Background work finished successfully
-                Log.i("Task", "done successfully");
-                output.taskResult = TaskResult.SUCCESS;
-                // Save date/time for latest successful result
-                MainActivity.saveLastUpdateTime(PreferenceManager.getDefaultSharedPreferences(context));
-            } else if (responseObj.code() == 401) {
-                // Invalid API key
-                Log.w("Task", "invalid API key");
-                output.taskResult = TaskResult.INVALID_API_KEY;
-            } else if (responseObj.code() == 429) {
-                // Too many requests
-                Log.w("Task", "too many requests");
-                output.taskResult = TaskResult.TOO_MANY_REQUESTS;
-            } else {
-                // Bad response from server
-                Log.w("Task", "http error " + responseObj.code());
-                output.taskResult = TaskResult.HTTP_ERROR;
+            String fetchSection = "fetch." + getAPIName();
+            String parseSection = "parse." + getAPIName();
+            long fetchStart = PerfTrace.begin(fetchSection);
+            Response responseObj;
+            try {
+                responseObj = okHttpClient.newCall(request).execute();
+            } finally {
+                PerfTrace.end(fetchSection, fetchStart);
+            }
+            try {
+                if (responseObj.isSuccessful()) {
+                    // Body is parsed while it is being downloaded
+                    long parseStart = PerfTrace.begin(parseSection);
+                    try {
+                        output.parseResult = parseResponse(responseObj.body().source());
+                    } finally {
+                        PerfTrace.end(parseSection, parseStart);
+                    }
+                    // Background work finished successfully
+                    Log.i("Task", "done successfully");
+                    output.taskResult = TaskResult.SUCCESS;
+                    // Save date/time for latest successful result
+                    MainActivity.saveLastUpdateTime(PreferenceManager.getDefaultSharedPreferences(context));
+                } else if (responseObj.code() == 401) {
+                    // Invalid API key
+                    Log.w("Task", "invalid API key");
+                    output.taskResult = TaskResult.INVALID_API_KEY;
+                } else if (responseObj.code() == 429) {
+                    // Too many requests
+                    Log.w("Task", "too many requests");
+                    output.taskResult = TaskResult.TOO_MANY_REQUESTS;
+                } else {
+                    // Bad response from server
+                    Log.w("Task", "http error " + responseObj.code());
+                    output.taskResult = TaskResult.HTTP_ERROR;
+                }
+            } finally {
+                responseObj.close();
             }
         } catch (IOException e) {
             e.printStackTrace();
@@ -159,22 +170,11 @@ public abstract class GenericRequestTask extends AsyncTask<String, String, TaskO
     private URL provideURL(String[] reqParams) throws MalformedURLException {
         SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
 
-        Uri.Builder uriBuilder = new Uri.Builder().scheme("https");
-
         String apiName = getAPIName();
         if ("find".equals(apiName)) {
-            uriBuilder.authority("geocoding-api.open-meteo.com")
-                    .path("/v1/search");
-            if (reqParams.length > 0 && "city".equals(reqParams[0])) {
-                uriBuilder.appendQueryParameter("name", reqParams[1]);
-            }
-            uriBuilder.appendQueryParameter("count", "10");
-            uriBuilder.appendQueryParameter("language", Language.getLanguageCode());
-            uriBuilder.appendQueryParameter("format", "json");
+            String name = reqParams.length > 0 && "city".equals(reqParams[0]) ? reqParams[1] : null;
+            return new URL(OpenMeteoApi.getGeocodingUrl(name, Language.getLanguageCode()));
         } else {
-            uriBuilder.authority("api.open-meteo.com")
-                    .path("/v1/forecast");
-
             String lat, lon;
             if (reqParams.length > 0 && "coords".equals(reqParams[0])) {
                 lat = reqParams[1];
@@ -184,22 +184,22 @@ public abstract class GenericRequestTask extends AsyncTask<String, String, TaskO
                 lon = Double.toString(weatherStorage.getLongitude(Constants.DEFAULT_LON));
             }
 
-            uriBuilder.appendQueryParameter("latitude", lat);
-            uriBuilder.appendQueryParameter("longitude", lon);
-            uriBuilder.appendQueryParameter("current_weather", "true");
-            uriBuilder.appendQueryParameter("hourly", "temperature_2m,relativehumidity_2m,weathercode,pressure_msl,windspeed_10m,winddirection_10m,rain,precipitation_probability,apparent_temperature");
-            uriBuilder.appendQueryParameter("daily", "sunrise,sunset,uv_index_max");
-            uriBuilder.appendQueryParameter("timezone", "auto");
-            uriBuilder.appendQueryParameter("timeformat", "unixtime");
+            return new URL(OpenMeteoApi.getForecastUrl(lat, lon,
+                    sp.getBoolean("extendedForecast", false)
+                            ? Constants.EXTENDED_FORECAST_DAYS : Constants.FORECAST_DAYS));
         }
-
-        return new URL(uriBuilder.build().toString());
     }
 
     protected void updateMainUI() {
     }
 
-    protected abstract ParseResult parseResponse(String response);
+    /**
+     * Parse response body. Called on background thread while the body is still being downloaded.
+     * @param source response body
+     * @return result of parsing
+     * @throws IOException if reading of response failed
+     */
+    protected abstract ParseResult parseResponse(BufferedSource source) throws IOException;
 
     protected abstract String getAPIName();
 }
@@ -1,10 +1,12 @@
 package cz.martykan.forecastie.utils;
 
 import android.content.Context;
+import android.graphics.Typeface;
 
-import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
+import androidx.annotation.NonNull;
 
 public class Formatting {
+    private static Typeface weatherFont;
 
     private Context context;
 
@@ -12,7 +14,27 @@ public class Formatting {
         this.context = context;
     }
 
-    public String getWeatherIcon(int actualId, boolean isDay) {
-        return WeatherFormatter.getWeatherIconAsText(actualId, isDay, context);
+    /**
+     * @param weatherCode WMO weather code
+     * @param isDay {@code true} for day icon and {@code false} for night icon
+     * @return icon glyph to show with the weather font
+     */
+    public String getWeatherIcon(int weatherCode, boolean isDay) {
+        return WmoCodes.getIcon(weatherCode, isDay, context);
+    }
+
+    /**
+     * Returns font with weather icon glyphs. It is loaded from assets on the first call only and
+     * shared by all views, widgets and notification.
+     * @param context android context
+     * @return weather font
+     */
+    @NonNull
+    public static synchronized Typeface getWeatherFont(@NonNull Context context) {
+        if (weatherFont == null) {
+            weatherFont = Typeface.createFromAsset(context.getApplicationContext().getAssets(),
+                    "fonts/weather.ttf");
+        }
+        return weatherFont;
     }
 }
@@ -0,0 +1,83 @@
+package cz.martykan.forecastie.utils;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling of evenly spaced values.
+ * <br/>
+ * Points are split into buckets and from every bucket the point forming the largest triangle
+ * with the previously selected point and the average of the next bucket is kept, so peaks and
+ * shape of the series survive even when only a fraction of points is drawn. The first and the
+ * last point are always kept. Missing values ({@code NaN}) are never preferred over present ones.
+ */
+public class Lttb {
+    /**
+     * Select at most {@code threshold} points of the first {@code count} {@code values}.
+     * @param values series of values, x coordinate of value is its index
+     * @param count number of values from the start of {@code values} to downsample
+     * @param threshold maximum number of selected points, all points are selected if it is less
+     *                  than 3
+     * @return indexes of selected points in ascending order
+     * @throws IllegalArgumentException if {@code count} is bigger than size of {@code values}
+     */
+    @NonNull
+    public static int[] downsample(@NonNull float[] values, int count, int threshold)
+            throws IllegalArgumentException {
+        if (count > values.length)
+            throw new IllegalArgumentException("count is bigger than size of values");
+
+        if (threshold < 3 || threshold >= count) {
+            int[] all = new int[count];
+            for (int i = 0; i < count; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+
+        int[] selected = new int[threshold];
+        double bucketSize = (double) (count - 2) / (threshold - 2);
+        int a = 0;
+        selected[0] = a;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average of the next bucket
+            int nextStart = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, count);
+            double averageX = 0;
+            double averageY = 0;
+            int present = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                if (!Float.isNaN(values[i])) {
+                    averageX += i;
+                    averageY += values[i];
+                    present++;
+                }
+            }
+            if (present > 0) {
+                averageX /= present;
+                averageY /= present;
+            } else {
+                averageX = (nextStart + nextEnd - 1) / 2.0;
+                averageY = values[a];
+            }
+
+            // point of the current bucket with the largest triangle
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+            double ay = values[a];
+            double maxArea = -1;
+            int next = start;
+            for (int i = start; i < end; i++) {
+                double area = Math.abs((a - averageX) * (values[i] - ay) - (a - i) * (averageY - ay));
+                if (area > maxArea) {
+                    maxArea = area;
+                    next = i;
+                }
+            }
+
+            selected[bucket + 1] = next;
+            a = next;
+        }
+        selected[threshold - 1] = count - 1;
+        return selected;
+    }
+}
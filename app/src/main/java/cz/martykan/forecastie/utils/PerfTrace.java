@@ -0,0 +1,184 @@
+package cz.martykan.forecastie.utils;
+
+import android.os.SystemClock;
+import android.os.Trace;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lightweight timing of startup, refresh and rendering.
+ * <br/>
+ * Sections show up in systrace/Perfetto via {@link Trace} and their durations are kept in memory
+ * (last {@link #MAX_SAMPLES} per section) to show percentiles in settings. Usage:
+ * <pre>
+ * long start = PerfTrace.begin("parse");
+ * try {
+ *     ...
+ * } finally {
+ *     PerfTrace.end("parse", start);
+ * }
+ * </pre>
+ * Sections have to be ended on the thread they were started on.
+ */
+public class PerfTrace {
+    static final int MAX_SAMPLES = 256;
+
+    private static final Map<String, Samples> samples = new LinkedHashMap<>();
+
+    /**
+     * Start a section.
+     * @param name section name
+     * @return start time to pass into {@link #end(String, long)}
+     */
+    public static long begin(@NonNull String name) {
+        Trace.beginSection(name);
+        return SystemClock.elapsedRealtimeNanos();
+    }
+
+    /**
+     * End the section started by {@link #begin(String)} on this thread and record its duration.
+     * @param name section name
+     * @param start value returned by {@link #begin(String)}
+     */
+    public static void end(@NonNull String name, long start) {
+        long duration = SystemClock.elapsedRealtimeNanos() - start;
+        Trace.endSection();
+        record(name, duration);
+    }
+
+    /**
+     * Record duration measured without a trace section, e.g. spanning several callbacks.
+     * @param name section name
+     * @param durationNanos duration in nanoseconds
+     */
+    public static void record(@NonNull String name, long durationNanos) {
+        synchronized (samples) {
+            Samples sectionSamples = samples.get(name);
+            if (sectionSamples == null) {
+                sectionSamples = new Samples();
+                samples.put(name, sectionSamples);
+            }
+            sectionSamples.add(durationNanos);
+        }
+    }
+
+    /** @return statistics of all sections in order of their first occurrence */
+    @NonNull
+    public static List<Stats> getStats() {
+        synchronized (samples) {
+            List<Stats> result = new ArrayList<>(samples.size());
+            for (Map.Entry<String, Samples> entry : samples.entrySet()) {
+                result.add(entry.getValue().toStats(entry.getKey()));
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Export statistics, e.g. {@code {"startup": {"count": 3, "p50Ms": 210.5, "p95Ms": 380.1,
+     * "maxMs": 380.1}}}.
+     */
+    @NonNull
+    public static String toJson() {
+        JSONObject json = new JSONObject();
+        try {
+            for (Stats stats : getStats()) {
+                JSONObject section = new JSONObject();
+                section.put("count", stats.getCount());
+                section.put("p50Ms", stats.getP50Millis());
+                section.put("p95Ms", stats.getP95Millis());
+                section.put("maxMs", stats.getMaxMillis());
+                json.put(stats.getName(), section);
+            }
+        } catch (JSONException e) {
+            // cannot happen, all values are finite
+            e.printStackTrace();
+        }
+        return json.toString();
+    }
+
+    /** Forget all recorded durations. */
+    public static void reset() {
+        synchronized (samples) {
+            samples.clear();
+        }
+    }
+
+    /** Percentiles of a section. Durations are in milliseconds. */
+    public static class Stats {
+        private final String name;
+        private final long count;
+        private final double p50Millis;
+        private final double p95Millis;
+        private final double maxMillis;
+
+        Stats(@NonNull String name, long count, double p50Millis, double p95Millis, double maxMillis) {
+            this.name = name;
+            this.count = count;
+            this.p50Millis = p50Millis;
+            this.p95Millis = p95Millis;
+            this.maxMillis = maxMillis;
+        }
+
+        @NonNull
+        public String getName() {
+            return name;
+        }
+
+        /** @return number of all recorded durations, percentiles use only the last ones */
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50Millis() {
+            return p50Millis;
+        }
+
+        public double getP95Millis() {
+            return p95Millis;
+        }
+
+        public double getMaxMillis() {
+            return maxMillis;
+        }
+    }
+
+    /** Ring buffer of the last durations. */
+    private static class Samples {
+        private final long[] durations = new long[MAX_SAMPLES];
+        private long count;
+
+        void add(long duration) {
+            durations[(int) (count % MAX_SAMPLES)] = duration;
+            count++;
+        }
+
+        @NonNull
+        Stats toStats(@NonNull String name) {
+            int size = (int) Math.min(count, MAX_SAMPLES);
+            long[] sorted = Arrays.copyOf(durations, size);
+            Arrays.sort(sorted);
+            return new Stats(name, count, toMillis(percentile(sorted, 50)),
+                    toMillis(percentile(sorted, 95)), toMillis(sorted[size - 1]));
+        }
+
+        /** Nearest-rank percentile. */
+        private static long percentile(@NonNull long[] sorted, int percentile) {
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(rank - 1, 0)];
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+    }
+}
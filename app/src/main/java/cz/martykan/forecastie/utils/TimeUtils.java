@@ -12,13 +12,17 @@ import cz.martykan.forecastie.models.Weather;
 public class TimeUtils {
 
     public static boolean isDayTime(Weather W, Calendar Cal){
-        Date Sunrise = W.getSunrise();
-        Date Sunset = W.getSunset();
+        if (W.getDayTime() != null) {
+            // forecast hours know it from the solar table of their day
+            return W.getDayTime();
+        }
+        long Sunrise = W.getSunrise();
+        long Sunset = W.getSunset();
         boolean day;
-        if((Sunrise != null) && (Sunset != null)){
-            Date currentTime = Calendar.getInstance().getTime();    // Cal is always set to midnight
-                                                                    // then get real time
-            day = currentTime.after(W.getSunrise()) && currentTime.before(W.getSunset());
+        if((Sunrise >= 0) && (Sunset >= 0)){
+            long currentTime = System.currentTimeMillis();  // Cal is always set to midnight
+                                                            // then get real time
+            day = currentTime > Sunrise && currentTime < Sunset;
         }
         else{
             // fallback
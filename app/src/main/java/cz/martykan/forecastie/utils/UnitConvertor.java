@@ -3,11 +3,18 @@ package cz.martykan.forecastie.utils;
 import android.content.Context;
 import android.content.SharedPreferences;
 
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
 import java.util.Locale;
 
 import cz.martykan.forecastie.R;
 
 public class UnitConvertor {
+    /** Rain in mm and inches, same as {@code "%.1f"} and {@code "%.2f"} in English. */
+    private static final DecimalFormat RAIN_MM_FORMAT = createRainFormat("0.0");
+    private static final DecimalFormat RAIN_INCH_FORMAT = createRainFormat("0.00");
+
     public static float convertTemperature(float temperature, SharedPreferences sp) {
         String unit = sp.getString("unit", "°C");
         return convertTemperature(temperature, unit);
@@ -53,14 +60,17 @@ public class UnitConvertor {
 
             if (rain < 0.1) {
                 sb.append(isMetric ? "<0.1" : "<0.01");
-            } else if (isMetric) {
-                sb.append(String.format(Locale.ENGLISH, "%.1f %s", rain, lengthUnit));
             } else {
-                sb.append(String.format(Locale.ENGLISH, "%.2f %s", rain, lengthUnit));
+                // formats are shared, list rows are bound without creating a formatter
+                DecimalFormat format = isMetric ? RAIN_MM_FORMAT : RAIN_INCH_FORMAT;
+                synchronized (format) {
+                    sb.append(format.format(rain));
+                }
+                sb.append(' ').append(lengthUnit);
             }
 
             if (percentOfPrecipitation > 0) {
-                sb.append(", ").append(String.format(Locale.ENGLISH, "%d%%", Math.round(percentOfPrecipitation * 100)));
+                sb.append(", ").append(Math.round(percentOfPrecipitation * 100)).append('%');
             }
 
             sb.append(")");
@@ -145,7 +155,7 @@ public class UnitConvertor {
         return result;
     }
 
-    private static double convertWindIntoBFT(double wind) {
+    static double convertWindIntoBFT(double wind) {
         int result;
         if (wind < 0.3) {
             result = 0; // Calm
@@ -223,4 +233,10 @@ public class UnitConvertor {
             return context.getString(R.string.beaufort_hurricane);
         }
     }
+
+    private static DecimalFormat createRainFormat(String pattern) {
+        DecimalFormat format = new DecimalFormat(pattern, DecimalFormatSymbols.getInstance(Locale.ENGLISH));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    }
 }
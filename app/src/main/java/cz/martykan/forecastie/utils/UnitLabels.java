@@ -0,0 +1,175 @@
+package cz.martykan.forecastie.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.os.ConfigurationCompat;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import cz.martykan.forecastie.utils.localizers.PressureUnitsLocalizer;
+import cz.martykan.forecastie.utils.localizers.WindSpeedUnitsLocalizer;
+
+/**
+ * Localized labels of all units and of units selected in settings.
+ * <br/>
+ * Labels are resolved once per locale and settings change and then shared by widgets,
+ * notification, list and graphs, so formatting a value is just a field read or a map lookup
+ * without any resource or preference access.
+ */
+public class UnitLabels {
+    private static final String[] SPEED_UNITS = {"m/s", "kph", "mph", "kn"};
+    private static final String[] PRESSURE_UNITS = {"hPa", "hPa/mBar", "kPa", "mm Hg", "in Hg"};
+    private static final String[] UNIT_KEYS = {"unit", "speedUnit", "pressureUnit", "lengthUnit"};
+
+    private static UnitLabels current;
+    /** Preferences labels were resolved from, they are cached by the system. */
+    private static SharedPreferences preferences;
+    /** Strong reference, preferences keep only weak references to listeners. */
+    private static final SharedPreferences.OnSharedPreferenceChangeListener settingsListener =
+            new SharedPreferences.OnSharedPreferenceChangeListener() {
+                @Override
+                public void onSharedPreferenceChanged(SharedPreferences sharedPreferences, String key) {
+                    for (String unitKey : UNIT_KEYS) {
+                        if (unitKey.equals(key)) {
+                            invalidate();
+                            return;
+                        }
+                    }
+                }
+            };
+
+    private final Locale locale;
+    private final Map<String, String> speedLabels;
+    private final Map<String, String> pressureLabels;
+    private final String temperatureUnit;
+    private final String speedUnit;
+    private final String pressureUnit;
+    private final String lengthUnit;
+    private final String speedLabel;
+    private final String pressureLabel;
+    private final UnitSystem unitSystem;
+
+    private UnitLabels(@NonNull Context context, @NonNull SharedPreferences sp, @NonNull Locale locale) {
+        this.locale = locale;
+
+        Map<String, String> speedLabels = new HashMap<>();
+        for (String unit : SPEED_UNITS) {
+            speedLabels.put(unit, WindSpeedUnitsLocalizer.localizeWindSpeedUnits(unit, context));
+        }
+        this.speedLabels = Collections.unmodifiableMap(speedLabels);
+        Map<String, String> pressureLabels = new HashMap<>();
+        for (String unit : PRESSURE_UNITS) {
+            pressureLabels.put(unit, PressureUnitsLocalizer.localizePressureUnits(unit, context));
+        }
+        this.pressureLabels = Collections.unmodifiableMap(pressureLabels);
+
+        temperatureUnit = sp.getString("unit", "°C");
+        speedUnit = sp.getString("speedUnit", "m/s");
+        pressureUnit = sp.getString("pressureUnit", "hPa");
+        lengthUnit = sp.getString("lengthUnit", "mm");
+        String speed = speedLabels.get(speedUnit);
+        speedLabel = speed != null ? speed : speedUnit;
+        String pressure = pressureLabels.get(pressureUnit);
+        pressureLabel = pressure != null ? pressure : pressureUnit;
+        unitSystem = new UnitSystem(temperatureUnit, speedUnit, pressureUnit, lengthUnit);
+    }
+
+    /**
+     * Get labels for current locale and settings. They are created on the first call and after
+     * locale or units in settings change.
+     */
+    @NonNull
+    public static synchronized UnitLabels get(@NonNull Context context) {
+        Locale locale = ConfigurationCompat.getLocales(context.getResources().getConfiguration()).get(0);
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        if (sp != preferences) {
+            if (preferences != null) {
+                preferences.unregisterOnSharedPreferenceChangeListener(settingsListener);
+            }
+            sp.registerOnSharedPreferenceChangeListener(settingsListener);
+            preferences = sp;
+            current = null;
+        }
+        if (current == null || !current.locale.equals(locale)) {
+            current = new UnitLabels(context.getApplicationContext(), sp, locale);
+        }
+        return current;
+    }
+
+    /** Drop labels, they are created again by the next {@link #get(Context)}. */
+    public static synchronized void invalidate() {
+        current = null;
+    }
+
+    /**
+     * @param unit wind speed unit as stored in settings, e.g. "kph"
+     * @return localized label or {@code null} if {@code unit} is unknown or Beaufort scale
+     */
+    @Nullable
+    public String getSpeedLabel(@NonNull String unit) {
+        return speedLabels.get(unit);
+    }
+
+    /**
+     * @param unit pressure unit as stored in settings, e.g. "mm Hg"
+     * @return localized label or {@code null} if {@code unit} is unknown
+     */
+    @Nullable
+    public String getPressureLabel(@NonNull String unit) {
+        return pressureLabels.get(unit);
+    }
+
+    /** @return selected temperature unit, it is its own label, e.g. "°C" */
+    @NonNull
+    public String getTemperatureUnit() {
+        return temperatureUnit;
+    }
+
+    /** @return selected wind speed unit as stored in settings */
+    @NonNull
+    public String getSpeedUnit() {
+        return speedUnit;
+    }
+
+    /** @return whether wind speed is shown in Beaufort scale */
+    public boolean isBeaufort() {
+        return "bft".equals(speedUnit);
+    }
+
+    /** @return selected pressure unit as stored in settings */
+    @NonNull
+    public String getPressureUnit() {
+        return pressureUnit;
+    }
+
+    /** @return selected rain unit, it is its own label, e.g. "mm" */
+    @NonNull
+    public String getLengthUnit() {
+        return lengthUnit;
+    }
+
+    /** @return localized label of selected wind speed unit */
+    @NonNull
+    public String getSpeedLabel() {
+        return speedLabel;
+    }
+
+    /** @return localized label of selected pressure unit */
+    @NonNull
+    public String getPressureLabel() {
+        return pressureLabel;
+    }
+
+    /** @return converters into selected units */
+    @NonNull
+    public UnitSystem getUnitSystem() {
+        return unitSystem;
+    }
+}
@@ -0,0 +1,172 @@
+package cz.martykan.forecastie.utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Converters into units selected in settings.
+ * <br/>
+ * Selected units are resolved into converters once per settings change (see
+ * {@link UnitLabels}), so converting a value is just a multiplication and converting a whole
+ * forecast column is one loop without any preference reads or allocations.
+ * <br/>
+ * Input values are in units used by stored weather: Kelvins, meters per second, hectopascals and
+ * millimeters.
+ */
+public class UnitSystem {
+    private final Converter temperature;
+    private final Converter wind;
+    private final Converter pressure;
+    private final Converter rain;
+
+    /**
+     * @param temperatureUnit temperature unit as stored in settings, e.g. "°C"
+     * @param speedUnit wind speed unit as stored in settings, e.g. "kph" or "bft"
+     * @param pressureUnit pressure unit as stored in settings, e.g. "mm Hg"
+     * @param lengthUnit rain unit as stored in settings, e.g. "mm"
+     */
+    public UnitSystem(@NonNull String temperatureUnit, @NonNull String speedUnit,
+                      @NonNull String pressureUnit, @NonNull String lengthUnit) {
+        temperature = getTemperatureConverter(temperatureUnit);
+        wind = getWindConverter(speedUnit);
+        pressure = getPressureConverter(pressureUnit);
+        rain = "mm".equals(lengthUnit) ? Converter.IDENTITY : new Converter(0, 1 / 25.4f, 0);
+    }
+
+    /** @return converters for current settings */
+    @NonNull
+    public static UnitSystem get(@NonNull Context context) {
+        return UnitLabels.get(context).getUnitSystem();
+    }
+
+    @NonNull
+    private static Converter getTemperatureConverter(@NonNull String unit) {
+        switch (unit) {
+            case "°C":
+                return new Converter(-273.15f, 1, 0);
+            case "°F":
+                return new Converter(-273.15f, 1.8f, 32);
+            default:
+                return Converter.IDENTITY;
+        }
+    }
+
+    @NonNull
+    private static Converter getWindConverter(@NonNull String unit) {
+        switch (unit) {
+            case "kph":
+                return new Converter(0, 3.6f, 0);
+            case "mph":
+                return new Converter(0, 2.23693629205f, 0);
+            case "kn":
+                return new Converter(0, 1.943844f, 0);
+            case "bft":
+                return Converter.BEAUFORT;
+            default:
+                return Converter.IDENTITY;
+        }
+    }
+
+    @NonNull
+    private static Converter getPressureConverter(@NonNull String unit) {
+        switch (unit) {
+            case "kPa":
+                return new Converter(0, 0.1f, 0);
+            case "mm Hg":
+                return new Converter(0, 0.750061561303f, 0);
+            case "in Hg":
+                return new Converter(0, 0.0295299830714f, 0);
+            default:
+                return Converter.IDENTITY;
+        }
+    }
+
+    /** @return converter from Kelvins */
+    @NonNull
+    public Converter getTemperature() {
+        return temperature;
+    }
+
+    /** @return converter from meters per second, it returns Beaufort number for Beaufort scale */
+    @NonNull
+    public Converter getWind() {
+        return wind;
+    }
+
+    /** @return converter from hectopascals */
+    @NonNull
+    public Converter getPressure() {
+        return pressure;
+    }
+
+    /** @return converter from millimeters */
+    @NonNull
+    public Converter getRain() {
+        return rain;
+    }
+
+    /**
+     * Conversion into one unit: {@code (value + offset) * scale + shift} or a Beaufort number.
+     */
+    public static final class Converter {
+        static final Converter IDENTITY = new Converter(0, 1, 0);
+        static final Converter BEAUFORT = new Converter(0, 1, 0, true);
+
+        private final float offset;
+        private final float scale;
+        private final float shift;
+        private final boolean beaufort;
+
+        Converter(float offset, float scale, float shift) {
+            this(offset, scale, shift, false);
+        }
+
+        private Converter(float offset, float scale, float shift, boolean beaufort) {
+            this.offset = offset;
+            this.scale = scale;
+            this.shift = shift;
+            this.beaufort = beaufort;
+        }
+
+        /** @return converted {@code value} */
+        public float convert(float value) {
+            if (beaufort) {
+                return (float) UnitConvertor.convertWindIntoBFT(value);
+            }
+            return (value + offset) * scale + shift;
+        }
+
+        /**
+         * Convert all values of {@code in} into the same positions of {@code out}.
+         * {@code in} and {@code out} may be the same array.
+         * @throws IllegalArgumentException if {@code out} is shorter than {@code in}
+         */
+        public void convert(@NonNull float[] in, @NonNull float[] out)
+                throws IllegalArgumentException {
+            if (out.length < in.length)
+                throw new IllegalArgumentException("out is shorter than in");
+
+            int count = in.length;
+            if (beaufort) {
+                for (int i = 0; i < count; i++) {
+                    // missing value stays missing
+                    out[i] = Float.isNaN(in[i]) ? Float.NaN
+                            : (float) UnitConvertor.convertWindIntoBFT(in[i]);
+                }
+                return;
+            }
+            float offset = this.offset;
+            float scale = this.scale;
+            float shift = this.shift;
+            for (int i = 0; i < count; i++) {
+                out[i] = (in[i] + offset) * scale + shift;
+            }
+        }
+
+        /** @return whether values are converted into Beaufort numbers */
+        public boolean isBeaufort() {
+            return beaufort;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package cz.martykan.forecastie.utils;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.StringRes;
+import androidx.core.os.ConfigurationCompat;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import cz.martykan.forecastie.R;
+
+/**
+ * Dense lookup table of WMO weather interpretation codes returned by Open-Meteo.
+ * <br/>
+ * Every code in [0, 99] has its day and night icon, description and severity rank in arrays
+ * indexed by the code, so a lookup is one array access. Unknown codes (including {@code -1} for
+ * a missing code) have the icons of clear sky, {@link R.string#weather_code_unknown} description
+ * and severity {@code 0}.
+ */
+public class WmoCodes {
+    /** Code used for missing weather. */
+    public static final int UNKNOWN = -1;
+
+    static final int SIZE = 100;
+
+    private static final int[] DAY_ICONS = new int[SIZE];
+    private static final int[] NIGHT_ICONS = new int[SIZE];
+    private static final int[] DESCRIPTIONS = new int[SIZE];
+    private static final int[] SEVERITIES = new int[SIZE];
+
+    /** Icon glyphs aren't translated, so they are resolved only once for the whole app. */
+    private static final String[] dayGlyphs = new String[SIZE + 1];
+    private static final String[] nightGlyphs = new String[SIZE + 1];
+
+    /** Descriptions are resolved once per locale and shared by every hour with the same code. */
+    private static final String[] descriptions = new String[SIZE + 1];
+    private static Locale descriptionLocale;
+
+    static {
+        for (int code = 0; code < SIZE; code++) {
+            put(code, R.string.weather_day_sunny, R.string.weather_night_clear,
+                    R.string.weather_code_unknown, 0);
+        }
+        put(0, R.string.weather_day_sunny, R.string.weather_night_clear,
+                R.string.weather_code_clear_sky, 0);
+        put(1, R.string.weather_day_cloudy, R.string.weather_night_alt_cloudy,
+                R.string.weather_code_mainly_clear, 1);
+        put(2, R.string.weather_day_cloudy, R.string.weather_night_alt_cloudy,
+                R.string.weather_code_partly_cloudy, 2);
+        put(3, R.string.weather_cloudy, R.string.weather_cloudy,
+                R.string.weather_code_overcast, 3);
+        put(45, R.string.weather_fog, R.string.weather_fog, R.string.weather_code_fog, 4);
+        put(48, R.string.weather_fog, R.string.weather_fog, R.string.weather_code_fog, 4);
+        for (int code : new int[]{51, 53, 55}) {
+            put(code, R.string.weather_sprinkle, R.string.weather_sprinkle,
+                    R.string.weather_code_drizzle, 5);
+        }
+        for (int code : new int[]{56, 57}) {
+            put(code, R.string.weather_rain, R.string.weather_rain,
+                    R.string.weather_code_freezing_drizzle, 7);
+        }
+        for (int code : new int[]{61, 63, 65}) {
+            put(code, R.string.weather_rain, R.string.weather_rain, R.string.weather_code_rain, 6);
+        }
+        for (int code : new int[]{66, 67}) {
+            put(code, R.string.weather_rain_mix, R.string.weather_rain_mix,
+                    R.string.weather_code_freezing_rain, 8);
+        }
+        for (int code : new int[]{71, 73, 75}) {
+            put(code, R.string.weather_snow, R.string.weather_snow,
+                    R.string.weather_code_snow_fall, 9);
+        }
+        put(77, R.string.weather_sleet, R.string.weather_sleet, R.string.weather_code_snow_grains, 9);
+        for (int code : new int[]{80, 81, 82}) {
+            put(code, R.string.weather_showers, R.string.weather_showers,
+                    R.string.weather_code_rain_showers, 6);
+        }
+        for (int code : new int[]{85, 86}) {
+            put(code, R.string.weather_snow, R.string.weather_snow,
+                    R.string.weather_code_snow_showers, 9);
+        }
+        for (int code : new int[]{95, 96, 99}) {
+            put(code, R.string.weather_lightning, R.string.weather_lightning,
+                    R.string.weather_code_thunderstorm, 10);
+        }
+    }
+
+    private static void put(int code, @StringRes int dayIcon, @StringRes int nightIcon,
+                            @StringRes int description, int severity) {
+        DAY_ICONS[code] = dayIcon;
+        NIGHT_ICONS[code] = nightIcon;
+        DESCRIPTIONS[code] = description;
+        SEVERITIES[code] = severity;
+    }
+
+    /** @return whether {@code code} is a WMO code with its own description */
+    public static boolean isKnown(int code) {
+        return code >= 0 && code < SIZE && DESCRIPTIONS[code] != R.string.weather_code_unknown;
+    }
+
+    /** @return string resource of the icon glyph of {@code code} */
+    @StringRes
+    public static int getIconResource(int code, boolean isDay) {
+        int index = code >= 0 && code < SIZE ? code : 0;
+        return isDay ? DAY_ICONS[index] : NIGHT_ICONS[index];
+    }
+
+    /** @return string resource of the description of {@code code} */
+    @StringRes
+    public static int getDescriptionResource(int code) {
+        return code >= 0 && code < SIZE ? DESCRIPTIONS[code] : R.string.weather_code_unknown;
+    }
+
+    /**
+     * @return rank of {@code code} from {@code 0} (clear sky) to {@code 10} (thunderstorm), higher
+     * is more significant weather
+     */
+    public static int getSeverity(int code) {
+        return code >= 0 && code < SIZE ? SEVERITIES[code] : 0;
+    }
+
+    /**
+     * Returns icon glyph of {@code code} to show with the weather font.
+     * @param code WMO code
+     * @param isDay {@code true} for day icon and {@code false} for night icon
+     * @param context android context
+     * @return icon glyph
+     */
+    @NonNull
+    public static String getIcon(int code, boolean isDay, @NonNull Context context) {
+        int index = code >= 0 && code < SIZE ? code : SIZE;
+        String[] glyphs = isDay ? dayGlyphs : nightGlyphs;
+        String glyph = glyphs[index];
+        if (glyph == null) {
+            glyph = context.getString(getIconResource(code, isDay));
+            glyphs[index] = glyph;
+        }
+        return glyph;
+    }
+
+    /**
+     * Returns localized description of {@code code}.
+     * @param code WMO code
+     * @param context android context
+     * @return description
+     */
+    @NonNull
+    public static synchronized String getDescription(int code, @NonNull Context context) {
+        Locale locale = ConfigurationCompat.getLocales(context.getResources().getConfiguration()).get(0);
+        if (locale == null ? descriptionLocale != null : !locale.equals(descriptionLocale)) {
+            descriptionLocale = locale;
+            Arrays.fill(descriptions, null);
+        }
+
+        int index = isKnown(code) ? code : SIZE;
+        String description = descriptions[index];
+        if (description == null) {
+            description = context.getString(getDescriptionResource(code));
+            descriptions[index] = description;
+        }
+        return description;
+    }
+}
@@ -2,13 +2,20 @@ package cz.martykan.forecastie.utils.formatters;
 
 import androidx.annotation.NonNull;
 
+import java.util.Locale;
+
 import cz.martykan.forecastie.models.ImmutableWeather;
 
 /**
  * Formatter for weather description.
+ * <br/>
+ * Last formatted descriptions are remembered, notification updates usually show one of them.
  */
 // TODO rid off static and use DI
 public abstract class DescriptionFormatter {
+    private static final FormattedValueCache cache = new FormattedValueCache();
+    private static Locale cacheLocale;
+
     /**
      * Returns weather description with first uppercase letter.
      * @param weather weather info
@@ -23,11 +30,22 @@ public abstract class DescriptionFormatter {
             throw new NullPointerException("weather should not be null");
 
         String description = weather.getDescription();
-        String result;
         if (description.isEmpty())
-            result = description;
-        else
-            result = description.substring(0,1).toUpperCase() + description.substring(1);
-        return result;
+            return description;
+
+        synchronized (cache) {
+            // upper case depends on the default locale
+            Locale locale = Locale.getDefault();
+            if (!locale.equals(cacheLocale)) {
+                cache.clear();
+                cacheLocale = locale;
+            }
+            String result = cache.get(0, description, 0);
+            if (result == null) {
+                result = description.substring(0,1).toUpperCase() + description.substring(1);
+                cache.put(0, description, 0, result);
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,67 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+
+/**
+ * Last texts formatted by notification formatters, by value, unit and variant.
+ * <br/>
+ * Notification shows the same few values on every update, so their texts are remembered instead
+ * of being formatted again. When the cache is full, the oldest text is replaced. The cache is not
+ * thread-safe.
+ */
+class FormattedValueCache {
+    static final int DEFAULT_SIZE = 8;
+
+    private final double[] values;
+    private final String[] units;
+    private final int[] variants;
+    private final String[] texts;
+    private int next;
+
+    FormattedValueCache() {
+        this(DEFAULT_SIZE);
+    }
+
+    FormattedValueCache(int size) {
+        values = new double[size];
+        units = new String[size];
+        variants = new int[size];
+        texts = new String[size];
+    }
+
+    /**
+     * @param value formatted value
+     * @param unit unit of the value or any other text the result depends on
+     * @param variant e.g. rounding or direction, everything else the result depends on
+     * @return remembered text or {@code null} if the value hasn't been formatted recently
+     */
+    @Nullable
+    String get(double value, @NonNull String unit, int variant) {
+        for (int i = 0; i < texts.length; i++) {
+            if (texts[i] != null && Double.compare(values[i], value) == 0
+                    && variants[i] == variant && unit.equals(units[i])) {
+                return texts[i];
+            }
+        }
+        return null;
+    }
+
+    /** Remember {@code text} of {@code value}, see {@link #get(double, String, int)}. */
+    void put(double value, @NonNull String unit, int variant, @NonNull String text) {
+        values[next] = value;
+        units[next] = unit;
+        variants[next] = variant;
+        texts[next] = text;
+        next = (next + 1) % texts.length;
+    }
+
+    /** Forget all texts, e.g. because locale changed. */
+    void clear() {
+        Arrays.fill(units, null);
+        Arrays.fill(texts, null);
+        next = 0;
+    }
+}
@@ -0,0 +1,48 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import java.util.Date;
+
+import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.models.Nowcast;
+
+/**
+ * Formatter for rain expected in the next hours.
+ * <br/>
+ * Format start of rain like: Rain from 14:30
+ * <br/>
+ * Start is shown as time of day, so the text stays true until the next update no matter when
+ * widgets and notification are rendered again.
+ */
+// TODO rid off static and use DI
+public abstract class NowcastFormatter {
+    /**
+     * Returns when rain starts.
+     * @param nowcast 15 minute steps of the next hours
+     * @param now current time in milliseconds
+     * @param context android context
+     * @return start of rain or empty string if no rain is expected
+     * @throws NullPointerException if {@code nowcast} or {@code context} is null
+     */
+    @NonNull
+    public static String getRainStart(@NonNull Nowcast nowcast, long now,
+                                      @NonNull Context context) throws NullPointerException {
+        //noinspection ConstantConditions
+        if (nowcast == null)
+            throw new NullPointerException("nowcast should not be null");
+        //noinspection ConstantConditions
+        if (context == null)
+            throw new NullPointerException("context should not be null");
+
+        long rainStart = nowcast.getRainStart(now / 1000);
+        if (rainStart < 0)
+            return "";
+
+        String time = android.text.format.DateFormat.getTimeFormat(context)
+                .format(new Date(rainStart * 1000));
+        return context.getString(R.string.nowcast_rain_from, time);
+    }
+}
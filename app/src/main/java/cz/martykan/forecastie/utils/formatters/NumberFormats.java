@@ -0,0 +1,43 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import androidx.annotation.NonNull;
+
+import java.text.DecimalFormat;
+import java.util.Locale;
+
+/**
+ * Decimal formats of the default locale used by formatters of this package.
+ * <br/>
+ * {@link DecimalFormat} is expensive to create and not thread-safe, so every thread keeps its own
+ * instances. They are created again only when the default locale changes.
+ */
+class NumberFormats {
+    private static final ThreadLocal<NumberFormats> current = new ThreadLocal<>();
+
+    private final Locale locale;
+    /** Integer without grouping, e.g. "99". */
+    final DecimalFormat integer;
+    /** One decimal digit, e.g. "1.0". */
+    final DecimalFormat oneDecimal;
+    /** Optional decimal digit, e.g. "1" or "1.5". */
+    final DecimalFormat optionalDecimal;
+
+    private NumberFormats(@NonNull Locale locale) {
+        this.locale = locale;
+        integer = new DecimalFormat("0");
+        oneDecimal = new DecimalFormat("0.0");
+        optionalDecimal = new DecimalFormat("0.#");
+    }
+
+    /** @return formats of the current thread for the default locale */
+    @NonNull
+    static NumberFormats get() {
+        Locale locale = Locale.getDefault();
+        NumberFormats formats = current.get();
+        if (formats == null || !formats.locale.equals(locale)) {
+            formats = new NumberFormats(locale);
+            current.set(formats);
+        }
+        return formats;
+    }
+}
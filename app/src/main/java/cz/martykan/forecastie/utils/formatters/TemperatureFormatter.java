@@ -2,7 +2,7 @@ package cz.martykan.forecastie.utils.formatters;
 
 import androidx.annotation.NonNull;
 
-import java.text.DecimalFormat;
+import java.util.Locale;
 
 import cz.martykan.forecastie.models.ImmutableWeather;
 
@@ -10,9 +10,14 @@ import cz.martykan.forecastie.models.ImmutableWeather;
  * Formatter for temperature.
  * <br/>
  * Format temperature with units like: 15.3K, 12°C
+ * <br/>
+ * Last formatted temperatures are remembered, notification updates usually show one of them.
  */
 // TODO rid off static and use DI
 public abstract class TemperatureFormatter {
+    private static final FormattedValueCache cache = new FormattedValueCache();
+    private static Locale cacheLocale;
+
     /**
      * Returns temperature with units.
      * @param weather weather info
@@ -33,9 +38,22 @@ public abstract class TemperatureFormatter {
         if (temperatureUnit == null)
             throw new NullPointerException("temperatureUnit should not be null");
 
-        String temperature = roundedTemperature
-                ? String.valueOf(weather.getRoundedTemperature(temperatureUnit))
-                : new DecimalFormat("0.#").format(weather.getTemperature(temperatureUnit));
-        return temperature + temperatureUnit;
+        synchronized (cache) {
+            Locale locale = Locale.getDefault();
+            if (!locale.equals(cacheLocale)) {
+                cache.clear();
+                cacheLocale = locale;
+            }
+            int variant = roundedTemperature ? 1 : 0;
+            String result = cache.get(weather.getTemperature(), temperatureUnit, variant);
+            if (result == null) {
+                String temperature = roundedTemperature
+                        ? String.valueOf(weather.getRoundedTemperature(temperatureUnit))
+                        : NumberFormats.get().optionalDecimal.format(weather.getTemperature(temperatureUnit));
+                result = temperature + temperatureUnit;
+                cache.put(weather.getTemperature(), temperatureUnit, variant, result);
+            }
+            return result;
+        }
     }
 }
@@ -0,0 +1,97 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Typeface;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Pre-rendered status bar icons with rounded temperature.
+ * <br/>
+ * Icons from {@link #MIN_CACHED} to {@link #MAX_CACHED} degrees are rendered once for the current
+ * colour and screen density and reused by every notification update; temperatures are already
+ * converted into the selected unit, so the value is all the unit changes. Text size is fitted
+ * from one measurement instead of shrinking it step by step.
+ */
+public class TemperatureIconCache {
+    static final int MIN_CACHED = -60;
+    static final int MAX_CACHED = 60;
+
+    private static Bitmap[] icons;
+    private static int iconsColor;
+    private static float iconsDensity;
+
+    /**
+     * Returns icon with {@code temperature}. The icon is shared and must not be modified.
+     * @param context android context
+     * @param temperature rounded temperature in the selected unit
+     * @param color text color (not a color resource)
+     * @return icon with temperature
+     */
+    @NonNull
+    public static synchronized Bitmap get(@NonNull Context context, int temperature, int color) {
+        DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
+        if (temperature < MIN_CACHED || temperature > MAX_CACHED) {
+            return render(displayMetrics, temperature, color);
+        }
+
+        if (icons == null || iconsColor != color || iconsDensity != displayMetrics.density) {
+            icons = new Bitmap[MAX_CACHED - MIN_CACHED + 1];
+            iconsColor = color;
+            iconsDensity = displayMetrics.density;
+        }
+        Bitmap icon = icons[temperature - MIN_CACHED];
+        if (icon == null) {
+            icon = render(displayMetrics, temperature, color);
+            icons[temperature - MIN_CACHED] = icon;
+        }
+        return icon;
+    }
+
+    @NonNull
+    private static Bitmap render(@NonNull DisplayMetrics displayMetrics, int temperature,
+                                 int color) {
+        final float size = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                WeatherFormatter.DEFAULT_ICON_TEXT_SIZE, displayMetrics);
+        final float oneDp = size / WeatherFormatter.DEFAULT_ICON_TEXT_SIZE;
+        final float minTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP,
+                WeatherFormatter.MIN_ICON_TEXT_SIZE - 1, displayMetrics);
+        final Bitmap bitmap = Bitmap.createBitmap((int) size, (int) size, Bitmap.Config.ARGB_4444);
+        final Paint paint = getTemperaturePaint(color);
+        final String text = temperature + "°";
+
+        // width of text is proportional to its size, so one measurement at full size is enough
+        Rect bounds = new Rect();
+        paint.setTextSize(size);
+        paint.getTextBounds(text, 0, text.length(), bounds);
+        float textSize = size;
+        if (bounds.width() > size) {
+            float fitted = size * size / bounds.width();
+            textSize = Math.max(minTextSize, (float) Math.floor(fitted / oneDp) * oneDp);
+            paint.setTextSize(textSize);
+            paint.getTextBounds(text, 0, text.length(), bounds);
+        }
+
+        final float textHeight = (float) bounds.height();
+        final float verticalPadding = (size - textHeight) / 2f;
+        new Canvas(bitmap).drawText(text, size / 2f, verticalPadding + textHeight, paint);
+        return bitmap;
+    }
+
+    @NonNull
+    private static Paint getTemperaturePaint(int color) {
+        final Paint paint = WeatherFormatter.getPaint(color);
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
+            paint.setLetterSpacing(-0.05f);
+        }
+        paint.setTypeface(Typeface.DEFAULT_BOLD);
+        return paint;
+    }
+}
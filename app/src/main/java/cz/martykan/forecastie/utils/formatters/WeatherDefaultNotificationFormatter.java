@@ -26,8 +26,7 @@ public class WeatherDefaultNotificationFormatter extends WeatherFormatter {
             throw new NullPointerException("weather should not be null");
 
         return weather.getTemperature() != ImmutableWeather.EMPTY.getTemperature()
-                && !weather.getDescription().equals(ImmutableWeather.EMPTY.getDescription())
-                && weather.getWeatherIcon() != ImmutableWeather.EMPTY.getWeatherIcon();
+                && weather.hasWeatherIcon();
     }
 
     /**
@@ -80,7 +79,7 @@ public class WeatherDefaultNotificationFormatter extends WeatherFormatter {
     @Override
     public Bitmap getWeatherIconAsBitmap(@NonNull ImmutableWeather weather,
                                          @NonNull Context context) {
-        String icon = getWeatherIconAsText(weather.getWeatherIcon(), isDayTime(weather), context);
+        String icon = getWeatherIconAsText(weather, isDayTime(weather), context);
         int color = ContextCompat.getColor(context, R.color.notification_icon_color);
         return getWeatherIconAsBitmap(context, icon, color);
     }
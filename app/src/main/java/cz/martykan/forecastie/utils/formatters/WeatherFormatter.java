@@ -4,16 +4,14 @@ import android.content.Context;
 import android.graphics.Bitmap;
 import android.graphics.Canvas;
 import android.graphics.Paint;
-import android.graphics.Rect;
-import android.graphics.Typeface;
-import android.os.Build;
-import android.util.DisplayMetrics;
-import android.util.TypedValue;
+import android.util.LruCache;
 
 import androidx.annotation.NonNull;
 
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.ImmutableWeather;
+import cz.martykan.forecastie.utils.Formatting;
+import cz.martykan.forecastie.utils.WmoCodes;
 
 /**
  * Converter from raw {@link ImmutableWeather wather info} into strings to show to a user.
@@ -25,6 +23,9 @@ public abstract class WeatherFormatter {
     public static final int DEFAULT_ICON_TEXT_SIZE = 24;
     public static final int MIN_ICON_TEXT_SIZE = 14;
 
+    /** Weather icons by color and glyph, a few are enough for widgets and notification. */
+    private static final LruCache<String, Bitmap> weatherIcons = new LruCache<>(4);
+
     /**
      * Check is {@code weather} has enough valid data to show all necessary weather information to
      * a user or {@code no data} should be shown.
@@ -126,9 +127,25 @@ public abstract class WeatherFormatter {
         throw new UnsupportedOperationException("getWeatherIconAsText hasn't been implemented");
     }
 
+    /**
+     * Returns weather icon of WMO code of {@code weather} or of its OWM weather id if there is no
+     * code.
+     * @param weather weather information
+     * @param isDay {@code true} if should be chosen icon for day and {@code false} for night
+     * @param context android context
+     * @return weather icon as {@link String}
+     */
+    @NonNull
+    public static String getWeatherIconAsText(@NonNull ImmutableWeather weather, boolean isDay,
+                                              @NonNull Context context) {
+        if (weather.getWeatherCode() != ImmutableWeather.EMPTY.getWeatherCode())
+            return WmoCodes.getIcon(weather.getWeatherCode(), isDay, context);
+        return getWeatherIconAsText(weather.getWeatherIcon(), isDay, context);
+    }
+
     /**
      * Returns weather icon as {@link String}.
-     * @param weatherId weather icon id
+     * @param weatherId OWM weather id
      * @param isDay {@code true} if should be chosen icon for day and {@code false} for night
      * @param context android context
      * @return weather icon as {@link String}
@@ -313,6 +330,9 @@ public abstract class WeatherFormatter {
 
     /**
      * Returns weather icon as {@link Bitmap}.
+     * <br/>
+     * Last drawn icons are cached, so widgets and notification showing the same weather share one
+     * bitmap. The result must not be modified.
      * @param context android context
      * @param text weather icon as String
      * @param color text color (not a color resource)
@@ -324,18 +344,24 @@ public abstract class WeatherFormatter {
     @NonNull
     public static Bitmap getWeatherIconAsBitmap(@NonNull Context context, @NonNull String text,
                                                 int color) {
-        Bitmap myBitmap = Bitmap.createBitmap(256, 256, Bitmap.Config.ARGB_4444);
-        Canvas myCanvas = new Canvas(myBitmap);
-        Paint paint = getPaint(color);
-        Typeface clock = Typeface.createFromAsset(context.getAssets(), "fonts/weather.ttf");
-        paint.setTypeface(clock);
-        paint.setTextSize(150);
-        myCanvas.drawText(text, 128, 180, paint);
+        String key = color + "|" + text;
+        Bitmap myBitmap = weatherIcons.get(key);
+        if (myBitmap == null) {
+            myBitmap = Bitmap.createBitmap(256, 256, Bitmap.Config.ARGB_4444);
+            Canvas myCanvas = new Canvas(myBitmap);
+            Paint paint = getPaint(color);
+            paint.setTypeface(Formatting.getWeatherFont(context));
+            paint.setTextSize(150);
+            myCanvas.drawText(text, 128, 180, paint);
+            weatherIcons.put(key, myBitmap);
+        }
         return myBitmap;
     }
 
     /**
-     * Returns weather icon as {@link Bitmap}.
+     * Returns rounded temperature as {@link Bitmap} for the status bar.
+     * <br/>
+     * Bitmaps are shared through {@link TemperatureIconCache}, so the result must not be modified.
      * @param context android context
      * @param weather weather information
      * @param temperatureUnit temperature unit
@@ -351,56 +377,12 @@ public abstract class WeatherFormatter {
             @NonNull String temperatureUnit,
             int color
     ) {
-        DisplayMetrics displayMetrics = context.getResources().getDisplayMetrics();
-        final float size = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, DEFAULT_ICON_TEXT_SIZE, displayMetrics);
-        final float oneDp = size / DEFAULT_ICON_TEXT_SIZE;
-        final float minTextSize = TypedValue.applyDimension(TypedValue.COMPLEX_UNIT_DIP, MIN_ICON_TEXT_SIZE - 1, displayMetrics);
-        final Bitmap bitmap = Bitmap.createBitmap((int) size, (int) size, Bitmap.Config.ARGB_4444);
         final int temperature = Math.round(weather.getTemperature(temperatureUnit));
-        drawTemperature(bitmap, getTemperaturePaint(color), temperature, size, oneDp, minTextSize);
-        return bitmap;
-    }
-
-    private static void drawTemperature(
-            @NonNull Bitmap bitmap,
-            @NonNull Paint paint,
-            final int temperature,
-            final float size, final float oneDp, final float minTextSize
-    ) {
-        final Canvas canvas = new Canvas(bitmap);
-        float textSize = size;
-        final String text = temperature + "°";
-
-        Rect bounds = new Rect();
-        float measuredWidth;
-        do {
-            paint.setTextSize(textSize);
-            paint.getTextBounds(text, 0, text.length(), bounds);
-            measuredWidth = bounds.width();
-            textSize -= oneDp;
-        } while (measuredWidth > size && textSize > minTextSize);
-
-        final float textHeight = (float) bounds.height();
-        final float verticalPadding = (size - textHeight) / 2f;
-
-        final float x = size / 2f;
-        final float y = verticalPadding + textHeight;
-        canvas.drawText(text, x, y, paint);
-    }
-
-    @NonNull
-    private static Paint getTemperaturePaint(int color) {
-        final Paint paint = getPaint(color);
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.LOLLIPOP) {
-            paint.setLetterSpacing(-0.05f);
-        }
-        //paint.setTextAlign(Paint.Align.LEFT);
-        paint.setTypeface(Typeface.DEFAULT_BOLD);
-        return paint;
+        return TemperatureIconCache.get(context, temperature, color);
     }
 
     @NonNull
-    private static Paint getPaint(int color) {
+    static Paint getPaint(int color) {
         Paint paint = new Paint();
         paint.setAntiAlias(true);
         paint.setSubpixelText(true);
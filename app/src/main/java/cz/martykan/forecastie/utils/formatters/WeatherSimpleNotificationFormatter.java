@@ -5,21 +5,37 @@ import android.graphics.Bitmap;
 
 import androidx.annotation.NonNull;
 import androidx.core.content.ContextCompat;
+import androidx.core.os.ConfigurationCompat;
+import androidx.core.util.ObjectsCompat;
 
-import java.text.DecimalFormat;
 import java.util.Locale;
 
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.models.ImmutableWeather;
 import cz.martykan.forecastie.models.Weather;
 import cz.martykan.forecastie.utils.UnitConvertor;
-import cz.martykan.forecastie.utils.localizers.PressureUnitsLocalizer;
+import cz.martykan.forecastie.utils.UnitLabels;
 import cz.martykan.forecastie.utils.localizers.WindDirectionLocalizer;
-import cz.martykan.forecastie.utils.localizers.WindSpeedUnitsLocalizer;
 
 import static cz.martykan.forecastie.utils.TimeUtils.isDayTime;
 
+/**
+ * Formatter for notification with custom layout showing also wind, pressure and humidity.
+ * <br/>
+ * Labels are resolved once per locale and last formatted texts are remembered, so an update with
+ * already shown values formats nothing.
+ */
 public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
+    private final FormattedValueCache windTexts = new FormattedValueCache();
+    private final FormattedValueCache pressureTexts = new FormattedValueCache();
+    private final FormattedValueCache humidityTexts = new FormattedValueCache();
+    private Locale labelsLocale;
+    private Locale numbersLocale;
+    private String windDirectionFormat;
+    private String windLabel;
+    private String pressureLabel;
+    private String humidityLabel;
+
     /**
      * {@inheritDoc}
      * @throws NullPointerException if {@code weather} is null
@@ -31,8 +47,7 @@ public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
             throw new NullPointerException("weather should not be null");
 
         return weather.getTemperature() != ImmutableWeather.EMPTY.getTemperature()
-                && !weather.getDescription().equals(ImmutableWeather.EMPTY.getDescription())
-                && weather.getWeatherIcon() != ImmutableWeather.EMPTY.getWeatherIcon()
+                && weather.hasWeatherIcon()
                 && weather.getWindSpeed() != ImmutableWeather.EMPTY.getWindSpeed()
                 && weather.getWindDirection() != ImmutableWeather.EMPTY.getWindDirection()
                 && weather.getPressure() != ImmutableWeather.EMPTY.getPressure()
@@ -111,40 +126,64 @@ public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
         if (context == null)
             throw new NullPointerException("context should not be null");
 
+        if (weather.getWindSpeed() == ImmutableWeather.EMPTY.getWindSpeed())
+            return "";
+
+        synchronized (this) {
+            updateLabels(context);
+            if (!directionFormat.equals(windDirectionFormat)) {
+                windTexts.clear();
+                windDirectionFormat = directionFormat;
+            }
+            Weather.WindDirection windDirection = weather.getWindDirection();
+            int variant = windDirection != null ? windDirection.ordinal() : -1;
+            String result = windTexts.get(weather.getWindSpeed(), units, variant);
+            if (result == null) {
+                result = formatWind(weather, units, directionFormat, context);
+                windTexts.put(weather.getWindSpeed(), units, variant, result);
+            }
+            return result;
+        }
+    }
+
+    @NonNull
+    private String formatWind(@NonNull ImmutableWeather weather, @NonNull String units,
+                              @NonNull String directionFormat, @NonNull Context context) {
         StringBuilder builder = new StringBuilder();
-        if (weather.getWindSpeed() != ImmutableWeather.EMPTY.getWindSpeed()) {
-            builder
-                    .append(context.getString(R.string.wind))
-                    .append(": ");
-            try {
-                double windSpeed = weather.getWindSpeed(units);
-                if (units.equals("bft"))
-                    builder.append(UnitConvertor.getBeaufortName((int) windSpeed, context));
-                else {
-                    builder.append(new DecimalFormat("0.0").format(windSpeed));
-                    builder
-                            .append(' ')
-                            .append(WindSpeedUnitsLocalizer.localizeWindSpeedUnits(units, context));
-                }
+        builder
+                .append(windLabel)
+                .append(": ");
+        try {
+            double windSpeed = weather.getWindSpeed(units);
+            if (units.equals("bft"))
+                builder.append(UnitConvertor.getBeaufortName((int) windSpeed, context));
+            else {
+                builder.append(NumberFormats.get().oneDecimal.format(windSpeed));
+                String unitsLabel = UnitLabels.get(context).getSpeedLabel(units);
+                if (unitsLabel == null)
+                    throw new IllegalArgumentException("Unknown units: \"" + units + "\"");
+                builder
+                        .append(' ')
+                        .append(unitsLabel);
+            }
 
-                Weather.WindDirection windDirection = weather.getWindDirection();
-                if (windDirection != null) {
-                    try {
-                        String localizedWindDirection = WindDirectionLocalizer.localizeWindDirection(
-                                windDirection, directionFormat, context);
-                        if (!localizedWindDirection.isEmpty()) {
-                            builder
-                                    .append(' ')
-                                    .append(localizedWindDirection);
-                        }
-                    } catch (IllegalArgumentException e) {
-                        e.printStackTrace();
+            Weather.WindDirection windDirection = weather.getWindDirection();
+            if (windDirection != null) {
+                try {
+                    String localizedWindDirection = WindDirectionLocalizer.localizeWindDirection(
+                            windDirection, directionFormat, context);
+                    if (!localizedWindDirection.isEmpty()) {
+                        builder
+                                .append(' ')
+                                .append(localizedWindDirection);
                     }
+                } catch (IllegalArgumentException e) {
+                    e.printStackTrace();
                 }
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace();
-                builder.delete(0, builder.length());
             }
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            builder.delete(0, builder.length());
         }
         return builder.toString();
     }
@@ -168,18 +207,38 @@ public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
         if (context == null)
             throw new NullPointerException("context should not be null");
 
+        if (weather.getPressure() == ImmutableWeather.EMPTY.getPressure())
+            return "";
+
+        synchronized (this) {
+            updateLabels(context);
+            String result = pressureTexts.get(weather.getPressure(), units, 0);
+            if (result == null) {
+                result = formatPressure(weather, units, context);
+                pressureTexts.put(weather.getPressure(), units, 0, result);
+            }
+            return result;
+        }
+    }
+
+    @NonNull
+    private String formatPressure(@NonNull ImmutableWeather weather, @NonNull String units,
+                                  @NonNull Context context) {
         StringBuilder builder = new StringBuilder();
-        if (weather.getPressure() != ImmutableWeather.EMPTY.getPressure()) {
+        builder
+                .append(pressureLabel)
+                .append(": ")
+                .append(NumberFormats.get().oneDecimal.format(weather.getPressure(units)))
+                .append(' ');
+        try {
+            String unitsLabel = UnitLabels.get(context).getPressureLabel(units);
+            if (unitsLabel == null)
+                throw new IllegalArgumentException("Unknown units: \"" + units + "\"");
             builder
-                    .append(context.getString(R.string.pressure))
-                    .append(new DecimalFormat(": 0.0 ").format(weather.getPressure(units)));
-            try {
-                builder
-                        .append(PressureUnitsLocalizer.localizePressureUnits(units, context));
-            } catch (IllegalArgumentException e) {
-                e.printStackTrace();
-                builder.delete(0, builder.length());
-            }
+                    .append(unitsLabel);
+        } catch (IllegalArgumentException e) {
+            e.printStackTrace();
+            builder.delete(0, builder.length());
         }
         return builder.toString();
     }
@@ -199,15 +258,19 @@ public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
         if (context == null)
             throw new NullPointerException("context should not be null");
 
-        String result;
-        if (weather.getHumidity() != ImmutableWeather.EMPTY.getHumidity()) {
-            result = String.format(Locale.getDefault(), "%s: %d %%",
-                    context.getString(R.string.humidity),
-                    weather.getHumidity());
-        } else {
-            result = "";
+        if (weather.getHumidity() == ImmutableWeather.EMPTY.getHumidity())
+            return "";
+
+        synchronized (this) {
+            updateLabels(context);
+            String result = humidityTexts.get(weather.getHumidity(), "%", 0);
+            if (result == null) {
+                result = humidityLabel + ": "
+                        + NumberFormats.get().integer.format(weather.getHumidity()) + " %";
+                humidityTexts.put(weather.getHumidity(), "%", 0, result);
+            }
+            return result;
         }
-        return result;
     }
 
     /**
@@ -220,8 +283,28 @@ public class WeatherSimpleNotificationFormatter extends WeatherFormatter {
     @Override
     public Bitmap getWeatherIconAsBitmap(@NonNull ImmutableWeather weather,
                                          @NonNull Context context) {
-        String icon = getWeatherIconAsText(weather.getWeatherIcon(), isDayTime(weather), context);
+        String icon = getWeatherIconAsText(weather, isDayTime(weather), context);
         int color = ContextCompat.getColor(context, R.color.notification_icon_color);
         return getWeatherIconAsBitmap(context, icon, color);
     }
+
+    /**
+     * Resolve labels for the locale of {@code context}. Texts formatted for another locale are
+     * forgotten.
+     */
+    private void updateLabels(@NonNull Context context) {
+        Locale locale = ConfigurationCompat.getLocales(context.getResources().getConfiguration()).get(0);
+        Locale defaultLocale = Locale.getDefault();
+        if (windLabel == null || !ObjectsCompat.equals(locale, labelsLocale)
+                || !defaultLocale.equals(numbersLocale)) {
+            labelsLocale = locale;
+            numbersLocale = defaultLocale;
+            windLabel = context.getString(R.string.wind);
+            pressureLabel = context.getString(R.string.pressure);
+            humidityLabel = context.getString(R.string.humidity);
+            windTexts.clear();
+            pressureTexts.clear();
+            humidityTexts.clear();
+        }
+    }
 }
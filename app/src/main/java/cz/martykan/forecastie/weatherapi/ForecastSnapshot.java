@@ -0,0 +1,376 @@
+package cz.martykan.forecastie.weatherapi;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import cz.martykan.forecastie.models.Forecast;
+
+/**
+ * Compact binary form of {@link Forecast} used to store it on disk.
+ * <br/>
+ * Layout: magic, schema version and flags followed by the payload (deflated if
+ * {@link #FLAG_DEFLATE} is set). Hourly timestamps are stored as start and step, value columns
+ * as fixed-point deltas in zig-zag varints. Fixed-point scales match the resolution of Open-Meteo
+ * values so nothing the API returns is lost.
+ * <br/>
+ * Bump {@link #SCHEMA_VERSION} whenever the layout changes; older snapshots are then rejected by
+ * {@link #read(InputStream)} and have to be rebuilt from the response.
+ */
+public class ForecastSnapshot {
+    public static final int SCHEMA_VERSION = 3;
+    public static final int FLAG_DEFLATE = 1;
+
+    private static final int MAGIC = 0x46435354; // "FCST"
+
+    private static final int TEMPERATURE_SCALE = 10;
+    private static final int HUMIDITY_SCALE = 1;
+    private static final int PRESSURE_SCALE = 10;
+    private static final int WIND_SPEED_SCALE = 10;
+    private static final int WIND_DIRECTION_SCALE = 1;
+    private static final int RAIN_SCALE = 100;
+    private static final int PRECIPITATION_PROBABILITY_SCALE = 1;
+    private static final int UV_INDEX_SCALE = 100;
+
+    /**
+     * Maximal number of values of a column: 16 days, the longest forecast of Open-Meteo, in
+     * 15 minute steps. A corrupted length must not make the reader allocate a huge array.
+     */
+    static final int MAX_COLUMN_LENGTH = 16 * 96;
+
+    /** Varint token of missing value, deltas are always even. */
+    private static final long MISSING = 1;
+
+    /**
+     * Write {@code forecast} into {@code output}. The stream is flushed but not closed.
+     * @param forecast forecast to write
+     * @param output destination
+     * @param deflate whether to compress the payload
+     * @throws IOException if writing failed
+     */
+    public static void write(@NonNull Forecast forecast, @NonNull OutputStream output, boolean deflate)
+            throws IOException {
+        DataOutputStream header = new DataOutputStream(output);
+        header.writeInt(MAGIC);
+        header.writeByte(SCHEMA_VERSION);
+        header.writeByte(deflate ? FLAG_DEFLATE : 0);
+        header.flush();
+
+        Deflater deflater = null;
+        DeflaterOutputStream deflaterStream = null;
+        OutputStream payloadStream = output;
+        if (deflate) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+            deflaterStream = new DeflaterOutputStream(output, deflater);
+            payloadStream = deflaterStream;
+        }
+        try {
+            DataOutputStream payload = new DataOutputStream(new BufferedOutputStream(payloadStream));
+            writePayload(forecast, payload);
+            payload.flush();
+            if (deflaterStream != null) {
+                deflaterStream.finish();
+            }
+            output.flush();
+        } finally {
+            if (deflater != null) {
+                deflater.end();
+            }
+        }
+    }
+
+    /**
+     * Read forecast written by {@link #write(Forecast, OutputStream, boolean)}. The stream is not
+     * closed.
+     * @param input source
+     * @return forecast
+     * @throws IOException if reading failed, data are corrupted or written with another schema
+     * version
+     */
+    @NonNull
+    public static Forecast read(@NonNull InputStream input) throws IOException {
+        InputStream buffered = new BufferedInputStream(input);
+        DataInputStream header = new DataInputStream(buffered);
+        if (header.readInt() != MAGIC) {
+            throw new IOException("Not a forecast snapshot");
+        }
+        int version = header.readUnsignedByte();
+        if (version != SCHEMA_VERSION) {
+            throw new IOException("Unsupported forecast snapshot version " + version);
+        }
+        int flags = header.readUnsignedByte();
+
+        Inflater inflater = null;
+        InputStream payloadStream = buffered;
+        if ((flags & FLAG_DEFLATE) != 0) {
+            inflater = new Inflater();
+            payloadStream = new InflaterInputStream(payloadStream, inflater);
+        }
+        try {
+            return readPayload(new DataInputStream(payloadStream));
+        } finally {
+            if (inflater != null) {
+                inflater.end();
+            }
+        }
+    }
+
+    /**
+     * Write deflated {@code forecast} into byte array, e.g. to hand it over in an
+     * {@link android.content.Intent}.
+     * @param forecast forecast to write
+     * @return snapshot of forecast
+     * @throws IOException if writing failed
+     */
+    @NonNull
+    public static byte[] toByteArray(@NonNull Forecast forecast) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        write(forecast, output, true);
+        return output.toByteArray();
+    }
+
+    /**
+     * Read forecast written by {@link #toByteArray(Forecast)}.
+     * @param snapshot snapshot of forecast
+     * @return forecast
+     * @throws IOException if data are corrupted or written with another schema version
+     */
+    @NonNull
+    public static Forecast fromByteArray(@NonNull byte[] snapshot) throws IOException {
+        return read(new ByteArrayInputStream(snapshot));
+    }
+
+    private static void writePayload(@NonNull Forecast forecast, @NonNull DataOutputStream out)
+            throws IOException {
+        out.writeDouble(forecast.getLatitude());
+        out.writeDouble(forecast.getLongitude());
+
+        writeVarLong(out, zigZag(forecast.getCurrentTime()));
+        out.writeFloat(forecast.getCurrentTemperature());
+        writeVarLong(out, zigZag(forecast.getCurrentWeatherCode()));
+        out.writeFloat(forecast.getCurrentWindSpeed());
+        out.writeFloat(forecast.getCurrentWindDirection());
+
+        writeTimeColumn(out, forecast.getHourlyTime());
+        writeValueColumn(out, forecast.getHourlyTemperature(), TEMPERATURE_SCALE);
+        writeValueColumn(out, forecast.getHourlyApparentTemperature(), TEMPERATURE_SCALE);
+        writeValueColumn(out, forecast.getHourlyHumidity(), HUMIDITY_SCALE);
+        writeCodeColumn(out, forecast.getHourlyWeatherCode());
+        writeValueColumn(out, forecast.getHourlyPressure(), PRESSURE_SCALE);
+        writeValueColumn(out, forecast.getHourlyWindSpeed(), WIND_SPEED_SCALE);
+        writeValueColumn(out, forecast.getHourlyWindDirection(), WIND_DIRECTION_SCALE);
+        writeValueColumn(out, forecast.getHourlyRain(), RAIN_SCALE);
+        writeValueColumn(out, forecast.getHourlyPrecipitationProbability(), PRECIPITATION_PROBABILITY_SCALE);
+
+        writeTimeColumn(out, forecast.getMinutely15Time());
+        writeValueColumn(out, forecast.getMinutely15Precipitation(), RAIN_SCALE);
+        writeValueColumn(out, forecast.getMinutely15Temperature(), TEMPERATURE_SCALE);
+
+        writeTimeColumn(out, forecast.getDailyTime());
+        writeValueColumn(out, forecast.getDailyTemperatureMax(), TEMPERATURE_SCALE);
+        writeValueColumn(out, forecast.getDailyTemperatureMin(), TEMPERATURE_SCALE);
+        writeValueColumn(out, forecast.getDailyPrecipitationSum(), RAIN_SCALE);
+        writeValueColumn(out, forecast.getDailyWindSpeedMax(), WIND_SPEED_SCALE);
+        writeCodeColumn(out, forecast.getDailyWeatherCode());
+        writeTimeColumn(out, forecast.getDailySunrise());
+        writeTimeColumn(out, forecast.getDailySunset());
+        writeValueColumn(out, forecast.getDailyUvIndexMax(), UV_INDEX_SCALE);
+    }
+
+    @NonNull
+    private static Forecast readPayload(@NonNull DataInputStream in) throws IOException {
+        Forecast forecast = new Forecast();
+        forecast.setLatitude(in.readDouble());
+        forecast.setLongitude(in.readDouble());
+
+        forecast.setCurrentTime(unZigZag(readVarLong(in)));
+        forecast.setCurrentTemperature(in.readFloat());
+        forecast.setCurrentWeatherCode((int) unZigZag(readVarLong(in)));
+        forecast.setCurrentWindSpeed(in.readFloat());
+        forecast.setCurrentWindDirection(in.readFloat());
+
+        forecast.setHourlyTime(readTimeColumn(in));
+        forecast.setHourlyTemperature(readValueColumn(in, TEMPERATURE_SCALE));
+        forecast.setHourlyApparentTemperature(readValueColumn(in, TEMPERATURE_SCALE));
+        forecast.setHourlyHumidity(readValueColumn(in, HUMIDITY_SCALE));
+        forecast.setHourlyWeatherCode(readCodeColumn(in));
+        forecast.setHourlyPressure(readValueColumn(in, PRESSURE_SCALE));
+        forecast.setHourlyWindSpeed(readValueColumn(in, WIND_SPEED_SCALE));
+        forecast.setHourlyWindDirection(readValueColumn(in, WIND_DIRECTION_SCALE));
+        forecast.setHourlyRain(readValueColumn(in, RAIN_SCALE));
+        forecast.setHourlyPrecipitationProbability(readValueColumn(in, PRECIPITATION_PROBABILITY_SCALE));
+
+        forecast.setMinutely15Time(readTimeColumn(in));
+        forecast.setMinutely15Precipitation(readValueColumn(in, RAIN_SCALE));
+        forecast.setMinutely15Temperature(readValueColumn(in, TEMPERATURE_SCALE));
+
+        forecast.setDailyTime(readTimeColumn(in));
+        forecast.setDailyTemperatureMax(readValueColumn(in, TEMPERATURE_SCALE));
+        forecast.setDailyTemperatureMin(readValueColumn(in, TEMPERATURE_SCALE));
+        forecast.setDailyPrecipitationSum(readValueColumn(in, RAIN_SCALE));
+        forecast.setDailyWindSpeedMax(readValueColumn(in, WIND_SPEED_SCALE));
+        forecast.setDailyWeatherCode(readCodeColumn(in));
+        forecast.setDailySunrise(readTimeColumn(in));
+        forecast.setDailySunset(readTimeColumn(in));
+        forecast.setDailyUvIndexMax(readValueColumn(in, UV_INDEX_SCALE));
+        return forecast;
+    }
+
+    /** Regular series are written as start and step, the others as deltas. */
+    private static void writeTimeColumn(@NonNull DataOutputStream out, @NonNull long[] column)
+            throws IOException {
+        writeLength(out, column.length);
+        if (column.length == 0) {
+            return;
+        }
+        writeVarLong(out, zigZag(column[0]));
+        if (column.length == 1) {
+            return;
+        }
+        long step = column[1] - column[0];
+        boolean regular = true;
+        for (int i = 2; i < column.length && regular; i++) {
+            regular = column[i] - column[i - 1] == step;
+        }
+        out.writeBoolean(regular);
+        if (regular) {
+            writeVarLong(out, zigZag(step));
+        } else {
+            for (int i = 1; i < column.length; i++) {
+                writeVarLong(out, zigZag(column[i] - column[i - 1]));
+            }
+        }
+    }
+
+    @NonNull
+    private static long[] readTimeColumn(@NonNull DataInputStream in) throws IOException {
+        long[] column = new long[readLength(in)];
+        if (column.length == 0) {
+            return column;
+        }
+        column[0] = unZigZag(readVarLong(in));
+        if (column.length == 1) {
+            return column;
+        }
+        if (in.readBoolean()) {
+            long step = unZigZag(readVarLong(in));
+            for (int i = 1; i < column.length; i++) {
+                column[i] = column[i - 1] + step;
+            }
+        } else {
+            for (int i = 1; i < column.length; i++) {
+                column[i] = column[i - 1] + unZigZag(readVarLong(in));
+            }
+        }
+        return column;
+    }
+
+    /** Every value is a delta of fixed-point value shifted by one bit, {@link #MISSING} for NaN. */
+    private static void writeValueColumn(@NonNull DataOutputStream out, @NonNull float[] column,
+                                         int scale) throws IOException {
+        writeLength(out, column.length);
+        long previous = 0;
+        for (float value : column) {
+            if (Float.isNaN(value)) {
+                writeVarLong(out, MISSING);
+            } else {
+                long fixed = Math.round((double) value * scale);
+                writeVarLong(out, zigZag(fixed - previous) << 1);
+                previous = fixed;
+            }
+        }
+    }
+
+    @NonNull
+    private static float[] readValueColumn(@NonNull DataInputStream in, int scale)
+            throws IOException {
+        float[] column = new float[readLength(in)];
+        long previous = 0;
+        for (int i = 0; i < column.length; i++) {
+            long token = readVarLong(in);
+            if (token == MISSING) {
+                column[i] = Float.NaN;
+            } else {
+                previous += unZigZag(token >>> 1);
+                column[i] = (float) ((double) previous / scale);
+            }
+        }
+        return column;
+    }
+
+    private static void writeCodeColumn(@NonNull DataOutputStream out, @NonNull int[] column)
+            throws IOException {
+        writeLength(out, column.length);
+        int previous = 0;
+        for (int code : column) {
+            writeVarLong(out, zigZag((long) code - previous));
+            previous = code;
+        }
+    }
+
+    @NonNull
+    private static int[] readCodeColumn(@NonNull DataInputStream in) throws IOException {
+        int[] column = new int[readLength(in)];
+        int previous = 0;
+        for (int i = 0; i < column.length; i++) {
+            previous += (int) unZigZag(readVarLong(in));
+            column[i] = previous;
+        }
+        return column;
+    }
+
+    private static void writeLength(@NonNull DataOutputStream out, int length) throws IOException {
+        if (length > MAX_COLUMN_LENGTH) {
+            throw new IOException("Column is too long: " + length);
+        }
+        writeVarLong(out, length);
+    }
+
+    private static int readLength(@NonNull DataInputStream in) throws IOException {
+        long length = readVarLong(in);
+        if (length < 0 || length > MAX_COLUMN_LENGTH) {
+            throw new IOException("Corrupted forecast snapshot, column length " + length);
+        }
+        return (int) length;
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(@NonNull DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(@NonNull DataInputStream in) throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Corrupted forecast snapshot");
+    }
+}
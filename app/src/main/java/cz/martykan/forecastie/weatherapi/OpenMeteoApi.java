@@ -0,0 +1,98 @@
+package cz.martykan.forecastie.weatherapi;
+
+import android.net.Uri;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.VisibleForTesting;
+
+import cz.martykan.forecastie.models.Nowcast;
+import okhttp3.OkHttpClient;
+
+/**
+ * Endpoints of Open-Meteo and HTTP client shared by all requests.
+ * <br/>
+ * One client is used so connections and TLS sessions are reused between refreshes. Endpoints may
+ * be replaced in tests to run the whole fetch and parse pipeline against a local server.
+ */
+public class OpenMeteoApi {
+    static final String FORECAST_URL = "https://api.open-meteo.com/v1/forecast";
+    static final String GEOCODING_URL = "https://geocoding-api.open-meteo.com/v1/search";
+
+    static final String HOURLY_VARIABLES = "temperature_2m,relativehumidity_2m,weathercode,"
+            + "pressure_msl,windspeed_10m,winddirection_10m,rain,precipitation_probability,"
+            + "apparent_temperature";
+    static final String MINUTELY_15_VARIABLES = "precipitation,temperature_2m";
+    static final String DAILY_VARIABLES = "sunrise,sunset,uv_index_max,temperature_2m_max,"
+            + "temperature_2m_min,precipitation_sum,windspeed_10m_max,weathercode";
+
+    private static String forecastUrl = FORECAST_URL;
+    private static String geocodingUrl = GEOCODING_URL;
+    private static OkHttpClient client;
+
+    @NonNull
+    public static synchronized OkHttpClient getClient() {
+        if (client == null) {
+            client = new OkHttpClient();
+        }
+        return client;
+    }
+
+    /**
+     * @param latitude latitude of the location
+     * @param longitude longitude of the location
+     * @param forecastDays number of days of the forecast
+     * @return url of forecast of the location
+     */
+    @NonNull
+    public static synchronized String getForecastUrl(@NonNull String latitude, @NonNull String longitude,
+                                                     int forecastDays) {
+        return Uri.parse(forecastUrl).buildUpon()
+                .appendQueryParameter("latitude", latitude)
+                .appendQueryParameter("longitude", longitude)
+                .appendQueryParameter("current_weather", "true")
+                .appendQueryParameter("hourly", HOURLY_VARIABLES)
+                .appendQueryParameter("minutely_15", MINUTELY_15_VARIABLES)
+                .appendQueryParameter("forecast_minutely_15", Integer.toString(Nowcast.DEFAULT_CAPACITY))
+                .appendQueryParameter("daily", DAILY_VARIABLES)
+                .appendQueryParameter("forecast_days", Integer.toString(forecastDays))
+                .appendQueryParameter("timezone", "auto")
+                .appendQueryParameter("timeformat", "unixtime")
+                .build()
+                .toString();
+    }
+
+    /**
+     * @param name name of the city or {@code null} to get url without name
+     * @param language language code of results
+     * @return url of search of cities
+     */
+    @NonNull
+    public static synchronized String getGeocodingUrl(String name, @NonNull String language) {
+        Uri.Builder builder = Uri.parse(geocodingUrl).buildUpon();
+        if (name != null) {
+            builder.appendQueryParameter("name", name);
+        }
+        return builder.appendQueryParameter("count", "10")
+                .appendQueryParameter("language", language)
+                .appendQueryParameter("format", "json")
+                .build()
+                .toString();
+    }
+
+    /**
+     * Send requests to other endpoints, e.g. to a local server in tests.
+     * @param forecastUrl url of forecast endpoint
+     * @param geocodingUrl url of geocoding endpoint
+     */
+    @VisibleForTesting
+    public static synchronized void setEndpoints(@NonNull String forecastUrl, @NonNull String geocodingUrl) {
+        OpenMeteoApi.forecastUrl = forecastUrl;
+        OpenMeteoApi.geocodingUrl = geocodingUrl;
+    }
+
+    /** Send requests to Open-Meteo again. */
+    @VisibleForTesting
+    public static synchronized void resetEndpoints() {
+        setEndpoints(FORECAST_URL, GEOCODING_URL);
+    }
+}
@@ -1,242 +1,135 @@
 package cz.martykan.forecastie.weatherapi;
 
-import android.util.Log;
-
 import androidx.annotation.NonNull;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
 import java.util.ArrayList;
-import java.util.Calendar;
-import java.util.Date;
 import java.util.List;
 
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.SolarTable;
 import cz.martykan.forecastie.models.Weather;
 
 public class OpenMeteoJsonParser {
 
     @NonNull
-    public static List<Weather> convertJsonToWeatherList(String jsonString) throws JSONException {
-        List<Weather> weatherList = new ArrayList<>();
-        JSONObject root = new JSONObject(jsonString);
-        JSONObject hourly = root.optJSONObject("hourly");
-        if (hourly == null) return weatherList;
-
-        JSONArray times = hourly.optJSONArray("time");
-        JSONArray temperatures = hourly.optJSONArray("temperature_2m");
-        JSONArray apparentTemperatures = hourly.optJSONArray("apparent_temperature");
-        JSONArray humidities = hourly.optJSONArray("relativehumidity_2m");
-        JSONArray weatherCodes = hourly.optJSONArray("weathercode");
-        JSONArray pressures = hourly.optJSONArray("pressure_msl");
-        JSONArray windSpeeds = hourly.optJSONArray("windspeed_10m");
-        JSONArray windDirections = hourly.optJSONArray("winddirection_10m");
-        JSONArray rains = hourly.optJSONArray("rain");
-        JSONArray precipProbs = hourly.optJSONArray("precipitation_probability");
-
-        if (times == null) return weatherList;
-
-        double lat = root.optDouble("latitude", 0);
-        double lon = root.optDouble("longitude", 0);
-
-        // Daily data for sunrise/sunset
-        JSONObject daily = root.optJSONObject("daily");
-        JSONArray sunriseArray = null;
-        JSONArray sunsetArray = null;
-        if (daily != null) {
-            sunriseArray = daily.optJSONArray("sunrise");
-            sunsetArray = daily.optJSONArray("sunset");
-        }
+    public static List<Weather> convertForecastToWeatherList(@NonNull Forecast forecast) {
+        return convertForecastToWeatherList(forecast,
+                new Weather.Builder().setLastUpdated(System.currentTimeMillis()));
+    }
 
-        for (int i = 0; i < times.length(); i++) {
-            Weather weather = new Weather();
-            weather.setDate(new Date(times.optLong(i, 0) * 1000));
-            if (temperatures != null && i < temperatures.length()) weather.setTemperature(temperatures.optDouble(i, 0) + 273.15);
-            if (apparentTemperatures != null && i < apparentTemperatures.length()) weather.setFeelsLikeTemperature(apparentTemperatures.optDouble(i, 0) + 273.15);
-            if (humidities != null && i < humidities.length()) weather.setHumidity(humidities.optInt(i, 0));
-            if (weatherCodes != null && i < weatherCodes.length()) {
-                int code = weatherCodes.optInt(i, 0);
-                weather.setWeatherId(mapWmoToOwm(code));
-                weather.setDescription(mapWmoToDescription(code));
-            }
-            if (pressures != null && i < pressures.length()) weather.setPressure(pressures.optInt(i, 0));
-            if (windSpeeds != null && i < windSpeeds.length()) weather.setWind(windSpeeds.optDouble(i, 0));
-            if (windDirections != null && i < windDirections.length()) weather.setWindDirectionDegree(windDirections.optDouble(i, 0));
-            weather.setLat(lat);
-            weather.setLon(lon);
-            if (rains != null && i < rains.length()) weather.setRain(rains.optDouble(i, 0));
-            if (precipProbs != null && i < precipProbs.length()) weather.setChanceOfPrecipitation(precipProbs.optDouble(i, 0) / 100.0);
-            
-            if (sunriseArray != null && sunriseArray.length() > 0) {
-                weather.setSunrise(new Date(sunriseArray.optLong(0, 0) * 1000));
-            }
-            if (sunsetArray != null && sunsetArray.length() > 0) {
-                weather.setSunset(new Date(sunsetArray.optLong(0, 0) * 1000));
-            }
-
-            weather.setLastUpdated(Calendar.getInstance().getTimeInMillis());
-            weatherList.add(weather);
+    /**
+     * Convert all hours of {@code forecast}.
+     * @param builder builder with values shared by all hours, e.g. city and time of the last
+     *                update
+     */
+    @NonNull
+    public static List<Weather> convertForecastToWeatherList(@NonNull Forecast forecast,
+                                                             @NonNull Weather.Builder builder) {
+        int count = forecast.getHourlyCount();
+        List<Weather> weatherList = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            weatherList.add(convertForecastHourToWeather(forecast, i, builder));
         }
 
         return weatherList;
     }
 
+    /**
+     * Convert one hour of {@code forecast}.
+     * @param index index of the hour
+     * @param lastUpdated time of the last update in milliseconds
+     */
     @NonNull
-    public static Weather convertJsonToWeather(String jsonString) throws JSONException {
-        JSONObject root = new JSONObject(jsonString);
-        JSONObject current = root.optJSONObject("current_weather");
-        
-        Weather weather = new Weather();
-        long currentTimeSec = 0;
-        if (current != null) {
-            currentTimeSec = current.optLong("time", 0);
-            weather.setDate(new Date(currentTimeSec * 1000));
-            weather.setTemperature(current.optDouble("temperature", 0) + 273.15);
-            int code = current.optInt("weathercode", 0);
-            weather.setWeatherId(mapWmoToOwm(code));
-            weather.setDescription(mapWmoToDescription(code));
-            weather.setWind(current.optDouble("windspeed", 0));
-            weather.setWindDirectionDegree(current.optDouble("winddirection", 0));
-        } else {
-            weather.setDate(new Date());
-        }
+    public static Weather convertForecastHourToWeather(@NonNull Forecast forecast, int index,
+                                                       long lastUpdated) {
+        return convertForecastHourToWeather(forecast, index,
+                new Weather.Builder().setLastUpdated(lastUpdated));
+    }
 
-        weather.setLat(root.optDouble("latitude", 0));
-        weather.setLon(root.optDouble("longitude", 0));
-        
-        // Open-Meteo current_weather doesn't have humidity/pressure/apparent_temperature, get from hourly if available
-        JSONObject hourly = root.optJSONObject("hourly");
-        if (hourly != null) {
-            int index = 0;
-            JSONArray timeArray = hourly.optJSONArray("time");
-            if (timeArray != null && timeArray.length() > 0 && currentTimeSec > 0) {
-                for (int i = 0; i < timeArray.length(); i++) {
-                    if (timeArray.optLong(i, -1) == currentTimeSec) {
-                        index = i;
-                        break;
-                    }
-                }
-            }
-
-            JSONArray apparentTempArray = hourly.optJSONArray("apparent_temperature");
-            if (apparentTempArray != null && index < apparentTempArray.length()) {
-                double apparentC = apparentTempArray.optDouble(index, Double.NaN);
-                if (!Double.isNaN(apparentC)) {
-                    weather.setFeelsLikeTemperature(apparentC + 273.15);
-                }
-            }
-            JSONArray humArray = hourly.optJSONArray("relativehumidity_2m");
-            if (humArray != null && index < humArray.length()) {
-                weather.setHumidity(humArray.optInt(index, 0));
-            }
-            JSONArray pressArray = hourly.optJSONArray("pressure_msl");
-            if (pressArray != null && index < pressArray.length()) {
-                weather.setPressure(pressArray.optInt(index, 0));
-            }
-            JSONArray rainArray = hourly.optJSONArray("rain");
-            if (rainArray != null && index < rainArray.length()) {
-                weather.setRain(rainArray.optDouble(index, 0));
-            }
-            JSONArray precipProbArray = hourly.optJSONArray("precipitation_probability");
-            if (precipProbArray != null && index < precipProbArray.length()) {
-                weather.setChanceOfPrecipitation(precipProbArray.optDouble(index, 0) / 100.0);
-            }
+    /**
+     * Convert one hour of {@code forecast} using {@code builder}. Only values of the hour are set,
+     * so the builder may be reused for following hours.
+     * @param index index of the hour
+     * @param builder builder with values shared by all hours, e.g. city and time of last update
+     */
+    @NonNull
+    public static Weather convertForecastHourToWeather(@NonNull Forecast forecast, int index,
+                                                       @NonNull Weather.Builder builder) {
+        long time = forecast.getHourlyTime(index);
+        return builder
+                .setDate(time * 1000)
+                .setTemperature(orZero(forecast.getHourlyTemperature(index)) + 273.15)
+                .setFeelsLikeTemperature(forecast.getHourlyApparentTemperature(index) + 273.15)
+                .setHumidity((int) orZero(forecast.getHourlyHumidity(index)))
+                .setWeatherCode(forecast.getHourlyWeatherCode(index))
+                .setPressure((int) orZero(forecast.getHourlyPressure(index)))
+                .setWind(orZero(forecast.getHourlyWindSpeed(index)))
+                .setWindDirectionDegree(forecast.getHourlyWindDirection(index))
+                .setLat(forecast.getLatitude())
+                .setLon(forecast.getLongitude())
+                .setRain(orZero(forecast.getHourlyRain(index)))
+                .setChanceOfPrecipitation(orZero(forecast.getHourlyPrecipitationProbability(index)) / 100.0)
+                .setDayTime(forecast.getSolarTable().isDayTime(time))
+                .build();
+    }
+
+    @NonNull
+    public static Weather convertForecastToWeather(@NonNull Forecast forecast) {
+        return convertForecastToWeather(forecast,
+                new Weather.Builder().setLastUpdated(System.currentTimeMillis()));
+    }
+
+    /**
+     * Convert current weather of {@code forecast}.
+     * @param builder builder with values not found in the forecast, e.g. city and time of the
+     *                last update
+     */
+    @NonNull
+    public static Weather convertForecastToWeather(@NonNull Forecast forecast,
+                                                   @NonNull Weather.Builder builder) {
+        long date = forecast.hasCurrent()
+                ? forecast.getCurrentTime() * 1000 : System.currentTimeMillis();
+        builder.setDate(date);
+        if (forecast.hasCurrent()) {
+            builder.setTemperature(orZero(forecast.getCurrentTemperature()) + 273.15)
+                    .setWeatherCode(forecast.getCurrentWeatherCode())
+                    .setWind(orZero(forecast.getCurrentWindSpeed()))
+                    .setWindDirectionDegree(orZero(forecast.getCurrentWindDirection()));
         }
 
-        JSONObject daily = root.optJSONObject("daily");
-        if (daily != null) {
-            JSONArray sunriseArray = daily.optJSONArray("sunrise");
-            JSONArray sunsetArray = daily.optJSONArray("sunset");
-            if (sunriseArray != null && sunriseArray.length() > 0) {
-                weather.setSunrise(new Date(sunriseArray.optLong(0, 0) * 1000));
-            }
-            if (sunsetArray != null && sunsetArray.length() > 0) {
-                weather.setSunset(new Date(sunsetArray.optLong(0, 0) * 1000));
-            }
+        builder.setLat(forecast.getLatitude())
+                .setLon(forecast.getLongitude());
+
+        // Open-Meteo current_weather doesn't have humidity/pressure/apparent_temperature, get from hourly if available
+        if (forecast.getHourlyCount() > 0) {
+            int index = forecast.getCurrentHourIndex();
+            builder.setFeelsLikeTemperature(forecast.getHourlyApparentTemperature(index) + 273.15)
+                    .setHumidity((int) orZero(forecast.getHourlyHumidity(index)))
+                    .setPressure((int) orZero(forecast.getHourlyPressure(index)))
+                    .setRain(orZero(forecast.getHourlyRain(index)))
+                    .setChanceOfPrecipitation(orZero(forecast.getHourlyPrecipitationProbability(index)) / 100.0);
         }
 
-        weather.setLastUpdated(Calendar.getInstance().getTimeInMillis());
-        return weather;
+        setSunriseAndSunset(builder, forecast, date);
+        return builder.build();
     }
 
-    public static double convertJsonToUVIndex(String jsonString) throws JSONException {
-        JSONObject root = new JSONObject(jsonString);
-        JSONObject daily = root.optJSONObject("daily");
-        if (daily != null) {
-            JSONArray uviArray = daily.optJSONArray("uv_index_max");
-            if (uviArray != null && uviArray.length() > 0) {
-                return uviArray.getDouble(0);
-            }
-        }
-        return 0;
+    public static double convertForecastToUVIndex(@NonNull Forecast forecast) {
+        return orZero(forecast.getDailyUvIndexMax(0));
     }
 
-    public static String mapWmoToDescription(int wmoCode) {
-        switch (wmoCode) {
-            case 0: return "Clear sky";
-            case 1: return "Mainly clear";
-            case 2: return "Partly cloudy";
-            case 3: return "Overcast";
-            case 45:
-            case 48: return "Fog";
-            case 51:
-            case 53:
-            case 55: return "Drizzle";
-            case 56:
-            case 57: return "Freezing Drizzle";
-            case 61:
-            case 63:
-            case 65: return "Rain";
-            case 66:
-            case 67: return "Freezing Rain";
-            case 71:
-            case 73:
-            case 75: return "Snow fall";
-            case 77: return "Snow grains";
-            case 80:
-            case 81:
-            case 82: return "Rain showers";
-            case 85:
-            case 86: return "Snow showers";
-            case 95:
-            case 96:
-            case 99: return "Thunderstorm";
-            default: return "Unknown";
-        }
+    /** @param date time of the weather in milliseconds */
+    private static void setSunriseAndSunset(@NonNull Weather.Builder builder,
+                                            @NonNull Forecast forecast, long date) {
+        SolarTable solarTable = forecast.getSolarTable();
+        int day = Math.max(0, solarTable.getDay(date / 1000));
+        long sunrise = solarTable.getSunrise(day);
+        builder.setSunrise(sunrise >= 0 ? sunrise * 1000 : -1L);
+        long sunset = solarTable.getSunset(day);
+        builder.setSunset(sunset >= 0 ? sunset * 1000 : -1L);
     }
 
-    public static int mapWmoToOwm(int wmoCode) {
-        switch (wmoCode) {
-            case 0: return 800; // Clear sky
-            case 1: return 801; // Mainly clear
-            case 2: return 802; // Partly cloudy
-            case 3: return 804; // Overcast
-            case 45:
-            case 48: return 741; // Fog
-            case 51:
-            case 53:
-            case 55: return 301; // Drizzle
-            case 56:
-            case 57: return 302; // Freezing Drizzle
-            case 61:
-            case 63:
-            case 65: return 501; // Rain
-            case 66:
-            case 67: return 511; // Freezing Rain
-            case 71:
-            case 73:
-            case 75: return 601; // Snow fall
-            case 77: return 611; // Snow grains
-            case 80:
-            case 81:
-            case 82: return 521; // Rain showers
-            case 85:
-            case 86: return 621; // Snow showers
-            case 95:
-            case 96:
-            case 99: return 211; // Thunderstorm
-            default: return 800;
-        }
+    private static float orZero(float value) {
+        return Float.isNaN(value) ? 0 : value;
     }
 }
@@ -0,0 +1,278 @@
+package cz.martykan.forecastie.weatherapi;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.MalformedJsonException;
+
+import androidx.annotation.NonNull;
+
+import org.json.JSONException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Arrays;
+
+import cz.martykan.forecastie.models.Forecast;
+
+/**
+ * Parse Open-Meteo forecast response token by token.
+ * <br/>
+ * Unlike {@link org.json.JSONObject} the whole response never has to be in memory as a String:
+ * values are read straight into primitive columns of {@link Forecast}.
+ */
+public class OpenMeteoStreamParser {
+    private static final int INITIAL_CAPACITY = 64;
+
+    /**
+     * Read forecast from {@code reader}. The reader is not closed.
+     * @param reader source of Open-Meteo forecast json
+     * @return parsed forecast
+     * @throws IOException if {@code reader} failed
+     * @throws JSONException if response isn't valid Open-Meteo forecast json
+     * @throws NullPointerException if {@code reader} is null
+     */
+    @NonNull
+    public static Forecast parse(@NonNull Reader reader) throws IOException, JSONException {
+        //noinspection ConstantConditions
+        if (reader == null)
+            throw new NullPointerException("reader should not be null");
+
+        Forecast forecast = new Forecast();
+        JsonReader json = new JsonReader(reader);
+        try {
+            json.beginObject();
+            while (json.hasNext()) {
+                switch (json.nextName()) {
+                    case "latitude":
+                        forecast.setLatitude(json.nextDouble());
+                        break;
+                    case "longitude":
+                        forecast.setLongitude(json.nextDouble());
+                        break;
+                    case "current_weather":
+                        readCurrentWeather(json, forecast);
+                        break;
+                    case "hourly":
+                        readHourly(json, forecast);
+                        break;
+                    case "minutely_15":
+                        readMinutely15(json, forecast);
+                        break;
+                    case "daily":
+                        readDaily(json, forecast);
+                        break;
+                    default:
+                        json.skipValue();
+                        break;
+                }
+            }
+            json.endObject();
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            JSONException exception = new JSONException("Could not parse forecast: " + e.getMessage());
+            exception.initCause(e);
+            throw exception;
+        }
+        return forecast;
+    }
+
+    private static void readCurrentWeather(@NonNull JsonReader json, @NonNull Forecast forecast)
+            throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "time":
+                    forecast.setCurrentTime(json.nextLong());
+                    break;
+                case "temperature":
+                    forecast.setCurrentTemperature(nextFloat(json));
+                    break;
+                case "weathercode":
+                    forecast.setCurrentWeatherCode(nextInt(json));
+                    break;
+                case "windspeed":
+                    forecast.setCurrentWindSpeed(nextFloat(json));
+                    break;
+                case "winddirection":
+                    forecast.setCurrentWindDirection(nextFloat(json));
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readHourly(@NonNull JsonReader json, @NonNull Forecast forecast)
+            throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "time":
+                    forecast.setHourlyTime(readLongArray(json));
+                    break;
+                case "temperature_2m":
+                    forecast.setHourlyTemperature(readFloatArray(json));
+                    break;
+                case "apparent_temperature":
+                    forecast.setHourlyApparentTemperature(readFloatArray(json));
+                    break;
+                case "relativehumidity_2m":
+                    forecast.setHourlyHumidity(readFloatArray(json));
+                    break;
+                case "weathercode":
+                    forecast.setHourlyWeatherCode(readIntArray(json));
+                    break;
+                case "pressure_msl":
+                    forecast.setHourlyPressure(readFloatArray(json));
+                    break;
+                case "windspeed_10m":
+                    forecast.setHourlyWindSpeed(readFloatArray(json));
+                    break;
+                case "winddirection_10m":
+                    forecast.setHourlyWindDirection(readFloatArray(json));
+                    break;
+                case "rain":
+                    forecast.setHourlyRain(readFloatArray(json));
+                    break;
+                case "precipitation_probability":
+                    forecast.setHourlyPrecipitationProbability(readFloatArray(json));
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readMinutely15(@NonNull JsonReader json, @NonNull Forecast forecast)
+            throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "time":
+                    forecast.setMinutely15Time(readLongArray(json));
+                    break;
+                case "precipitation":
+                    forecast.setMinutely15Precipitation(readFloatArray(json));
+                    break;
+                case "temperature_2m":
+                    forecast.setMinutely15Temperature(readFloatArray(json));
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+    }
+
+    private static void readDaily(@NonNull JsonReader json, @NonNull Forecast forecast)
+            throws IOException {
+        json.beginObject();
+        while (json.hasNext()) {
+            switch (json.nextName()) {
+                case "time":
+                    forecast.setDailyTime(readLongArray(json));
+                    break;
+                case "temperature_2m_max":
+                    forecast.setDailyTemperatureMax(readFloatArray(json));
+                    break;
+                case "temperature_2m_min":
+                    forecast.setDailyTemperatureMin(readFloatArray(json));
+                    break;
+                case "precipitation_sum":
+                    forecast.setDailyPrecipitationSum(readFloatArray(json));
+                    break;
+                case "windspeed_10m_max":
+                    forecast.setDailyWindSpeedMax(readFloatArray(json));
+                    break;
+                case "weathercode":
+                    forecast.setDailyWeatherCode(readIntArray(json));
+                    break;
+                case "sunrise":
+                    forecast.setDailySunrise(readLongArray(json));
+                    break;
+                case "sunset":
+                    forecast.setDailySunset(readLongArray(json));
+                    break;
+                case "uv_index_max":
+                    forecast.setDailyUvIndexMax(readFloatArray(json));
+                    break;
+                default:
+                    json.skipValue();
+                    break;
+            }
+        }
+        json.endObject();
+    }
+
+    @NonNull
+    private static long[] readLongArray(@NonNull JsonReader json) throws IOException {
+        long[] values = new long[INITIAL_CAPACITY];
+        int size = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (json.peek() == JsonToken.NULL) {
+                json.nextNull();
+                values[size++] = -1L;
+            } else {
+                values[size++] = json.nextLong();
+            }
+        }
+        json.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    @NonNull
+    private static float[] readFloatArray(@NonNull JsonReader json) throws IOException {
+        float[] values = new float[INITIAL_CAPACITY];
+        int size = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nextFloat(json);
+        }
+        json.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    @NonNull
+    private static int[] readIntArray(@NonNull JsonReader json) throws IOException {
+        int[] values = new int[INITIAL_CAPACITY];
+        int size = 0;
+        json.beginArray();
+        while (json.hasNext()) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = nextInt(json);
+        }
+        json.endArray();
+        return Arrays.copyOf(values, size);
+    }
+
+    /** @return next number or {@link Float#NaN} for {@code null}. */
+    private static float nextFloat(@NonNull JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return Float.NaN;
+        }
+        return (float) json.nextDouble();
+    }
+
+    /** @return next number or {@code -1} for {@code null}. */
+    private static int nextInt(@NonNull JsonReader json) throws IOException {
+        if (json.peek() == JsonToken.NULL) {
+            json.nextNull();
+            return -1;
+        }
+        return (int) json.nextDouble();
+    }
+}
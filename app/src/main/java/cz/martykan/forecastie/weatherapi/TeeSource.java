@@ -0,0 +1,33 @@
+package cz.martykan.forecastie.weatherapi;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.ForwardingSource;
+import okio.Source;
+
+/**
+ * Source which copies every byte read from the delegate into {@code copy}, so a response can be
+ * parsed and written to disk in a single pass.
+ */
+class TeeSource extends ForwardingSource {
+    private final BufferedSink copy;
+
+    TeeSource(@NonNull Source delegate, @NonNull BufferedSink copy) {
+        super(delegate);
+        this.copy = copy;
+    }
+
+    @Override
+    public long read(@NonNull Buffer sink, long byteCount) throws IOException {
+        long read = super.read(sink, byteCount);
+        if (read > 0) {
+            sink.copyTo(copy.getBuffer(), sink.size() - read, read);
+            copy.emitCompleteSegments();
+        }
+        return read;
+    }
+}
@@ -1,25 +1,67 @@
 package cz.martykan.forecastie.weatherapi;
 
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
+import android.util.AtomicFile;
 import android.util.Log;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import org.json.JSONException;
 
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import cz.martykan.forecastie.Constants;
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.Nowcast;
 import cz.martykan.forecastie.models.Weather;
-import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
+import cz.martykan.forecastie.provider.ForecastContract;
+import cz.martykan.forecastie.provider.ForecastProvider;
+import cz.martykan.forecastie.utils.PerfTrace;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.Okio;
 
 public class WeatherStorage {
+    private static final String RESPONSE_FILE_NAME = "forecast.json";
+    private static final String SNAPSHOT_FILE_NAME = "forecast.snapshot";
+    private static final long DRAIN_BYTE_COUNT = 8192;
+
+    /** Next hours of the last read or stored forecast, shared by notification and widgets. */
+    private static final Nowcast nowcast = new Nowcast();
+
     protected SharedPreferences sharedPreferences;
+    private final ContentResolver contentResolver;
+    private final AtomicFile responseFile;
+    private final AtomicFile snapshotFile;
 
     public WeatherStorage(Context context) {
         this.sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
+        this.contentResolver = context.getContentResolver();
+        this.responseFile = new AtomicFile(new File(context.getCacheDir(), RESPONSE_FILE_NAME));
+        this.snapshotFile = new AtomicFile(new File(context.getFilesDir(), SNAPSHOT_FILE_NAME));
+    }
+
+    /**
+     * Start to change location. Nothing is stored until {@link Editor#apply()} is called.
+     * @return editor of stored location
+     */
+    @NonNull
+    public Editor edit() {
+        return new Editor(sharedPreferences.edit());
     }
 
     public int getCityId() {
@@ -27,80 +69,240 @@ public class WeatherStorage {
         return Integer.parseInt(cityIdString);
     }
 
-    public void setCityId(int cityId) {
-        String cityIdString = Integer.toString(cityId);
-        sharedPreferences.edit().putString("cityId", cityIdString).apply();
+    /**
+     * Parse forecast from {@code source} and store it at the same time. The response is written
+     * to disk while the parser consumes it, so it never has to be held in memory as a whole.
+     * Parsed forecast is then stored as {@link ForecastSnapshot}, the raw response is kept in
+     * cache only to rebuild the snapshot when its format changes.
+     * <br/>
+     * Stored forecast is replaced only if the whole response was parsed successfully.
+     * @param source response body
+     * @return parsed forecast
+     * @throws IOException if reading {@code source} or writing the file failed
+     * @throws JSONException if response isn't valid forecast json
+     */
+    @NonNull
+    public Forecast storeForecast(@NonNull BufferedSource source) throws IOException, JSONException {
+        long start = PerfTrace.begin("storeForecast");
+        FileOutputStream output = responseFile.startWrite();
+        boolean stored = false;
+        try {
+            BufferedSink copy = Okio.buffer(Okio.sink(output));
+            BufferedSource tee = Okio.buffer(new TeeSource(source, copy));
+            Forecast forecast = OpenMeteoStreamParser.parse(
+                    new InputStreamReader(tee.inputStream(), StandardCharsets.UTF_8));
+            // parser stops at the end of the root object, keep the rest of the response too
+            Buffer rest = new Buffer();
+            while (tee.read(rest, DRAIN_BYTE_COUNT) != -1) {
+                rest.clear();
+            }
+            copy.flush();
+            responseFile.finishWrite(output);
+            stored = true;
+            try {
+                writeSnapshot(forecast);
+            } catch (IOException e) {
+                // snapshot will be rebuilt from the response on the next read
+                Log.e("WeatherStorage", "Could not write forecast snapshot", e);
+                snapshotFile.delete();
+            }
+            removeLegacyForecast();
+            updateNowcast(forecast);
+            ForecastProvider.invalidateForecast();
+            contentResolver.notifyChange(ForecastContract.CONTENT_URI, null);
+            return forecast;
+        } finally {
+            if (!stored) {
+                responseFile.failWrite(output);
+            }
+            PerfTrace.end("storeForecast", start);
+        }
     }
 
+    /**
+     * Read the last stored forecast.
+     * @return forecast or {@code null} if there is no forecast yet or it couldn't be read
+     */
     @Nullable
-    public Weather getLastToday() {
-        String lastToday = this.sharedPreferences.getString("lastToday", null);
-        if (lastToday == null) {
-            return null;
+    public Forecast getLastForecast() {
+        Forecast forecast = readSnapshot();
+        if (forecast != null) {
+            return updateNowcast(forecast);
         }
 
-        try {
-            Weather weather = OpenMeteoJsonParser.convertJsonToWeather(lastToday);
-            weather.setCity(getCity());
-            weather.setCountry(getCountry());
-            return weather;
-        } catch (JSONException e) {
-            Log.e("WeatherStorage", "Could not parse today JSON", e);
-            e.printStackTrace();
-            return null;
+        forecast = getLastResponse();
+        if (forecast == null) {
+            forecast = getLegacyForecast();
+        }
+        if (forecast != null) {
+            try {
+                writeSnapshot(forecast);
+            } catch (IOException e) {
+                Log.e("WeatherStorage", "Could not write forecast snapshot", e);
+            }
+            updateNowcast(forecast);
+        }
+        return forecast;
+    }
+
+    /**
+     * Read the last stored forecast without side effects: unlike {@link #getLastForecast()} it
+     * neither rebuilds a missing snapshot nor updates {@link #getNowcast() nowcast}.
+     * @return forecast or {@code null} if there is no forecast yet or it couldn't be read
+     */
+    @Nullable
+    public Forecast readLastForecast() {
+        Forecast forecast = readSnapshot();
+        if (forecast == null) {
+            forecast = getLastResponse();
         }
+        if (forecast == null) {
+            forecast = getLegacyForecast();
+        }
+        return forecast;
+    }
+
+    /**
+     * Returns 15 minute steps of the next hours. They are updated whenever forecast is stored or
+     * read, only steps which changed since the last update are searched for rain again.
+     * @return nowcast of the last forecast
+     */
+    @NonNull
+    public static Nowcast getNowcast() {
+        return nowcast;
+    }
+
+    @NonNull
+    private static Forecast updateNowcast(@NonNull Forecast forecast) {
+        nowcast.update(forecast, System.currentTimeMillis() / 1000);
+        return forecast;
     }
 
-    public void setLastToday(String lastToday) {
-        this.sharedPreferences.edit().putString("lastToday", lastToday).apply();
+    @Nullable
+    public Weather getLastToday() {
+        Forecast forecast = getLastForecast();
+        return forecast != null ? getLastToday(forecast) : null;
+    }
+
+    @NonNull
+    public Weather getLastToday(@NonNull Forecast forecast) {
+        return OpenMeteoJsonParser.convertForecastToWeather(forecast, new Weather.Builder()
+                .setCity(getCity())
+                .setCountry(getCountry())
+                .setLastUpdated(getLastUpdate()));
     }
 
     @Nullable
     public List<Weather> getLastLongTerm() {
-        String lastLongTerm = this.sharedPreferences.getString("lastLongterm", null);
-        if (null == lastLongTerm) {
-            return null;
+        Forecast forecast = getLastForecast();
+        return forecast != null ? getLastLongTerm(forecast) : null;
+    }
+
+    @NonNull
+    public List<Weather> getLastLongTerm(@NonNull Forecast forecast) {
+        return OpenMeteoJsonParser.convertForecastToWeatherList(forecast, new Weather.Builder()
+                .setCity(getCity())
+                .setCountry(getCountry())
+                .setLastUpdated(getLastUpdate()));
+    }
+
+    @Nullable
+    public Double getLastUviToday() {
+        Forecast forecast = getLastForecast();
+        return forecast != null ? OpenMeteoJsonParser.convertForecastToUVIndex(forecast) : null;
+    }
+
+    @Nullable
+    private Forecast readSnapshot() {
+        FileInputStream input = null;
+        long start = PerfTrace.begin("readSnapshot");
+        try {
+            input = snapshotFile.openRead();
+            return ForecastSnapshot.read(input);
+        } catch (FileNotFoundException e) {
+            // there is no snapshot yet
+        } catch (IOException e) {
+            Log.w("WeatherStorage", "Could not read forecast snapshot, rebuilding it", e);
+        } finally {
+            closeQuietly(input);
+            PerfTrace.end("readSnapshot", start);
         }
+        return null;
+    }
 
+    private void writeSnapshot(@NonNull Forecast forecast) throws IOException {
+        long start = PerfTrace.begin("writeSnapshot");
+        FileOutputStream output = snapshotFile.startWrite();
+        boolean written = false;
         try {
-            List<Weather> weatherList = OpenMeteoJsonParser.convertJsonToWeatherList(lastLongTerm);
-            String city = getCity();
-            String country = getCountry();
-            for (Weather weather : weatherList) {
-                weather.setCity(city);
-                weather.setCountry(country);
+            ForecastSnapshot.write(forecast, output, true);
+            snapshotFile.finishWrite(output);
+            written = true;
+        } finally {
+            if (!written) {
+                snapshotFile.failWrite(output);
             }
-            return weatherList;
-        } catch (JSONException e) {
-            Log.e("WeatherStorage", "Could not parse long term JSON", e);
-            e.printStackTrace();
-            return null;
+            PerfTrace.end("writeSnapshot", start);
         }
     }
 
-
-    public void setLastLongTerm(String lastLongTerm) {
-        this.sharedPreferences.edit().putString("lastLongterm", lastLongTerm).apply();
+    /** Parse cached response, used when there is no snapshot in current format. */
+    @Nullable
+    private Forecast getLastResponse() {
+        FileInputStream input = null;
+        try {
+            input = responseFile.openRead();
+            return OpenMeteoStreamParser.parse(new InputStreamReader(input, StandardCharsets.UTF_8));
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException | JSONException e) {
+            Log.e("WeatherStorage", "Could not parse cached forecast response", e);
+            return null;
+        } finally {
+            closeQuietly(input);
+        }
     }
 
+    /**
+     * Older versions kept the whole response as a string in preferences. Read it until the first
+     * refresh replaces it with the forecast file.
+     */
     @Nullable
-    public Double getLastUviToday() {
-        String lastUviToday = this.sharedPreferences.getString("lastUVIToday", null);
-        if (null == lastUviToday) {
+    private Forecast getLegacyForecast() {
+        String json = sharedPreferences.getString("lastLongterm", null);
+        if (json == null) {
+            json = sharedPreferences.getString("lastToday", null);
+        }
+        if (json == null) {
             return null;
         }
 
         try {
-            return OpenMeteoJsonParser.convertJsonToUVIndex(lastUviToday);
-        } catch (JSONException e) {
-            Log.e("WeatherStorage", "Could not parse UV index JSON", e);
-            e.printStackTrace();
+            return OpenMeteoStreamParser.parse(new StringReader(json));
+        } catch (IOException | JSONException e) {
+            Log.e("WeatherStorage", "Could not parse legacy forecast JSON", e);
             return null;
         }
     }
 
-    public void setLastUviToday(String lastUviToday) {
-        this.sharedPreferences.edit().putString("lastUVIToday", lastUviToday).apply();
+    private void removeLegacyForecast() {
+        if (sharedPreferences.contains("lastToday") || sharedPreferences.contains("lastLongterm")
+                || sharedPreferences.contains("lastUVIToday")) {
+            sharedPreferences.edit()
+                    .remove("lastToday")
+                    .remove("lastLongterm")
+                    .remove("lastUVIToday")
+                    .apply();
+        }
+    }
+
+    private static void closeQuietly(@Nullable Closeable closeable) {
+        if (closeable != null) {
+            try {
+                closeable.close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 
     @Nullable
@@ -117,10 +319,6 @@ public class WeatherStorage {
         return latitude != null ? latitude : defaultValue;
     }
 
-    public void setLatitude(double latitude) {
-        this.sharedPreferences.edit().putFloat("latitude", (float) latitude).commit();
-    }
-
     @Nullable
     public Double getLongitude() {
         if (this.sharedPreferences.contains("longitude")) {
@@ -135,16 +333,12 @@ public class WeatherStorage {
         return longitude != null ? longitude : defaultValue;
     }
 
-    public void setLongitude(double longitude) {
-        this.sharedPreferences.edit().putFloat("longitude", (float) longitude).commit();
-    }
-
-    public void setCity(String city) {
-        this.sharedPreferences.edit().putString("city", city).commit();
-    }
-
-    public void setCountry(String country) {
-        this.sharedPreferences.edit().putString("country", country).commit();
+    /**
+     * @return time of the last successful fetch in milliseconds, as saved by
+     * {@link cz.martykan.forecastie.activities.MainActivity#saveLastUpdateTime}, or {@code -1}
+     */
+    public long getLastUpdate() {
+        return this.sharedPreferences.getLong("lastUpdate", -1L);
     }
 
     public String getCity() {
@@ -154,4 +348,53 @@ public class WeatherStorage {
     public String getCountry() {
         return this.sharedPreferences.getString("country", "");
     }
+
+    /**
+     * Batch of location changes.
+     * <br/>
+     * {@link #apply()} makes all changes visible to readers immediately and at once, and writes
+     * them to disk in a single atomic write on a background thread, so it is safe to call from
+     * the UI thread.
+     */
+    public static class Editor {
+        private final SharedPreferences.Editor editor;
+
+        private Editor(@NonNull SharedPreferences.Editor editor) {
+            this.editor = editor;
+        }
+
+        @NonNull
+        public Editor setCityId(int cityId) {
+            editor.putString("cityId", Integer.toString(cityId));
+            return this;
+        }
+
+        @NonNull
+        public Editor setLatitude(double latitude) {
+            editor.putFloat("latitude", (float) latitude);
+            return this;
+        }
+
+        @NonNull
+        public Editor setLongitude(double longitude) {
+            editor.putFloat("longitude", (float) longitude);
+            return this;
+        }
+
+        @NonNull
+        public Editor setCity(String city) {
+            editor.putString("city", city);
+            return this;
+        }
+
+        @NonNull
+        public Editor setCountry(String country) {
+            editor.putString("country", country);
+            return this;
+        }
+
+        public void apply() {
+            editor.apply();
+        }
+    }
 }
@@ -1,39 +1,22 @@
 package cz.martykan.forecastie.widgets;
 
-import android.app.AlarmManager;
 import android.app.PendingIntent;
 import android.appwidget.AppWidgetManager;
 import android.appwidget.AppWidgetProvider;
-import android.content.ComponentName;
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
-import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.os.Build;
-import android.preference.PreferenceManager;
 import android.util.Log;
 import android.widget.RemoteViews;
 
-import androidx.annotation.Nullable;
-
-import java.text.DecimalFormat;
-import java.util.Calendar;
-import java.util.Date;
+import androidx.annotation.LayoutRes;
+import androidx.annotation.NonNull;
 
 import cz.martykan.forecastie.AlarmReceiver;
 import cz.martykan.forecastie.R;
 import cz.martykan.forecastie.activities.MainActivity;
-import cz.martykan.forecastie.models.Weather;
-import cz.martykan.forecastie.utils.Formatting;
-import cz.martykan.forecastie.utils.TimeUtils;
-import cz.martykan.forecastie.utils.UnitConvertor;
-import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
-import cz.martykan.forecastie.weatherapi.WeatherStorage;
 
 public abstract class AbstractWidgetProvider extends AppWidgetProvider {
-    protected static final String ACTION_UPDATE_TIME = "cz.martykan.forecastie.UPDATE_TIME";
-
     @Override
     public void onEnabled(Context context) {
         super.onEnabled(context);
@@ -42,34 +25,90 @@ public abstract class AbstractWidgetProvider extends AppWidgetProvider {
 
     @Override
     public void onReceive(Context context, Intent intent) {
-        if (ACTION_UPDATE_TIME.equals(intent.getAction())) {
-            AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
-            ComponentName provider = new ComponentName(context.getPackageName(), getClass().getName());
-            int ids[] = appWidgetManager.getAppWidgetIds(provider);
-            onUpdate(context, appWidgetManager, ids);
+        if (AppWidgetManager.ACTION_APPWIDGET_UPDATE.equals(intent.getAction())) {
+            int[] ids = intent.getIntArrayExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS);
+            WidgetRenderer.renderAsync(this, context, this, ids);
         } else {
             super.onReceive(context, intent);
         }
     }
 
+    @Override
+    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
+        // only restored widgets get here, updates are handled in onReceive
+        WidgetRenderer.render(context, this, appWidgetIds);
+    }
+
+    @Override
+    public void onDeleted(Context context, int[] appWidgetIds) {
+        super.onDeleted(context, appWidgetIds);
+        WidgetRenderer.forget(appWidgetIds);
+    }
+
     @Override
     public void onDisabled(Context context) {
         super.onDisabled(context);
 
         Log.d(this.getClass().getSimpleName(), "Disable updates for this widget");
-        cancelUpdate(context);
+        WidgetUpdateScheduler.schedule(context);
+    }
+
+    /** @return layout of the widget */
+    @LayoutRes
+    protected abstract int getLayoutId();
+
+    /**
+     * Set weather texts of the widget. Called only if there is stored weather.
+     * @param texts texts to set into views of {@link #getLayoutId()}
+     * @param data formatted weather shared by all widgets
+     */
+    protected abstract void bindTexts(Context context, WidgetTexts texts, WidgetData data);
+
+    /**
+     * Set everything except texts, i.e. what is covered by {@link WidgetData#getFrameKey()}.
+     * Called only if there is stored weather.
+     * @param remoteViews views inflated from {@link #getLayoutId()}
+     * @param data formatted weather shared by all widgets
+     */
+    protected void bindViews(Context context, RemoteViews remoteViews, WidgetData data) {
+        if (data.getFeelsLike() != null) {
+            remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.VISIBLE);
+        } else {
+            remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.GONE);
+        }
+        remoteViews.setImageViewBitmap(R.id.widgetIcon, data.getIcon());
     }
 
-    protected Bitmap getWeatherIcon(Weather weather, Context context) {
-        Formatting formatting = new Formatting(context);
-        String weatherIcon = formatting.getWeatherIcon(weather.getWeatherId(), TimeUtils.isDayTime(weather, Calendar.getInstance()));
-        return WeatherFormatter.getWeatherIconAsBitmap(context, weatherIcon, Color.WHITE);
+    @NonNull
+    WidgetTexts createTexts(@NonNull Context context, @NonNull WidgetData data) {
+        WidgetTexts texts = new WidgetTexts();
+        if (data.isWeatherAvailable()) {
+            bindTexts(context, texts, data);
+        }
+        return texts;
+    }
+
+    /** @return views of the whole widget */
+    @NonNull
+    RemoteViews createRemoteViews(@NonNull Context context, @NonNull WidgetData data,
+                                  @NonNull WidgetTexts texts) {
+        RemoteViews remoteViews = new RemoteViews(context.getPackageName(), getLayoutId());
+        remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", data.getBackground());
+        openMainActivity(context, remoteViews);
+        setRefreshButton(context, remoteViews);
+        if (data.isWeatherAvailable()) {
+            bindViews(context, remoteViews, data);
+        }
+        texts.applyTo(remoteViews);
+        return remoteViews;
     }
 
-    @Nullable
-    protected Weather getTodayWeather(Context context) {
-        WeatherStorage weatherStorage = new WeatherStorage(context);
-        return weatherStorage.getLastToday();
+    /** @return views with texts only, for {@link AppWidgetManager#partiallyUpdateAppWidget} */
+    @NonNull
+    RemoteViews createTextViews(@NonNull Context context, @NonNull WidgetTexts texts) {
+        RemoteViews remoteViews = new RemoteViews(context.getPackageName(), getLayoutId());
+        texts.applyTo(remoteViews);
+        return remoteViews;
     }
 
     protected void openMainActivity(Context context, RemoteViews remoteViews) {
@@ -93,154 +132,11 @@ public abstract class AbstractWidgetProvider extends AppWidgetProvider {
         remoteViews.setOnClickPendingIntent(R.id.widgetButtonRefresh, pendingIntent);
     }
 
-    protected String getFormattedLocation(Weather weather) {
-        String city = weather.getCity();
-        String country = weather.getCountry();
-        if (city == null) city = "";
-        if (country == null) country = "";
-
-        if (!city.isEmpty() && !country.isEmpty()) {
-            return city + ", " + country;
-        } else if (!city.isEmpty()) {
-            return city;
-        } else if (!country.isEmpty()) {
-            return country;
-        } else {
-            return "";
-        }
-    }
-
-    protected String localize(SharedPreferences sp, Context context, String preferenceKey,
-                              String defaultValueKey) {
-        MainActivity.initMappings();
-        return MainActivity.localize(sp, context, preferenceKey, defaultValueKey);
-    }
-
+    /**
+     * Update all widgets of all types. Stored weather is read only once for all of them.
+     */
     public static void updateWidgets(Context context) {
-        updateWidgets(context, ExtensiveWidgetProvider.class);
-        updateWidgets(context, TimeWidgetProvider.class);
-        updateWidgets(context, SimpleWidgetProvider.class);
-        updateWidgets(context, ClassicTimeWidgetProvider.class);
-    }
-
-    private static void updateWidgets(Context context, Class widgetClass) {
-        Intent intent = new Intent(context.getApplicationContext(), widgetClass)
-                .setAction(AppWidgetManager.ACTION_APPWIDGET_UPDATE);
-        int[] ids = AppWidgetManager.getInstance(context.getApplicationContext())
-                .getAppWidgetIds(new ComponentName(context.getApplicationContext(), widgetClass));
-        intent.putExtra(AppWidgetManager.EXTRA_APPWIDGET_IDS, ids);
+        Intent intent = new Intent(context.getApplicationContext(), WidgetUpdateReceiver.class);
         context.getApplicationContext().sendBroadcast(intent);
     }
-
-    protected void setTheme(Context context, RemoteViews remoteViews) {
-        if (PreferenceManager.getDefaultSharedPreferences(context).getBoolean("transparentWidget", false)){
-            remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", R.drawable.widget_card_transparent);
-            return;
-        }
-        String theme = PreferenceManager.getDefaultSharedPreferences(context).getString("theme", "fresh");
-        switch (theme) {
-            case "dark":
-            case "classicdark":
-                remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", R.drawable.widget_card_dark);
-                break;
-            case "black":
-            case "classicblack":
-                remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", R.drawable.widget_card_black);
-                break;
-            case "classic":
-                remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", R.drawable.widget_card_classic);
-                break;
-            default:
-                remoteViews.setInt(R.id.widgetRoot, "setBackgroundResource", R.drawable.widget_card);
-                break;
-        }
-    }
-
-    protected void scheduleNextUpdate(Context context) {
-        if (!shouldUpdate(context)) {
-            cancelUpdate(context);
-            return;
-        }
-        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
-        String intervalPref = sp.getString("refreshInterval", "1");
-        long intervalMillis = AlarmReceiver.intervalMillisForRecurringAlarm(intervalPref);
-        if (intervalMillis == 0) {
-            cancelUpdate(context);
-            return;
-        }
-
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        long now = new Date().getTime();
-        long nextUpdate = now + intervalMillis;
-        if (Build.VERSION.SDK_INT >= 19) {
-            // Check if we can schedule exact alarms
-            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-                if (alarmManager.canScheduleExactAlarms()) {
-                    alarmManager.setExact(AlarmManager.RTC, nextUpdate, getTimeIntent(context));
-                } else {
-                    // Fall back to inexact alarm if permission not granted
-                    alarmManager.set(AlarmManager.RTC, nextUpdate, getTimeIntent(context));
-                }
-            } else {
-                alarmManager.setExact(AlarmManager.RTC, nextUpdate, getTimeIntent(context));
-            }
-        } else {
-            alarmManager.set(AlarmManager.RTC, nextUpdate, getTimeIntent(context));
-        }
-    }
-
-    protected void cancelUpdate(Context context) {
-        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
-        alarmManager.cancel(getTimeIntent(context));
-    }
-
-    private boolean shouldUpdate(Context context) {
-        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
-        return !sp.getString("refreshInterval", "1").equals("0");
-    }
-
-    protected PendingIntent getTimeIntent(Context context) {
-        Intent intent = new Intent(context, this.getClass());
-        intent.setAction(ACTION_UPDATE_TIME);
-        int flags = PendingIntent.FLAG_CANCEL_CURRENT;
-        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
-            flags |= PendingIntent.FLAG_IMMUTABLE;
-        }
-        return PendingIntent.getBroadcast(context, 0, intent, flags);
-    }
-
-    protected String getFormattedTemperature(Weather weather, Context context, SharedPreferences sp) {
-        float temperature = UnitConvertor.convertTemperature((float) weather.getTemperature(), sp);
-        if (sp.getBoolean("temperatureInteger", false)) {
-            temperature = Math.round(temperature);
-        }
-
-        return new DecimalFormat("#.#").format(temperature) + localize(sp, context, "unit", "C");
-    }
-
-    protected String getFormattedFeelsLikeTemperature(Weather weather, Context context, SharedPreferences sp) {
-        if (!weather.isFeelsLikeTemperatureAvailable()) {
-            return null;
-        }
-
-        float temperature = UnitConvertor.convertTemperature(weather.getFeelsLikeTemperature().floatValue(), sp);
-        if (sp.getBoolean("temperatureInteger", false)) {
-            temperature = Math.round(temperature);
-        }
-
-        return new DecimalFormat("#.#").format(temperature) + localize(sp, context, "unit", "C");
-    }
-
-    protected String getFormattedPressure(Weather weather, Context context, SharedPreferences sp) {
-        double pressure = UnitConvertor.convertPressure((float) weather.getPressure(), sp);
-
-        return new DecimalFormat("0.0").format(pressure) + " " + localize(sp, context, "pressureUnit", "hPa");
-    }
-
-    protected String getFormattedWind(Weather weather, Context context, SharedPreferences sp) {
-        double wind = UnitConvertor.convertWind(weather.getWind(), sp);
-
-        return new DecimalFormat("0.0").format(wind) + " " + localize(sp, context, "speedUnit", "m/s")
-                    + (weather.isWindDirectionAvailable() ? " " + MainActivity.getWindDirectionString(sp, context, weather) : "");
-    }
 }
@@ -1,64 +1,32 @@
 package cz.martykan.forecastie.widgets;
 
-import android.appwidget.AppWidgetManager;
 import android.content.Context;
-import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
-import android.widget.RemoteViews;
-
-import java.text.DateFormat;
 
 import cz.martykan.forecastie.R;
-import cz.martykan.forecastie.activities.MainActivity;
-import cz.martykan.forecastie.models.Weather;
 
 public class ExtensiveWidgetProvider extends AbstractWidgetProvider {
 
     @Override
-    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        for (int widgetId : appWidgetIds) {
-            RemoteViews remoteViews = new RemoteViews(context.getPackageName(),
-                    R.layout.extensive_widget);
-
-            setTheme(context, remoteViews);
-            openMainActivity(context, remoteViews);
-            setRefreshButton(context, remoteViews);
-
-            SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
-            Weather widgetWeather = this.getTodayWeather(context);
-
-            if (widgetWeather == null) {
-                appWidgetManager.updateAppWidget(widgetId, remoteViews);
-                continue;
-            }
-
-            DateFormat timeFormat = android.text.format.DateFormat.getTimeFormat(context);
-            String lastUpdated = context.getString(R.string.last_update_widget, MainActivity.formatTimeWithDayIfNotToday(context, widgetWeather.getLastUpdated()));
-
-            remoteViews.setTextViewText(R.id.widgetCity, this.getFormattedLocation(widgetWeather));
-            remoteViews.setTextViewText(R.id.widgetTemperature, this.getFormattedTemperature(widgetWeather, context, sp));
-            remoteViews.setTextViewText(R.id.widgetDescription, widgetWeather.getDescription());
-
-            String feelsLikeTemperature = this.getFormattedFeelsLikeTemperature(widgetWeather, context, sp);
-            if (feelsLikeTemperature != null) {
-                remoteViews.setTextViewText(R.id.widgetFeelsLike, context.getString(R.string.feels_like) + ": " + feelsLikeTemperature);
-                remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.VISIBLE);
-            } else {
-                remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.GONE);
-            }
-
-            remoteViews.setTextViewText(R.id.widgetWind, context.getString(R.string.wind) + ": " + this.getFormattedWind(widgetWeather, context, sp));
-            remoteViews.setTextViewText(R.id.widgetPressure, context.getString(R.string.pressure) + ": " + this.getFormattedPressure(widgetWeather, context, sp));
-            remoteViews.setTextViewText(R.id.widgetHumidity, context.getString(R.string.humidity) + ": " + widgetWeather.getHumidity() + " %");
-            remoteViews.setTextViewText(R.id.widgetSunrise, context.getString(R.string.sunrise) + ": " + timeFormat.format(widgetWeather.getSunrise())); //
-            remoteViews.setTextViewText(R.id.widgetSunset, context.getString(R.string.sunset) + ": " + timeFormat.format(widgetWeather.getSunset()));
-            remoteViews.setTextViewText(R.id.widgetLastUpdate, lastUpdated);
-            remoteViews.setImageViewBitmap(R.id.widgetIcon, getWeatherIcon(widgetWeather, context));
+    protected int getLayoutId() {
+        return R.layout.extensive_widget;
+    }
 
-            appWidgetManager.updateAppWidget(widgetId, remoteViews);
-        }
-        if (appWidgetIds.length > 0) {
-            scheduleNextUpdate(context);
+    @Override
+    protected void bindTexts(Context context, WidgetTexts texts, WidgetData data) {
+        texts.setText(R.id.widgetCity, data.getLocation());
+        texts.setText(R.id.widgetTemperature, data.getTemperature());
+        texts.setText(R.id.widgetDescription, data.getDescription());
+
+        String feelsLikeTemperature = data.getFeelsLike();
+        if (feelsLikeTemperature != null) {
+            texts.setText(R.id.widgetFeelsLike, context.getString(R.string.feels_like) + ": " + feelsLikeTemperature);
         }
+
+        texts.setText(R.id.widgetWind, context.getString(R.string.wind) + ": " + data.getWind());
+        texts.setText(R.id.widgetPressure, context.getString(R.string.pressure) + ": " + data.getPressure());
+        texts.setText(R.id.widgetHumidity, context.getString(R.string.humidity) + ": " + data.getHumidity());
+        texts.setText(R.id.widgetSunrise, context.getString(R.string.sunrise) + ": " + data.getSunrise());
+        texts.setText(R.id.widgetSunset, context.getString(R.string.sunset) + ": " + data.getSunset());
+        texts.setText(R.id.widgetLastUpdate, data.getLastUpdate());
     }
 }
@@ -1,56 +1,27 @@
 package cz.martykan.forecastie.widgets;
 
-import android.app.PendingIntent;
-import android.appwidget.AppWidgetManager;
 import android.content.Context;
-import android.content.Intent;
-import android.content.SharedPreferences;
-import android.preference.PreferenceManager;
-import android.widget.RemoteViews;
 
-import cz.martykan.forecastie.AlarmReceiver;
 import cz.martykan.forecastie.R;
-import cz.martykan.forecastie.models.Weather;
 
 public class SimpleWidgetProvider extends AbstractWidgetProvider {
     @Override
-    public void onUpdate(Context context, AppWidgetManager appWidgetManager, int[] appWidgetIds) {
-        for (int widgetId : appWidgetIds) {
-            RemoteViews remoteViews = new RemoteViews(context.getPackageName(),
-                    R.layout.simple_widget);
-
-            setTheme(context, remoteViews);
-            openMainActivity(context, remoteViews);
-            setRefreshButton(context, remoteViews);
-
-            SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
-            Weather widgetWeather = this.getTodayWeather(context);
-
-            if (widgetWeather == null) {
-                appWidgetManager.updateAppWidget(widgetId, remoteViews);
-                continue;
-            }
-
-            remoteViews.setTextViewText(R.id.widgetCity, this.getFormattedLocation(widgetWeather));
-            remoteViews.setTextViewText(R.id.widgetTemperature, this.getFormattedTemperature(widgetWeather, context, sp));
+    protected int getLayoutId() {
+        return R.layout.simple_widget;
+    }
 
-            String feelsLikeTemperature = this.getFormattedFeelsLikeTemperature(widgetWeather, context, sp);
-            if (feelsLikeTemperature != null) {
-                remoteViews.setTextViewText(R.id.widgetFeelsLike, context.getString(R.string.feels_like) + ": " + feelsLikeTemperature);
-                remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.VISIBLE);
-            } else {
-                remoteViews.setViewVisibility(R.id.widgetFeelsLike, android.view.View.GONE);
-            }
+    @Override
+    protected void bindTexts(Context context, WidgetTexts texts, WidgetData data) {
+        texts.setText(R.id.widgetCity, data.getLocation());
+        texts.setText(R.id.widgetTemperature, data.getTemperature());
 
-            remoteViews.setTextViewText(R.id.widgetHumidity, context.getString(R.string.humidity) + ": " + widgetWeather.getHumidity() + " %");
+        String feelsLikeTemperature = data.getFeelsLike();
+        if (feelsLikeTemperature != null) {
+            texts.setText(R.id.widgetFeelsLike, context.getString(R.string.feels_like) + ": " + feelsLikeTemperature);
+        }
 
-            remoteViews.setTextViewText(R.id.widgetDescription, widgetWeather.getDescription());
-            remoteViews.setImageViewBitmap(R.id.widgetIcon, getWeatherIcon(widgetWeather, context));
+        texts.setText(R.id.widgetHumidity, context.getString(R.string.humidity) + ": " + data.getHumidity());
 
-            appWidgetManager.updateAppWidget(widgetId, remoteViews);
-        }
-        if (appWidgetIds.length > 0) {
-            scheduleNextUpdate(context);
-        }
+        texts.setText(R.id.widgetDescription, data.getDescription());
     }
 }
@@ -0,0 +1,277 @@
+package cz.martykan.forecastie.widgets;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+import android.preference.PreferenceManager;
+
+import androidx.annotation.DrawableRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+
+import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.activities.MainActivity;
+import cz.martykan.forecastie.models.Weather;
+import cz.martykan.forecastie.utils.Formatting;
+import cz.martykan.forecastie.utils.TimeUtils;
+import cz.martykan.forecastie.utils.UnitLabels;
+import cz.martykan.forecastie.utils.UnitSystem;
+import cz.martykan.forecastie.utils.WmoCodes;
+import cz.martykan.forecastie.utils.formatters.NowcastFormatter;
+import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+
+/**
+ * Texts and icon shared by all widgets, formatted once per update.
+ * <br/>
+ * Widgets differ only in layout and labels, so stored weather is read, converted to selected
+ * units and formatted here once no matter how many widgets are placed.
+ */
+class WidgetData {
+    @DrawableRes
+    private final int background;
+    private final boolean weatherAvailable;
+    private final String location;
+    private final String temperature;
+    private final String feelsLike;
+    private final String description;
+    private final String humidity;
+    private final String wind;
+    private final String pressure;
+    private final String sunrise;
+    private final String sunset;
+    private final String lastUpdate;
+    private final String date;
+    private final String weatherIcon;
+    private final Context context;
+    private Bitmap icon;
+
+    private WidgetData(@NonNull Context context, @NonNull SharedPreferences sp,
+                       @NonNull Weather weather) {
+        this.context = context;
+        background = getBackground(sp);
+        weatherAvailable = true;
+
+        UnitLabels unitLabels = UnitLabels.get(context);
+        String temperatureUnit = unitLabels.getTemperatureUnit();
+        String speedUnit = unitLabels.getSpeedLabel();
+        String pressureUnit = unitLabels.getPressureLabel();
+        UnitSystem unitSystem = unitLabels.getUnitSystem();
+        boolean temperatureInteger = sp.getBoolean("temperatureInteger", false);
+        DecimalFormat temperatureFormat = new DecimalFormat("#.#");
+        DecimalFormat decimalFormat = new DecimalFormat("0.0");
+        DateFormat timeFormat = android.text.format.DateFormat.getTimeFormat(context);
+
+        location = formatLocation(weather);
+        temperature = formatTemperature((float) weather.getTemperature(), temperatureInteger,
+                temperatureFormat, temperatureUnit, unitSystem);
+        feelsLike = weather.isFeelsLikeTemperatureAvailable()
+                ? formatTemperature((float) weather.getFeelsLikeTemperature(), temperatureInteger,
+                        temperatureFormat, temperatureUnit, unitSystem)
+                : null;
+        String rainStart = NowcastFormatter.getRainStart(WeatherStorage.getNowcast(),
+                System.currentTimeMillis(), context);
+        description = rainStart.isEmpty()
+                ? WmoCodes.getDescription(weather.getWeatherCode(), context)
+                : context.getString(R.string.nowcast_with_description,
+                        WmoCodes.getDescription(weather.getWeatherCode(), context), rainStart);
+        humidity = weather.getHumidity() + " %";
+        wind = decimalFormat.format(unitSystem.getWind().convert((float) weather.getWind())) + " " + speedUnit
+                + (weather.isWindDirectionAvailable()
+                        ? " " + MainActivity.getWindDirectionString(sp, context, weather) : "");
+        pressure = decimalFormat.format(unitSystem.getPressure().convert(weather.getPressure()))
+                + " " + pressureUnit;
+        sunrise = weather.getSunrise() >= 0 ? timeFormat.format(new Date(weather.getSunrise())) : "-";
+        sunset = weather.getSunset() >= 0 ? timeFormat.format(new Date(weather.getSunset())) : "-";
+        lastUpdate = context.getString(R.string.last_update_widget,
+                MainActivity.formatTimeWithDayIfNotToday(context, weather.getLastUpdated()));
+        date = formatDate(context, sp);
+
+        weatherIcon = new Formatting(context).getWeatherIcon(weather.getWeatherCode(),
+                TimeUtils.isDayTime(weather, Calendar.getInstance()));
+    }
+
+    /** Data of widgets without weather, only background is set. */
+    private WidgetData(@NonNull Context context, @NonNull SharedPreferences sp) {
+        this.context = context;
+        background = getBackground(sp);
+        weatherAvailable = false;
+        location = null;
+        temperature = null;
+        feelsLike = null;
+        description = null;
+        humidity = null;
+        wind = null;
+        pressure = null;
+        sunrise = null;
+        sunset = null;
+        lastUpdate = null;
+        date = null;
+        weatherIcon = null;
+    }
+
+    /**
+     * Format widget data from {@code weather}.
+     * @param weather last stored weather or {@code null} if there is none yet
+     */
+    @NonNull
+    static WidgetData create(@NonNull Context context, @Nullable Weather weather) {
+        SharedPreferences sp = PreferenceManager.getDefaultSharedPreferences(context);
+        return weather != null ? new WidgetData(context, sp, weather) : new WidgetData(context, sp);
+    }
+
+    @DrawableRes
+    private static int getBackground(@NonNull SharedPreferences sp) {
+        if (sp.getBoolean("transparentWidget", false)) {
+            return R.drawable.widget_card_transparent;
+        }
+        switch (sp.getString("theme", "fresh")) {
+            case "dark":
+            case "classicdark":
+                return R.drawable.widget_card_dark;
+            case "black":
+            case "classicblack":
+                return R.drawable.widget_card_black;
+            case "classic":
+                return R.drawable.widget_card_classic;
+            default:
+                return R.drawable.widget_card;
+        }
+    }
+
+    @NonNull
+    private static String formatLocation(@NonNull Weather weather) {
+        String city = weather.getCity();
+        String country = weather.getCountry();
+        if (city == null) city = "";
+        if (country == null) country = "";
+
+        if (!city.isEmpty() && !country.isEmpty()) {
+            return city + ", " + country;
+        } else if (!city.isEmpty()) {
+            return city;
+        } else {
+            return country;
+        }
+    }
+
+    @NonNull
+    private static String formatTemperature(float kelvin, boolean integer,
+                                            @NonNull DecimalFormat format, @NonNull String unit,
+                                            @NonNull UnitSystem unitSystem) {
+        float temperature = unitSystem.getTemperature().convert(kelvin);
+        if (integer) {
+            temperature = Math.round(temperature);
+        }
+        return format.format(temperature) + unit;
+    }
+
+    /** Date in the first part of selected date format, e.g. "Thursday 2016-01-14". */
+    @NonNull
+    private static String formatDate(@NonNull Context context, @NonNull SharedPreferences sp) {
+        String defaultDateFormat = context.getResources().getStringArray(R.array.dateFormatsValues)[0];
+        String simpleDateFormat = sp.getString("dateFormat", defaultDateFormat);
+        if ("custom".equals(simpleDateFormat)) {
+            simpleDateFormat = sp.getString("dateFormatCustom", defaultDateFormat);
+        }
+        try {
+            simpleDateFormat = simpleDateFormat.substring(0, simpleDateFormat.indexOf("-") - 1);
+            try {
+                SimpleDateFormat resultFormat = new SimpleDateFormat(simpleDateFormat);
+                return resultFormat.format(new Date());
+            } catch (IllegalArgumentException e) {
+                return context.getResources().getString(R.string.error_dateFormat);
+            }
+        } catch (StringIndexOutOfBoundsException e) {
+            DateFormat dateFormat = DateFormat.getDateInstance(DateFormat.LONG);
+            return dateFormat.format(new Date());
+        }
+    }
+
+    /** @return widget background for selected theme */
+    @DrawableRes
+    int getBackground() {
+        return background;
+    }
+
+    /** @return whether there is stored weather, other getters return {@code null} if not */
+    boolean isWeatherAvailable() {
+        return weatherAvailable;
+    }
+
+    String getLocation() {
+        return location;
+    }
+
+    String getTemperature() {
+        return temperature;
+    }
+
+    /** @return "feels like" temperature or {@code null} if it isn't available */
+    @Nullable
+    String getFeelsLike() {
+        return feelsLike;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    String getHumidity() {
+        return humidity;
+    }
+
+    String getWind() {
+        return wind;
+    }
+
+    String getPressure() {
+        return pressure;
+    }
+
+    String getSunrise() {
+        return sunrise;
+    }
+
+    String getSunset() {
+        return sunset;
+    }
+
+    String getLastUpdate() {
+        return lastUpdate;
+    }
+
+    String getDate() {
+        return date;
+    }
+
+    /** @return weather icon as a glyph of weather font */
+    String getWeatherIcon() {
+        return weatherIcon;
+    }
+
+    /** @return weather icon drawn into bitmap, it is drawn on the first call only */
+    Bitmap getIcon() {
+        if (icon == null && weatherIcon != null) {
+            icon = WeatherFormatter.getWeatherIconAsBitmap(context, weatherIcon, Color.WHITE);
+        }
+        return icon;
+    }
+
+    /**
+     * @return key of everything in widget except texts; when it changes, widget has to be
+     * updated as a whole
+     */
+    @NonNull
+    String getFrameKey() {
+        return background + "|" + weatherAvailable + "|" + weatherIcon + "|" + (feelsLike != null)
+                + "|" + date;
+    }
+}
@@ -0,0 +1,138 @@
+package cz.martykan.forecastie.widgets;
+
+import android.appwidget.AppWidgetManager;
+import android.content.BroadcastReceiver;
+import android.content.ComponentName;
+import android.content.Context;
+import android.util.Log;
+import android.util.SparseArray;
+import android.widget.RemoteViews;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+import cz.martykan.forecastie.utils.PerfTrace;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+
+/**
+ * Update widgets of all types from one read of stored weather.
+ * <br/>
+ * Stored weather is read and formatted into {@link WidgetData} only once per update, every widget
+ * just binds it into its layout. Updates run one after another on a background thread.
+ * <br/>
+ * What was pushed to every widget is remembered, so widgets that would look the same are
+ * skipped and widgets where only texts changed get just the texts.
+ */
+class WidgetRenderer {
+    private static final String TAG = "WidgetRenderer";
+
+    static final AbstractWidgetProvider[] PROVIDERS = {
+            new ExtensiveWidgetProvider(),
+            new TimeWidgetProvider(),
+            new SimpleWidgetProvider(),
+            new ClassicTimeWidgetProvider()
+    };
+
+    private static final Executor executor = Executors.newSingleThreadExecutor();
+
+    /** Frame and text keys of the last update of every widget. */
+    private static final SparseArray<String[]> renderedKeys = new SparseArray<>();
+
+    /**
+     * Update widgets in background. {@code receiver} is kept alive until all widgets are updated.
+     * @param receiver receiver handling the current broadcast
+     * @param provider provider whose widgets should be updated or {@code null} to update all
+     * @param appWidgetIds ids of widgets to update or {@code null} to update all widgets of
+     *                     {@code provider}
+     */
+    static void renderAsync(@NonNull BroadcastReceiver receiver, @NonNull Context context,
+                            @Nullable final AbstractWidgetProvider provider,
+                            @Nullable final int[] appWidgetIds) {
+        final BroadcastReceiver.PendingResult result = receiver.goAsync();
+        final Context appContext = context.getApplicationContext();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    render(appContext, provider, appWidgetIds);
+                } finally {
+                    result.finish();
+                }
+            }
+        });
+    }
+
+    /**
+     * Update widgets on the current thread.
+     * @param provider provider whose widgets should be updated or {@code null} to update all
+     * @param appWidgetIds ids of widgets to update or {@code null} to update all widgets of
+     *                     {@code provider}
+     */
+    static void render(@NonNull Context context, @Nullable AbstractWidgetProvider provider,
+                       @Nullable int[] appWidgetIds) {
+        long start = PerfTrace.begin("widget.render");
+        try {
+            AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+            AbstractWidgetProvider[] providers = provider != null
+                    ? new AbstractWidgetProvider[]{provider}
+                    : PROVIDERS;
+            WidgetData data = null;
+            for (AbstractWidgetProvider widgetProvider : providers) {
+                int[] ids = provider != null && appWidgetIds != null
+                        ? appWidgetIds
+                        : appWidgetManager.getAppWidgetIds(
+                                new ComponentName(context, widgetProvider.getClass()));
+                if (ids.length == 0) {
+                    continue;
+                }
+                if (data == null) {
+                    data = WidgetData.create(context, new WeatherStorage(context).getLastToday());
+                }
+                String frameKey = widgetProvider.getLayoutId() + "|" + data.getFrameKey();
+                WidgetTexts texts = widgetProvider.createTexts(context, data);
+                String textKey = texts.getKey();
+                for (int widgetId : ids) {
+                    try {
+                        String[] rendered;
+                        synchronized (renderedKeys) {
+                            rendered = renderedKeys.get(widgetId);
+                        }
+                        if (rendered != null && rendered[0].equals(frameKey)) {
+                            if (rendered[1].equals(textKey)) {
+                                continue;
+                            }
+                            RemoteViews textViews = widgetProvider.createTextViews(context, texts);
+                            appWidgetManager.partiallyUpdateAppWidget(widgetId, textViews);
+                        } else {
+                            RemoteViews remoteViews = widgetProvider.createRemoteViews(context, data, texts);
+                            appWidgetManager.updateAppWidget(widgetId, remoteViews);
+                        }
+                        synchronized (renderedKeys) {
+                            renderedKeys.put(widgetId, new String[]{frameKey, textKey});
+                        }
+                    } catch (RuntimeException e) {
+                        Log.e(TAG, "Error updating widget " + widgetId, e);
+                    }
+                }
+            }
+            WidgetUpdateScheduler.schedule(context);
+        } finally {
+            PerfTrace.end("widget.render", start);
+        }
+    }
+
+    /**
+     * Forget what was pushed to widgets, e.g. when they were deleted. Their next update is full.
+     * @param appWidgetIds ids of widgets
+     */
+    static void forget(@NonNull int[] appWidgetIds) {
+        synchronized (renderedKeys) {
+            for (int widgetId : appWidgetIds) {
+                renderedKeys.remove(widgetId);
+            }
+        }
+    }
+}
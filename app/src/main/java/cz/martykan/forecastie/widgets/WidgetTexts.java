@@ -0,0 +1,46 @@
+package cz.martykan.forecastie.widgets;
+
+import android.widget.RemoteViews;
+
+import androidx.annotation.IdRes;
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+
+/**
+ * Texts of one widget collected before they are set into {@link RemoteViews}, so they can be
+ * compared with texts of the last update.
+ */
+class WidgetTexts {
+    private static final int INITIAL_CAPACITY = 12;
+
+    private int[] viewIds = new int[INITIAL_CAPACITY];
+    private CharSequence[] texts = new CharSequence[INITIAL_CAPACITY];
+    private int size = 0;
+
+    void setText(@IdRes int viewId, CharSequence text) {
+        if (size == viewIds.length) {
+            viewIds = Arrays.copyOf(viewIds, size * 2);
+            texts = Arrays.copyOf(texts, size * 2);
+        }
+        viewIds[size] = viewId;
+        texts[size] = text;
+        size++;
+    }
+
+    void applyTo(@NonNull RemoteViews remoteViews) {
+        for (int i = 0; i < size; i++) {
+            remoteViews.setTextViewText(viewIds[i], texts[i]);
+        }
+    }
+
+    /** @return key which is the same for the same texts in the same views */
+    @NonNull
+    String getKey() {
+        StringBuilder key = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            key.append(viewIds[i]).append('=').append(texts[i]).append('\u0000');
+        }
+        return key.toString();
+    }
+}
@@ -0,0 +1,15 @@
+package cz.martykan.forecastie.widgets;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+/**
+ * Update all widgets of all types at once, see {@link AbstractWidgetProvider#updateWidgets(Context)}.
+ */
+public class WidgetUpdateReceiver extends BroadcastReceiver {
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        WidgetRenderer.renderAsync(this, context, null, null);
+    }
+}
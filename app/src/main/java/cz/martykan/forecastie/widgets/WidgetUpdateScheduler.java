@@ -0,0 +1,74 @@
+package cz.martykan.forecastie.widgets;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.appwidget.AppWidgetManager;
+import android.content.ComponentName;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+
+import androidx.annotation.NonNull;
+
+import java.util.Calendar;
+
+/**
+ * One alarm for widgets of all types.
+ * <br/>
+ * Time is shown by {@link android.widget.TextClock} and weather is pushed after every refresh of
+ * data (see {@link cz.martykan.forecastie.AlarmReceiver}), so widgets have to be woken up only
+ * when the day changes: date and "last update" texts depend on it. The alarm doesn't wake the
+ * device up, it is delivered once the device is awake.
+ */
+class WidgetUpdateScheduler {
+    /** How much later than midnight the alarm may come, system doesn't allow shorter window. */
+    private static final long WINDOW_MILLIS = 10 * 60 * 1000;
+
+    /**
+     * Schedule update of all widgets at the start of the next day or cancel it if no widget is
+     * placed.
+     */
+    static void schedule(@NonNull Context context) {
+        AlarmManager alarmManager = (AlarmManager) context.getSystemService(Context.ALARM_SERVICE);
+        PendingIntent updateIntent = getUpdateIntent(context);
+        if (!hasWidgets(context)) {
+            alarmManager.cancel(updateIntent);
+            return;
+        }
+
+        long nextDay = getNextDayStart(Calendar.getInstance());
+        alarmManager.setWindow(AlarmManager.RTC, nextDay, WINDOW_MILLIS, updateIntent);
+    }
+
+    /** @return start of the day after {@code now} in milliseconds */
+    static long getNextDayStart(@NonNull Calendar now) {
+        Calendar nextDay = (Calendar) now.clone();
+        nextDay.add(Calendar.DAY_OF_YEAR, 1);
+        nextDay.set(Calendar.HOUR_OF_DAY, 0);
+        nextDay.set(Calendar.MINUTE, 0);
+        nextDay.set(Calendar.SECOND, 0);
+        nextDay.set(Calendar.MILLISECOND, 0);
+        return nextDay.getTimeInMillis();
+    }
+
+    private static boolean hasWidgets(@NonNull Context context) {
+        AppWidgetManager appWidgetManager = AppWidgetManager.getInstance(context);
+        for (AbstractWidgetProvider provider : WidgetRenderer.PROVIDERS) {
+            ComponentName component = new ComponentName(context, provider.getClass());
+            if (appWidgetManager.getAppWidgetIds(component).length > 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @NonNull
+    private static PendingIntent getUpdateIntent(@NonNull Context context) {
+        Intent intent = new Intent(context, WidgetUpdateReceiver.class);
+        int flags = PendingIntent.FLAG_UPDATE_CURRENT;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.M) {
+            flags |= PendingIntent.FLAG_IMMUTABLE;
+        }
+        return PendingIntent.getBroadcast(context, 0, intent, flags);
+    }
+}
@@ -0,0 +1,72 @@
+package cz.martykan.forecastie;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.weatherapi.MockOpenMeteoServer;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okhttp3.HttpUrl;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class AlarmReceiverTests {
+    private Context context;
+    private MockOpenMeteoServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        context = ApplicationProvider.getApplicationContext();
+        server = new MockOpenMeteoServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void backgroundRefreshStoresForecast() throws InterruptedException {
+        AlarmReceiver receiver = new AlarmReceiver();
+        receiver.context = context;
+
+        server.beginRefresh();
+        receiver.new GetWeatherTask().doInBackground("50.08", "14.42");
+        MockOpenMeteoServer.Report report = server.endRefresh("background");
+
+        Forecast forecast = new WeatherStorage(context).getLastForecast();
+        Assert.assertNotNull("forecast should be stored", forecast);
+        Assert.assertEquals("wrong number of stored hours", 7 * 24, forecast.getHourlyCount());
+        Assert.assertEquals("background refresh should send one request, " + report, 1,
+                report.getRequestCount());
+        HttpUrl url = server.takeRequest().getRequestUrl();
+        //noinspection ConstantConditions
+        Assert.assertEquals("wrong number of days", Integer.toString(Constants.FORECAST_DAYS),
+                url.queryParameter("forecast_days"));
+        Assert.assertEquals("wrong longitude", "14.42", url.queryParameter("longitude"));
+    }
+
+    @Test
+    public void refusedRefreshStoresNothing() {
+        server.setFailure(MockOpenMeteoServer.Failure.TOO_MANY_REQUESTS);
+        AlarmReceiver receiver = new AlarmReceiver();
+        receiver.context = context;
+
+        receiver.new GetWeatherTask().doInBackground();
+
+        Assert.assertNull("refused response should not be stored",
+                new WeatherStorage(context).getLastForecast());
+    }
+}
@@ -0,0 +1,63 @@
+package cz.martykan.forecastie.adapters;
+
+import android.content.Context;
+import android.preference.PreferenceManager;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.models.DailySummary;
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class DailySummaryAdapterTests {
+    private Context context;
+    private DailySummaryAdapter adapter;
+    private FrameLayout parent;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        Context appContext = ApplicationProvider.getApplicationContext();
+        context = new ContextThemeWrapper(appContext, R.style.AppTheme);
+        InputStream input = getClass().getClassLoader().getResourceAsStream("openmeteo/forecast.json");
+        Forecast forecast = new WeatherStorage(appContext).storeForecast(Okio.buffer(Okio.source(input)));
+        adapter = new DailySummaryAdapter(DailySummary.create(forecast, 0));
+        parent = new FrameLayout(context);
+    }
+
+    @Test
+    public void temperaturesAreShownInCelsius() {
+        DailySummaryAdapter.DayViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+
+        // first day of the fixture has 14.0 °C / 2.0 °C
+        Assert.assertEquals("wrong temperatures", "14° / 2°", holder.temperature.getText().toString());
+    }
+
+    @Test
+    public void temperaturesAreShownInFahrenheit() {
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putString("unit", "°F")
+                .commit();
+        DailySummaryAdapter.DayViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+
+        Assert.assertEquals("wrong temperatures", "57° / 36°", holder.temperature.getText().toString());
+    }
+}
@@ -0,0 +1,149 @@
+package cz.martykan.forecastie.adapters;
+
+import android.content.Context;
+import android.graphics.Typeface;
+import android.preference.PreferenceManager;
+import android.view.ContextThemeWrapper;
+import android.widget.FrameLayout;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+import cz.martykan.forecastie.R;
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.Weather;
+import cz.martykan.forecastie.models.WeatherViewHolder;
+import cz.martykan.forecastie.utils.AllocationMeter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class WeatherRecyclerAdapterTests {
+    /**
+     * Bytes one bind may allocate on top of setting texts into the row. A new
+     * {@link SimpleDateFormat} or {@link java.text.DecimalFormat} costs ~1.5 kB on the JVM, so a
+     * few of them created for every row exceed the budget.
+     */
+    private static final long BIND_BUDGET_BYTES = 8 * 1024;
+
+    private Context context;
+    private List<Weather> hours;
+    private WeatherRecyclerAdapter adapter;
+    private FrameLayout parent;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        Context appContext = ApplicationProvider.getApplicationContext();
+        context = new ContextThemeWrapper(appContext, R.style.AppTheme);
+        WeatherStorage weatherStorage = new WeatherStorage(appContext);
+        InputStream input = getClass().getClassLoader().getResourceAsStream("openmeteo/forecast.json");
+        Forecast forecast = weatherStorage.storeForecast(Okio.buffer(Okio.source(input)));
+        hours = weatherStorage.getLastLongTerm(forecast);
+        adapter = new WeatherRecyclerAdapter(hours);
+        parent = new FrameLayout(context);
+    }
+
+    @Test
+    public void rowsShareWeatherFont() {
+        WeatherViewHolder first = adapter.onCreateViewHolder(parent, 0);
+        WeatherViewHolder second = adapter.onCreateViewHolder(parent, 0);
+
+        adapter.onBindViewHolder(first, 0);
+        Typeface font = first.itemIcon.getTypeface();
+        adapter.onBindViewHolder(second, 1);
+        adapter.onBindViewHolder(first, 2);
+
+        Assert.assertNotNull("font should be set", font);
+        Assert.assertSame("rows should share one font", font, second.itemIcon.getTypeface());
+        Assert.assertSame("rebound row should keep the font", font, first.itemIcon.getTypeface());
+    }
+
+    @Test
+    public void bindStaysWithinBudget() {
+        AllocationMeter.assumeSupported();
+        final WeatherViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        final int count = hours.size();
+
+        // texts of every row, to measure what setting them alone costs
+        final String[][] rows = new String[count][];
+        final int[] feelsLikeVisibility = new int[count];
+        for (int i = 0; i < count; i++) {
+            adapter.onBindViewHolder(holder, i);
+            rows[i] = new String[]{
+                    holder.itemDate.getText().toString(),
+                    holder.itemTemperature.getText().toString(),
+                    holder.itemFeelsLike.getText().toString(),
+                    holder.itemDescription.getText().toString(),
+                    holder.itemIcon.getText().toString(),
+                    holder.itemyWind.getText().toString(),
+                    holder.itemPressure.getText().toString(),
+                    holder.itemHumidity.getText().toString()
+            };
+            feelsLikeVisibility[i] = holder.itemFeelsLike.getVisibility();
+        }
+        final Typeface font = holder.itemIcon.getTypeface();
+
+        final int[] position = {0};
+        AllocationMeter.Measurement views = AllocationMeter.measure("row texts", 2 * count,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        int i = position[0]++ % count;
+                        String[] texts = rows[i];
+                        holder.itemDate.setText(texts[0]);
+                        holder.itemTemperature.setText(texts[1]);
+                        holder.itemFeelsLike.setText(texts[2]);
+                        holder.itemFeelsLike.setVisibility(feelsLikeVisibility[i]);
+                        holder.itemDescription.setText(texts[3]);
+                        holder.itemIcon.setTypeface(font);
+                        holder.itemIcon.setText(texts[4]);
+                        holder.itemyWind.setText(texts[5]);
+                        holder.itemPressure.setText(texts[6]);
+                        holder.itemHumidity.setText(texts[7]);
+                    }
+                });
+        position[0] = 0;
+        AllocationMeter.Measurement bind = AllocationMeter.measure("onBindViewHolder", 2 * count,
+                new Runnable() {
+                    @Override
+                    public void run() {
+                        adapter.onBindViewHolder(holder, position[0]++ % count);
+                    }
+                });
+
+        long formattingBytes = bind.getBytesPerCall() - views.getBytesPerCall();
+        Assert.assertTrue("bind allocates " + formattingBytes + " bytes besides setting texts, "
+                        + bind + ", " + views,
+                formattingBytes <= BIND_BUDGET_BYTES);
+    }
+
+    @Test
+    public void dateFormatFollowsPreference() {
+        WeatherViewHolder holder = adapter.onCreateViewHolder(parent, 0);
+        adapter.onBindViewHolder(holder, 0);
+
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putString("dateFormat", "custom")
+                .putString("dateFormatCustom", "yyyy-MM-dd HH:mm")
+                .commit();
+        adapter.onBindViewHolder(holder, 1);
+
+        SimpleDateFormat expected = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        Assert.assertEquals("date should be formatted with the new pattern",
+                expected.format(new Date(hours.get(1).getDate())), holder.itemDate.getText().toString());
+    }
+}
@@ -0,0 +1,44 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class DailySummaryTests {
+    private static final long FIRST_DAY = 1700000000L;
+
+    @Test
+    public void daysBeforeStartAreSkipped() {
+        List<DailySummary> days = DailySummary.create(createForecast(), (FIRST_DAY + 86400L) * 1000);
+
+        Assert.assertEquals("wrong number of days", 2, days.size());
+        Assert.assertEquals("wrong first day", (FIRST_DAY + 86400L) * 1000, days.get(0).getDate());
+        Assert.assertEquals("wrong maximal temperature", 8f, days.get(0).getTemperatureMax(), 0.0001f);
+        Assert.assertEquals("wrong minimal temperature", 1f, days.get(0).getTemperatureMin(), 0.0001f);
+        Assert.assertEquals("wrong precipitation", 4.5f, days.get(0).getPrecipitationSum(), 0.0001f);
+        Assert.assertEquals("wrong weather", 63, days.get(0).getWeatherCode());
+        Assert.assertTrue("missing wind speed should stay missing",
+                Float.isNaN(days.get(1).getWindSpeedMax()));
+    }
+
+    @Test
+    public void forecastWithoutAggregatesHasNoDays() {
+        Forecast forecast = new Forecast();
+        forecast.setDailySunrise(new long[]{FIRST_DAY + 25000L});
+
+        Assert.assertTrue("days without time should not be created",
+                DailySummary.create(forecast, 0).isEmpty());
+    }
+
+    private static Forecast createForecast() {
+        Forecast forecast = new Forecast();
+        forecast.setDailyTime(new long[]{FIRST_DAY, FIRST_DAY + 86400L, FIRST_DAY + 2 * 86400L});
+        forecast.setDailyTemperatureMax(new float[]{5f, 8f, 7f});
+        forecast.setDailyTemperatureMin(new float[]{-2f, 1f, 3f});
+        forecast.setDailyPrecipitationSum(new float[]{0f, 4.5f, 0.2f});
+        forecast.setDailyWindSpeedMax(new float[]{12f, 20f});
+        forecast.setDailyWeatherCode(new int[]{0, 63, 61});
+        return forecast;
+    }
+}
@@ -0,0 +1,154 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.martykan.forecastie.utils.UnitSystem;
+
+public class GraphModelTests {
+    private static final int HOURS = 16 * 24;
+
+    @Test
+    public void horizonsAreBuiltOnce() {
+        GraphModel model = GraphModel.create(createForecast(), new UnitSystem("°C", "m/s", "hPa", "mm"), 100);
+
+        GraphModel.Horizon twoDays = model.getHorizon(false);
+        GraphModel.Horizon allDays = model.getHorizon(true);
+
+        Assert.assertSame("two days horizon is built again", twoDays, model.getHorizon(false));
+        Assert.assertSame("all days horizon is built again", allDays, model.getHorizon(true));
+        Assert.assertEquals("two days are downsampled", 48,
+                twoDays.getSeries(GraphModel.TEMPERATURE).size());
+        Assert.assertEquals("all days are not downsampled", 100,
+                allDays.getSeries(GraphModel.TEMPERATURE).size());
+        Assert.assertEquals("missing feels like temperature is drawn", 0,
+                allDays.getSeries(GraphModel.FEELS_LIKE).size());
+    }
+
+    @Test
+    public void valuesAndAxesAreInSelectedUnits() {
+        GraphModel model = GraphModel.create(createForecast(), new UnitSystem("°F", "kph", "hPa", "mm"), 100);
+        GraphModel.Horizon allDays = model.getHorizon(true);
+
+        Assert.assertEquals("temperature is not converted", 50f,
+                allDays.getSeries(GraphModel.TEMPERATURE).getValue(0), 0.01f);
+        Assert.assertEquals("wind speed is not converted", 36f,
+                allDays.getSeries(GraphModel.WIND_SPEED).getValue(0), 0.01f);
+        Assert.assertTrue("temperature axis doesn't contain values",
+                allDays.getTemperatureAxis().min <= 50 && allDays.getTemperatureAxis().max >= 68);
+        Assert.assertEquals("rain axis doesn't start at zero", 0, allDays.getRainAxis().min);
+        Assert.assertEquals("humidity axis is wrong", 40, allDays.getHumidityAxis().min);
+        Assert.assertEquals("humidity axis is wrong", 70, allDays.getHumidityAxis().max);
+    }
+
+    @Test
+    public void missingValuesAreLeftOut() {
+        Forecast forecast = createForecast();
+        float[] temperature = forecast.getHourlyTemperature();
+        float[] pressure = forecast.getHourlyPressure();
+        float[] windSpeed = forecast.getHourlyWindSpeed();
+        for (int i = 0; i < HOURS; i += 2) {
+            temperature[i] = Float.NaN;
+            pressure[i] = Float.NaN;
+            windSpeed[i] = Float.NaN;
+        }
+        forecast.setHourlyHumidity(new float[0]);
+
+        GraphModel.Horizon twoDays = GraphModel.create(forecast,
+                new UnitSystem("°C", "bft", "hPa", "mm"), 100).getHorizon(false);
+
+        GraphModel.Series temperatureSeries = twoDays.getSeries(GraphModel.TEMPERATURE);
+        Assert.assertEquals("missing temperatures are drawn", 24, temperatureSeries.size());
+        for (int i = 0; i < temperatureSeries.size(); i++) {
+            Assert.assertTrue("missing temperature is drawn as 0 K",
+                    temperatureSeries.getValue(i) >= 10 && temperatureSeries.getValue(i) <= 20);
+        }
+        Assert.assertEquals("missing pressures are drawn", 24, twoDays.getSeries(GraphModel.PRESSURE).size());
+        Assert.assertEquals("missing wind speeds are drawn", 24, twoDays.getSeries(GraphModel.WIND_SPEED).size());
+        Assert.assertEquals("missing humidity is drawn", 0, twoDays.getSeries(GraphModel.HUMIDITY).size());
+        Assert.assertTrue("temperature axis contains missing values",
+                twoDays.getTemperatureAxis().min >= 0 && twoDays.getTemperatureAxis().max <= 30);
+        Assert.assertTrue("pressure axis contains missing values", twoDays.getPressureAxis().min > 990);
+        Assert.assertEquals("wind speed axis contains missing values", 5, twoDays.getWindSpeedAxis().max);
+        Assert.assertEquals("humidity axis without values is wrong", 0, twoDays.getHumidityAxis().min);
+        Assert.assertEquals("humidity axis without values is wrong", 100, twoDays.getHumidityAxis().max);
+    }
+
+    @Test
+    public void seriesOfHorizonShareHours() {
+        Forecast forecast = createForecast();
+        float[] apparentTemperature = forecast.getHourlyApparentTemperature();
+        for (int i = 0; i < HOURS; i++) {
+            // different shape than temperature, downsampling it alone would select other hours
+            apparentTemperature[i] = (i * 7) % 13;
+        }
+
+        GraphModel.Horizon allDays = GraphModel.create(forecast,
+                new UnitSystem("°C", "m/s", "hPa", "mm"), 60).getHorizon(true);
+
+        GraphModel.Series temperature = allDays.getSeries(GraphModel.TEMPERATURE);
+        Assert.assertEquals("temperature is not downsampled", 60, temperature.size());
+        int[] types = {GraphModel.FEELS_LIKE, GraphModel.RAIN, GraphModel.WIND_SPEED,
+                GraphModel.PRESSURE, GraphModel.HUMIDITY};
+        for (int type : types) {
+            GraphModel.Series series = allDays.getSeries(type);
+            Assert.assertEquals("series " + type + " has other points", temperature.size(), series.size());
+            for (int point = 0; point < series.size(); point++) {
+                Assert.assertEquals("series " + type + " is not aligned at point " + point,
+                        temperature.getTime(point), series.getTime(point));
+                Assert.assertEquals("series " + type + " has other label at point " + point,
+                        temperature.getLabel(point), series.getLabel(point));
+            }
+        }
+        GraphModel.Series feelsLike = allDays.getSeries(GraphModel.FEELS_LIKE);
+        for (int point = 0; point < feelsLike.size(); point++) {
+            int hour = (int) ((feelsLike.getTime(point) / 1000 - 1700000000L) / 3600);
+            Assert.assertEquals("feels like is not taken from its hour", (hour * 7) % 13,
+                    feelsLike.getValue(point), 0.01f);
+        }
+    }
+
+    @Test
+    public void partlyMissingFeelsLikeIsNotDrawn() {
+        Forecast forecast = createForecast();
+        float[] apparentTemperature = forecast.getHourlyApparentTemperature();
+        for (int i = 0; i < HOURS / 2; i++) {
+            apparentTemperature[i] = 12;
+        }
+
+        GraphModel.Horizon allDays = GraphModel.create(forecast,
+                new UnitSystem("°C", "m/s", "hPa", "mm"), 60).getHorizon(true);
+
+        Assert.assertEquals("feels like would be shifted against temperature", 0,
+                allDays.getSeries(GraphModel.FEELS_LIKE).size());
+    }
+
+    private static Forecast createForecast() {
+        long[] time = new long[HOURS];
+        float[] temperature = new float[HOURS];
+        float[] apparentTemperature = new float[HOURS];
+        float[] humidity = new float[HOURS];
+        float[] pressure = new float[HOURS];
+        float[] windSpeed = new float[HOURS];
+        float[] rain = new float[HOURS];
+        for (int i = 0; i < HOURS; i++) {
+            time[i] = 1700000000L + i * 3600L;
+            temperature[i] = 10 + 10 * (i % 24) / 23f;
+            apparentTemperature[i] = Float.NaN;
+            humidity[i] = 45 + i % 20;
+            pressure[i] = 1000 + i % 10;
+            windSpeed[i] = 10;
+            rain[i] = i % 24 == 0 ? 2 : 0;
+        }
+
+        Forecast forecast = new Forecast();
+        forecast.setHourlyTime(time);
+        forecast.setHourlyTemperature(temperature);
+        forecast.setHourlyApparentTemperature(apparentTemperature);
+        forecast.setHourlyHumidity(humidity);
+        forecast.setHourlyPressure(pressure);
+        forecast.setHourlyWindSpeed(windSpeed);
+        forecast.setHourlyRain(rain);
+        return forecast;
+    }
+}
@@ -0,0 +1,98 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NowcastTests {
+    private static final long START = 1700000000L;
+    private static final int STEP = Nowcast.STEP_SECONDS;
+
+    @Test
+    public void updateStoresStepsWhichAreNotOver() {
+        Nowcast nowcast = new Nowcast(4);
+
+        nowcast.update(createForecast(START, 0f, 0.2f, 1f, 0f, 0f, 0.5f), START + STEP);
+
+        Assert.assertEquals("past steps should be skipped and the rest fit capacity",
+                4, nowcast.size());
+        Assert.assertEquals("wrong first step", START + 2 * STEP, nowcast.getTime(0));
+        Assert.assertEquals("wrong precipitation", 1f, nowcast.getPrecipitation(0), 0);
+        Assert.assertEquals("wrong temperature", 12f, nowcast.getTemperature(0), 0);
+        Assert.assertEquals("wrong last step", 0.5f, nowcast.getPrecipitation(3), 0);
+    }
+
+    @Test
+    public void rainStartsAtStartOfRainyStep() {
+        Nowcast nowcast = new Nowcast();
+        nowcast.update(createForecast(START, 0f, 0f, 0f, 0.4f), START);
+
+        Assert.assertEquals("rain starts 15 minutes before end of its step",
+                START + 2 * STEP, nowcast.getRainStart(START));
+        Assert.assertEquals("rain which started should keep its start", START + 2 * STEP,
+                nowcast.getRainStart(START + 2 * STEP + 60));
+        Assert.assertEquals("there should be no rain after the last step",
+                -1, nowcast.getRainStart(START + 3 * STEP));
+    }
+
+    @Test
+    public void advanceSlidesWithoutLosingLaterSteps() {
+        Nowcast nowcast = new Nowcast(3);
+        nowcast.update(createForecast(START, 0f, 0.3f, 0f, 0.2f), START);
+        Assert.assertEquals("it should be raining", START, nowcast.getRainStart(START));
+
+        nowcast.advanceTo(START + STEP);
+        Assert.assertEquals("next rain should be found after dropping the first one",
+                START + 2 * STEP, nowcast.getRainStart(START + STEP));
+
+        nowcast.update(createForecast(START + 2 * STEP, 0f, 0.2f, 0f), START + STEP);
+        Assert.assertEquals("buffer should be filled again", 3, nowcast.size());
+        Assert.assertEquals("wrong first step", START + 2 * STEP, nowcast.getTime(0));
+        Assert.assertEquals("kept step is wrong", 0.2f, nowcast.getPrecipitation(1), 0);
+        Assert.assertEquals("wrapped step is wrong", 0f, nowcast.getPrecipitation(2), 0);
+        Assert.assertEquals("wrapped step has wrong time", START + 4 * STEP, nowcast.getTime(2));
+    }
+
+    @Test
+    public void updateReportsFirstChangedStep() {
+        Nowcast nowcast = new Nowcast();
+        nowcast.update(createForecast(START, 0f, 0f, 0.5f, 0f), START);
+
+        Assert.assertEquals("same forecast should change nothing", -1,
+                nowcast.update(createForecast(START, 0f, 0f, 0.5f, 0f), START));
+        Assert.assertEquals("wrong first changed step", 2,
+                nowcast.update(createForecast(START, 0f, 0f, 0.5f, 0.3f), START));
+        Assert.assertEquals("rain before changed steps should be kept",
+                START + STEP, nowcast.getRainStart(START));
+        Assert.assertEquals("wrong first changed step", 0,
+                nowcast.update(createForecast(START, 0f, 0.3f, 0.5f, 0.3f), START));
+        Assert.assertEquals("earlier rain should be found", START, nowcast.getRainStart(START));
+    }
+
+    @Test
+    public void forecastWithoutStepsAheadClearsBuffer() {
+        Nowcast nowcast = new Nowcast();
+        nowcast.update(createForecast(START, 0f, 0.4f, 0f), START);
+
+        Assert.assertEquals("cleared steps should be reported as changed", 0,
+                nowcast.update(createForecast(START - 2 * STEP, 0f, 0f), START));
+        Assert.assertEquals("old steps should be dropped", 0, nowcast.size());
+        Assert.assertEquals("old rain should be dropped", -1, nowcast.getRainStart(START));
+        Assert.assertEquals("empty buffer should not change", -1,
+                nowcast.update(createForecast(START), START));
+    }
+
+    /** Steps ending at {@code start}, then every 15 minutes, with temperature 10, 11, ... */
+    private static Forecast createForecast(long start, float... precipitation) {
+        long[] times = new long[precipitation.length];
+        float[] temperatures = new float[precipitation.length];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = start + (long) i * STEP;
+            temperatures[i] = 10 + i;
+        }
+        Forecast forecast = new Forecast();
+        forecast.setMinutely15Time(times);
+        forecast.setMinutely15Precipitation(precipitation);
+        forecast.setMinutely15Temperature(temperatures);
+        return forecast;
+    }
+}
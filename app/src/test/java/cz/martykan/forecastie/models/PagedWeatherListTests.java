@@ -0,0 +1,54 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PagedWeatherListTests {
+    private static final int HOURS = 16 * 24;
+
+    @Test
+    public void hoursAreConvertedLazily() {
+        PagedWeatherList list = new PagedWeatherList(createForecast(), 48, HOURS, "City", "CZ", 0);
+
+        Assert.assertEquals("wrong size", HOURS - 48, list.size());
+        Assert.assertEquals("rows are created up front", 0, list.getCreatedPageCount());
+
+        Weather weather = list.get(30);
+
+        Assert.assertEquals("only the page of the row should be created", 1, list.getCreatedPageCount());
+        Assert.assertEquals("wrong hour", (1700000000L + 78 * 3600L) * 1000, weather.getDate());
+        Assert.assertEquals("wrong temperature", 78 + 273.15, weather.getTemperature(), 0.001);
+        Assert.assertEquals("city is not set", "City", weather.getCity());
+        Assert.assertSame("row of created page is created again", weather, list.get(30));
+    }
+
+    @Test
+    public void onlyRecentPagesAreKept() {
+        PagedWeatherList list = new PagedWeatherList(createForecast(), 0, HOURS, null, null, 0);
+
+        for (int i = 0; i < list.size(); i++) {
+            list.get(i);
+        }
+
+        Assert.assertEquals("old pages are kept", PagedWeatherList.MAX_PAGES, list.getCreatedPageCount());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfRangeIsRejected() {
+        new PagedWeatherList(createForecast(), 0, 10, null, null, 0).get(10);
+    }
+
+    private static Forecast createForecast() {
+        long[] time = new long[HOURS];
+        float[] temperature = new float[HOURS];
+        for (int i = 0; i < HOURS; i++) {
+            time[i] = 1700000000L + i * 3600L;
+            temperature[i] = i;
+        }
+
+        Forecast forecast = new Forecast();
+        forecast.setHourlyTime(time);
+        forecast.setHourlyTemperature(temperature);
+        return forecast;
+    }
+}
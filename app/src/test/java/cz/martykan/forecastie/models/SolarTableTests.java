@@ -0,0 +1,74 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.martykan.forecastie.weatherapi.OpenMeteoJsonParser;
+
+public class SolarTableTests {
+    // 2023-11-14, Prague
+    private static final long SUNRISE = 1699943040L;
+    private static final long SUNSET = 1699976760L;
+    private static final long DAY = 86400L;
+
+    @Test
+    public void hoursAreAssignedToTheirDays() {
+        SolarTable table = new SolarTable(new long[]{SUNRISE, SUNRISE + DAY + 90, SUNRISE + 2 * DAY + 180},
+                new long[]{SUNSET, SUNSET + DAY - 60, SUNSET + 2 * DAY - 120});
+
+        Assert.assertEquals("morning before sunrise is in wrong day", 0, table.getDay(SUNRISE - 3 * 3600));
+        Assert.assertEquals("evening is in wrong day", 0, table.getDay(SUNSET + 3 * 3600));
+        Assert.assertEquals("next day is wrong", 1, table.getDay(SUNRISE + DAY + 3600));
+        Assert.assertEquals("last day is wrong", 2, table.getDay(SUNSET + 2 * DAY));
+        Assert.assertEquals("time after the table should be in the last day", 2, table.getDay(SUNSET + 4 * DAY));
+        Assert.assertEquals("time before the table should be in the first day", 0, table.getDay(SUNRISE - DAY));
+    }
+
+    @Test
+    public void dayTimeUsesSunOfTheDay() {
+        SolarTable table = new SolarTable(new long[]{SUNRISE, SUNRISE + DAY + 90},
+                new long[]{SUNSET, SUNSET + DAY - 60});
+
+        Assert.assertEquals("noon should be day", Boolean.TRUE, table.isDayTime(SUNRISE + 4 * 3600));
+        Assert.assertEquals("night of next day should be night", Boolean.FALSE,
+                table.isDayTime(SUNSET + DAY + 3600));
+        Assert.assertEquals("just before sunrise of next day should be night", Boolean.FALSE,
+                table.isDayTime(SUNRISE + DAY + 60));
+        Assert.assertEquals("evening after the table should be night", Boolean.FALSE,
+                table.isDayTime(SUNSET + 3 * DAY + 3600));
+        Assert.assertEquals("noon after the table should be day", Boolean.TRUE,
+                table.isDayTime(SUNRISE + 3 * DAY + 4 * 3600));
+        Assert.assertNull("day without sun times should be unknown",
+                new SolarTable(new long[]{-1}, new long[]{-1}).isDayTime(SUNRISE));
+    }
+
+    @Test
+    public void midnightOfFirstDayIsNightWhenNoonIsAfterTwelve() {
+        // 2023-07-01, Prague, solar noon at 13:05 CEST
+        long midnight = 1688162400L; // 00:00 CEST
+        SolarTable table = new SolarTable(new long[]{1688180100L, 1688180100L + DAY + 60},
+                new long[]{1688238900L, 1688238900L + DAY - 60});
+
+        Assert.assertEquals("midnight should be in the first day", 0, table.getDay(midnight));
+        Assert.assertEquals("midnight should be night", Boolean.FALSE, table.isDayTime(midnight));
+        Assert.assertEquals("1:00 should be night", Boolean.FALSE, table.isDayTime(midnight + 3600));
+        Assert.assertEquals("last evening should be night", Boolean.FALSE,
+                table.isDayTime(midnight + 2 * DAY - 1800));
+    }
+
+    @Test
+    public void forecastHoursGetNightIcons() {
+        Forecast forecast = new Forecast();
+        forecast.setHourlyTime(new long[]{SUNRISE + 3600, SUNSET + DAY + 3600});
+        forecast.setDailySunrise(new long[]{SUNRISE, SUNRISE + DAY});
+        forecast.setDailySunset(new long[]{SUNSET, SUNSET + DAY});
+
+        Weather day = OpenMeteoJsonParser.convertForecastHourToWeather(forecast, 0, 0);
+        Weather night = OpenMeteoJsonParser.convertForecastHourToWeather(forecast, 1, 0);
+
+        Assert.assertEquals("hour after sunrise should be day", Boolean.TRUE, day.getDayTime());
+        Assert.assertEquals("hour after sunset of next day should be night", Boolean.FALSE, night.getDayTime());
+        Assert.assertEquals("hours should not have sunrise", -1L, night.getSunrise());
+        Assert.assertSame("solar table should be shared", forecast.getSolarTable(), forecast.getSolarTable());
+    }
+}
@@ -0,0 +1,84 @@
+package cz.martykan.forecastie.models;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cz.martykan.forecastie.utils.WmoCodes;
+
+public class WeatherTests {
+    @Test
+    public void builderMayBeReused() {
+        Weather.Builder builder = new Weather.Builder()
+                .setCity("City")
+                .setLastUpdated(1000L);
+
+        Weather first = builder.setDate(3600000L).setTemperature(280).build();
+        Weather second = builder.setDate(7200000L).setTemperature(290).build();
+
+        Assert.assertEquals("built weather was changed", 3600000L, first.getDate());
+        Assert.assertEquals("built weather was changed", 280, first.getTemperature(), 0);
+        Assert.assertEquals("wrong date", 7200000L, second.getDate());
+        Assert.assertEquals("shared value is lost", "City", second.getCity());
+        Assert.assertEquals("shared value is lost", 1000L, second.getLastUpdated());
+    }
+
+    @Test
+    public void hoursShareHeader() {
+        Weather.Builder builder = new Weather.Builder()
+                .setCity("City")
+                .setCountry("CZ");
+
+        Weather first = builder.setDate(3600000L).build();
+        Weather second = builder.setCity("City").setDate(7200000L).build();
+        Weather moved = builder.setCity("Other").build();
+
+        Assert.assertSame("hours should share header", first.getHeader(), second.getHeader());
+        Assert.assertNotSame("changed city should have own header", first.getHeader(), moved.getHeader());
+        Assert.assertEquals("wrong city", "Other", moved.getCity());
+        Assert.assertEquals("country is lost", "CZ", moved.getCountry());
+    }
+
+    @Test
+    public void missingValuesAreUnknown() {
+        Weather weather = new Weather.Builder().build();
+
+        Assert.assertFalse("feels like temperature should be unknown",
+                weather.isFeelsLikeTemperatureAvailable());
+        Assert.assertFalse("wind direction should be unknown", weather.isWindDirectionAvailable());
+        Assert.assertEquals("sunrise should be unknown", -1L, weather.getSunrise());
+        Assert.assertEquals("sunset should be unknown", -1L, weather.getSunset());
+        Assert.assertNull("day time should be unknown", weather.getDayTime());
+        Assert.assertEquals("weather code should be unknown", WmoCodes.UNKNOWN, weather.getWeatherCode());
+    }
+
+    @Test
+    public void copyKeepsValues() {
+        Weather weather = new Weather.Builder()
+                .setFeelsLikeTemperature(275)
+                .setWindDirectionDegree(90)
+                .setDayTime(false)
+                .build();
+
+        Weather copy = new Weather.Builder(weather).setUvIndex(3).build();
+
+        Assert.assertEquals("wrong feels like temperature", 275, copy.getFeelsLikeTemperature(), 0);
+        Assert.assertEquals("wrong wind direction", Weather.WindDirection.EAST, copy.getWindDirection());
+        Assert.assertEquals("wrong day time", Boolean.FALSE, copy.getDayTime());
+        Assert.assertEquals("wrong uv index", 3, copy.getUvIndex(), 0);
+    }
+
+    @Test
+    public void byDegreeMatchesDegreeIndex() {
+        Weather.WindDirection[] directions = Weather.WindDirection.values();
+        for (int numberOfDirections : new int[]{4, 8, 16, 2}) {
+            for (double degree = -720; degree <= 720; degree += 0.25) {
+                Weather.WindDirection expected = directions[Weather.windDirectionDegreeToIndex(
+                        degree, numberOfDirections) * directions.length / numberOfDirections];
+                Assert.assertEquals("wrong direction of " + degree + " by " + numberOfDirections,
+                        expected, Weather.WindDirection.byDegree(degree, numberOfDirections));
+            }
+        }
+        Assert.assertEquals("unknown degree should be north", Weather.WindDirection.NORTH,
+                Weather.WindDirection.byDegree(Double.NaN));
+    }
+}
@@ -0,0 +1,205 @@
+package cz.martykan.forecastie.notifications.ui;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.widget.RemoteViews;
+
+import androidx.annotation.NonNull;
+import androidx.core.app.NotificationCompat;
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.ImmutableWeather;
+import cz.martykan.forecastie.models.WeatherPresentation;
+import cz.martykan.forecastie.utils.AllocationMeter;
+import cz.martykan.forecastie.utils.formatters.WeatherDefaultNotificationFormatter;
+import cz.martykan.forecastie.utils.formatters.WeatherFormatter;
+import cz.martykan.forecastie.utils.formatters.WeatherFormatterType;
+import cz.martykan.forecastie.utils.formatters.WeatherSimpleNotificationFormatter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class NotificationContentUpdaterTests {
+    /**
+     * Bytes formatting may allocate in one update on top of filling the notification. Drawing the
+     * weather icon alone takes far more, so it has to come from the cache. Texts of unchanged
+     * weather are remembered by formatters, so they cost a few lookups only.
+     */
+    private static final long UPDATE_BUDGET_BYTES = 4 * 1024;
+    private static final int UPDATES = 100;
+
+    private Context context;
+    private ImmutableWeather weather;
+    private WeatherPresentation weatherPresentation;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        context = ApplicationProvider.getApplicationContext();
+        WeatherStorage weatherStorage = new WeatherStorage(context);
+        InputStream input = getClass().getClassLoader().getResourceAsStream("openmeteo/forecast.json");
+        Forecast forecast = weatherStorage.storeForecast(Okio.buffer(Okio.source(input)));
+        weather = ImmutableWeather.fromWeather(weatherStorage.getLastToday(forecast),
+                System.currentTimeMillis());
+        weatherPresentation = new WeatherPresentation(
+                WeatherPresentation.DEFAULT_DO_ROUND_TEMPERATURE,
+                WeatherPresentation.DEFAULT_TEMPERATURE_UNITS,
+                WeatherPresentation.DEFAULT_WIND_SPEED_UNITS,
+                WeatherPresentation.DEFAULT_WIND_DIRECTION_FORMAT,
+                WeatherPresentation.DEFAULT_PRESSURE_UNITS,
+                WeatherPresentation.DEFAULT_SHOW_TEMPERATURE_IN_STATUS_BAR,
+                weather, WeatherFormatterType.NOTIFICATION_SIMPLE);
+    }
+
+    @Test
+    public void simpleUpdateStaysWithinBudget() {
+        AllocationMeter.assumeSupported();
+        WeatherFormatter formatter = new WeatherSimpleNotificationFormatter();
+        Assert.assertTrue("fixture should have all values", formatter.isEnoughValidData(weather));
+
+        assertUpdateWithinBudget("SimpleNotificationContentUpdater",
+                new SimpleNotificationContentUpdater(formatter),
+                new SimpleNotificationContentUpdater(new PreformattedFormatter(formatter)));
+    }
+
+    @Test
+    public void defaultUpdateStaysWithinBudget() {
+        AllocationMeter.assumeSupported();
+        WeatherFormatter formatter = new WeatherDefaultNotificationFormatter();
+        Assert.assertTrue("fixture should have all values", formatter.isEnoughValidData(weather));
+
+        assertUpdateWithinBudget("DefaultNotificationContentUpdater",
+                new DefaultNotificationContentUpdater(formatter),
+                new DefaultNotificationContentUpdater(new PreformattedFormatter(formatter)));
+    }
+
+    @Test
+    public void weatherIconIsDrawnOnce() {
+        WeatherFormatter formatter = new WeatherDefaultNotificationFormatter();
+
+        Bitmap icon = formatter.getWeatherIconAsBitmap(weather, context);
+
+        Assert.assertSame("icon should be drawn only once", icon,
+                formatter.getWeatherIconAsBitmap(weather, context));
+    }
+
+    private void assertUpdateWithinBudget(@NonNull String name,
+                                          @NonNull NotificationContentUpdater updater,
+                                          @NonNull NotificationContentUpdater preformatted) {
+        AllocationMeter.Measurement filling = AllocationMeter.measure(name + " without formatting",
+                UPDATES, new Update(preformatted));
+        AllocationMeter.Measurement update = AllocationMeter.measure(name + ".updateNotification",
+                UPDATES, new Update(updater));
+
+        long formattingBytes = update.getBytesPerCall() - filling.getBytesPerCall();
+        Assert.assertTrue(name + " allocates " + formattingBytes + " bytes to format weather, "
+                        + update + ", " + filling,
+                formattingBytes <= UPDATE_BUDGET_BYTES);
+    }
+
+    /** Update of the notification as done by the notification service. */
+    private class Update implements Runnable {
+        private final NotificationContentUpdater updater;
+        private final NotificationCompat.Builder notification;
+
+        Update(@NonNull NotificationContentUpdater updater) {
+            this.updater = updater;
+            this.notification = new NotificationCompat.Builder(context, "channel");
+        }
+
+        @Override
+        public void run() {
+            if (updater.isLayoutCustom()) {
+                RemoteViews layout = updater.prepareRemoteView(context);
+                updater.updateNotification(weatherPresentation, notification, layout, context);
+            } else {
+                updater.updateNotification(weatherPresentation, notification, context);
+            }
+        }
+    }
+
+    /** Formatter returning texts and icon formatted beforehand, i.e. formatting costs nothing. */
+    private class PreformattedFormatter extends WeatherFormatter {
+        private final String temperature;
+        private final String description;
+        private final String wind;
+        private final String pressure;
+        private final String humidity;
+        private final Bitmap icon;
+
+        PreformattedFormatter(@NonNull WeatherFormatter formatter) {
+            WeatherPresentation presentation = weatherPresentation;
+            temperature = formatter.getTemperature(weather, presentation.getTemperatureUnits(),
+                    presentation.isRoundedTemperature());
+            description = formatter.getDescription(weather);
+            icon = formatter.getWeatherIconAsBitmap(weather, context);
+            if (formatter instanceof WeatherSimpleNotificationFormatter) {
+                wind = formatter.getWind(weather, presentation.getWindSpeedUnits(),
+                        presentation.getWindDirectionFormat(), context);
+                pressure = formatter.getPressure(weather, presentation.getPressureUnits(), context);
+                humidity = formatter.getHumidity(weather, context);
+            } else {
+                wind = null;
+                pressure = null;
+                humidity = null;
+            }
+        }
+
+        @Override
+        public boolean isEnoughValidData(@NonNull ImmutableWeather weather) {
+            return true;
+        }
+
+        @NonNull
+        @Override
+        public String getTemperature(@NonNull ImmutableWeather weather,
+                                     @NonNull String temperatureUnit, boolean roundedTemperature) {
+            return temperature;
+        }
+
+        @NonNull
+        @Override
+        public String getDescription(@NonNull ImmutableWeather weather) {
+            return description;
+        }
+
+        @NonNull
+        @Override
+        public String getWind(@NonNull ImmutableWeather weather, @NonNull String units,
+                              @NonNull String directionFormat, @NonNull Context context) {
+            return wind;
+        }
+
+        @NonNull
+        @Override
+        public String getPressure(@NonNull ImmutableWeather weather, @NonNull String units,
+                                  @NonNull Context context) {
+            return pressure;
+        }
+
+        @NonNull
+        @Override
+        public String getHumidity(@NonNull ImmutableWeather weather, @NonNull Context context) {
+            return humidity;
+        }
+
+        @NonNull
+        @Override
+        public Bitmap getWeatherIconAsBitmap(@NonNull ImmutableWeather weather,
+                                             @NonNull Context context) {
+            return icon;
+        }
+    }
+}
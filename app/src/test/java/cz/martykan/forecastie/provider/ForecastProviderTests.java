@@ -0,0 +1,166 @@
+package cz.martykan.forecastie.provider;
+
+import android.content.Context;
+import android.database.Cursor;
+import android.provider.BaseColumns;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.annotation.Config;
+
+import java.io.File;
+import java.io.IOException;
+
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Buffer;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class ForecastProviderTests {
+    private static final String SNAPSHOT_FILE_NAME = "forecast.snapshot";
+    private static final String FORECAST = "{\"latitude\": 50.0, \"longitude\": 14.5,"
+            + " \"current_weather\": {\"time\": 3600, \"temperature\": 21.5, \"weathercode\": 3,"
+            + " \"windspeed\": 4.0, \"winddirection\": 90},"
+            + " \"hourly_units\": {\"time\": \"unixtime\"},"
+            + " \"hourly\": {\"time\": [0, 3600, 7200, 10800], \"temperature_2m\": [20.0, 21.5, null, 19.0],"
+            + " \"relativehumidity_2m\": [70, 65, 60, 55], \"weathercode\": [0, 3, 61, 2]},"
+            + " \"daily\": {\"time\": [0, 86400], \"temperature_2m_max\": [22.0, 18.5],"
+            + " \"sunrise\": [1000, 87400], \"sunset\": [2000]}}\n";
+
+    private ForecastProvider provider;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        new WeatherStorage(ApplicationProvider.getApplicationContext())
+                .storeForecast(new Buffer().writeUtf8(FORECAST));
+        provider = Robolectric.setupContentProvider(ForecastProvider.class);
+    }
+
+    @Test
+    public void hoursAreReadWithProjection() {
+        Cursor cursor = provider.query(ForecastContract.Hourly.CONTENT_URI,
+                new String[]{ForecastContract.Hourly.TIME, ForecastContract.Hourly.TEMPERATURE},
+                null, null, null);
+
+        //noinspection ConstantConditions
+        Assert.assertEquals("wrong number of hours", 4, cursor.getCount());
+        Assert.assertEquals("only projected columns should be returned", 2, cursor.getColumnCount());
+        Assert.assertTrue("first hour is missing", cursor.moveToPosition(1));
+        Assert.assertEquals("wrong time", 3600L, cursor.getLong(0));
+        Assert.assertEquals("wrong temperature", 21.5f, cursor.getFloat(1), 0.001f);
+        Assert.assertTrue("second hour is missing", cursor.moveToNext());
+        Assert.assertTrue("missing temperature should be null", cursor.isNull(1));
+        Assert.assertEquals("wrong type of missing temperature", Cursor.FIELD_TYPE_NULL, cursor.getType(1));
+        cursor.close();
+    }
+
+    @Test
+    public void timeRangeSelectsRows() {
+        Cursor cursor = provider.query(
+                ForecastContract.withTimeRange(ForecastContract.Hourly.CONTENT_URI, 3600, 10800),
+                new String[]{BaseColumns._ID, ForecastContract.Hourly.WEATHER_CODE},
+                null, null, null);
+
+        //noinspection ConstantConditions
+        Assert.assertEquals("wrong number of hours in range", 2, cursor.getCount());
+        Assert.assertTrue("first hour of range is missing", cursor.moveToFirst());
+        Assert.assertEquals("id should be index of hour", 1, cursor.getLong(0));
+        Assert.assertEquals("wrong weather code", 3, cursor.getInt(1));
+        Assert.assertTrue("last hour of range is missing", cursor.moveToLast());
+        Assert.assertEquals("wrong weather code", 61, cursor.getInt(1));
+        cursor.close();
+    }
+
+    @Test
+    public void currentAndDailyValuesAreRead() {
+        Cursor current = provider.query(ForecastContract.Current.CONTENT_URI, null, null, null, null);
+        //noinspection ConstantConditions
+        Assert.assertTrue("current weather is missing", current.moveToFirst());
+        Assert.assertEquals("wrong temperature", 21.5f,
+                current.getFloat(current.getColumnIndexOrThrow(ForecastContract.Current.TEMPERATURE)), 0.001f);
+        Assert.assertEquals("humidity should be taken from current hour", 65,
+                current.getInt(current.getColumnIndexOrThrow(ForecastContract.Current.HUMIDITY)));
+        current.close();
+
+        Cursor daily = provider.query(ForecastContract.Daily.CONTENT_URI,
+                new String[]{ForecastContract.Daily.TEMPERATURE_MAX, ForecastContract.Daily.SUNSET},
+                null, null, null);
+        //noinspection ConstantConditions
+        Assert.assertEquals("wrong number of days", 2, daily.getCount());
+        Assert.assertTrue("second day is missing", daily.moveToPosition(1));
+        Assert.assertEquals("wrong maximal temperature", 18.5f, daily.getFloat(0), 0.001f);
+        Assert.assertTrue("sunset after the end of column should be null", daily.isNull(1));
+        daily.close();
+    }
+
+    @Test
+    public void forecastIsKeptUntilNewOneIsStored() throws IOException, JSONException {
+        Context context = ApplicationProvider.getApplicationContext();
+        Assert.assertEquals("wrong temperature", 21.5f, queryCurrentTemperature(), 0.001f);
+        Assert.assertTrue("snapshot should be deleted",
+                new File(context.getFilesDir(), SNAPSHOT_FILE_NAME).delete());
+        Assert.assertEquals("cached forecast should be used", 21.5f, queryCurrentTemperature(), 0.001f);
+
+        new WeatherStorage(context).storeForecast(
+                new Buffer().writeUtf8(FORECAST.replace("\"temperature\": 21.5", "\"temperature\": 12.5")));
+
+        Assert.assertEquals("new forecast should be read", 12.5f, queryCurrentTemperature(), 0.001f);
+    }
+
+    @Test
+    public void queryDoesNotRebuildSnapshot() {
+        File snapshot = new File(ApplicationProvider.getApplicationContext().getFilesDir(), SNAPSHOT_FILE_NAME);
+        Assert.assertTrue("snapshot should be deleted", snapshot.delete());
+        ForecastProvider.invalidateForecast();
+
+        Assert.assertEquals("forecast should be read from response", 21.5f, queryCurrentTemperature(), 0.001f);
+        Assert.assertFalse("query should not write snapshot", snapshot.exists());
+    }
+
+    @Test
+    public void daysWithoutTimeAreLeftOutWithAndWithoutRange() throws IOException, JSONException {
+        new WeatherStorage(ApplicationProvider.getApplicationContext()).storeForecast(new Buffer()
+                .writeUtf8(FORECAST.replace("\"temperature_2m_max\": [22.0, 18.5]",
+                        "\"temperature_2m_max\": [22.0, 18.5, 17.0]")));
+
+        Cursor all = provider.query(ForecastContract.Daily.CONTENT_URI,
+                new String[]{ForecastContract.Daily.TIME}, null, null, null);
+        Cursor range = provider.query(
+                ForecastContract.withTimeRange(ForecastContract.Daily.CONTENT_URI, 0, Long.MAX_VALUE),
+                new String[]{ForecastContract.Daily.TIME}, null, null, null);
+
+        //noinspection ConstantConditions
+        Assert.assertEquals("day without time should be left out", 2, all.getCount());
+        //noinspection ConstantConditions
+        Assert.assertEquals("range should select the same days", all.getCount(), range.getCount());
+        all.close();
+        range.close();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownColumnIsRejected() {
+        provider.query(ForecastContract.Hourly.CONTENT_URI, new String[]{"unknown"}, null, null, null);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void forecastIsReadOnly() {
+        provider.delete(ForecastContract.Hourly.CONTENT_URI, null, null);
+    }
+
+    private float queryCurrentTemperature() {
+        Cursor cursor = provider.query(ForecastContract.Current.CONTENT_URI,
+                new String[]{ForecastContract.Current.TEMPERATURE}, null, null, null);
+        //noinspection ConstantConditions
+        Assert.assertTrue("current weather is missing", cursor.moveToFirst());
+        float temperature = cursor.getFloat(0);
+        cursor.close();
+        return temperature;
+    }
+}
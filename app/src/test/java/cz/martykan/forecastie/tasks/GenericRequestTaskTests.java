@@ -0,0 +1,161 @@
+package cz.martykan.forecastie.tasks;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.weatherapi.MockOpenMeteoServer;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.BufferedSource;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class GenericRequestTaskTests {
+    private static final int HOURS = 7 * 24;
+
+    private Context context;
+    private MockOpenMeteoServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        context = ApplicationProvider.getApplicationContext();
+        server = new MockOpenMeteoServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.close();
+    }
+
+    @Test
+    public void refreshStoresForecast() throws InterruptedException {
+        server.beginRefresh();
+        TaskOutput output = new ForecastTask(context).doInBackground("coords", "50.08", "14.42");
+        MockOpenMeteoServer.Report report = server.endRefresh("forecast");
+
+        Assert.assertEquals("wrong task result", TaskResult.SUCCESS, output.taskResult);
+        Assert.assertEquals("wrong parse result", ParseResult.OK, output.parseResult);
+        Assert.assertEquals("refresh should send one request, " + report, 1, report.getRequestCount());
+        Assert.assertEquals("whole response should be sent, " + report, server.getForecastSize(),
+                report.getByteCount());
+        Assert.assertEquals("wrong latitude in request", "50.08",
+                server.takeRequest().getRequestUrl().queryParameter("latitude"));
+        assertStoredHours(HOURS);
+    }
+
+    @Test
+    public void slowResponseIsRead() {
+        server.setLatency(200);
+        server.setThrottle(4096, 50);
+
+        server.beginRefresh();
+        TaskOutput output = new ForecastTask(context).doInBackground();
+        MockOpenMeteoServer.Report report = server.endRefresh("slow forecast");
+
+        Assert.assertEquals("wrong task result", TaskResult.SUCCESS, output.taskResult);
+        Assert.assertTrue("latency is not applied, " + report,
+                report.getWallTimeMillis() >= 200);
+        assertStoredHours(HOURS);
+    }
+
+    @Test
+    public void tooManyRequestsAreReported() {
+        server.setFailure(MockOpenMeteoServer.Failure.TOO_MANY_REQUESTS);
+
+        TaskOutput output = new ForecastTask(context).doInBackground();
+
+        Assert.assertEquals("wrong task result", TaskResult.TOO_MANY_REQUESTS, output.taskResult);
+        Assert.assertNull("nothing should be parsed", output.parseResult);
+    }
+
+    @Test
+    public void truncatedBodyKeepsStoredForecast() {
+        new ForecastTask(context).doInBackground();
+        server.setFailure(MockOpenMeteoServer.Failure.TRUNCATED_BODY);
+
+        server.beginRefresh();
+        TaskOutput output = new ForecastTask(context).doInBackground();
+        MockOpenMeteoServer.Report report = server.endRefresh("truncated forecast");
+
+        Assert.assertFalse("truncated response should fail, " + report,
+                output.taskResult == TaskResult.SUCCESS && output.parseResult == ParseResult.OK);
+        assertStoredHours(HOURS);
+    }
+
+    @Test
+    public void citiesAreFound() throws InterruptedException {
+        server.beginRefresh();
+        TaskOutput output = new FindCitiesTask(context).doInBackground("city", "Prague");
+        MockOpenMeteoServer.Report report = server.endRefresh("geocoding");
+
+        Assert.assertEquals("wrong task result, " + report, TaskResult.SUCCESS, output.taskResult);
+        Assert.assertEquals("search should send one request, " + report, 1, report.getRequestCount());
+        Assert.assertEquals("wrong parse result", ParseResult.OK, output.parseResult);
+        Assert.assertEquals("wrong name in request", "Prague",
+                server.takeRequest().getRequestUrl().queryParameter("name"));
+    }
+
+    private void assertStoredHours(int hours) {
+        Forecast forecast = new WeatherStorage(context).getLastForecast();
+        Assert.assertNotNull("forecast should be stored", forecast);
+        Assert.assertEquals("wrong number of stored hours", hours, forecast.getHourlyCount());
+    }
+
+    /** Stores forecast like refresh of today weather. */
+    static class ForecastTask extends GenericRequestTask {
+        ForecastTask(Context context) {
+            super(context, null, null);
+        }
+
+        @Override
+        protected ParseResult parseResponse(BufferedSource source) throws IOException {
+            try {
+                weatherStorage.storeForecast(source);
+                return ParseResult.OK;
+            } catch (JSONException e) {
+                return ParseResult.JSON_EXCEPTION;
+            }
+        }
+
+        @Override
+        protected String getAPIName() {
+            return "forecast";
+        }
+    }
+
+    static class FindCitiesTask extends GenericRequestTask {
+        FindCitiesTask(Context context) {
+            super(context, null, null);
+        }
+
+        @Override
+        protected ParseResult parseResponse(BufferedSource source) throws IOException {
+            try {
+                JSONObject response = new JSONObject(source.readUtf8());
+                return response.getJSONArray("results").length() > 0
+                        ? ParseResult.OK : ParseResult.CITY_NOT_FOUND;
+            } catch (JSONException e) {
+                return ParseResult.JSON_EXCEPTION;
+            }
+        }
+
+        @Override
+        protected String getAPIName() {
+            return "find";
+        }
+    }
+}
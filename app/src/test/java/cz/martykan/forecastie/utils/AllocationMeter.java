@@ -0,0 +1,105 @@
+package cz.martykan.forecastie.utils;
+
+import androidx.annotation.NonNull;
+
+import org.junit.Assume;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Allocated bytes and wall time of a call repeated on the current thread.
+ * <br/>
+ * Bytes are counted by the JVM running the tests, so they are not what a device allocates, but
+ * they grow the same way when a hot path starts to create formatters, fonts or bitmaps again.
+ * Calls are warmed up first, so caches filled on the first call are not counted. Wall time
+ * depends on the machine running the tests, it is only reported: put measurements into assertion
+ * messages to compare them between changes.
+ * <br/>
+ * The counter of HotSpot ({@code com.sun.management.ThreadMXBean}) is read through reflection,
+ * management classes are not in android.jar.
+ */
+public class AllocationMeter {
+    static final int WARM_UP_CALLS = 20;
+
+    /** Skip the test if the JVM cannot count allocations of a thread. */
+    public static void assumeSupported() {
+        Assume.assumeTrue("JVM does not count allocated bytes of threads",
+                getAllocatedBytes() >= 0);
+    }
+
+    /**
+     * Warm up and measure {@code call}.
+     * @param name name of the measurement in its {@link Measurement#toString() report}
+     * @param calls number of measured calls
+     * @param call call to measure
+     * @return average allocated bytes and median wall time of one call
+     */
+    @NonNull
+    public static Measurement measure(@NonNull String name, int calls, @NonNull Runnable call) {
+        for (int i = 0; i < WARM_UP_CALLS; i++) {
+            call.run();
+        }
+
+        long[] durations = new long[calls];
+        long allocatedBefore = getAllocatedBytes();
+        if (allocatedBefore < 0) {
+            throw new IllegalStateException("Call assumeSupported() first");
+        }
+        for (int i = 0; i < calls; i++) {
+            long start = System.nanoTime();
+            call.run();
+            durations[i] = System.nanoTime() - start;
+        }
+        long allocated = getAllocatedBytes() - allocatedBefore;
+
+        Arrays.sort(durations);
+        Measurement measurement = new Measurement(name, allocated / calls,
+                durations[calls / 2] / 1_000_000.0);
+        return measurement;
+    }
+
+    /** @return bytes allocated by the current thread so far or {@code -1} if they aren't counted */
+    private static long getAllocatedBytes() {
+        try {
+            Object threadBean = Class.forName("java.lang.management.ManagementFactory")
+                    .getMethod("getThreadMXBean")
+                    .invoke(null);
+            Method getThreadAllocatedBytes = Class.forName("com.sun.management.ThreadMXBean")
+                    .getMethod("getThreadAllocatedBytes", long.class);
+            return (Long) getThreadAllocatedBytes.invoke(threadBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /** Allocations and wall time of one call. */
+    public static class Measurement {
+        private final String name;
+        private final long bytesPerCall;
+        private final double medianMillis;
+
+        Measurement(@NonNull String name, long bytesPerCall, double medianMillis) {
+            this.name = name;
+            this.bytesPerCall = bytesPerCall;
+            this.medianMillis = medianMillis;
+        }
+
+        /** @return average bytes allocated by one call */
+        public long getBytesPerCall() {
+            return bytesPerCall;
+        }
+
+        public double getMedianMillis() {
+            return medianMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s: %d bytes, %.3f ms per call",
+                    name, bytesPerCall, medianMillis);
+        }
+    }
+}
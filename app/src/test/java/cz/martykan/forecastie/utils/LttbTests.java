@@ -0,0 +1,54 @@
+package cz.martykan.forecastie.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LttbTests {
+    @Test
+    public void allPointsAreSelectedIfTheyFit() {
+        float[] values = {1, 2, 3, 4, 5};
+
+        int[] selected = Lttb.downsample(values, 4, 10);
+
+        Assert.assertArrayEquals("not all points are selected", new int[]{0, 1, 2, 3}, selected);
+    }
+
+    @Test
+    public void downsamplingKeepsEndsAndPeaks() {
+        float[] values = new float[100];
+        values[37] = 50;
+        values[71] = -50;
+
+        int[] selected = Lttb.downsample(values, values.length, 10);
+
+        Assert.assertEquals("wrong number of points", 10, selected.length);
+        Assert.assertEquals("first point is not kept", 0, selected[0]);
+        Assert.assertEquals("last point is not kept", 99, selected[9]);
+        boolean maxKept = false;
+        boolean minKept = false;
+        for (int i = 0; i < selected.length; i++) {
+            if (i > 0) {
+                Assert.assertTrue("points are not ascending", selected[i] > selected[i - 1]);
+            }
+            maxKept |= selected[i] == 37;
+            minKept |= selected[i] == 71;
+        }
+        Assert.assertTrue("maximum is not kept", maxKept);
+        Assert.assertTrue("minimum is not kept", minKept);
+    }
+
+    @Test
+    public void missingValuesAreNotPreferred() {
+        float[] values = new float[30];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 2 == 0 ? Float.NaN : i;
+        }
+
+        int[] selected = Lttb.downsample(values, values.length, 6);
+
+        for (int i = 1; i < selected.length - 1; i++) {
+            Assert.assertFalse("missing value " + selected[i] + " is selected",
+                    Float.isNaN(values[selected[i]]));
+        }
+    }
+}
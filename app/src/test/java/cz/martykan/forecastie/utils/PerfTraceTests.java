@@ -0,0 +1,77 @@
+package cz.martykan.forecastie.utils;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.util.List;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class PerfTraceTests {
+    private static final long MILLISECOND = 1_000_000L;
+
+    @After
+    public void tearDown() {
+        PerfTrace.reset();
+    }
+
+    @Test
+    public void percentilesAreComputedFromRecordedDurations() {
+        for (int i = 1; i <= 100; i++) {
+            PerfTrace.record("parse", i * MILLISECOND);
+        }
+
+        List<PerfTrace.Stats> statsList = PerfTrace.getStats();
+        Assert.assertEquals("wrong number of sections", 1, statsList.size());
+        PerfTrace.Stats stats = statsList.get(0);
+        Assert.assertEquals("wrong name", "parse", stats.getName());
+        Assert.assertEquals("wrong count", 100, stats.getCount());
+        Assert.assertEquals("wrong p50", 50.0, stats.getP50Millis(), 0.001);
+        Assert.assertEquals("wrong p95", 95.0, stats.getP95Millis(), 0.001);
+        Assert.assertEquals("wrong max", 100.0, stats.getMaxMillis(), 0.001);
+    }
+
+    @Test
+    public void onlyLastDurationsAreKept() {
+        for (int i = 0; i < PerfTrace.MAX_SAMPLES; i++) {
+            PerfTrace.record("fetch", 1000 * MILLISECOND);
+        }
+        for (int i = 0; i < PerfTrace.MAX_SAMPLES; i++) {
+            PerfTrace.record("fetch", MILLISECOND);
+        }
+
+        PerfTrace.Stats stats = PerfTrace.getStats().get(0);
+        Assert.assertEquals("all durations should be counted",
+                2 * PerfTrace.MAX_SAMPLES, stats.getCount());
+        Assert.assertEquals("old durations should be dropped", 1.0, stats.getMaxMillis(), 0.001);
+    }
+
+    @Test
+    public void sectionMeasuredByBeginAndEndIsRecorded() {
+        long start = PerfTrace.begin("render");
+        PerfTrace.end("render", start);
+
+        PerfTrace.Stats stats = PerfTrace.getStats().get(0);
+        Assert.assertEquals("wrong name", "render", stats.getName());
+        Assert.assertEquals("wrong count", 1, stats.getCount());
+    }
+
+    @Test
+    public void jsonContainsAllSections() throws JSONException {
+        PerfTrace.record("startup.cold", 300 * MILLISECOND);
+        PerfTrace.record("notification", 2 * MILLISECOND);
+
+        JSONObject json = new JSONObject(PerfTrace.toJson());
+        Assert.assertEquals("wrong startup max", 300.0,
+                json.getJSONObject("startup.cold").getDouble("maxMs"), 0.001);
+        Assert.assertEquals("wrong notification count", 1,
+                json.getJSONObject("notification").getInt("count"));
+    }
+}
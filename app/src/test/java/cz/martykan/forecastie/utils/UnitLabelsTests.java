@@ -0,0 +1,66 @@
+package cz.martykan.forecastie.utils;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.preference.PreferenceManager;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import cz.martykan.forecastie.R;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class UnitLabelsTests {
+    private Context context;
+    private SharedPreferences sp;
+
+    @Before
+    public void setUp() {
+        context = getApplicationContext();
+        sp = PreferenceManager.getDefaultSharedPreferences(context);
+        UnitLabels.invalidate();
+    }
+
+    @Test
+    public void labelsOfAllUnitsAreLocalized() {
+        UnitLabels labels = UnitLabels.get(context);
+
+        Assert.assertEquals("m/s label is wrong", context.getString(R.string.speed_unit_mps),
+                labels.getSpeedLabel("m/s"));
+        Assert.assertEquals("kn label is wrong", context.getString(R.string.speed_unit_kn),
+                labels.getSpeedLabel("kn"));
+        Assert.assertEquals("hPa/mBar label is wrong", context.getString(R.string.pressure_unit_hpa),
+                labels.getPressureLabel("hPa/mBar"));
+        Assert.assertEquals("in Hg label is wrong", context.getString(R.string.pressure_unit_inhg),
+                labels.getPressureLabel("in Hg"));
+        Assert.assertNull("bft has no label", labels.getSpeedLabel("bft"));
+        Assert.assertNull("unknown units have no label", labels.getPressureLabel(""));
+    }
+
+    @Test
+    public void labelsAreSharedUntilUnitsChange() {
+        sp.edit().putString("speedUnit", "kph").putString("unit", "°F").commit();
+        UnitLabels labels = UnitLabels.get(context);
+
+        Assert.assertSame("labels are created again without change", labels, UnitLabels.get(context));
+        Assert.assertEquals("temperature unit is wrong", "°F", labels.getTemperatureUnit());
+        Assert.assertEquals("speed label is wrong", context.getString(R.string.speed_unit_kph),
+                labels.getSpeedLabel());
+
+        sp.edit().putString("speedUnit", "bft").commit();
+        UnitLabels changed = UnitLabels.get(context);
+
+        Assert.assertNotSame("labels are not created again after change", labels, changed);
+        Assert.assertTrue("Beaufort scale is not recognized", changed.isBeaufort());
+        Assert.assertEquals("unknown speed units are not shown as they are", "bft",
+                changed.getSpeedLabel());
+    }
+}
@@ -0,0 +1,55 @@
+package cz.martykan.forecastie.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class UnitSystemTests {
+    private static final float DELTA = 0.001f;
+
+    @Test
+    public void convertersMatchUnitConvertor() {
+        String[] temperatureUnits = {"°C", "°F", "K"};
+        String[] speedUnits = {"m/s", "kph", "mph", "kn", "bft"};
+        String[] pressureUnits = {"hPa", "kPa", "mm Hg", "in Hg"};
+        for (String temperatureUnit : temperatureUnits) {
+            UnitSystem unitSystem = new UnitSystem(temperatureUnit, "m/s", "hPa", "mm");
+            Assert.assertEquals(temperatureUnit + " temperature is wrong",
+                    UnitConvertor.convertTemperature(290.5f, temperatureUnit),
+                    unitSystem.getTemperature().convert(290.5f), DELTA);
+        }
+        for (String speedUnit : speedUnits) {
+            UnitSystem unitSystem = new UnitSystem("°C", speedUnit, "hPa", "mm");
+            Assert.assertEquals(speedUnit + " wind speed is wrong",
+                    UnitConvertor.convertWind(12.3, speedUnit),
+                    unitSystem.getWind().convert(12.3f), DELTA);
+        }
+        for (String pressureUnit : pressureUnits) {
+            UnitSystem unitSystem = new UnitSystem("°C", "m/s", pressureUnit, "mm");
+            Assert.assertEquals(pressureUnit + " pressure is wrong",
+                    UnitConvertor.convertPressure(1013.0, pressureUnit),
+                    unitSystem.getPressure().convert(1013f), DELTA);
+        }
+        Assert.assertEquals("rain in inches is wrong", 1f,
+                new UnitSystem("°C", "m/s", "hPa", "in").getRain().convert(25.4f), DELTA);
+    }
+
+    @Test
+    public void bulkConvertMatchesSingleConvert() {
+        float[] winds = {0f, 1.2f, 5f, 17.5f, 40f};
+        float[] converted = new float[winds.length];
+        UnitSystem.Converter beaufort = new UnitSystem("°C", "bft", "hPa", "mm").getWind();
+
+        beaufort.convert(winds, converted);
+
+        for (int i = 0; i < winds.length; i++) {
+            Assert.assertEquals("Beaufort number " + i + " is wrong",
+                    beaufort.convert(winds[i]), converted[i], 0f);
+        }
+
+        float[] temperatures = {250f, 273.15f, Float.NaN};
+        new UnitSystem("°F", "m/s", "hPa", "mm").getTemperature().convert(temperatures, temperatures);
+
+        Assert.assertEquals("in place conversion is wrong", 32f, temperatures[1], DELTA);
+        Assert.assertTrue("missing value is not kept", Float.isNaN(temperatures[2]));
+    }
+}
@@ -0,0 +1,66 @@
+package cz.martykan.forecastie.utils;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import cz.martykan.forecastie.R;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class WmoCodesTests {
+    @Test
+    public void codesHaveIconsAndDescriptions() {
+        Context context = getApplicationContext();
+
+        Assert.assertEquals("wrong day icon of clear sky",
+                context.getString(R.string.weather_day_sunny), WmoCodes.getIcon(0, true, context));
+        Assert.assertEquals("wrong night icon of clear sky",
+                context.getString(R.string.weather_night_clear), WmoCodes.getIcon(0, false, context));
+        Assert.assertEquals("wrong icon of thunderstorm",
+                context.getString(R.string.weather_lightning), WmoCodes.getIcon(95, false, context));
+        Assert.assertEquals("wrong description of rain",
+                context.getString(R.string.weather_code_rain), WmoCodes.getDescription(63, context));
+    }
+
+    @Test
+    public void descriptionsAreShared() {
+        Context context = getApplicationContext();
+
+        Assert.assertSame("description of the same code is resolved again",
+                WmoCodes.getDescription(63, context), WmoCodes.getDescription(63, context));
+        Assert.assertSame("unknown codes should share one description",
+                WmoCodes.getDescription(4, context), WmoCodes.getDescription(WmoCodes.UNKNOWN, context));
+    }
+
+    @Test
+    public void unknownCodesFallBackToClearSky() {
+        Context context = getApplicationContext();
+
+        for (int code : new int[]{WmoCodes.UNKNOWN, 4, 100, Integer.MAX_VALUE}) {
+            Assert.assertFalse(code + " should not be known", WmoCodes.isKnown(code));
+            Assert.assertEquals("wrong icon of " + code,
+                    context.getString(R.string.weather_day_sunny), WmoCodes.getIcon(code, true, context));
+            Assert.assertEquals("wrong description of " + code,
+                    R.string.weather_code_unknown, WmoCodes.getDescriptionResource(code));
+            Assert.assertEquals("wrong severity of " + code, 0, WmoCodes.getSeverity(code));
+        }
+    }
+
+    @Test
+    public void severityGrowsWithSignificance() {
+        Assert.assertTrue("overcast should be more significant than clear sky",
+                WmoCodes.getSeverity(3) > WmoCodes.getSeverity(0));
+        Assert.assertTrue("freezing rain should be more significant than rain",
+                WmoCodes.getSeverity(66) > WmoCodes.getSeverity(61));
+        Assert.assertTrue("thunderstorm should be the most significant",
+                WmoCodes.getSeverity(99) > WmoCodes.getSeverity(75));
+    }
+}
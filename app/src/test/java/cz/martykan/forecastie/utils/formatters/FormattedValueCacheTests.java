@@ -0,0 +1,41 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FormattedValueCacheTests {
+    @Test
+    public void textsAreFoundByValueUnitAndVariant() {
+        FormattedValueCache cache = new FormattedValueCache();
+        cache.put(1.5, "m/s", 0, "1.5 m/s");
+        cache.put(1.5, "kmh", 0, "5.4 km/h");
+        cache.put(1.5, "m/s", 3, "1.5 m/s N");
+
+        Assert.assertEquals("wrong text for unit", "1.5 m/s", cache.get(1.5, "m/s", 0));
+        Assert.assertEquals("wrong text for other unit", "5.4 km/h", cache.get(1.5, "kmh", 0));
+        Assert.assertEquals("wrong text for variant", "1.5 m/s N", cache.get(1.5, "m/s", 3));
+        Assert.assertNull("text of other value found", cache.get(1.6, "m/s", 0));
+    }
+
+    @Test
+    public void oldestTextIsReplacedWhenFull() {
+        FormattedValueCache cache = new FormattedValueCache(2);
+        cache.put(1, "", 0, "1");
+        cache.put(2, "", 0, "2");
+        cache.put(3, "", 0, "3");
+
+        Assert.assertNull("oldest text is kept", cache.get(1, "", 0));
+        Assert.assertEquals("newer text is replaced", "2", cache.get(2, "", 0));
+        Assert.assertEquals("newest text is not stored", "3", cache.get(3, "", 0));
+    }
+
+    @Test
+    public void clearForgetsAllTexts() {
+        FormattedValueCache cache = new FormattedValueCache();
+        cache.put(0, "", 0, "0");
+
+        cache.clear();
+
+        Assert.assertNull("text is kept after clear", cache.get(0, "", 0));
+    }
+}
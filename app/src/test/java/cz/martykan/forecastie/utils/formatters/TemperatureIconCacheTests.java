@@ -0,0 +1,54 @@
+package cz.martykan.forecastie.utils.formatters;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Color;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import static androidx.test.core.app.ApplicationProvider.getApplicationContext;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class TemperatureIconCacheTests {
+    @Test
+    public void iconsInRangeAreReused() {
+        Context context = getApplicationContext();
+
+        Bitmap first = TemperatureIconCache.get(context, 21, Color.WHITE);
+        Bitmap second = TemperatureIconCache.get(context, 21, Color.WHITE);
+        Bitmap other = TemperatureIconCache.get(context, -21, Color.WHITE);
+
+        Assert.assertSame("icon is rendered again", first, second);
+        Assert.assertNotSame("icons of different temperatures are the same", first, other);
+    }
+
+    @Test
+    public void iconsAreRenderedAgainForOtherColor() {
+        Context context = getApplicationContext();
+
+        Bitmap white = TemperatureIconCache.get(context, 5, Color.WHITE);
+        Bitmap black = TemperatureIconCache.get(context, 5, Color.BLACK);
+
+        Assert.assertNotSame("icon of other color is reused", white, black);
+        Assert.assertSame("icon of current color is not cached", black,
+                TemperatureIconCache.get(context, 5, Color.BLACK));
+    }
+
+    @Test
+    public void iconsOutOfRangeAreNotCached() {
+        Context context = getApplicationContext();
+        int temperature = TemperatureIconCache.MAX_CACHED + 1;
+
+        Bitmap first = TemperatureIconCache.get(context, temperature, Color.WHITE);
+
+        Assert.assertNotSame("icon out of range is cached", first,
+                TemperatureIconCache.get(context, temperature, Color.WHITE));
+        Assert.assertEquals("icon has wrong size", first.getWidth(), first.getHeight());
+    }
+}
@@ -231,6 +231,20 @@ public class WeatherSimpleNotificationFormatterTests {
                         context));
     }
 
+    @Test
+    public void getWindReusesTextOfSameWind() {
+        String json = "{\"wind\": {\"speed\": 1.5, \"deg\": 340}}";
+        ImmutableWeather weather = ImmutableWeather.fromJson(json, -1);
+        Context context = getApplicationContext();
+
+        String text = formatter.getWind(weather, "m/s", "abbr", context);
+
+        Assert.assertSame("wind should not be formatted again", text,
+                formatter.getWind(ImmutableWeather.fromJson(json, -1), "m/s", "abbr", context));
+        Assert.assertNotEquals("direction format should not be ignored", text,
+                formatter.getWind(weather, "m/s", "arrow", context));
+    }
+
     @SuppressWarnings({"ConstantConditions"})
     @Test
     public void getWindChecksParametersForNull() {
@@ -8,6 +8,7 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.junit.function.ThrowingRunnable;
 import org.junit.runner.RunWith;
+import org.robolectric.RuntimeEnvironment;
 import org.robolectric.annotation.Config;
 
 import cz.martykan.forecastie.models.Weather;
@@ -52,6 +53,20 @@ public class WindDirectionLocalizerTests {
                 "→", actualWNWArrow);
     }
 
+    @Test
+    public void localizeWindDirectionFollowsLocaleChange() {
+        Context context = getApplicationContext();
+        Assert.assertEquals("abbreviation for south south west is wrong", "SSW",
+                WindDirectionLocalizer.localizeWindDirection(
+                        Weather.WindDirection.SOUTH_SOUTH_WEST, "abbr", context));
+
+        RuntimeEnvironment.setQualifiers("be");
+
+        Assert.assertEquals("abbreviation should be translated after locale change", "ЮЮЗ",
+                WindDirectionLocalizer.localizeWindDirection(
+                        Weather.WindDirection.SOUTH_SOUTH_WEST, "abbr", context));
+    }
+
     @Test
     public void localizeWindDirectionThrowExceptionForUnknownFormat() {
         final Context context = getApplicationContext();
@@ -0,0 +1,196 @@
+package cz.martykan.forecastie.weatherapi;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import cz.martykan.forecastie.models.Forecast;
+
+public class ForecastSnapshotTests {
+    @Test
+    public void roundTripKeepsValues() throws IOException {
+        Forecast expected = createForecast();
+
+        for (boolean deflate : new boolean[]{false, true}) {
+            Forecast actual = roundTrip(expected, deflate);
+
+            Assert.assertEquals("wrong latitude", expected.getLatitude(), actual.getLatitude(), 0);
+            Assert.assertEquals("wrong current time", expected.getCurrentTime(), actual.getCurrentTime());
+            Assert.assertEquals("wrong current weather code",
+                    expected.getCurrentWeatherCode(), actual.getCurrentWeatherCode());
+            Assert.assertArrayEquals("wrong hourly time",
+                    expected.getHourlyTime(), actual.getHourlyTime());
+            Assert.assertArrayEquals("wrong hourly temperature",
+                    expected.getHourlyTemperature(), actual.getHourlyTemperature(), 0.0001f);
+            Assert.assertArrayEquals("wrong hourly pressure",
+                    expected.getHourlyPressure(), actual.getHourlyPressure(), 0.0001f);
+            Assert.assertArrayEquals("wrong hourly rain",
+                    expected.getHourlyRain(), actual.getHourlyRain(), 0.0001f);
+            Assert.assertArrayEquals("wrong weather codes",
+                    expected.getHourlyWeatherCode(), actual.getHourlyWeatherCode());
+            Assert.assertArrayEquals("wrong 15 minute time",
+                    expected.getMinutely15Time(), actual.getMinutely15Time());
+            Assert.assertArrayEquals("wrong 15 minute precipitation",
+                    expected.getMinutely15Precipitation(), actual.getMinutely15Precipitation(), 0.0001f);
+            Assert.assertArrayEquals("wrong 15 minute temperature",
+                    expected.getMinutely15Temperature(), actual.getMinutely15Temperature(), 0.0001f);
+            Assert.assertArrayEquals("wrong sunrise",
+                    expected.getDailySunrise(), actual.getDailySunrise());
+            Assert.assertArrayEquals("wrong daily time",
+                    expected.getDailyTime(), actual.getDailyTime());
+            Assert.assertArrayEquals("wrong daily maximal temperature",
+                    expected.getDailyTemperatureMax(), actual.getDailyTemperatureMax(), 0.0001f);
+            Assert.assertArrayEquals("wrong daily precipitation",
+                    expected.getDailyPrecipitationSum(), actual.getDailyPrecipitationSum(), 0.0001f);
+            Assert.assertArrayEquals("wrong daily weather codes",
+                    expected.getDailyWeatherCode(), actual.getDailyWeatherCode());
+            Assert.assertArrayEquals("wrong uv index",
+                    expected.getDailyUvIndexMax(), actual.getDailyUvIndexMax(), 0.0001f);
+            Assert.assertEquals("omitted column should stay empty",
+                    0, actual.getHourlyWindSpeed().length);
+        }
+    }
+
+    @Test
+    public void missingValuesStayMissing() throws IOException {
+        Forecast actual = roundTrip(createForecast(), true);
+
+        Assert.assertTrue("missing temperature should stay missing",
+                Float.isNaN(actual.getHourlyTemperature(2)));
+        Assert.assertEquals("value after missing one is wrong",
+                -3.5f, actual.getHourlyTemperature(3), 0.0001f);
+    }
+
+    @Test
+    public void byteArrayRoundTripKeepsValues() throws IOException {
+        Forecast expected = createForecast();
+
+        Forecast actual = ForecastSnapshot.fromByteArray(ForecastSnapshot.toByteArray(expected));
+
+        Assert.assertArrayEquals("wrong hourly time",
+                expected.getHourlyTime(), actual.getHourlyTime());
+        Assert.assertArrayEquals("wrong hourly rain",
+                expected.getHourlyRain(), actual.getHourlyRain(), 0.0001f);
+        Assert.assertArrayEquals("wrong daily time",
+                expected.getDailyTime(), actual.getDailyTime());
+    }
+
+    @Test
+    public void regularSeriesIsSmallerThanJson() throws IOException {
+        Forecast forecast = new Forecast();
+        long[] time = new long[168];
+        float[] temperature = new float[time.length];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = 1700000000L + i * 3600L;
+            temperature[i] = 10f + (i % 24) / 10f;
+        }
+        forecast.setHourlyTime(time);
+        forecast.setHourlyTemperature(temperature);
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ForecastSnapshot.write(forecast, output, false);
+
+        // every hour takes at least 16 bytes as json ("1700000000,10.1,")
+        Assert.assertTrue("snapshot is too big: " + output.size(),
+                output.size() < time.length * 2 + 64);
+    }
+
+    @Test
+    public void otherVersionIsRejected() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ForecastSnapshot.write(createForecast(), output, false);
+        byte[] bytes = output.toByteArray();
+        bytes[4] = (byte) (ForecastSnapshot.SCHEMA_VERSION + 1);
+
+        try {
+            ForecastSnapshot.read(new ByteArrayInputStream(bytes));
+            Assert.fail("snapshot with other schema version should be rejected");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    @Test
+    public void tooLongColumnIsRejected() throws IOException {
+        Forecast forecast = new Forecast();
+        long[] time = new long[ForecastSnapshot.MAX_COLUMN_LENGTH];
+        for (int i = 0; i < time.length; i++) {
+            time[i] = i * 900L;
+        }
+        forecast.setHourlyTime(time);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ForecastSnapshot.write(forecast, output, false);
+        byte[] bytes = output.toByteArray();
+
+        // replace varint of the hourly length by a bigger one of the same size
+        int position = indexOf(bytes, new byte[]{(byte) 0x80, 0x0C});
+        Assert.assertTrue("length of hourly column not found", position > 0);
+        bytes[position] = (byte) 0xFF;
+        bytes[position + 1] = 0x7F;
+        try {
+            ForecastSnapshot.read(new ByteArrayInputStream(bytes));
+            Assert.fail("snapshot with too long column should be rejected");
+        } catch (IOException e) {
+            Assert.assertTrue("wrong error: " + e.getMessage(),
+                    e.getMessage().endsWith("column length 16383"));
+        }
+
+        forecast.setHourlyTime(new long[ForecastSnapshot.MAX_COLUMN_LENGTH + 1]);
+        try {
+            ForecastSnapshot.write(forecast, new ByteArrayOutputStream(), false);
+            Assert.fail("too long column should not be written");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            boolean found = true;
+            for (int j = 0; j < part.length && found; j++) {
+                found = bytes[i + j] == part[j];
+            }
+            if (found) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static Forecast roundTrip(Forecast forecast, boolean deflate) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        ForecastSnapshot.write(forecast, output, deflate);
+        return ForecastSnapshot.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    private static Forecast createForecast() {
+        Forecast forecast = new Forecast();
+        forecast.setLatitude(50.08);
+        forecast.setLongitude(14.42);
+        forecast.setCurrentTime(1700003600L);
+        forecast.setCurrentTemperature(1.5f);
+        forecast.setCurrentWeatherCode(61);
+        forecast.setHourlyTime(new long[]{1700000000L, 1700003600L, 1700007200L, 1700010800L});
+        forecast.setHourlyTemperature(new float[]{1.2f, 1.5f, Float.NaN, -3.5f});
+        forecast.setHourlyPressure(new float[]{1013.2f, 1012.9f, 1012.5f, 1011.0f});
+        forecast.setHourlyRain(new float[]{0f, 0.25f, 1.1f, 0f});
+        forecast.setHourlyWeatherCode(new int[]{3, 61, 63, -1});
+        forecast.setMinutely15Time(new long[]{1700000900L, 1700001800L, 1700002700L});
+        forecast.setMinutely15Precipitation(new float[]{0f, 0.3f, Float.NaN});
+        forecast.setMinutely15Temperature(new float[]{1.2f, 1.3f, 1.4f});
+        // days around a DST change are not regular
+        forecast.setDailyTime(new long[]{1699916400L, 1700002800L, 1700085600L});
+        forecast.setDailyTemperatureMax(new float[]{4.2f, Float.NaN, 6.1f});
+        forecast.setDailyTemperatureMin(new float[]{-1.3f, 0.5f, 2f});
+        forecast.setDailyPrecipitationSum(new float[]{0f, 12.35f, 0.4f});
+        forecast.setDailyWindSpeedMax(new float[]{14.8f, 22.3f, 9.1f});
+        forecast.setDailyWeatherCode(new int[]{3, 65, 61});
+        forecast.setDailySunrise(new long[]{1699983000L, 1700069520L});
+        forecast.setDailySunset(new long[]{1700016000L, 1700102340L});
+        forecast.setDailyUvIndexMax(new float[]{1.35f, 0.9f});
+        return forecast;
+    }
+}
@@ -0,0 +1,207 @@
+package cz.martykan.forecastie.weatherapi;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import okhttp3.mockwebserver.SocketPolicy;
+import okio.Buffer;
+import okio.Okio;
+
+/**
+ * Local Open-Meteo replaying recorded forecast and geocoding responses from
+ * {@code src/test/resources/openmeteo}.
+ * <br/>
+ * Responses may be delayed, throttled, refused with 429 or cut in the middle of the body. Requests
+ * of both endpoints are sent to this server between {@link #start()} and {@link #close()}, so
+ * the whole fetch and parse pipeline runs offline. Use {@link #beginRefresh()} and
+ * {@link #endRefresh(String)} to measure one refresh.
+ */
+public class MockOpenMeteoServer implements Closeable {
+    public enum Failure {
+        NONE,
+        TOO_MANY_REQUESTS,
+        TRUNCATED_BODY
+    }
+
+    private final MockWebServer server = new MockWebServer();
+    private final byte[] forecast;
+    private final byte[] geocoding;
+    private final AtomicInteger requestCount = new AtomicInteger();
+    private final AtomicLong byteCount = new AtomicLong();
+
+    private volatile long latencyMillis;
+    private volatile long throttleBytes;
+    private volatile long throttlePeriodMillis;
+    private volatile Failure failure = Failure.NONE;
+
+    private int refreshRequestCount;
+    private long refreshByteCount;
+    private long refreshStart;
+
+    public MockOpenMeteoServer() throws IOException {
+        forecast = readResource("openmeteo/forecast.json");
+        geocoding = readResource("openmeteo/geocoding.json");
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                return respond(request);
+            }
+        });
+    }
+
+    /** Start server and send requests of the app to it. */
+    public void start() throws IOException {
+        server.start();
+        OpenMeteoApi.setEndpoints(server.url("/v1/forecast").toString(),
+                server.url("/v1/search").toString());
+    }
+
+    @Override
+    public void close() throws IOException {
+        OpenMeteoApi.resetEndpoints();
+        server.shutdown();
+    }
+
+    /** @param latencyMillis delay before headers of every response */
+    public void setLatency(long latencyMillis) {
+        this.latencyMillis = latencyMillis;
+    }
+
+    /**
+     * Send bodies at most {@code bytes} per {@code periodMillis}.
+     * @param bytes bytes sent at once or {@code 0} to send bodies at full speed
+     */
+    public void setThrottle(long bytes, long periodMillis) {
+        this.throttleBytes = bytes;
+        this.throttlePeriodMillis = periodMillis;
+    }
+
+    public void setFailure(@NonNull Failure failure) {
+        this.failure = failure;
+    }
+
+    /** @return size of recorded forecast response in bytes */
+    public int getForecastSize() {
+        return forecast.length;
+    }
+
+    /** @return next request received by the server */
+    @NonNull
+    public RecordedRequest takeRequest() throws InterruptedException {
+        return server.takeRequest();
+    }
+
+    public void beginRefresh() {
+        refreshRequestCount = requestCount.get();
+        refreshByteCount = byteCount.get();
+        refreshStart = System.nanoTime();
+    }
+
+    /**
+     * Finish measurement started by {@link #beginRefresh()}. Put the report into assertion
+     * messages to see it when a test fails.
+     * @param name name of the refresh in the report
+     * @return requests, bytes and wall time of the refresh
+     */
+    @NonNull
+    public Report endRefresh(@NonNull String name) {
+        Report report = new Report(name, requestCount.get() - refreshRequestCount,
+                byteCount.get() - refreshByteCount,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - refreshStart));
+        return report;
+    }
+
+    @NonNull
+    private MockResponse respond(@NonNull RecordedRequest request) {
+        requestCount.incrementAndGet();
+        String path = request.getRequestUrl() != null ? request.getRequestUrl().encodedPath() : "";
+        byte[] body;
+        if ("/v1/forecast".equals(path)) {
+            body = forecast;
+        } else if ("/v1/search".equals(path)) {
+            body = geocoding;
+        } else {
+            return new MockResponse().setResponseCode(404);
+        }
+
+        MockResponse response = new MockResponse()
+                .setHeadersDelay(latencyMillis, TimeUnit.MILLISECONDS)
+                .setHeader("Content-Type", "application/json; charset=utf-8");
+        if (failure == Failure.TOO_MANY_REQUESTS) {
+            return response.setResponseCode(429)
+                    .setBody("{\"error\":true,\"reason\":\"Too many concurrent requests\"}");
+        }
+
+        response.setBody(new Buffer().write(body));
+        if (throttleBytes > 0) {
+            response.throttleBody(throttleBytes, throttlePeriodMillis, TimeUnit.MILLISECONDS);
+        }
+        if (failure == Failure.TRUNCATED_BODY) {
+            // server writes half of the body and disconnects
+            response.setSocketPolicy(SocketPolicy.DISCONNECT_DURING_RESPONSE_BODY);
+            byteCount.addAndGet(body.length / 2);
+        } else {
+            byteCount.addAndGet(body.length);
+        }
+        return response;
+    }
+
+    @NonNull
+    private static byte[] readResource(@NonNull String name) throws IOException {
+        InputStream input = MockOpenMeteoServer.class.getClassLoader().getResourceAsStream(name);
+        if (input == null) {
+            throw new IOException("Missing recorded response " + name);
+        }
+        try {
+            return Okio.buffer(Okio.source(input)).readByteArray();
+        } finally {
+            input.close();
+        }
+    }
+
+    /** Requests, bytes and wall time of one refresh. */
+    public static class Report {
+        private final String name;
+        private final int requestCount;
+        private final long byteCount;
+        private final long wallTimeMillis;
+
+        Report(@NonNull String name, int requestCount, long byteCount, long wallTimeMillis) {
+            this.name = name;
+            this.requestCount = requestCount;
+            this.byteCount = byteCount;
+            this.wallTimeMillis = wallTimeMillis;
+        }
+
+        public int getRequestCount() {
+            return requestCount;
+        }
+
+        /** @return bytes of response bodies sent by the server */
+        public long getByteCount() {
+            return byteCount;
+        }
+
+        public long getWallTimeMillis() {
+            return wallTimeMillis;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return name + ": " + requestCount + " requests, " + byteCount + " bytes, "
+                    + wallTimeMillis + " ms";
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package cz.martykan.forecastie.weatherapi;
+
+import android.content.Context;
+import android.preference.PreferenceManager;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+
+import cz.martykan.forecastie.models.Forecast;
+import cz.martykan.forecastie.models.Weather;
+import okio.Buffer;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class WeatherStorageTests {
+    private static final String FORECAST = "{\"latitude\": 50.0, \"longitude\": 14.5,"
+            + " \"current_weather\": {\"time\": 3600, \"temperature\": 21.5, \"weathercode\": 3,"
+            + " \"windspeed\": 4.0, \"winddirection\": 90},"
+            + " \"hourly_units\": {\"time\": \"unixtime\"},"
+            + " \"hourly\": {\"time\": [0, 3600, 7200], \"temperature_2m\": [20.0, 21.5, null],"
+            + " \"relativehumidity_2m\": [70, 65, 60], \"precipitation_probability\": [10, 20, 30]},"
+            + " \"minutely_15\": {\"time\": [0, 900], \"precipitation\": [0.0, 0.4],"
+            + " \"temperature_2m\": [20.0, 20.1]},"
+            + " \"daily\": {\"sunrise\": [1000], \"sunset\": [2000], \"uv_index_max\": [5.5]}}\n";
+
+    private Context context;
+    private WeatherStorage weatherStorage;
+
+    @Before
+    public void setUp() {
+        context = ApplicationProvider.getApplicationContext();
+        weatherStorage = new WeatherStorage(context);
+    }
+
+    @Test
+    public void storeForecastParsesResponse() throws IOException, JSONException {
+        Forecast forecast = weatherStorage.storeForecast(new Buffer().writeUtf8(FORECAST));
+
+        Assert.assertEquals("wrong number of hours", 3, forecast.getHourlyCount());
+        Assert.assertEquals("wrong current hour", 1, forecast.getCurrentHourIndex());
+        Assert.assertTrue("null temperature should be missing",
+                Float.isNaN(forecast.getHourlyTemperature(2)));
+        Assert.assertTrue("omitted column should be missing",
+                Float.isNaN(forecast.getHourlyPressure(0)));
+        Assert.assertEquals("wrong uv index", 5.5f, forecast.getDailyUvIndexMax(0), 0.001f);
+        Assert.assertEquals("wrong number of 15 minute steps", 2, forecast.getMinutely15Count());
+        Assert.assertEquals("wrong 15 minute precipitation",
+                0.4f, forecast.getMinutely15Precipitation(1), 0.001f);
+    }
+
+    @Test
+    public void storedForecastIsReadBack() throws IOException, JSONException {
+        weatherStorage.storeForecast(new Buffer().writeUtf8(FORECAST));
+
+        Weather today = new WeatherStorage(context).getLastToday();
+
+        Assert.assertNotNull("stored forecast should be read back", today);
+        Assert.assertEquals("wrong temperature", 21.5 + 273.15, today.getTemperature(), 0.001);
+        Assert.assertEquals("humidity should be taken from current hour", 65, today.getHumidity());
+        Assert.assertEquals("wrong chance of precipitation",
+                0.2, today.getChanceOfPrecipitation(), 0.001);
+        Assert.assertEquals("wrong sunrise", 1000000L, today.getSunrise());
+    }
+
+    @Test
+    public void invalidResponseKeepsStoredForecast() throws IOException, JSONException {
+        weatherStorage.storeForecast(new Buffer().writeUtf8(FORECAST));
+
+        try {
+            weatherStorage.storeForecast(new Buffer().writeUtf8("{\"hourly\": {\"time\": [1, 2"));
+            Assert.fail("truncated response should not be parsed");
+        } catch (IOException | JSONException expected) {
+            // expected
+        }
+
+        Forecast forecast = weatherStorage.getLastForecast();
+        Assert.assertNotNull("previous forecast should be kept", forecast);
+        Assert.assertEquals("previous forecast should be kept", 3, forecast.getHourlyCount());
+    }
+
+    @Test
+    public void legacyForecastIsReadAndRemovedOnStore() throws IOException, JSONException {
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putString("lastLongterm", FORECAST)
+                .putString("lastToday", FORECAST)
+                .commit();
+
+        Forecast legacy = weatherStorage.getLastForecast();
+        Assert.assertNotNull("legacy forecast should be read", legacy);
+        Assert.assertEquals("wrong number of hours", 3, legacy.getHourlyCount());
+
+        weatherStorage.storeForecast(new Buffer().writeUtf8(FORECAST));
+        Assert.assertFalse("legacy forecast should be removed",
+                PreferenceManager.getDefaultSharedPreferences(context).contains("lastToday"));
+    }
+
+    @Test
+    public void editIsVisibleAtOnceAfterApply() {
+        WeatherStorage.Editor editor = weatherStorage.edit()
+                .setLatitude(48.2)
+                .setLongitude(16.37)
+                .setCity("Vienna")
+                .setCountry("Austria");
+
+        Assert.assertNull("location shouldn't change before apply", weatherStorage.getLatitude());
+        Assert.assertEquals("location shouldn't change before apply", "", weatherStorage.getCity());
+
+        editor.apply();
+
+        WeatherStorage other = new WeatherStorage(context);
+        Assert.assertEquals("wrong latitude", 48.2, other.getLatitude(0), 0.0001);
+        Assert.assertEquals("wrong longitude", 16.37, other.getLongitude(0), 0.0001);
+        Assert.assertEquals("wrong city", "Vienna", other.getCity());
+        Assert.assertEquals("wrong country", "Austria", other.getCountry());
+    }
+}
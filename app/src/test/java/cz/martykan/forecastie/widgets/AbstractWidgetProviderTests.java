@@ -0,0 +1,98 @@
+package cz.martykan.forecastie.widgets;
+
+import android.appwidget.AppWidgetManager;
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import cz.martykan.forecastie.utils.AllocationMeter;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34)
+public class AbstractWidgetProviderTests {
+    /**
+     * Bytes every other widget may add to an update with unchanged weather. Weather is read and
+     * formatted once for all widgets and unchanged widgets are skipped, so more widgets should
+     * cost almost nothing.
+     */
+    private static final long WIDGET_BUDGET_BYTES = 512;
+    private static final int WIDGETS = 8;
+    private static final int UPDATES = 50;
+
+    private Context context;
+    private AppWidgetManager appWidgetManager;
+    private final List<int[]> createdIds = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        context = ApplicationProvider.getApplicationContext();
+        InputStream input = getClass().getClassLoader().getResourceAsStream("openmeteo/forecast.json");
+        new WeatherStorage(context).storeForecast(Okio.buffer(Okio.source(input)));
+        appWidgetManager = AppWidgetManager.getInstance(context);
+    }
+
+    @After
+    public void tearDown() {
+        for (int[] ids : createdIds) {
+            WidgetRenderer.forget(ids);
+        }
+    }
+
+    @Test
+    public void updateStaysWithinBudget() {
+        AllocationMeter.assumeSupported();
+        for (AbstractWidgetProvider provider : WidgetRenderer.PROVIDERS) {
+            assertUpdateWithinBudget(provider);
+        }
+    }
+
+    private void assertUpdateWithinBudget(final AbstractWidgetProvider provider) {
+        String name = provider.getClass().getSimpleName() + ".onUpdate";
+        final int[] one = createWidgets(provider, 1);
+        final int[] all = createWidgets(provider, WIDGETS);
+
+        AllocationMeter.Measurement oneUpdate = AllocationMeter.measure(name + ", 1 widget",
+                UPDATES, new Runnable() {
+                    @Override
+                    public void run() {
+                        provider.onUpdate(context, appWidgetManager, one);
+                    }
+                });
+        AllocationMeter.Measurement allUpdate = AllocationMeter.measure(
+                name + ", " + WIDGETS + " widgets", UPDATES, new Runnable() {
+                    @Override
+                    public void run() {
+                        provider.onUpdate(context, appWidgetManager, all);
+                    }
+                });
+
+        long widgetBytes = (allUpdate.getBytesPerCall() - oneUpdate.getBytesPerCall()) / (WIDGETS - 1);
+        Assert.assertTrue(name + " allocates " + widgetBytes + " bytes for every other widget, "
+                        + oneUpdate + ", " + allUpdate,
+                widgetBytes <= WIDGET_BUDGET_BYTES);
+    }
+
+    private int[] createWidgets(AbstractWidgetProvider provider, int count) {
+        int[] ids = Shadows.shadowOf(appWidgetManager)
+                .createWidgets(provider.getClass(), provider.getLayoutId(), count);
+        createdIds.add(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,156 @@
+package cz.martykan.forecastie.widgets;
+
+import android.appwidget.AppWidgetManager;
+import android.content.Context;
+import android.preference.PreferenceManager;
+import android.widget.RemoteViews;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Shadows;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.Implementation;
+import org.robolectric.annotation.Implements;
+import org.robolectric.shadows.ShadowAppWidgetManager;
+import org.robolectric.shadows.ShadowSystemClock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import cz.martykan.forecastie.activities.MainActivity;
+import cz.martykan.forecastie.weatherapi.WeatherStorage;
+import okio.Buffer;
+import okio.Okio;
+
+@RunWith(AndroidJUnit4.class)
+@Config(sdk = 34, shadows = WidgetRendererTests.CountingAppWidgetManager.class)
+public class WidgetRendererTests {
+    private Context context;
+    private String forecast;
+    private AbstractWidgetProvider provider;
+    private int[] ids;
+
+    @Before
+    public void setUp() throws IOException, JSONException {
+        context = ApplicationProvider.getApplicationContext();
+        InputStream input = getClass().getClassLoader().getResourceAsStream("openmeteo/forecast.json");
+        forecast = Okio.buffer(Okio.source(input)).readUtf8();
+        storeForecast(forecast);
+        MainActivity.saveLastUpdateTime(PreferenceManager.getDefaultSharedPreferences(context));
+
+        provider = new SimpleWidgetProvider();
+        ids = Shadows.shadowOf(AppWidgetManager.getInstance(context))
+                .createWidgets(provider.getClass(), provider.getLayoutId(), 1);
+        WidgetRenderer.render(context, provider, ids);
+        CountingAppWidgetManager.reset();
+    }
+
+    @After
+    public void tearDown() {
+        WidgetRenderer.forget(ids);
+    }
+
+    @Test
+    public void unchangedWidgetIsSkipped() {
+        WidgetRenderer.render(context, provider, ids);
+
+        Assert.assertEquals("unchanged widget was updated", 0, CountingAppWidgetManager.fullUpdates);
+        Assert.assertEquals("unchanged widget was updated", 0, CountingAppWidgetManager.partialUpdates);
+    }
+
+    @Test
+    public void unchangedExtensiveWidgetIsSkippedLater() {
+        ExtensiveWidgetProvider extensiveProvider = new ExtensiveWidgetProvider();
+        int[] extensiveIds = Shadows.shadowOf(AppWidgetManager.getInstance(context))
+                .createWidgets(extensiveProvider.getClass(), extensiveProvider.getLayoutId(), 1);
+        try {
+            WidgetRenderer.render(context, extensiveProvider, extensiveIds);
+            CountingAppWidgetManager.reset();
+            // last update shows time of the fetch, not of the render
+            ShadowSystemClock.advanceBy(Duration.ofMinutes(5));
+
+            WidgetRenderer.render(context, extensiveProvider, extensiveIds);
+
+            Assert.assertEquals("unchanged extensive widget was updated", 0,
+                    CountingAppWidgetManager.fullUpdates);
+            Assert.assertEquals("unchanged extensive widget was updated", 0,
+                    CountingAppWidgetManager.partialUpdates);
+        } finally {
+            WidgetRenderer.forget(extensiveIds);
+        }
+    }
+
+    @Test
+    public void changedTextsArePartiallyUpdated() throws IOException, JSONException {
+        storeForecast(forecast.replace("\"current_weather\": {\"temperature\": 9.6",
+                "\"current_weather\": {\"temperature\": 12.4"));
+
+        WidgetRenderer.render(context, provider, ids);
+
+        Assert.assertEquals("widget with new texts was updated as a whole", 0,
+                CountingAppWidgetManager.fullUpdates);
+        Assert.assertEquals("new texts were not pushed", 1, CountingAppWidgetManager.partialUpdates);
+    }
+
+    @Test
+    public void changedFrameIsFullyUpdated() {
+        PreferenceManager.getDefaultSharedPreferences(context).edit()
+                .putString("theme", "dark")
+                .commit();
+
+        WidgetRenderer.render(context, provider, ids);
+
+        Assert.assertEquals("widget with new background was not updated as a whole", 1,
+                CountingAppWidgetManager.fullUpdates);
+        Assert.assertEquals("widget with new background was updated partially", 0,
+                CountingAppWidgetManager.partialUpdates);
+    }
+
+    @Test
+    public void forgottenWidgetIsFullyUpdated() {
+        WidgetRenderer.forget(ids);
+
+        WidgetRenderer.render(context, provider, ids);
+
+        Assert.assertEquals("forgotten widget was not updated as a whole", 1,
+                CountingAppWidgetManager.fullUpdates);
+    }
+
+    private void storeForecast(String json) throws IOException, JSONException {
+        new WeatherStorage(context).storeForecast(new Buffer().writeUtf8(json));
+    }
+
+    /** Counts updates pushed to widgets. */
+    @Implements(AppWidgetManager.class)
+    public static class CountingAppWidgetManager extends ShadowAppWidgetManager {
+        static int fullUpdates;
+        static int partialUpdates;
+
+        static void reset() {
+            fullUpdates = 0;
+            partialUpdates = 0;
+        }
+
+        @Implementation
+        @Override
+        protected void updateAppWidget(int appWidgetId, RemoteViews views) {
+            fullUpdates++;
+            super.updateAppWidget(appWidgetId, views);
+        }
+
+        @Implementation
+        @Override
+        protected void partiallyUpdateAppWidget(int appWidgetId, RemoteViews views) {
+            partialUpdates++;
+            super.partiallyUpdateAppWidget(appWidgetId, views);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package cz.martykan.forecastie.widgets;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+public class WidgetUpdateSchedulerTests {
+    private static final TimeZone PRAGUE = TimeZone.getTimeZone("Europe/Prague");
+
+    @Test
+    public void nextDayStartsAtLocalMidnight() {
+        Assert.assertEquals("wrong start of the next day", 1704063600000L,
+                WidgetUpdateScheduler.getNextDayStart(createCalendar(2023, Calendar.DECEMBER, 31, 18, 0)));
+        Assert.assertEquals("just before midnight the next day should start at midnight", 1704063600000L,
+                WidgetUpdateScheduler.getNextDayStart(createCalendar(2023, Calendar.DECEMBER, 31, 23, 59)));
+        Assert.assertEquals("at midnight the next day should be tomorrow", 1704150000000L,
+                WidgetUpdateScheduler.getNextDayStart(createCalendar(2024, Calendar.JANUARY, 1, 0, 0)));
+    }
+
+    @Test
+    public void nextDayStartFollowsDaylightSavingTime() {
+        // clocks go forward at 2:00 on 26 March 2023
+        Assert.assertEquals("day before the change should end at midnight of winter time", 1679785200000L,
+                WidgetUpdateScheduler.getNextDayStart(createCalendar(2023, Calendar.MARCH, 25, 12, 0)));
+        Assert.assertEquals("day of the change should end at midnight of summer time", 1679868000000L,
+                WidgetUpdateScheduler.getNextDayStart(createCalendar(2023, Calendar.MARCH, 26, 12, 0)));
+    }
+
+    private static Calendar createCalendar(int year, int month, int day, int hour, int minute) {
+        Calendar calendar = Calendar.getInstance(PRAGUE);
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute);
+        return calendar;
+    }
+}